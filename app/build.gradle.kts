@@ -12,6 +12,9 @@ plugins {
      * The runnable jar will be found in build/libs/projectname-all.jar
      */
     id("com.github.johnrengelman.shadow") version "7.0.0"
+
+    // Adds the benchmarks in src/jmh, which can be run with the "jmh" task.
+    id("me.champeau.jmh") version "0.6.6"
 }
 
 repositories {
@@ -30,6 +33,8 @@ val javaFXModules = listOf(
 val supportedPlatforms = listOf("linux", "mac", "win") // All required for OOP
 val jUnitVersion = "5.7.1"
 val javaFxVersion = 15
+// The DSP kernels use the vector API when this module is added, and plain loops otherwise
+val vectorModule = listOf("--add-modules", "jdk.incubator.vector")
 
 dependencies {
     // JavaFX: comment out if you do not need them
@@ -53,14 +58,30 @@ dependencies {
 
 tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
+    options.compilerArgs.addAll(vectorModule)
 }
 
 tasks.withType<Test> {
     // Enables JUnit 5 Jupiter module
     useJUnitPlatform()
+    jvmArgs(vectorModule)
 }
 
 application {
     // Define the main class for the application.
     mainClass.set("resplan.Starter")
+    applicationDefaultJvmArgs = vectorModule
+}
+
+// Renders projects without the user interface, for example: ./gradlew batchRender --args="--out renders episode.json"
+tasks.register<JavaExec>("batchRender") {
+    group = "application"
+    description = "Renders projects to WAV files without the user interface."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("resplan.BatchRender")
+    jvmArgs(vectorModule)
+}
+
+jmh {
+    jvmArgs.set(vectorModule)
 }
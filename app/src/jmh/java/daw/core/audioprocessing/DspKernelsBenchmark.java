@@ -0,0 +1,147 @@
+package daw.core.audioprocessing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the loops that the channel strip and the gate used to run one frame at a time with the
+ * plain and the vector implementations of the {@link Kernels}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DspKernelsBenchmark {
+
+    private static final int CHANNELS = 2;
+
+    @Param({"64", "128", "256", "512", "1024", "2048"})
+    private int frames;
+
+    private final Kernels scalar = new ScalarKernels();
+    private final Kernels vector = new VectorKernels();
+    private float[][] in;
+    private float[][] out;
+    private float[] envelope;
+    private float[][] delayMem;
+    private int index;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        this.in = new float[CHANNELS][this.frames];
+        this.out = new float[CHANNELS][this.frames];
+        this.envelope = new float[this.frames];
+        for (int i = 0; i < this.frames; i++) {
+            for (int c = 0; c < CHANNELS; c++) {
+                this.in[c][i] = random.nextFloat() * 2 - 1;
+            }
+            this.envelope[i] = random.nextFloat();
+        }
+        this.delayMem = new float[CHANNELS][1];
+    }
+
+    // the mute and the fader ramped frame by frame, then the pan law
+    @Benchmark
+    public float[][] rampFrameLoop() {
+        final float muteStep = -1.0f / this.frames;
+        final float gainStep = -0.5f / this.frames;
+        float mute = 1.0f;
+        float gain = 1.0f;
+        for (int i = 0; i < this.frames; i++) {
+            mute += muteStep;
+            gain += gainStep;
+            final float amp = mute * gain;
+            this.out[0][i] = this.in[0][i] * 0.7f * amp;
+            this.out[1][i] = this.in[1][i] * 0.7f * amp;
+        }
+        return this.out;
+    }
+
+    @Benchmark
+    public float[][] rampScalar() {
+        return this.ramp(this.scalar);
+    }
+
+    @Benchmark
+    public float[][] rampVector() {
+        return this.ramp(this.vector);
+    }
+
+    private float[][] ramp(final Kernels kernels) {
+        kernels.ramp(this.in[0], 0.7f, 0.0f, this.out[0], this.frames);
+        kernels.ramp(this.in[1], 0.7f, 0.0f, this.out[1], this.frames);
+        return this.out;
+    }
+
+    // the gain of the gate applied through its delay memory, with a modulo for every frame
+    @Benchmark
+    public float[][] envelopeModuloLoop() {
+        final int memSize = this.delayMem[0].length;
+        for (int i = 0; i < this.frames; i++) {
+            final int delIndex = this.index % memSize;
+            for (int j = 0; j < CHANNELS; j++) {
+                this.delayMem[j][this.index] = this.in[j][i];
+                this.out[j][i] = this.delayMem[j][delIndex] * this.envelope[i];
+            }
+            this.index = (this.index + 1) % memSize;
+        }
+        return this.out;
+    }
+
+    @Benchmark
+    public float[][] envelopeScalar() {
+        return this.applyEnvelope(this.scalar);
+    }
+
+    @Benchmark
+    public float[][] envelopeVector() {
+        return this.applyEnvelope(this.vector);
+    }
+
+    private float[][] applyEnvelope(final Kernels kernels) {
+        for (int j = 0; j < CHANNELS; j++) {
+            kernels.applyEnvelope(this.in[j], this.envelope, this.out[j], this.frames);
+        }
+        return this.out;
+    }
+
+    @Benchmark
+    public float[][] sumIntoScalar() {
+        this.scalar.sumInto(this.in[0], this.out[0], this.frames);
+        return this.out;
+    }
+
+    @Benchmark
+    public float[][] sumIntoVector() {
+        this.vector.sumInto(this.in[0], this.out[0], this.frames);
+        return this.out;
+    }
+
+    @Benchmark
+    public void levelsScalar(final Blackhole blackhole) {
+        blackhole.consume(this.scalar.peak(this.in[0], this.frames));
+        blackhole.consume(this.scalar.rms(this.in[0], this.frames));
+    }
+
+    @Benchmark
+    public void levelsVector(final Blackhole blackhole) {
+        blackhole.consume(this.vector.peak(this.in[0], this.frames));
+        blackhole.consume(this.vector.rms(this.in[0], this.frames));
+    }
+
+}
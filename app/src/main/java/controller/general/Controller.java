@@ -1,9 +1,14 @@
 package controller.general;
 
+import daw.core.analysis.LoudnessReport;
 import daw.core.audioprocessing.ProcessingUnit;
+import daw.core.channel.MeterReading;
 import daw.core.channel.RPChannel;
 import daw.core.clip.ClipNotFoundException;
+import daw.core.profiling.LoadReport;
 import daw.manager.ImportException;
+import daw.utilities.EngineProfile;
+import daw.utilities.RPPair;
 import net.beadsproject.beads.data.Sample;
 import planning.Speaker;
 import view.common.App;
@@ -13,6 +18,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Controller of the application. In the context of the MVC architectural pattern, the controller connects the view
@@ -36,6 +42,11 @@ public interface Controller {
      */
     String APP_SETTINGS = "settings.json";
 
+    /**
+     * Defines the directory, inside the working one, where the recorded takes are written.
+     */
+    String TAKES = "takes";
+
     /**
      * Specify the GUI that this controller has to manage.
      * @param app the {@link App}.
@@ -146,6 +157,45 @@ public interface Controller {
      */
     List<String> getChannelList();
 
+    /**
+     * Creates a return channel, which the other channels can send their audio to, so that its effects are run
+     * once for all of them.
+     * @param title the name of the return channel.
+     * @throws IllegalArgumentException if the name is empty or there is already a channel with that name.
+     */
+    void newReturnChannel(String title) throws IllegalArgumentException;
+
+    /**
+     * Deletes a return channel, together with the sends to it.
+     * @param title the name of the return channel.
+     */
+    void deleteReturnChannel(String title);
+
+    /**
+     * Gets the titles of all the return channels.
+     * @return a {@link List} of names of return channels.
+     */
+    List<String> getReturnChannelList();
+
+    /**
+     * Sends the audio of a channel to a return channel, or changes the send if there is already one.
+     * @param channel the name of the channel.
+     * @param returnChannel the name of the return channel.
+     * @param level the gain applied to the sent audio, between 0 and 1.
+     * @param preFader true if the audio is taken before the volume of the channel.
+     * @throws IllegalArgumentException if the channel is a return channel itself or the level is not between 0 and 1.
+     * @throws NoSuchElementException if one of the channels does not exist.
+     */
+    void setSend(String channel, String returnChannel, float level, boolean preFader);
+
+    /**
+     * Stops sending the audio of a channel to a return channel.
+     * @param channel the name of the channel.
+     * @param returnChannel the name of the return channel.
+     * @throws NoSuchElementException if the return channel does not exist.
+     */
+    void removeSend(String channel, String returnChannel);
+
     /**
      * Gets all the clips contained in the given channel.
      * @param channel the name of a channel.
@@ -300,6 +350,18 @@ public interface Controller {
      */
     void deleteSection(Double time);
 
+    /**
+     * Undoes the last edit made to the project and updates the view accordingly.
+     * @throws IllegalStateException if there is nothing to undo.
+     */
+    void undo() throws IllegalStateException;
+
+    /**
+     * Redoes the last undone edit and updates the view accordingly.
+     * @throws IllegalStateException if there is nothing to redo.
+     */
+    void redo() throws IllegalStateException;
+
     /**
      * Starts the recorder.
      */
@@ -317,6 +379,78 @@ public interface Controller {
      */
     void writeRecordingOnFile(File file) throws IOException;
 
+    /**
+     * Arms a channel for the multitrack recording, replacing its inputs if it is already armed.
+     * @param channel the name of the channel.
+     * @param inputs the channels of the audio input to record, one for each channel of the recorded clip.
+     * @throws IllegalArgumentException if no input is given or an input is negative.
+     * @throws IllegalStateException if the multitrack recording is running.
+     */
+    void armChannel(String channel, int... inputs);
+
+    /**
+     * Disarms a channel for the multitrack recording.
+     * @param channel the name of the channel.
+     * @throws IllegalStateException if the multitrack recording is running.
+     */
+    void disarmChannel(String channel);
+
+    /**
+     *
+     * @return the names of the channels armed for the multitrack recording.
+     */
+    Set<String> getArmedChannels();
+
+    /**
+     * Sets the range of the timeline that the multitrack recording records.
+     * @param punch the punch in and punch out times in milliseconds, or an empty {@link Optional} to record
+     *              for as long as the playback runs.
+     * @throws IllegalArgumentException if the punch out is not after the punch in.
+     * @throws IllegalStateException if the multitrack recording is running.
+     */
+    void setPunch(Optional<RPPair<Double, Double>> punch);
+
+    /**
+     * Starts recording the armed channels straight to disk and starts the playback, which the recording follows.
+     * @throws IOException if the files of the takes cannot be created.
+     * @throws IllegalStateException if the multitrack recording is running or no channel is armed.
+     */
+    void startMultitrackRecording() throws IOException;
+
+    /**
+     * Stops the multitrack recording, leaving the playback running, and puts each take into its channel as a new
+     * clip, at the time it was recorded at, in place of what was on the channel. All the takes are a single edit,
+     * which is undone at once.
+     * @return the names of the new clips.
+     * @throws IOException if a take could not be written, or could not be loaded once the others have been put
+     * in place.
+     * @throws IllegalStateException if the multitrack recording is not running.
+     */
+    List<String> stopMultitrackRecording() throws IOException;
+
+    /**
+     * Starts playing the armed inputs of a channel through the effects, the volume and the pan of the channel,
+     * on a path with much smaller buffers than the playback, so that the performer can hear them while they are
+     * recorded. The monitoring of any other channel is stopped.
+     * If the audio input of the device cannot be opened twice, the inputs are monitored through the playback
+     * instead, with its latency.
+     * @param channel the name of an armed channel.
+     * @throws IllegalArgumentException if the channel is not armed.
+     */
+    void startMonitoring(String channel);
+
+    /**
+     * Stops the monitoring of the input, if it is running.
+     */
+    void stopMonitoring();
+
+    /**
+     * Gets the time the monitored input takes to be heard, which depends on the buffer size of the monitoring
+     * and on the effects of the monitored channel.
+     * @return the latency of the monitoring in milliseconds.
+     */
+    double getMonitoringLatency();
+
     /**
      * Starts the export of the project.
      * @param startTime the position in the timeline from which export has to start.
@@ -331,6 +465,29 @@ public interface Controller {
      */
     void stopExport(File file) throws IOException;
 
+    /**
+     * Sets the integrated loudness that the exported audio must reach. When the export is stopped, its loudness
+     * is measured and a static gain is applied to it, so that it reaches the given loudness.
+     * @param loudness the integrated loudness in LUFS, for example -16 for podcasts, or an empty {@link Optional}
+     *                 to export the audio as it is.
+     */
+    void setExportLoudness(Optional<Double> loudness);
+
+    /**
+     * Measures the loudness of the content of the given clip.
+     * @param clip the name of a clip.
+     * @return the {@link LoudnessReport} of the clip, or an empty {@link Optional} if the clip has no content.
+     */
+    Optional<LoudnessReport> analyzeClipLoudness(String clip);
+
+    /**
+     * Measures the loudness of an audio file, such as an exported project.
+     * @param file the audio file.
+     * @return the {@link LoudnessReport} of the file.
+     * @throws IOException if the file cannot be read.
+     */
+    LoudnessReport analyzeLoudness(File file) throws IOException;
+
     /**
      * Inverts the muteness of the given channel. This means that if the channel is currently disabled (muted),
      * then this method enables it. On the other hand, if the channel is currently enabled (not muted), then
@@ -413,6 +570,61 @@ public interface Controller {
      */
     void setPan(String channel, float value);
 
+    /**
+     * Reads the meter of the given channel, which is meant to be polled by the view at display rate.
+     * @param channel the name of a channel.
+     * @return the {@link MeterReading} of what the channel has output since the previous reading.
+     */
+    MeterReading getMeterReading(String channel);
+
+    /**
+     * Reads the meter of the master channel, which is meant to be polled by the view at display rate.
+     * @return the {@link MeterReading} of what the master channel has output since the previous reading.
+     */
+    MeterReading getMasterMeterReading();
+
+    /**
+     * Starts or stops profiling how long the channels and their effects take to process their buffers.
+     * Starting it discards the previous profile.
+     * @param enabled true if the load must be profiled.
+     */
+    void setProfiling(boolean enabled);
+
+    /**
+     *
+     * @return true if the load is being profiled.
+     */
+    boolean isProfiling();
+
+    /**
+     * Gets the load of every channel, bus and type of effect since the profiling has been started.
+     * @return the {@link LoadReport}.
+     */
+    LoadReport getLoadReport();
+
+    /**
+     * Writes the current {@link LoadReport} to the given file as comma separated values.
+     * @param file the CSV file.
+     * @throws IOException if the file cannot be written.
+     */
+    void exportLoadReport(File file) throws IOException;
+
+    /**
+     *
+     * @return the {@link EngineProfile} the audio is run with.
+     */
+    EngineProfile getEngineProfile();
+
+    /**
+     * Restarts the audio engine with the given profile. The project is kept as it is, and the playback is
+     * resumed from the same position if it was playing. The project is built again for the new engine, so
+     * the edits made before the restart can no longer be undone. If the restart fails in any way, the project
+     * and the profile are left as they were.
+     * @param profile the new {@link EngineProfile}.
+     * @throws IOException if the project cannot be rebuilt for the new engine.
+     */
+    void setEngineProfile(EngineProfile profile) throws IOException;
+
     /**
      * Gets the processing unit of the given channel.
      * @param channel the name of a channel.
@@ -3,20 +3,36 @@ package controller.general;
 import controller.storing.RPFileReader;
 import controller.storing.Writer;
 import controller.storing.RPFileWriter;
+import daw.core.analysis.LoudnessAnalyzer;
+import daw.core.analysis.LoudnessReport;
 import daw.core.audioprocessing.*;
+import daw.core.channel.InputMonitor;
+import daw.core.channel.MeterReading;
+import daw.core.channel.RPChannel;
 import daw.core.clip.ClipNotFoundException;
+import daw.core.clip.MultitrackRecorder;
 import daw.core.clip.RPClip;
+import daw.core.clip.RPMultitrackRecorder;
 import daw.core.clip.RPRecorder;
 import daw.core.clip.Recorder;
+import daw.core.clip.SampleClip;
+import daw.core.clip.Take;
+import daw.core.profiling.DspProfiler;
+import daw.core.profiling.LoadReport;
 import daw.engine.Engine;
+import daw.engine.OfflineRenderer;
 import daw.engine.RPEngine;
 import daw.manager.ImportException;
 import daw.manager.Manager;
 import daw.utilities.AudioContextManager;
+import daw.utilities.EngineProfile;
+import daw.utilities.RPPair;
 import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
 import net.beadsproject.beads.data.Sample;
 import net.beadsproject.beads.data.audiofile.AudioFileType;
 import net.beadsproject.beads.data.audiofile.FileFormatException;
+import net.beadsproject.beads.data.audiofile.OperationUnsupportedException;
 import net.beadsproject.beads.ugens.RecordToSample;
 import planning.Element;
 import planning.RPPart;
@@ -31,6 +47,7 @@ import view.common.ViewDataImpl.Effect;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -54,7 +71,10 @@ public final class ControllerImpl implements Controller {
     private File currentProject;
     private final File appSettings = new File(WORKING_DIRECTORY + SEP + APP_SETTINGS);
     private RPRecorder recorder;
+    private RPMultitrackRecorder multitrackRecorder;
+    private InputMonitor monitor;
     private RecordToSample exporter;
+    private Optional<Double> exportLoudness = Optional.empty();
     private final Set<String> mutedChannels = new HashSet<>();
     private final Set<String> soloChannels = new HashSet<>();
     private boolean solo;
@@ -68,7 +88,7 @@ public final class ControllerImpl implements Controller {
         this.downloader = new ProjectDownloaderImpl();
         this.startApp();
         this.manager.getMixer().connectToSystem();
-        this.engine = new Engine(this.manager.getChannelLinker());
+        this.createEngine();
     }
 
     /**
@@ -78,6 +98,8 @@ public final class ControllerImpl implements Controller {
     @Override
     public void setApp(final App app) {
         this.app = app;
+        // the profile is read before the view exists, so a wrong one can only be reported now
+        AudioContextManager.getProfileError().ifPresent(AlertDispatcher::dispatchError);
     }
     
     private Map<Class<? extends RPEffect>, String> createEffectsMap() {
@@ -87,7 +109,9 @@ public final class ControllerImpl implements Controller {
 		effects.put(LowPassFilter.class, "Low pass");
 		effects.put(HighPassFilter.class, "High pass");
 		effects.put(DigitalReverb.class, "Reverb");
+		effects.put(ConvolutionReverb.class, "Convolution reverb");
 		effects.put(Gate.class, "Gate");
+		effects.put(LookAheadGate.class, "Look-ahead gate");
 		return effects;
 	}
 
@@ -119,7 +143,7 @@ public final class ControllerImpl implements Controller {
     public void newProject() {
         this.startApp();
         this.manager.getMixer().connectToSystem();
-        this.engine = new Engine(this.manager.getChannelLinker());
+        this.createEngine();
         this.loadViewData();
     }
 
@@ -151,7 +175,7 @@ public final class ControllerImpl implements Controller {
                     App.getData().addClip(App.getData().getChannel(c.getTitle()), new ViewDataImpl.Clip(
                             p.getTitle(), this.manager.getClipTime(p.getTitle(), c.getTitle()), clip.getDuration(),
                             Optional.of(clip.getContentPosition()), Optional.of(clip.getContentDuration()),
-                            Optional.of(new File(((Sample) clip.getContent()).getFileName()).getName())));
+                            Optional.of(((SampleClip) clip).getContentFile().getName())));
                 }
             });
         });
@@ -206,7 +230,7 @@ public final class ControllerImpl implements Controller {
             this.manager = this.loader.load(file);
             this.currentProject = file;
             this.manager.getMixer().connectToSystem();
-            this.engine = new Engine(this.manager.getChannelLinker());
+            this.createEngine();
             this.loadViewData();
         } catch (IOException | FileFormatException e) {
             throw new LoadingException(e.getMessage());
@@ -313,7 +337,7 @@ public final class ControllerImpl implements Controller {
             App.getData().addClip(App.getData().getChannel(channel), new ViewDataImpl.Clip(title, time,
                     this.manager.getClipDuration(title), Optional.of(clip.getContentPosition()),
                     Optional.of(clip.getContentDuration()),
-                    Optional.of(new File(((Sample) clip.getContent()).getFileName()).getName())));
+                    Optional.of(((SampleClip) clip).getContentFile().getName())));
         }
         App.getData().setProjectLenght(this.getProjectLength());
     }
@@ -358,6 +382,63 @@ public final class ControllerImpl implements Controller {
         return this.manager.getRoles().stream().map(Element::getTitle).collect(Collectors.toList());
     }
 
+    /**
+     * {@inheritDoc}
+     * @param title the name of the return channel.
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public void newReturnChannel(final String title) throws IllegalArgumentException {
+        this.manager.createReturn(title);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param title the name of the return channel.
+     */
+    @Override
+    public void deleteReturnChannel(final String title) {
+        try {
+            this.manager.removeReturn(title);
+        } catch (NoSuchElementException e) {
+            AlertDispatcher.dispatchError(e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public List<String> getReturnChannelList() {
+        return this.manager.getReturns().stream().map(Element::getTitle).collect(Collectors.toList());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param channel the name of the channel.
+     * @param returnChannel the name of the return channel.
+     * @param level the gain applied to the sent audio.
+     * @param preFader true if the audio is taken before the volume of the channel.
+     * @throws IllegalArgumentException {@inheritDoc}
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    @Override
+    public void setSend(final String channel, final String returnChannel, final float level, final boolean preFader) {
+        this.manager.setSend(channel, returnChannel, level, preFader);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param channel the name of the channel.
+     * @param returnChannel the name of the return channel.
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    @Override
+    public void removeSend(final String channel, final String returnChannel) {
+        this.manager.removeSend(channel, returnChannel);
+    }
+
     /**
      * {@inheritDoc}
      * @param channel the name of a channel.
@@ -409,7 +490,7 @@ public final class ControllerImpl implements Controller {
      */
     @Override
     public void start() {
-    	AudioContextManager.getAudioContext().start();
+        AudioContextManager.start();
         this.engine.start();
     }
 
@@ -419,7 +500,7 @@ public final class ControllerImpl implements Controller {
     @Override
     public void pause() {
         this.engine.pause();
-        AudioContextManager.getAudioContext().stop();
+        AudioContextManager.stop();
     }
 
     /**
@@ -428,7 +509,7 @@ public final class ControllerImpl implements Controller {
     @Override
     public void stop() {
         this.engine.stop();
-        AudioContextManager.getAudioContext().stop();
+        AudioContextManager.stop();
     }
 
     /**
@@ -500,6 +581,30 @@ public final class ControllerImpl implements Controller {
         App.getData().setProjectLenght(this.getProjectLength());
     }
 
+    private void createEngine() {
+        this.engine = new Engine(this.manager.getChannelLinker(), this.manager.getAudioContext());
+        this.manager.addClipEditListener(this.engine::clipEdited);
+        final AudioContext context = this.manager.getAudioContext();
+        final File takes = new File(WORKING_DIRECTORY + SEP + TAKES);
+        final EngineProfile monitorProfile = InputMonitor.getDefaultProfile();
+        if (this.monitor != null) {
+            this.monitor.stop();
+        }
+        // the channels are armed again for each project
+        if (InputMonitor.canOpenInputTwice(monitorProfile)) {
+            this.multitrackRecorder = new MultitrackRecorder(context, takes);
+            // the context of the monitor is kept across projects, unless the profile it follows has changed
+            if (this.monitor == null || this.monitor.isShared() || !this.monitor.getProfile().equals(monitorProfile)) {
+                this.monitor = new InputMonitor(monitorProfile);
+            }
+        } else {
+            // the input is opened once, by the playback, which both records and monitors it
+            final UGen input = context.getAudioInput();
+            this.multitrackRecorder = new MultitrackRecorder(context, takes, input);
+            this.monitor = new InputMonitor(AudioContextManager.getProfile(), context, input);
+        }
+    }
+
     private void updateChannelClipsView(final String channel) {
     	App.getData().clearChannelClips(App.getData().getChannel(channel));
         this.manager.getPartList(channel).forEach(p -> this.createClipView(p.getTitle(), channel));
@@ -515,7 +620,7 @@ public final class ControllerImpl implements Controller {
         } else {
             App.getData().addClip(App.getData().getChannel(channel), new ViewDataImpl.Clip(clip, time, duration,
                     Optional.of(rpClip.getContentPosition()), Optional.of(rpClip.getContentDuration()),
-                    Optional.of(new File(((Sample) rpClip.getContent()).getFileName()).getName())));
+                    Optional.of(((SampleClip) rpClip).getContentFile().getName())));
         }
     }
 
@@ -617,12 +722,38 @@ public final class ControllerImpl implements Controller {
                 .findFirst().orElseThrow(() -> new NoSuchElementException("No section present at that time")));
     }
 
+    /**
+     * {@inheritDoc}
+     * @throws IllegalStateException {@inheritDoc}
+     */
+    @Override
+    public void undo() throws IllegalStateException {
+        this.manager.undo();
+        this.engine.publishTimeline();
+        this.loadViewData();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalStateException {@inheritDoc}
+     */
+    @Override
+    public void redo() throws IllegalStateException {
+        this.manager.redo();
+        this.engine.publishTimeline();
+        this.loadViewData();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void startRecording() {
-        this.recorder = new Recorder();
+        if (this.recorder != null) {
+            this.recorder.close();
+        }
+        this.recorder = new Recorder(this.manager.getAudioContext());
+        AudioContextManager.start();
         this.recorder.record();
     }
 
@@ -632,6 +763,9 @@ public final class ControllerImpl implements Controller {
     @Override
     public void stopRecording() {
         this.recorder.pause();
+        if (this.engine.isPaused()) {
+            AudioContextManager.stop();
+        }
     }
 
     /**
@@ -644,13 +778,134 @@ public final class ControllerImpl implements Controller {
         this.recorder.getSample().write(file.getAbsolutePath(), AudioFileType.WAV);
     }
 
+    /**
+     * {@inheritDoc}
+     * @param channel the name of the channel.
+     * @param inputs the channels of the audio input to record.
+     * @throws IllegalArgumentException {@inheritDoc}
+     * @throws IllegalStateException {@inheritDoc}
+     */
+    @Override
+    public void armChannel(final String channel, final int... inputs) {
+        if (this.manager.getRoles().stream().noneMatch(r -> r.getTitle().equals(channel))) {
+            throw new IllegalArgumentException("There is no channel named " + channel + ".");
+        }
+        this.multitrackRecorder.arm(channel, inputs);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param channel the name of the channel.
+     * @throws IllegalStateException {@inheritDoc}
+     */
+    @Override
+    public void disarmChannel(final String channel) {
+        this.multitrackRecorder.disarm(channel);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Set<String> getArmedChannels() {
+        return this.multitrackRecorder.getArmedTracks();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param punch the punch in and punch out times.
+     * @throws IllegalArgumentException {@inheritDoc}
+     * @throws IllegalStateException {@inheritDoc}
+     */
+    @Override
+    public void setPunch(final Optional<RPPair<Double, Double>> punch) {
+        this.multitrackRecorder.setPunch(punch);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     * @throws IllegalStateException {@inheritDoc}
+     */
+    @Override
+    public void startMultitrackRecording() throws IOException {
+        // the disarmed or removed channels are not recorded
+        this.multitrackRecorder.getArmedTracks().stream()
+                .filter(c -> this.manager.getRoles().stream().noneMatch(r -> r.getTitle().equals(c)))
+                .forEach(this.multitrackRecorder::disarm);
+        this.multitrackRecorder.start();
+        try {
+            this.start();
+        } catch (RuntimeException e) {
+            // a recording that does not follow the playback would record nothing
+            try {
+                this.multitrackRecorder.discard();
+            } catch (IOException discarded) {
+                e.addSuppressed(discarded);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     * @throws IllegalStateException {@inheritDoc}
+     */
+    @Override
+    public List<String> stopMultitrackRecording() throws IOException {
+        final List<Take> takes = this.multitrackRecorder.stop();
+        try {
+            return this.manager.addTakes(takes);
+        } catch (ImportException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            // the takes that have been added are shown even if others could not be
+            this.engine.publishTimeline();
+            if (this.app != null) {
+                this.loadViewData();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param channel the name of an armed channel.
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public void startMonitoring(final String channel) {
+        final int[] inputs = this.multitrackRecorder.getInputs(channel);
+        this.monitor.start(this.manager.getChannelLinker().getChannel(this.manager.getChannelLinker().getRole(channel)),
+                inputs);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stopMonitoring() {
+        this.monitor.stop();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public double getMonitoringLatency() {
+        return this.monitor.getLatency();
+    }
+
     /**
      * {@inheritDoc}
      * @param startTime the position in the timeline from which export has to start.
      */
     @Override
     public void startExport(final Double startTime) {
-        final AudioContext ac = AudioContextManager.getAudioContext();
+        final AudioContext ac = this.manager.getAudioContext();
         final Sample sample = new Sample(0);
         this.exporter = new RecordToSample(ac, sample, RecordToSample.Mode.INFINITE);
         this.exporter.addInput(this.manager.getMixer().getMasterChannel().getOutput());
@@ -668,13 +923,49 @@ public final class ControllerImpl implements Controller {
      */
     @Override
     public void stopExport(final File file) throws IOException {
-        final AudioContext ac = AudioContextManager.getAudioContext();
+        final AudioContext ac = this.manager.getAudioContext();
         this.exporter.pause(true);
         this.stop();
         ac.out.addInput(this.manager.getMixer().getMasterChannel().getOutput());
         ac.out.removeDependent(this.exporter);
         this.exporter.clip();
-        this.exporter.getSample().write(file.getAbsolutePath(), AudioFileType.WAV);
+        final Sample sample = this.exporter.getSample();
+        this.exportLoudness.ifPresent(loudness -> OfflineRenderer.normalize(sample, loudness));
+        sample.write(file.getAbsolutePath(), AudioFileType.WAV);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param loudness {@inheritDoc}
+     */
+    @Override
+    public void setExportLoudness(final Optional<Double> loudness) {
+        this.exportLoudness = loudness;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param clip the name of a clip.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Optional<LoudnessReport> analyzeClipLoudness(final String clip) {
+        return this.getClipSample(clip).map(LoudnessAnalyzer::analyze);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param file the audio file.
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public LoudnessReport analyzeLoudness(final File file) throws IOException {
+        try {
+            return LoudnessAnalyzer.analyze(new Sample(file.getAbsolutePath()));
+        } catch (OperationUnsupportedException | FileFormatException e) {
+            throw new IOException("The file cannot be read: " + e.getMessage());
+        }
     }
 
     /**
@@ -770,27 +1061,40 @@ public final class ControllerImpl implements Controller {
     @Override
     public void addEffectAtPosition(final String channel, final String effect, final int index) {
         try {
-            this.getProcessingUnit(channel).addEffectAtPosition(this.createEffect(effect), index);
+            this.editUnit(channel).addEffectAtPosition(this.createEffect(effect), index);
             App.getData().getChannel(channel).getFxList().add(index, new Effect(effect));
         } catch (NoSuchElementException e) {
-            this.manager.getChannelFromTitle(channel).addProcessingUnit(new BasicProcessingUnit(
-                    List.of(this.createEffect(effect))));
+            final ProcessingUnit pu = new BasicProcessingUnit(List.of(this.createEffect(effect)));
+            pu.setCrossfade(true);
+            this.manager.getChannelFromTitle(channel).addProcessingUnit(pu);
         }
     }
 
+    // the effects are edited while the audio may be playing, so the changes are faded
+    private ProcessingUnit editUnit(final String channel) {
+        final ProcessingUnit pu = this.getProcessingUnit(channel);
+        pu.setCrossfade(true);
+        return pu;
+    }
+
     private RPEffect createEffect(final String effect) {
+        final AudioContext ac = this.manager.getAudioContext();
         if ("Compressor".equals(effect)) {
-            return new Compression(2);
+            return new Compression(ac, 2);
         } else if (effect.equals("Limiter")) {
-            return new Limiter(2);
+            return new Limiter(ac, 2);
         } else if ("Low pass".equals(effect)) {
-            return new LowPassFilter(2);
+            return new LowPassFilter(ac, 2);
         } else if ("High pass".equals(effect)) {
-            return new HighPassFilter(2);
+            return new HighPassFilter(ac, 2);
         } else if ("Reverb".equals(effect)) {
-            return new DigitalReverb(2);
+            return new DigitalReverb(ac, 2);
+        } else if ("Convolution reverb".equals(effect)) {
+            return new ConvolutionReverb(ac, 2);
+        } else if ("Look-ahead gate".equals(effect)) {
+            return new LookAheadGate(ac, 2);
         } else {
-            return new Gate(2);
+            return new Gate(ac, 2);
         }
     }
 
@@ -801,7 +1105,7 @@ public final class ControllerImpl implements Controller {
      */
     @Override
     public void removeEffectAtPosition(final String channel, final int index) {
-        this.getProcessingUnit(channel).removeEffectAtPosition(index);
+        this.editUnit(channel).removeEffectAtPosition(index);
         App.getData().getChannel(channel).getFxList().remove(index);
     }
 
@@ -822,7 +1126,7 @@ public final class ControllerImpl implements Controller {
      */
     @Override
     public void swapEffects(final String channel, final int index1, final int index2) {
-        this.getProcessingUnit(channel).swapEffects(index1, index2);
+        this.editUnit(channel).swapEffects(index1, index2);
         var oldFirst = App.getData().getChannel(channel).getFxList().get(index1);
         var oldSecond = App.getData().getChannel(channel).getFxList().get(index2);
         App.getData().getChannel(channel).getFxList().set(index2, oldFirst);
@@ -837,7 +1141,7 @@ public final class ControllerImpl implements Controller {
      */
     @Override
     public void setEffectParameters(final String channel, final int index, final Map<String, Float> parameters) {
-        this.getProcessingUnit(channel).getEffectAtPosition(index).setParameters(parameters);
+        this.manager.setEffectParameters(channel, index, parameters);
     }
 
     /**
@@ -869,7 +1173,160 @@ public final class ControllerImpl implements Controller {
     @Override
     public void setPan(final String channel, final float value) {
         this.manager.getChannelLinker().getChannel(this.manager.getChannelLinker().getRole(channel))
-                .getPanner().setParameters(Map.of("value", value));
+                .getPanner().setParameter(Pan.VALUE, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param channel the name of a channel.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public MeterReading getMeterReading(final String channel) {
+        return this.manager.getChannelFromTitle(channel).getMeter().read();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public MeterReading getMasterMeterReading() {
+        return this.manager.getMixer().getMasterChannel().getMeter().read();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param enabled {@inheritDoc}
+     */
+    @Override
+    public void setProfiling(final boolean enabled) {
+        DspProfiler.setEnabled(enabled);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean isProfiling() {
+        return DspProfiler.isEnabled();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The groups, the return channels and the master channel are reported as buses.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public LoadReport getLoadReport() {
+        final LoadReport.Builder builder = new LoadReport.Builder(
+                DspProfiler.getDeadlineNanos(this.manager.getAudioContext()));
+        final List<RPRole> roles = this.manager.getRoles();
+        this.manager.getChannelLinker().getRolesAndGroups().forEach(role -> {
+            final RPChannel channel = this.manager.getChannelLinker().getChannel(role);
+            if (roles.contains(role) && channel.getType() != RPChannel.Type.RETURN) {
+                builder.channel(role.getTitle(), channel.getLoad());
+            } else {
+                builder.bus(role.getTitle(), channel.getLoad());
+            }
+            this.profileEffects(channel, builder);
+        });
+        final RPChannel master = this.manager.getMixer().getMasterChannel();
+        builder.bus("Master", master.getLoad());
+        this.profileEffects(master, builder);
+        return builder.build();
+    }
+
+    private void profileEffects(final RPChannel channel, final LoadReport.Builder builder) {
+        channel.getProcessingUnit().ifPresent(pu -> pu.getEffects()
+                .forEach(e -> builder.effect(e.getClass().getSimpleName(), e.getLoad())));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param file {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public void exportLoadReport(final File file) throws IOException {
+        Files.writeString(file.toPath(), this.getLoadReport().toCsv());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public EngineProfile getEngineProfile() {
+        return AudioContextManager.getProfile();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param profile {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public void setEngineProfile(final EngineProfile profile) throws IOException {
+        if (profile.equals(AudioContextManager.getProfile())) {
+            return;
+        }
+        final boolean playing = !this.engine.isPaused();
+        final Double time = this.getPlaybackTime();
+        this.engine.pause();
+        final EngineProfile previousProfile = AudioContextManager.getProfile();
+        final AudioContext previousContext = AudioContextManager.getAudioContext();
+        final Manager previousManager = this.manager;
+        final RPEngine previousEngine = this.engine;
+        final RPMultitrackRecorder previousRecorder = this.multitrackRecorder;
+        final InputMonitor previousMonitor = this.monitor;
+        try {
+            // the audio graph is bound to the context it was built in, so the project is saved and built again
+            final AudioContext context = AudioContextManager.newAudioContext(profile);
+            final Manager rebuilt = this.rebuild(context);
+            AudioContextManager.setProfile(profile, context);
+            // the edits in the history refer to the channels of the previous context, so they are lost
+            this.manager = rebuilt;
+            this.manager.getMixer().connectToSystem();
+            this.createEngine();
+            this.engine.setPlaybackTime(time);
+            if (this.app != null) {
+                this.loadViewData();
+            }
+        } catch (IOException | RuntimeException e) {
+            // whatever has been replaced is put back, so the project goes on with the previous profile
+            AudioContextManager.setProfile(previousProfile, previousContext);
+            if (this.monitor != previousMonitor) {
+                this.monitor.stop();
+            }
+            this.manager = previousManager;
+            this.engine = previousEngine;
+            this.multitrackRecorder = previousRecorder;
+            this.monitor = previousMonitor;
+            if (this.app != null) {
+                this.loadViewData();
+            }
+            if (playing) {
+                this.start();
+            }
+            throw e;
+        }
+        if (playing) {
+            this.start();
+        }
+    }
+
+    private Manager rebuild(final AudioContext context) throws IOException {
+        final File snapshot = Files.createTempFile("resplan", ".json").toFile();
+        try {
+            this.downloader.download(snapshot, this.manager);
+            return new ProjectLoaderImpl(context).load(snapshot);
+        } catch (FileFormatException e) {
+            throw new LoadingException(e.getMessage());
+        } finally {
+            Files.deleteIfExists(snapshot.toPath());
+        }
     }
 
     /**
@@ -3,6 +3,7 @@ package controller.general;
 import controller.storing.RPFileReader;
 import controller.storing.deserialization.ManagerDeserializer;
 import daw.manager.Manager;
+import net.beadsproject.beads.core.AudioContext;
 import net.beadsproject.beads.data.audiofile.FileFormatException;
 import org.apache.commons.io.FilenameUtils;
 import java.io.File;
@@ -19,6 +20,15 @@ public class ProjectLoaderImpl implements ProjectLoader {
         this.deserializer = new ManagerDeserializer();
     }
 
+    /**
+     * Constructs a loader of projects that are run by the given {@link AudioContext}, rather than by the one of
+     * the {@link daw.utilities.AudioContextManager}.
+     * @param context the {@link AudioContext} of the loaded projects.
+     */
+    public ProjectLoaderImpl(final AudioContext context) {
+        this.deserializer = new ManagerDeserializer(context);
+    }
+
     /**
      * {@inheritDoc}
      * @param file the file where to read from.
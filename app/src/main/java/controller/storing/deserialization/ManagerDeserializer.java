@@ -1,23 +1,46 @@
 package controller.storing.deserialization;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.InjectableValues;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import daw.core.audioprocessing.BasicProcessingUnit;
 import daw.core.clip.SampleClip;
 import daw.manager.ImportException;
 import daw.manager.Manager;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 import planning.RPPart;
 import planning.RPRole;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Jackson deserializer for objects of type {@link daw.manager.Manager}.
+ * The channels and the effects of the project are created in the {@link AudioContext} that the deserializer
+ * is given.
  */
 public final class ManagerDeserializer extends AbstractJacksonDeserializer<Manager> {
 
+    // the context is looked up at each deserialization, as the one of the manager can be replaced
+    private final Supplier<AudioContext> context;
+
+    /**
+     * Constructs a deserializer of projects run by the {@link AudioContext} of the {@link AudioContextManager}.
+     */
+    public ManagerDeserializer() {
+        this.context = AudioContextManager::getAudioContext;
+    }
+
+    /**
+     * Constructs a deserializer of projects run by the given {@link AudioContext}.
+     * @param context the {@link AudioContext} of the deserialized projects.
+     */
+    public ManagerDeserializer(final AudioContext context) {
+        this.context = () -> context;
+    }
+
     /**
      * {@inheritDoc}
      * @param text the textual data to be deserialized.
@@ -26,12 +49,14 @@ public final class ManagerDeserializer extends AbstractJacksonDeserializer<Manag
      */
     @Override
     public Manager deserialize(final String text) throws IOException {
+        final AudioContext ac = this.context.get();
         try {
+            this.getMapper().setInjectableValues(new InjectableValues.Std().addValue(AudioContext.class, ac));
             this.getMapper().registerModule(new SimpleModule()
                     .addKeyDeserializer(RPRole.class, new RoleKeyDeserializer())
                     .addKeyDeserializer(RPPart.class, new PartKeyDeserializer()));
             final var man = this.getMapper().readValue(text, Manager.class);
-            final var finalMan = new Manager();
+            final var finalMan = new Manager(ac);
             this.transferData(finalMan, man);
             return finalMan;
         } catch (JsonProcessingException e) {
@@ -40,19 +65,15 @@ public final class ManagerDeserializer extends AbstractJacksonDeserializer<Manag
     }
 
     private void transferData(final Manager finalMan, final Manager man) {
-        // add all channels
+        // add all channels and return channels
         man.getRoles().forEach(r -> finalMan.addChannel(r.getType(), r.getTitle(), r.getDescription()));
-        // add effects
-        finalMan.getRoles().forEach(r -> {
-            final var ch = man.getChannelLinker().getChannel(r);
-            final var newCh = finalMan.getChannelLinker().getChannel(r);
-            if (ch.isProcessingUnitPresent()) {
-                if (newCh.isProcessingUnitPresent()) {
-                    newCh.removeProcessingUnit();
-                }
-                newCh.addProcessingUnit(new BasicProcessingUnit(ch.getProcessingUnit().get().getEffects()));
-            }
-        });
+        man.getReturns().forEach(r -> finalMan.createReturn(r.getTitle()));
+        // add effects and automation
+        finalMan.getRoles().forEach(r -> this.transferEffects(finalMan, man, r));
+        finalMan.getReturns().forEach(r -> this.transferEffects(finalMan, man, r));
+        // add all sends
+        man.getReturns().forEach(r -> man.getSends(r.getTitle()).forEach(s ->
+                finalMan.setSend(s.getChannel(), r.getTitle(), s.getLevel(), s.isPreFader())));
         // add all clips
         man.getRoles().forEach(r -> man.getPartList(r.getTitle()).forEach(p -> {
             try {
@@ -63,8 +84,7 @@ public final class ManagerDeserializer extends AbstractJacksonDeserializer<Manag
                 } else {
                     finalMan.addClip(p.getType(), p.getTitle(), p.getDescription(), r.getTitle(),
                             man.getClipTime(p.getTitle(), r.getTitle()), man.getClipDuration(p.getTitle()),
-                            Optional.of(new File(((SampleClip) man.getClipFromTitle(p.getTitle())).getContent()
-                                    .getFileName())));
+                            Optional.of(((SampleClip) man.getClipFromTitle(p.getTitle())).getContentFile()));
                 }
             } catch (ImportException e) {
                 throw new RuntimeException(e.getMessage());
@@ -77,6 +97,21 @@ public final class ManagerDeserializer extends AbstractJacksonDeserializer<Manag
                 i.getKey(), 0.0));
         // set project length
         finalMan.updateProjectLength();
+        // the loaded project is where the history starts from
+        finalMan.clearHistory();
+    }
+
+    private void transferEffects(final Manager finalMan, final Manager man, final RPRole r) {
+        final var ch = man.getChannelLinker().getChannel(r);
+        final var newCh = finalMan.getChannelLinker().getChannel(r);
+        newCh.getAutomation().copyFrom(ch.getAutomation());
+        if (ch.isProcessingUnitPresent()) {
+            if (newCh.isProcessingUnitPresent()) {
+                newCh.removeProcessingUnit();
+            }
+            newCh.addProcessingUnit(new BasicProcessingUnit(ch.getProcessingUnit().get().getEffects()));
+            newCh.getProcessingUnit().get().setCrossfade(ch.getProcessingUnit().get().isCrossfade());
+        }
     }
 
 }
@@ -7,7 +7,6 @@ import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import daw.core.clip.RPClip;
 import daw.core.clip.SampleClip;
-import net.beadsproject.beads.data.Sample;
 import java.io.IOException;
 
 import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
@@ -29,7 +28,7 @@ class ClipSerializer extends StdSerializer<RPClip> {
             throws IOException {
         if (value instanceof SampleClip) {
             gen.writeNumberField("content position", value.getContentPosition());
-            gen.writeStringField("content name", ((Sample) value.getContent()).getFileName());
+            gen.writeStringField("content name", ((SampleClip) value).getContentFile().getAbsolutePath());
         }
         gen.writeNumberField("duration", value.getDuration());
         gen.writeStringField("name", value.getTitle());
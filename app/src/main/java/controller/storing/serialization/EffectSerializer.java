@@ -5,6 +5,7 @@ import com.fasterxml.jackson.core.type.WritableTypeId;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import daw.core.audioprocessing.ConvolutionReverb;
 import daw.core.audioprocessing.RPEffect;
 import java.io.IOException;
 import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
@@ -30,6 +31,15 @@ class EffectSerializer extends StdSerializer<RPEffect> {
         }
         gen.writeNumberField("ins", value.getIns());
         gen.writeNumberField("outs", value.getOuts());
+        if (value instanceof ConvolutionReverb) {
+            final var impulse = ((ConvolutionReverb) value).getImpulse();
+            if (impulse.isPresent()) {
+                gen.writeStringField("impulse", impulse.get());
+            }
+        }
+        if (!value.getAutomation().isEmpty()) {
+            provider.defaultSerializeField("automation", value.getAutomation(), gen);
+        }
     }
 
     @Override
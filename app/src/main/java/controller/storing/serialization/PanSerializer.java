@@ -23,7 +23,7 @@ class PanSerializer extends StdSerializer<Pan> {
     public void serialize(final Pan value, final JsonGenerator gen, final SerializerProvider provider)
             throws IOException {
         gen.writeStartObject();
-        gen.writeNumberField("position", value.getParameters().get("value"));
+        gen.writeNumberField("position", value.getParameter(Pan.VALUE));
         gen.writeEndObject();
     }
 }
@@ -0,0 +1,234 @@
+package daw.core.analysis;
+
+import net.beadsproject.beads.data.Sample;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the loudness of audio offline, following ITU-R BS.1770 and EBU R128: the integrated, momentary and
+ * short-term loudness, the loudness range and the true peak.
+ * The audio is K-weighted and its energy is summed every {@value #STEP} milliseconds, from which the gated
+ * blocks of the measures are built. The audio is split into segments that are measured in parallel on the
+ * common pool: each segment filters some audio before its beginning as well, so that the filters have settled
+ * when it begins, and the results do not depend on how the audio has been split.
+ * All the channels have the same weight, as they do in mono and stereo audio.
+ */
+public final class LoudnessAnalyzer {
+
+    /**
+     * The step between two blocks, in milliseconds.
+     */
+    public static final int STEP = 100;
+
+    private static final int MOMENTARY_STEPS = 4;
+    private static final int SHORT_TERM_STEPS = 30;
+    private static final double OFFSET = -0.691;
+    private static final double ABSOLUTE_GATE = -70.0;
+    private static final double RELATIVE_GATE = -10.0;
+    private static final double RANGE_GATE = -20.0;
+    private static final double LOW_PERCENTILE = 0.10;
+    private static final double HIGH_PERCENTILE = 0.95;
+    // the length of a segment in steps, and the audio filtered before it in seconds
+    private static final int SEGMENT_STEPS = 50;
+    private static final double WARM_UP = 0.5;
+    // the samples on each side of an interpolated one that are used to find the true peak
+    private static final int HALF_TAPS = 6;
+
+    private LoudnessAnalyzer() {
+    }
+
+    /**
+     * Measures the loudness of the given audio.
+     * @param audio the samples of each channel, which all have the same length.
+     * @param sampleRate the sample rate of the audio.
+     * @return the {@link LoudnessReport} of the audio.
+     * @throws IllegalArgumentException if there are no channels or the sample rate is not positive.
+     */
+    public static LoudnessReport analyze(final float[][] audio, final float sampleRate) {
+        if (audio.length == 0 || sampleRate <= 0) {
+            throw new IllegalArgumentException("The audio must have at least a channel and a positive sample rate.");
+        }
+        return analyze((frame, out) -> {
+            for (int c = 0; c < out.length; c++) {
+                System.arraycopy(audio[c], (int) frame, out[c], 0, out[c].length);
+            }
+        }, audio.length, audio[0].length, sampleRate);
+    }
+
+    /**
+     * Measures the loudness of the given {@link Sample}, such as the content of a clip or an exported project.
+     * @param sample the {@link Sample}.
+     * @return the {@link LoudnessReport} of the sample.
+     * @throws IllegalArgumentException if the sample has no channels.
+     */
+    public static LoudnessReport analyze(final Sample sample) {
+        if (sample.getNumChannels() == 0) {
+            throw new IllegalArgumentException("The audio must have at least a channel.");
+        }
+        return analyze((frame, out) -> sample.getFrames((int) frame, out), sample.getNumChannels(),
+                sample.getNumFrames(), sample.getSampleRate());
+    }
+
+    private static LoudnessReport analyze(final Source source, final int channels, final long frames,
+                                          final float sampleRate) {
+        final int step = (int) Math.round(sampleRate * STEP / 1000.0);
+        final int steps = (int) (frames / step);
+        final int segmentFrames = step * SEGMENT_STEPS;
+        final int segments = (int) ((frames + segmentFrames - 1) / segmentFrames);
+        final double[][] filter = kWeighting(sampleRate);
+        final int factor = sampleRate < 96_000 ? 4 : sampleRate < 192_000 ? 2 : 1;
+        final double[][] kernel = interpolation(factor);
+        final int warmUp = (int) (sampleRate * WARM_UP);
+        // each step belongs to a single segment, so the segments never write the same energy
+        final double[] energies = new double[steps];
+        final double[] peaks = new double[segments];
+        IntStream.range(0, segments).parallel().forEach(s -> {
+            final long start = (long) s * segmentFrames;
+            final long end = Math.min(frames, start + segmentFrames);
+            final long readStart = Math.max(0, start - warmUp);
+            final long readEnd = Math.min(frames, end + HALF_TAPS);
+            final float[][] buffer = new float[channels][(int) (readEnd - readStart)];
+            source.read(readStart, buffer);
+            final int first = (int) (start - readStart);
+            final int last = (int) (end - readStart);
+            for (final float[] samples : buffer) {
+                weigh(samples, first, last, readStart, step, filter, energies);
+                peaks[s] = Math.max(peaks[s], truePeak(samples, first, last, kernel));
+            }
+        });
+        return report(energies, step, Arrays.stream(peaks).max().orElse(0.0));
+    }
+
+    // K-weights the samples up to the given one, and adds the energy of the ones after the first to their steps
+    private static void weigh(final float[] samples, final int first, final int last, final long offset,
+                              final int step, final double[][] filter, final double[] energies) {
+        final double[] state = new double[4];
+        for (int i = 0; i < last; i++) {
+            double x = samples[i];
+            for (int f = 0; f < filter.length; f++) {
+                final double[] k = filter[f];
+                // transposed direct form II
+                final double y = k[0] * x + state[2 * f];
+                state[2 * f] = k[1] * x - k[3] * y + state[2 * f + 1];
+                state[2 * f + 1] = k[2] * x - k[4] * y;
+                x = y;
+            }
+            final long index = (offset + i) / step;
+            if (i >= first && index < energies.length) {
+                energies[(int) index] += x * x;
+            }
+        }
+    }
+
+    // the highest absolute value between the given samples, oversampled by the kernel
+    private static double truePeak(final float[] samples, final int first, final int last, final double[][] kernel) {
+        double peak = 0.0;
+        for (int i = first; i < last; i++) {
+            peak = Math.max(peak, Math.abs(samples[i]));
+            for (int p = 1; p < kernel.length; p++) {
+                double value = 0.0;
+                for (int k = 0; k < 2 * HALF_TAPS; k++) {
+                    final int index = i + k - HALF_TAPS + 1;
+                    if (index >= 0 && index < samples.length) {
+                        value += samples[index] * kernel[p][k];
+                    }
+                }
+                peak = Math.max(peak, Math.abs(value));
+            }
+        }
+        return peak;
+    }
+
+    private static LoudnessReport report(final double[] energies, final int step, final double peak) {
+        final double[] sums = new double[energies.length + 1];
+        for (int i = 0; i < energies.length; i++) {
+            sums[i + 1] = sums[i] + energies[i];
+        }
+        final double[] momentary = blocks(sums, MOMENTARY_STEPS, step);
+        final double[] shortTerm = blocks(sums, SHORT_TERM_STEPS, step);
+        final double[] shortTermLoudness = Arrays.stream(shortTerm).map(LoudnessAnalyzer::loudness).toArray();
+        return new LoudnessReport(gatedLoudness(momentary, RELATIVE_GATE),
+                Arrays.stream(momentary).map(LoudnessAnalyzer::loudness).max().orElse(Double.NEGATIVE_INFINITY),
+                Arrays.stream(shortTermLoudness).max().orElse(Double.NEGATIVE_INFINITY),
+                shortTermLoudness, range(shortTerm), peak == 0.0 ? Double.NEGATIVE_INFINITY : 20 * Math.log10(peak));
+    }
+
+    // the mean square of the overlapping blocks of the given number of steps, one every step
+    private static double[] blocks(final double[] sums, final int length, final int step) {
+        final int count = Math.max(0, sums.length - length);
+        final double[] blocks = new double[count];
+        for (int j = 0; j < count; j++) {
+            blocks[j] = (sums[j + length] - sums[j]) / ((double) length * step);
+        }
+        return blocks;
+    }
+
+    private static double loudness(final double meanSquare) {
+        return meanSquare <= 0.0 ? Double.NEGATIVE_INFINITY : OFFSET + 10 * Math.log10(meanSquare);
+    }
+
+    // the loudness of the blocks above the absolute gate and above the relative gate below their loudness
+    private static double gatedLoudness(final double[] blocks, final double relativeGate) {
+        final double[] loud = Arrays.stream(blocks).filter(z -> loudness(z) > ABSOLUTE_GATE).toArray();
+        if (loud.length == 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        final double gate = loudness(Arrays.stream(loud).average().orElseThrow()) + relativeGate;
+        return loudness(Arrays.stream(loud).filter(z -> loudness(z) > gate).average().orElse(0.0));
+    }
+
+    // the loudness range of EBU Tech 3342, between the low and the high percentiles of the gated short-term blocks
+    private static double range(final double[] shortTerm) {
+        final double[] loud = Arrays.stream(shortTerm).filter(z -> loudness(z) > ABSOLUTE_GATE).toArray();
+        if (loud.length == 0) {
+            return 0.0;
+        }
+        final double gate = loudness(Arrays.stream(loud).average().orElseThrow()) + RANGE_GATE;
+        final double[] gated = Arrays.stream(loud).map(LoudnessAnalyzer::loudness).filter(l -> l > gate)
+                .sorted().toArray();
+        if (gated.length == 0) {
+            return 0.0;
+        }
+        return gated[(int) Math.round((gated.length - 1) * HIGH_PERCENTILE)]
+                - gated[(int) Math.round((gated.length - 1) * LOW_PERCENTILE)];
+    }
+
+    // the high shelf and the high pass of BS.1770, as [b0, b1, b2, a1, a2], computed for any sample rate
+    private static double[][] kWeighting(final float sampleRate) {
+        final double shelfFrequency = 1681.974450955533;
+        final double shelfGain = 3.999843853973347;
+        final double shelfQ = 0.7071752369554196;
+        double k = Math.tan(Math.PI * shelfFrequency / sampleRate);
+        final double vh = Math.pow(10, shelfGain / 20);
+        final double vb = Math.pow(vh, 0.4996667741545416);
+        double a0 = 1 + k / shelfQ + k * k;
+        final double[] shelf = {(vh + vb * k / shelfQ + k * k) / a0, 2 * (k * k - vh) / a0,
+            (vh - vb * k / shelfQ + k * k) / a0, 2 * (k * k - 1) / a0, (1 - k / shelfQ + k * k) / a0};
+        final double passFrequency = 38.13547087602444;
+        final double passQ = 0.5003270373238773;
+        k = Math.tan(Math.PI * passFrequency / sampleRate);
+        a0 = 1 + k / passQ + k * k;
+        final double[] pass = {1, -2, 1, 2 * (k * k - 1) / a0, (1 - k / passQ + k * k) / a0};
+        return new double[][] {shelf, pass};
+    }
+
+    // the windowed sinc that interpolates the given number of values between two samples
+    private static double[][] interpolation(final int factor) {
+        final double[][] kernel = new double[factor][2 * HALF_TAPS];
+        for (int p = 0; p < factor; p++) {
+            for (int k = 0; k < 2 * HALF_TAPS; k++) {
+                final double x = (double) p / factor - (k - HALF_TAPS + 1);
+                final double sinc = x == 0 ? 1 : Math.sin(Math.PI * x) / (Math.PI * x);
+                kernel[p][k] = sinc * 0.5 * (1 + Math.cos(Math.PI * x / HALF_TAPS));
+            }
+        }
+        return kernel;
+    }
+
+    // reads as many frames as the given buffers can hold, starting from the given one
+    @FunctionalInterface
+    private interface Source {
+        void read(long frame, float[][] out);
+    }
+
+}
@@ -0,0 +1,97 @@
+package daw.core.analysis;
+
+/**
+ * The loudness of a piece of audio, as measured by the {@link LoudnessAnalyzer} following ITU-R BS.1770 and
+ * EBU R128. The loudness is in LUFS, the loudness range in LU and the true peak in dBTP.
+ * Silence, or audio that is shorter than a block, has a loudness of negative infinity.
+ */
+public final class LoudnessReport {
+
+    private final double integrated;
+    private final double maxMomentary;
+    private final double maxShortTerm;
+    private final double[] shortTerm;
+    private final double range;
+    private final double truePeak;
+
+    // package-protected since it is only created by LoudnessAnalyzer
+    LoudnessReport(final double integrated, final double maxMomentary, final double maxShortTerm,
+                   final double[] shortTerm, final double range, final double truePeak) {
+        this.integrated = integrated;
+        this.maxMomentary = maxMomentary;
+        this.maxShortTerm = maxShortTerm;
+        this.shortTerm = shortTerm;
+        this.range = range;
+        this.truePeak = truePeak;
+    }
+
+    /**
+     *
+     * @return the integrated loudness in LUFS, which is the loudness of the whole audio.
+     */
+    public double getIntegrated() {
+        return this.integrated;
+    }
+
+    /**
+     *
+     * @return the highest momentary loudness in LUFS, measured over 400 milliseconds.
+     */
+    public double getMaxMomentary() {
+        return this.maxMomentary;
+    }
+
+    /**
+     *
+     * @return the highest short-term loudness in LUFS, measured over 3 seconds.
+     */
+    public double getMaxShortTerm() {
+        return this.maxShortTerm;
+    }
+
+    /**
+     * Gets the short-term loudness along the audio, measured over 3 seconds every
+     * {@value LoudnessAnalyzer#STEP} milliseconds.
+     * @return the short-term loudness in LUFS, the first of which ends 3 seconds after the beginning.
+     */
+    public double[] getShortTerm() {
+        return this.shortTerm.clone();
+    }
+
+    /**
+     *
+     * @return the loudness range in LU, which is how much the short-term loudness varies.
+     */
+    public double getRange() {
+        return this.range;
+    }
+
+    /**
+     *
+     * @return the true peak in dBTP, which is the highest level that the audio reaches between its samples.
+     */
+    public double getTruePeak() {
+        return this.truePeak;
+    }
+
+    /**
+     * Gets the static gain that makes the audio reach the given integrated loudness. The gain does not
+     * take the true peak into account, so the audio may clip if it is raised.
+     * @param target the integrated loudness to reach in LUFS, for example -16.
+     * @return the linear gain.
+     * @throws IllegalStateException if the audio is silent.
+     */
+    public float getNormalizationGain(final double target) {
+        if (Double.isInfinite(this.integrated)) {
+            throw new IllegalStateException("Silent audio cannot be normalized.");
+        }
+        return (float) Math.pow(10, (target - this.integrated) / 20);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("integrated %.1f LUFS, range %.1f LU, true peak %.1f dBTP",
+                this.integrated, this.range, this.truePeak);
+    }
+
+}
@@ -1,6 +1,8 @@
 package daw.core.audioprocessing;
 
 import net.beadsproject.beads.ugens.Gain;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -10,25 +12,68 @@ import java.util.Map;
  * sources. Still, the interface has methods specifically thought to set and obtain the element parameters' values.
  * This does mean that any audio effect implementation can be a subclass of this interface.
  * The difference in how the sound is manipulated by the effect is going to be reflected by its parameters.
+ * Each parameter is described by a {@link ParameterDescriptor}, and is identified by its position in the list
+ * of the descriptors, so that it can be read and written without allocating.
  */
 public interface AudioElement {
 
+    /**
+     * Gets the descriptors of the parameters of this particular element, whose identifiers are their
+     * positions in the list.
+     * @return an immutable {@link List} of {@link ParameterDescriptor}, which does not change over time.
+     */
+    List<ParameterDescriptor> getParameterDescriptors();
+
+    /**
+     * Gets the current value of a parameter. This method does not allocate, so it can be called as often
+     * as needed, even by the audio thread.
+     * @param id the identifier of the parameter.
+     * @return the value of the parameter.
+     * @throws IllegalArgumentException if the element has no parameter with the given identifier.
+     */
+    float getParameter(int id);
+
+    /**
+     * Sets the value of a parameter, which is limited to its range. This method should not allocate, or only
+     * allocate when the value changes, so that it can be called as often as needed, even by the audio thread.
+     * @param id the identifier of the parameter.
+     * @param value the new value of the parameter.
+     * @throws IllegalArgumentException if the element has no parameter with the given identifier,
+     * or if the parameter can only be read.
+     */
+    void setParameter(int id, float value);
+
     /**
      * Allows getting the value associated to each parameter of this particular element.
      * Parameters influence how the sound is processed by this element.
+     * This is a convenience over {@link #getParameter(int)}, mostly meant for saving the element.
      * @return a {@link Map} where the keys are the parameters and the values are the
      * current value of each parameter of the element.
      */
-    Map<String, Float> getParameters();
+    default Map<String, Float> getParameters() {
+        final Map<String, Float> parameters = new HashMap<>();
+        for (final ParameterDescriptor descriptor : this.getParameterDescriptors()) {
+            parameters.put(descriptor.getName(), this.getParameter(descriptor.getId()));
+        }
+        return Map.copyOf(parameters);
+    }
 
     /**
      * Modifies the value of all the parameters specified as keys in the given map. Those parameters
      * will then contain the value associated to them in the map.
      * The keys that do not match any of the element's parameters are ignored
-     * and so are the values associated to them.
+     * and so are the values associated to them, as well as the parameters that can only be read.
+     * This is a convenience over {@link #setParameter(int, float)}, mostly meant for loading the element.
      * @param parameters the {@link Map} that contains the parameters that must be modified.
      */
-    void setParameters(Map<String, Float> parameters);
+    default void setParameters(final Map<String, Float> parameters) {
+        for (final ParameterDescriptor descriptor : this.getParameterDescriptors()) {
+            final Float value = parameters.get(descriptor.getName());
+            if (value != null && !descriptor.isReadOnly()) {
+                this.setParameter(descriptor.getId(), value);
+            }
+        }
+    }
 
     /**
      * Allows to get the number of input channels of the element.
@@ -1,18 +1,24 @@
 package daw.core.audioprocessing;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 import net.beadsproject.beads.core.UGen;
 import net.beadsproject.beads.ugens.Gain;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Collections;
 
 /**
  * This class represents a basic implementation of {@link ProcessingUnit}.
  * This particular implementation instantiates a {@link ProcessingUnit} so that it is not sidechained.
  * The only way to get an object of this class is to use the {@link ProcessingUnitBuilder}.
+ * Every edit works on a copy of the sequence, which is checked as a whole and then published as a single
+ * {@link EffectChain}, so that a channel strip swaps to it at a buffer boundary and never sees half an edit.
+ * The edits only connect the input and the output gains of the effects, which a channel strip skips, and never
+ * touch the connections that the strip is running.
  */
 public final class BasicProcessingUnit implements ProcessingUnit {
 
@@ -20,17 +26,24 @@ public final class BasicProcessingUnit implements ProcessingUnit {
     private static final int INS = 2;
 
     private final LinkedList<RPEffect> effects = new LinkedList<>();
+    // the sequence published to the readers, such as the compiled channel strip
+    private volatile EffectChain chain = EffectChain.EMPTY;
+    private boolean crossfade;
     private final Gain gainIn;
     private final Gain gainOut;
 
     /**
      * Constructs a {@link ProcessingUnit} that is sidechained.
+     * The unit is run by the {@link AudioContext} of its effects, which must all share it.
      * @param effects the effects to be added to the sequence. Order of the list in input is preserved.
+     * @throws IllegalArgumentException if the effects are not run by the same {@link AudioContext}.
      */
     @JsonCreator
     public BasicProcessingUnit(@JsonProperty("effects") final List<RPEffect> effects) {
-        this.gainIn = new Gain(AudioContextManager.getAudioContext(), INS, 1.0f);
-        this.gainOut = new Gain(AudioContextManager.getAudioContext(), INS, 1.0f);
+        final AudioContext context = effects.isEmpty()
+                ? AudioContextManager.getAudioContext() : effects.get(0).getContext();
+        this.gainIn = new Gain(context, INS, 1.0f);
+        this.gainOut = new Gain(context, INS, 1.0f);
         for (final var effect: effects) {
             if (effect instanceof Sidechaining) {
                 this.addSidechaining((SidechainingImpl) effect);
@@ -65,14 +78,9 @@ public final class BasicProcessingUnit implements ProcessingUnit {
     @Override
     public void addSidechaining(final SidechainingImpl s) {
         if (!this.isSidechainingPresent()) {
-            this.effects.add(0, s);
-            s.getGainIn().addInput(this.gainIn);
-            if (this.size() > 1) {
-                this.connectEffects(s, this.getEffectAtPosition(1));
-            } else {
-                this.gainOut.clearInputConnections();
-                this.gainOut.addInput(s.getGainOut());
-            }
+            final List<RPEffect> next = new LinkedList<>(this.effects);
+            next.add(0, s);
+            this.commit(next);
         }
     }
 
@@ -105,7 +113,57 @@ public final class BasicProcessingUnit implements ProcessingUnit {
      */
     @Override
     public List<RPEffect> getEffects() {
-        return Collections.unmodifiableList(this.effects);
+        return this.chain.getEffects();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    @JsonIgnore
+    public EffectChain getChain() {
+        return this.chain;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param crossfade {@inheritDoc}
+     */
+    @Override
+    public void setCrossfade(final boolean crossfade) {
+        this.crossfade = crossfade;
+        this.chain = this.chain.withCrossfade(crossfade);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean isCrossfade() {
+        return this.crossfade;
+    }
+
+    // connects the gains of the new sequence, and then publishes it as a whole
+    private void commit(final List<RPEffect> next) {
+        for (final RPEffect effect : next) {
+            if (effect.getContext() != this.gainIn.getContext()) {
+                throw new IllegalArgumentException("The effects of a unit must be run by the same audio context.");
+            }
+        }
+        for (int i = 0; i < next.size(); i++) {
+            final Gain in = next.get(i).getGainIn();
+            in.clearInputConnections();
+            in.addInput(i == 0 ? this.gainIn : next.get(i - 1).getGainOut());
+        }
+        this.gainOut.clearInputConnections();
+        if (!next.isEmpty()) {
+            this.gainOut.addInput(next.get(next.size() - 1).getGainOut());
+        }
+        this.effects.clear();
+        this.effects.addAll(next);
+        this.chain = new EffectChain(next, this.crossfade);
     }
 
     /**
@@ -159,28 +217,14 @@ public final class BasicProcessingUnit implements ProcessingUnit {
             if (index == 0 && this.isSidechainingPresent()) {
                 throw new IllegalArgumentException(ILLEGAL_INDEX_ERROR + "Position 0 is occupied by the sidechaining.");
             }
-            this.effects.add(index, u);
-            if (index != 0) {
-                this.connectEffects(this.effects.get(index - 1), u);
-            } else {
-                u.getGainIn().addInput(this.gainIn);
-            }
-            if (index != this.size() - 1) {
-                this.connectEffects(u, this.effects.get(index + 1));
-            } else {
-                this.gainOut.clearInputConnections();
-                this.gainOut.addInput(u.getGainOut());
-            }
+            final List<RPEffect> next = new LinkedList<>(this.effects);
+            next.add(index, u);
+            this.commit(next);
         } else {
             throw new IllegalArgumentException(ILLEGAL_INDEX_ERROR);
         }
     }
 
-    private void connectEffects(final RPEffect from, final RPEffect to) {
-        to.getGainIn().clearInputConnections();
-        to.getGainIn().addInput(from.getGainOut());
-    }
-
     /**
      * {@inheritDoc}
      * @param index a position in the sequence.
@@ -191,18 +235,9 @@ public final class BasicProcessingUnit implements ProcessingUnit {
     public void removeEffectAtPosition(final int index) {
         if (index >= 0 && index <= this.size() - 1) {
             if (this.size() > 1) {
-                if (index != this.size() - 1) {
-                    this.getEffectAtPosition(index + 1).clearInputConnections();
-                    if (index != 0) {
-                        this.connectEffects(this.getEffectAtPosition(index - 1), this.getEffectAtPosition(index + 1));
-                    } else {
-                        this.getEffectAtPosition(index + 1).getGainIn().addInput(this.gainIn);
-                    }
-                } else {
-                    this.gainOut.clearInputConnections();
-                    this.gainOut.addInput(this.getEffectAtPosition(index - 1).getGainOut());
-                }
-                this.effects.remove(index);
+                final List<RPEffect> next = new LinkedList<>(this.effects);
+                next.remove(index).getGainIn().clearInputConnections();
+                this.commit(next);
             } else {
                 throw new IllegalStateException("Cannot perform this operation when there is only one effect stored.");
             }
@@ -219,15 +254,10 @@ public final class BasicProcessingUnit implements ProcessingUnit {
      */
     @Override
     public void moveEffect(final int currentIndex, final int newIndex) {
-        if (currentIndex >= 0
-                && newIndex >= 0
-                && currentIndex <= this.size() - 1
-                && newIndex <= this.size() - 1
-                && !(this.getEffectAtPosition(currentIndex) instanceof Sidechaining)
-                && !(this.getEffectAtPosition(newIndex) instanceof Sidechaining)) {
-            final var temp = this.getEffectAtPosition(currentIndex);
-            this.removeEffectAtPosition(currentIndex);
-            this.addEffectAtPosition(temp, newIndex);
+        if (this.areMovable(currentIndex, newIndex)) {
+            final List<RPEffect> next = new LinkedList<>(this.effects);
+            next.add(newIndex, next.remove(currentIndex));
+            this.commit(next);
         } else {
             throw new IllegalArgumentException(ILLEGAL_INDEX_ERROR);
         }
@@ -241,19 +271,24 @@ public final class BasicProcessingUnit implements ProcessingUnit {
      */
     @Override
     public void swapEffects(final int index1, final int index2) {
-        if (index1 >= 0
-                &&  index2 >= 0
-                && index1 <= this.size() - 1
-                && index2 <= this.size() - 1
-                && !(this.getEffectAtPosition(index1) instanceof Sidechaining)
-                && !(this.getEffectAtPosition(index2) instanceof Sidechaining)) {
-            this.moveEffect(index1, index2);
-            this.moveEffect(index2 - 1, index1);
+        if (this.areMovable(index1, index2)) {
+            final List<RPEffect> next = new LinkedList<>(this.effects);
+            Collections.swap(next, index1, index2);
+            this.commit(next);
         } else {
             throw new IllegalArgumentException(ILLEGAL_INDEX_ERROR);
         }
     }
 
+    private boolean areMovable(final int index1, final int index2) {
+        return index1 >= 0
+                && index2 >= 0
+                && index1 <= this.size() - 1
+                && index2 <= this.size() - 1
+                && !(this.getEffectAtPosition(index1) instanceof Sidechaining)
+                && !(this.getEffectAtPosition(index2) instanceof Sidechaining);
+    }
+
     /**
      * {@inheritDoc}
      * @param index the index of the effect that must be replaced.
@@ -262,12 +297,12 @@ public final class BasicProcessingUnit implements ProcessingUnit {
      */
     @Override
     public void replace(final int index, final RPEffect u) {
-        try {
-            this.removeEffectAtPosition(index);
-            this.addEffectAtPosition(u, index);
-        } catch (IllegalStateException ex) {
+        if (index < 0 || index > this.size() - 1 || u instanceof Sidechaining) {
             throw new IllegalArgumentException(ILLEGAL_INDEX_ERROR);
         }
+        final List<RPEffect> next = new LinkedList<>(this.effects);
+        next.set(index, u).getGainIn().clearInputConnections();
+        this.commit(next);
     }
 
 }
@@ -1,5 +1,7 @@
 package daw.core.audioprocessing;
 
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 import net.beadsproject.beads.core.UGen;
 import java.util.List;
 import java.util.ArrayList;
@@ -7,13 +9,27 @@ import java.util.ArrayList;
 /**
  * This class represents an implementation of {@link ProcessingUnitBuilder} in which an exception upon
  * the call of the method build is raised only if no effect has been specified.
+ * The effects are created in the {@link AudioContext} that the builder is given.
  */
 public final class BasicProcessingUnitBuilder implements ProcessingUnitBuilder {
 
+    private final AudioContext context;
     private boolean sidechainingPresent;
     private final List<RPEffect> effects;
 
+    /**
+     * Constructs a builder of units that are run by the {@link AudioContext} of the {@link AudioContextManager}.
+     */
     public BasicProcessingUnitBuilder() {
+        this(AudioContextManager.getAudioContext());
+    }
+
+    /**
+     * Constructs a builder of units that are run by the given {@link AudioContext}.
+     * @param context the {@link AudioContext} of the effects.
+     */
+    public BasicProcessingUnitBuilder(final AudioContext context) {
+        this.context = context;
         this.sidechainingPresent = false;
         this.effects = new ArrayList<>();
     }
@@ -27,7 +43,7 @@ public final class BasicProcessingUnitBuilder implements ProcessingUnitBuilder {
     @Override
     public ProcessingUnitBuilder sidechain(final UGen u, final int channels) {
         if (!this.sidechainingPresent) {
-            this.effects.add(new SidechainingImpl(u, channels));
+            this.effects.add(new SidechainingImpl(this.context, u, channels));
             this.sidechainingPresent = true;
         }
         return this;
@@ -40,7 +56,7 @@ public final class BasicProcessingUnitBuilder implements ProcessingUnitBuilder {
      */
     @Override
     public ProcessingUnitBuilder lowPassFilter(final int channels) {
-        this.effects.add(new LowPassFilter(channels));
+        this.effects.add(new LowPassFilter(this.context, channels));
         return this;
     }
 
@@ -51,7 +67,7 @@ public final class BasicProcessingUnitBuilder implements ProcessingUnitBuilder {
      */
     @Override
     public ProcessingUnitBuilder highPassFilter(final int channels) {
-        this.effects.add(new HighPassFilter(channels));
+        this.effects.add(new HighPassFilter(this.context, channels));
         return this;
     }
 
@@ -62,7 +78,29 @@ public final class BasicProcessingUnitBuilder implements ProcessingUnitBuilder {
      */
     @Override
     public ProcessingUnitBuilder reverb(final int channels) {
-        this.effects.add(new DigitalReverb(channels));
+        this.effects.add(new DigitalReverb(this.context, channels));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param channels the number of input and output channels for this effect.
+     * @return a reference to this object.
+     */
+    @Override
+    public ProcessingUnitBuilder parametricEq(final int channels) {
+        this.effects.add(new ParametricEq(this.context, channels));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param channels the number of input and output channels for this effect.
+     * @return a reference to this object.
+     */
+    @Override
+    public ProcessingUnitBuilder convolutionReverb(final int channels) {
+        this.effects.add(new ConvolutionReverb(this.context, channels));
         return this;
     }
 
@@ -73,7 +111,18 @@ public final class BasicProcessingUnitBuilder implements ProcessingUnitBuilder {
      */
     @Override
     public ProcessingUnitBuilder gate(final int channels) {
-        this.effects.add(new Gate(channels));
+        this.effects.add(new Gate(this.context, channels));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param channels the number of input and output channels for this effect.
+     * @return a reference to this object.
+     */
+    @Override
+    public ProcessingUnitBuilder lookAheadGate(final int channels) {
+        this.effects.add(new LookAheadGate(this.context, channels));
         return this;
     }
 
@@ -84,7 +133,7 @@ public final class BasicProcessingUnitBuilder implements ProcessingUnitBuilder {
      */
     @Override
     public ProcessingUnitBuilder compressor(final int channels) {
-        this.effects.add(new Compression(channels));
+        this.effects.add(new Compression(this.context, channels));
         return this;
     }
 
@@ -95,7 +144,7 @@ public final class BasicProcessingUnitBuilder implements ProcessingUnitBuilder {
      */
     @Override
     public ProcessingUnitBuilder limiter(final int channels) {
-        this.effects.add(new Limiter(channels));
+        this.effects.add(new Limiter(this.context, channels));
         return this;
     }
 
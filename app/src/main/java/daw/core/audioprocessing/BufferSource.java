@@ -0,0 +1,39 @@
+package daw.core.audioprocessing;
+
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+
+/**
+ * A {@link UGen} with no inputs, whose outputs are buffers filled by someone else.
+ * It allows the audio computed outside of the graph to be read by other UGens without being copied.
+ */
+public final class BufferSource extends UGen {
+
+    /**
+     * Constructs a source that outputs the given buffers.
+     * @param buffers the buffers to output, one for each channel, each one as long as the buffer size.
+     */
+    public BufferSource(final float[][] buffers) {
+        this(AudioContextManager.getAudioContext(), buffers);
+    }
+
+    /**
+     * Constructs a source that outputs the given buffers in the given {@link AudioContext}.
+     * @param context the {@link AudioContext} that runs the source.
+     * @param buffers the buffers to output, one for each channel, each one as long as the buffer size.
+     */
+    public BufferSource(final AudioContext context, final float[][] buffers) {
+        super(context, 0, buffers.length);
+        this.bufOut = buffers;
+        this.outputInitializationRegime = OutputInitializationRegime.RETAIN;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void calculateBuffer() {
+    }
+
+}
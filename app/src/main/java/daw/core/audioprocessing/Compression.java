@@ -1,7 +1,10 @@
 package daw.core.audioprocessing;
 
+import com.fasterxml.jackson.annotation.JacksonInject;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 
 /**
  * This class models compression, that is an audio signal processing operation which reduces the volume of
@@ -15,9 +18,28 @@ public class Compression extends Dynamics {
      * Constructs a compressor and sets its parameters to the current default.
      * @param channels the number of inputs and outputs of this effect.
      */
+    public Compression(final int channels) {
+        this(AudioContextManager.getAudioContext(), channels);
+    }
+
+    /**
+     * Constructs a compressor and sets its parameters to the current default.
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
+     */
     @JsonCreator
-    public Compression(@JsonProperty("ins") final int channels) {
-        super(channels);
+    public Compression(@JacksonInject final AudioContext context, @JsonProperty("ins") final int channels) {
+        super(context, channels);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param context {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    protected RPEffect create(final AudioContext context) {
+        return new Compression(context, this.getIns());
     }
 
 }
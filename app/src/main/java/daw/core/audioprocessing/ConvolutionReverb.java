@@ -0,0 +1,375 @@
+package daw.core.audioprocessing;
+
+import com.fasterxml.jackson.annotation.JacksonInject;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import daw.core.audioprocessing.ParameterDescriptor.Unit;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+import net.beadsproject.beads.data.Sample;
+import net.beadsproject.beads.data.audiofile.FileFormatException;
+import net.beadsproject.beads.data.audiofile.OperationUnsupportedException;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A reverb that convolves the audio with the impulse response of a room, so that the reverberation of a real
+ * room can be reproduced, for example to match dialogues recorded in different places.
+ * The impulse response is read from an audio file. Without one, a room is synthesized from its size and damping.
+ * The convolution is partitioned, so that long impulse responses can be afforded while the audio is playing.
+ * The partitions after the first one can be summed on a background thread.
+ */
+public class ConvolutionReverb extends RPEffect {
+
+    /**
+     * The identifier of the size of the synthesized room.
+     */
+    public static final int ROOM_SIZE = 0;
+
+    /**
+     * The identifier of how much the synthesized room damps the high frequencies.
+     */
+    public static final int DAMPING = 1;
+
+    /**
+     * The identifier of the balance between the dry and the wet signals.
+     */
+    public static final int DRY_WET = 2;
+
+    /**
+     * The identifier of whether the partitions after the first one are summed on a background thread,
+     * which is on when its value is 1.
+     */
+    public static final int BACKGROUND = 3;
+
+    private static final float DEFAULT_ROOM_SIZE = 0.2f;
+    private static final float DEFAULT_DAMPING = 0.5f;
+    private static final float DEFAULT_DRY_WET = 0.3f;
+    // the room size and the damping are not automatable, since changing them synthesizes the room again
+    private static final List<ParameterDescriptor> DESCRIPTORS = List.of(
+            ParameterDescriptor.setting(ROOM_SIZE, "roomSize", 0.0f, 1.0f, DEFAULT_ROOM_SIZE, Unit.NONE),
+            ParameterDescriptor.setting(DAMPING, "damping", 0.0f, 1.0f, DEFAULT_DAMPING, Unit.NONE),
+            ParameterDescriptor.parameter(DRY_WET, "dryWet", 0.0f, 1.0f, DEFAULT_DRY_WET, Unit.NONE),
+            ParameterDescriptor.setting(BACKGROUND, "background", 0.0f, 1.0f, 0.0f, Unit.NONE));
+    private static final float MIN_LENGTH = 200.0f;
+    private static final float MAX_LENGTH = 10_000.0f;
+    // the decay of the synthesized room, in decibels, along its whole length
+    private static final double DECAY = 60.0;
+    private static final long SEED = 1L;
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final int channels;
+    private final String impulse;
+    private final AtomicReference<PartitionedConvolver> convolver;
+    private final float[][] wetBuffer;
+    private float roomSize = DEFAULT_ROOM_SIZE;
+    private float damping = DEFAULT_DAMPING;
+    private float dryWetValue;
+    private float dryGain;
+    private float wetGain;
+    private boolean background;
+    private double tailTime;
+
+    /**
+     * Creates a reverb of a synthesized room and sets its parameters to the default value.
+     * @param channels the number of inputs and outputs of this effect.
+     */
+    public ConvolutionReverb(final int channels) {
+        this(AudioContextManager.getAudioContext(), channels);
+    }
+
+    /**
+     * Creates a reverb of a synthesized room in the given {@link AudioContext}.
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
+     */
+    public ConvolutionReverb(final AudioContext context, final int channels) {
+        this(context, channels, null, null);
+    }
+
+    /**
+     * Creates a reverb of the room whose impulse response is in the given audio file.
+     * @param channels the number of inputs and outputs of this effect.
+     * @param impulse the audio file of the impulse response.
+     * @throws IOException if the file cannot be read.
+     */
+    public ConvolutionReverb(final int channels, final File impulse) throws IOException {
+        this(AudioContextManager.getAudioContext(), channels, impulse);
+    }
+
+    /**
+     * Creates a reverb of the room whose impulse response is in the given audio file, in the given
+     * {@link AudioContext}.
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
+     * @param impulse the audio file of the impulse response.
+     * @throws IOException if the file cannot be read.
+     */
+    public ConvolutionReverb(final AudioContext context, final int channels, final File impulse)
+            throws IOException {
+        this(context, channels, impulse.getAbsolutePath(), read(impulse));
+    }
+
+    private ConvolutionReverb(final AudioContext context, final int channels, final String impulse,
+                              final float[][] response) {
+        super(context, channels);
+        this.channels = channels;
+        this.impulse = impulse;
+        this.wetBuffer = new float[channels][this.bufferSize];
+        this.convolver = new AtomicReference<>();
+        this.setResponse(response != null ? response : this.synthesize());
+        // the background thread must not outlive this reverb
+        CLEANER.register(this, stopOnClean(this.convolver));
+        this.setParameter(DRY_WET, DEFAULT_DRY_WET);
+        this.addInput(this.getGainIn());
+        this.getGainOut().addInput(this);
+    }
+
+    /**
+     * Creates a reverb from its saved form. If the impulse response cannot be read anymore,
+     * a room is synthesized instead.
+     * @param channels the number of inputs and outputs of this effect.
+     * @param impulse the path of the audio file of the impulse response, or null for a synthesized room.
+     * @return the reverb.
+     */
+    public static ConvolutionReverb create(final int channels, final String impulse) {
+        return create(AudioContextManager.getAudioContext(), channels, impulse);
+    }
+
+    /**
+     * Creates a reverb from its saved form in the given {@link AudioContext}.
+     * @param context the {@link AudioContext} that runs the reverb.
+     * @param channels the number of inputs and outputs of this effect.
+     * @param impulse the path of the audio file of the impulse response, or null for a synthesized room.
+     * @return the reverb.
+     */
+    @JsonCreator
+    public static ConvolutionReverb create(@JacksonInject final AudioContext context,
+                                           @JsonProperty("ins") final int channels,
+                                           @JsonProperty("impulse") final String impulse) {
+        if (impulse != null) {
+            try {
+                return new ConvolutionReverb(context, channels, new File(impulse));
+            } catch (IOException e) {
+                // falls back to the synthesized room
+            }
+        }
+        return new ConvolutionReverb(context, channels);
+    }
+
+    private static Runnable stopOnClean(final AtomicReference<PartitionedConvolver> convolver) {
+        return () -> convolver.get().setBackground(false);
+    }
+
+    private static float[][] read(final File impulse) throws IOException {
+        try {
+            final Sample sample = new Sample(impulse.getAbsolutePath());
+            final long frames = Math.min(sample.getNumFrames(), (long) sample.msToSamples(MAX_LENGTH));
+            if (frames == 0 || sample.getNumChannels() == 0) {
+                throw new IOException("The impulse response is empty.");
+            }
+            final float[][] response = new float[sample.getNumChannels()][(int) frames];
+            sample.getFrames(0, response);
+            return response;
+        } catch (OperationUnsupportedException | FileFormatException e) {
+            throw new IOException("The impulse response cannot be read: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the audio file of the impulse response.
+     * @return the path of the file, or an empty {@link Optional} if the room is synthesized.
+     */
+    public Optional<String> getImpulse() {
+        return Optional.ofNullable(this.impulse);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final List<ParameterDescriptor> getParameterDescriptors() {
+        return DESCRIPTORS;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param id {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final float getParameter(final int id) {
+        switch (id) {
+            case ROOM_SIZE:
+                return this.roomSize;
+            case DAMPING:
+                return this.damping;
+            case DRY_WET:
+                return this.dryWetValue;
+            case BACKGROUND:
+                return this.background ? 1.0f : 0.0f;
+            default:
+                throw new IllegalArgumentException(UNKNOWN_PARAMETER_ERROR);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The room size and the damping only change a synthesized room, which is synthesized again each time
+     * one of them is set. A background value of 1 sums the partitions of the impulse response after the
+     * first one on a background thread.
+     * @param id {@inheritDoc}
+     * @param value {@inheritDoc}
+     */
+    @Override
+    public final void setParameter(final int id, final float value) {
+        final float checked = this.checkValue(id, value);
+        switch (id) {
+            case ROOM_SIZE:
+                this.roomSize = checked;
+                this.synthesizeRoom();
+                break;
+            case DAMPING:
+                this.damping = checked;
+                this.synthesizeRoom();
+                break;
+            case DRY_WET:
+                this.dryWetValue = checked;
+                this.dryGain = (float) Math.cos(Math.PI * this.dryWetValue / 2);
+                this.wetGain = (float) Math.sin(Math.PI * this.dryWetValue / 2);
+                break;
+            case BACKGROUND:
+                this.background = checked >= 1.0f;
+                this.convolver.get().setBackground(this.background);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The room is synthesized once, even if both the room size and the damping are modified.
+     * @param parameters {@inheritDoc}
+     */
+    @Override
+    public final void setParameters(final Map<String, Float> parameters) {
+        final Float size = parameters.get(DESCRIPTORS.get(ROOM_SIZE).getName());
+        final Float damp = parameters.get(DESCRIPTORS.get(DAMPING).getName());
+        if (size != null || damp != null) {
+            this.roomSize = DESCRIPTORS.get(ROOM_SIZE).clamp(size != null ? size : this.roomSize);
+            this.damping = DESCRIPTORS.get(DAMPING).clamp(damp != null ? damp : this.damping);
+            this.synthesizeRoom();
+        }
+        for (final ParameterDescriptor descriptor : List.of(DESCRIPTORS.get(DRY_WET), DESCRIPTORS.get(BACKGROUND))) {
+            final Float value = parameters.get(descriptor.getName());
+            if (value != null) {
+                this.setParameter(descriptor.getId(), value);
+            }
+        }
+    }
+
+    private void synthesizeRoom() {
+        if (this.impulse == null) {
+            this.setResponse(this.synthesize());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The reverb processes the audio by itself, without the input and the output gains.
+     * @param source {@inheritDoc}
+     * @return this reverb.
+     */
+    @Override
+    public final UGen compile(final UGen source) {
+        this.clearInputConnections();
+        this.addInput(source);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The tail is as long as the impulse response.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final double getTailTime() {
+        return this.tailTime;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void calculateBuffer() {
+        this.convolver.get().process(this.bufIn, this.wetBuffer);
+        for (int c = 0; c < this.channels; c++) {
+            DspKernels.scale(this.bufIn[c], this.dryGain, this.bufOut[c], this.bufferSize);
+            DspKernels.scale(this.wetBuffer[c], this.wetGain, this.wetBuffer[c], this.bufferSize);
+            DspKernels.sumInto(this.wetBuffer[c], this.bufOut[c], this.bufferSize);
+        }
+    }
+
+    // the new convolver starts with an empty tail, and the old one stops its background thread
+    private void setResponse(final float[][] response) {
+        normalize(response);
+        final PartitionedConvolver newConvolver = new PartitionedConvolver(response, this.bufferSize, this.channels);
+        newConvolver.setBackground(this.background);
+        final PartitionedConvolver old = this.convolver.getAndSet(newConvolver);
+        if (old != null) {
+            old.setBackground(false);
+        }
+        this.tailTime = this.context.samplesToMs(response.length == 0 ? 0 : response[0].length);
+    }
+
+    // exponentially decaying noise, which gets darker as it decays when the room is damped
+    private float[][] synthesize() {
+        final float length = MIN_LENGTH + (MAX_LENGTH - MIN_LENGTH) * this.roomSize * this.roomSize;
+        final int frames = (int) this.context.msToSamples(length);
+        final Random random = new Random(SEED);
+        final float[][] response = new float[this.channels][frames];
+        for (int c = 0; c < this.channels; c++) {
+            float smoothed = 0.0f;
+            for (int i = 0; i < frames; i++) {
+                final double progress = (double) i / frames;
+                final float smoothing = (float) (this.damping * progress);
+                smoothed = smoothed * smoothing + (float) random.nextGaussian() * (1 - smoothing);
+                response[c][i] = smoothed * (float) Math.pow(10, -DECAY * progress / 20);
+            }
+        }
+        return response;
+    }
+
+    // every channel of the response gets the energy of a unit impulse, so the wet signal is as loud as the dry one
+    private static void normalize(final float[][] response) {
+        for (final float[] channel : response) {
+            double energy = 0.0;
+            for (final float sample : channel) {
+                energy += sample * sample;
+            }
+            if (energy > 0.0) {
+                DspKernels.scale(channel, (float) (1 / Math.sqrt(energy)), channel, channel.length);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param context {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    protected RPEffect create(final AudioContext context) {
+        return create(context, this.channels, this.impulse);
+    }
+
+}
@@ -1,50 +1,90 @@
 package daw.core.audioprocessing;
 
+import com.fasterxml.jackson.annotation.JacksonInject;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import daw.core.audioprocessing.ParameterDescriptor.Unit;
 import daw.utilities.AudioContextManager;
-import net.beadsproject.beads.data.DataBead;
-import net.beadsproject.beads.ugens.Gain;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
 import net.beadsproject.beads.ugens.Reverb;
-import java.util.Map;
+import java.util.List;
 
 /**
  * Reverberation, in acoustics, is a persistence of sound (echo) after a sound is produced.
  * Reverberation is created when a sound or signal is reflected causing numerous reflections to build up
  * and then decay as the sound is absorbed by the surfaces of objects in the space.
  * A reverb effect, or digital reverb, is an audio effect applied to a sound signal to simulate reverberation.
+ * The reverb mixes the dry signal with the one of the reflections by itself, so that no gain is run between them.
  */
 public class DigitalReverb extends RPEffect {
 
-    private static final float DEFAULT_WET_VALUE = (float) (1 / Math.sqrt(2.0));
-    private static final float DEFAULT_DRY_VALUE = (float) (1 / Math.sqrt(2.0));
+    /**
+     * The identifier of how much the reflections are damped.
+     */
+    public static final int DAMPING = 0;
+
+    /**
+     * The identifier of the size of the room.
+     */
+    public static final int ROOM_SIZE = 1;
+
+    /**
+     * The identifier of the level of the early reflections.
+     */
+    public static final int EARLY_REFLECTIONS_LEVEL = 2;
+
+    /**
+     * The identifier of the level of the late reverberation.
+     */
+    public static final int LATE_REVERB_LEVEL = 3;
+
+    /**
+     * The identifier of the balance between the dry and the wet signals.
+     */
+    public static final int DRY_WET = 4;
+
+    private static final List<ParameterDescriptor> DESCRIPTORS = List.of(
+            ParameterDescriptor.parameter(DAMPING, "damping", 0.0f, 1.0f, 0.7f, Unit.NONE),
+            ParameterDescriptor.parameter(ROOM_SIZE, "roomSize", 0.0f, 1.0f, 0.5f, Unit.NONE),
+            ParameterDescriptor.parameter(EARLY_REFLECTIONS_LEVEL, "earlyReflectionsLevel", 0.0f, 1.0f, 1.0f, Unit.NONE),
+            ParameterDescriptor.parameter(LATE_REVERB_LEVEL, "lateReverbLevel", 0.0f, 1.0f, 1.0f, Unit.NONE),
+            ParameterDescriptor.parameter(DRY_WET, "dryWet", 0.0f, 1.0f, 0.5f, Unit.NONE));
+    private static final double MIN_TAIL_TIME = 500.0;
+    private static final double MAX_TAIL_TIME = 10_000.0;
 
     private final Reverb rev;
-    private final Gain wet;
-    private final Gain dry;
     private float dryWetValue;
+    private float dryGain;
+    private float wetGain;
 
     /**
      * Constructs a reverb and sets its parameters to the default value.
      * @param channels the number of inputs and outputs of this effect.
      */
+    public DigitalReverb(final int channels) {
+        this(AudioContextManager.getAudioContext(), channels);
+    }
+
+    /**
+     * Constructs a reverb and sets its parameters to the default value.
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
+     */
     @JsonCreator
-    public DigitalReverb(@JsonProperty("ins") final int channels) {
-        super(channels);
-        this.rev = new Reverb(AudioContextManager.getAudioContext(), channels);
-        this.wet = new Gain(AudioContextManager.getAudioContext(), 2, DEFAULT_WET_VALUE);
-        this.dry = new Gain(AudioContextManager.getAudioContext(), 2, DEFAULT_DRY_VALUE);
+    public DigitalReverb(@JacksonInject final AudioContext context, @JsonProperty("ins") final int channels) {
+        super(context, channels);
+        this.rev = new Reverb(context, channels);
+        for (final ParameterDescriptor descriptor : DESCRIPTORS) {
+            this.setParameter(descriptor.getId(), descriptor.getDefaultValue());
+        }
         this.initializeStructure();
     }
 
     private void initializeStructure() {
         this.rev.addInput(this.getGainIn());
-        this.dry.addInput(this.getGainIn());
-        this.wet.addInput(this.rev);
-        this.getGainOut().addInput(0, this.dry, 0);
-        this.getGainOut().addInput(0, this.wet, 0);
-        this.getGainOut().addInput(1, this.dry, 1);
-        this.getGainOut().addInput(1, this.wet, 1);
+        this.addInput(this.getGainIn());
+        this.getGainOut().addInput(this);
     }
 
     /**
@@ -52,34 +92,116 @@ public class DigitalReverb extends RPEffect {
      * @return {@inheritDoc}
      */
     @Override
-    public final Map<String, Float> getParameters() {
-        return Map.of("damping", this.rev.getDamping(), "roomSize", this.rev.getSize(),
-                "earlyReflectionsLevel", this.rev.getEarlyReflectionsLevel(),
-                "lateReverbLevel", this.rev.getLateReverbLevel(), "dryWet", this.dryWetValue);
+    public final List<ParameterDescriptor> getParameterDescriptors() {
+        return DESCRIPTORS;
     }
 
     /**
      * {@inheritDoc}
-     * @param parameters the {@link Map} that contains the parameters that must be modified.
+     * @param id {@inheritDoc}
+     * @return {@inheritDoc}
      */
     @Override
-    public final void setParameters(final Map<String, Float> parameters) {
-        final DataBead db = new DataBead();
-        db.putAll(parameters);
-        this.dry.setGain((float) Math.cos(Math.PI * this.dryWetValue / 2));
-        this.wet.setGain((float) Math.sin(Math.PI * this.dryWetValue / 2));
-        this.rev.sendData(db);
-        if (parameters.containsKey("dryWet")) {
-            this.dryWetValue = parameters.get("dryWet");
+    public final float getParameter(final int id) {
+        switch (id) {
+            case DAMPING:
+                return this.rev.getDamping();
+            case ROOM_SIZE:
+                return this.rev.getSize();
+            case EARLY_REFLECTIONS_LEVEL:
+                return this.rev.getEarlyReflectionsLevel();
+            case LATE_REVERB_LEVEL:
+                return this.rev.getLateReverbLevel();
+            case DRY_WET:
+                return this.dryWetValue;
+            default:
+                throw new IllegalArgumentException(UNKNOWN_PARAMETER_ERROR);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * The dry and the wet signals are balanced so that their power stays the same.
+     * @param id {@inheritDoc}
+     * @param value {@inheritDoc}
+     */
+    @Override
+    public final void setParameter(final int id, final float value) {
+        final float checked = this.checkValue(id, value);
+        switch (id) {
+            case DAMPING:
+                this.rev.setDamping(checked);
+                break;
+            case ROOM_SIZE:
+                this.rev.setSize(checked);
+                break;
+            case EARLY_REFLECTIONS_LEVEL:
+                this.rev.setEarlyReflectionsLevel(checked);
+                break;
+            case LATE_REVERB_LEVEL:
+                this.rev.setLateReverbLevel(checked);
+                break;
+            case DRY_WET:
+                this.dryWetValue = checked;
+                this.dryGain = (float) Math.cos(Math.PI * this.dryWetValue / 2);
+                this.wetGain = (float) Math.sin(Math.PI * this.dryWetValue / 2);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The reverb reads the dry signal from the source and mixes it with the reflections by itself.
+     * @param source {@inheritDoc}
+     * @return this reverb.
+     */
+    @Override
+    public final UGen compile(final UGen source) {
+        this.rev.clearInputConnections();
+        this.rev.addInput(source);
+        this.clearInputConnections();
+        this.addInput(source);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The tail grows with the size of the room.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final double getTailTime() {
+        return MIN_TAIL_TIME + (MAX_TAIL_TIME - MIN_TAIL_TIME) * this.rev.getSize();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public final void calculateBuffer() {
-        this.rev.calculateBuffer();
+        this.rev.update();
+        final float dryLevel = this.dryGain;
+        final float wetLevel = this.wetGain;
+        for (int c = 0; c < this.outs; c++) {
+            final float[] in = this.bufIn[c];
+            final float[] reflections = this.rev.getOutBuffer(c % this.rev.getOuts());
+            final float[] out = this.bufOut[c];
+            for (int i = 0; i < this.bufferSize; i++) {
+                out[i] = dryLevel * in[i] + wetLevel * reflections[i];
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param context {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    protected RPEffect create(final AudioContext context) {
+        return new DigitalReverb(context, this.getIns());
     }
 
 }
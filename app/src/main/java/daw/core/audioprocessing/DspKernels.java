@@ -0,0 +1,107 @@
+package daw.core.audioprocessing;
+
+/**
+ * The inner loops shared by the effects and the channels. They are run with the vector API when the
+ * jdk.incubator.vector module has been added to the virtual machine, and with plain loops otherwise,
+ * or if the system property {@value #SCALAR_PROPERTY} is true.
+ * All the methods work on the first given number of frames of the buffers.
+ */
+public final class DspKernels {
+
+    /**
+     * The system property that forces the plain loops to be used.
+     */
+    public static final String SCALAR_PROPERTY = "resplan.dsp.scalar";
+
+    private static final Kernels KERNELS = select();
+
+    private DspKernels() {
+    }
+
+    private static Kernels select() {
+        if (!Boolean.getBoolean(SCALAR_PROPERTY)) {
+            try {
+                Class.forName("jdk.incubator.vector.FloatVector");
+                return new VectorKernels();
+            } catch (ClassNotFoundException | LinkageError e) {
+                // the module is not available, so the plain loops are used
+            }
+        }
+        return new ScalarKernels();
+    }
+
+    /**
+     * Checks if the vector API is used.
+     * @return true if the kernels are run with the vector API, false if they are run with plain loops.
+     */
+    public static boolean isVectorized() {
+        return KERNELS instanceof VectorKernels;
+    }
+
+    /**
+     * Multiplies a buffer by a gain.
+     * @param in the buffer to read.
+     * @param gain the gain.
+     * @param out the buffer to write, which can be the same as the one to read.
+     * @param frames the number of frames to process.
+     */
+    public static void scale(final float[] in, final float gain, final float[] out, final int frames) {
+        KERNELS.scale(in, gain, out, frames);
+    }
+
+    /**
+     * Multiplies a buffer by a gain that goes linearly from a value to another, reaching the latter at the last
+     * frame. Gain changes are ramped this way so that they do not produce clicks, and a pan law is applied by
+     * ramping each side by its own gain.
+     * @param in the buffer to read.
+     * @param from the gain before the first frame.
+     * @param to the gain at the last frame.
+     * @param out the buffer to write, which can be the same as the one to read.
+     * @param frames the number of frames to process.
+     */
+    public static void ramp(final float[] in, final float from, final float to, final float[] out, final int frames) {
+        KERNELS.ramp(in, from, to, out, frames);
+    }
+
+    /**
+     * Adds a buffer to another.
+     * @param in the buffer to read.
+     * @param out the buffer the read one is added to.
+     * @param frames the number of frames to process.
+     */
+    public static void sumInto(final float[] in, final float[] out, final int frames) {
+        KERNELS.sumInto(in, out, frames);
+    }
+
+    /**
+     * Multiplies a buffer by an envelope, frame by frame.
+     * @param in the buffer to read.
+     * @param envelope the gain of each frame.
+     * @param out the buffer to write, which can be the same as the one to read.
+     * @param frames the number of frames to process.
+     */
+    public static void applyEnvelope(final float[] in, final float[] envelope, final float[] out, final int frames) {
+        KERNELS.applyEnvelope(in, envelope, out, frames);
+    }
+
+    /**
+     * Gets the peak of a buffer.
+     * @param in the buffer to read.
+     * @param frames the number of frames to process.
+     * @return the biggest absolute value in the buffer.
+     */
+    public static float peak(final float[] in, final int frames) {
+        return KERNELS.peak(in, frames);
+    }
+
+    /**
+     * Gets the root mean square of a buffer.
+     * @param in the buffer to read.
+     * @param frames the number of frames to process.
+     * @return the root mean square of the buffer, or zero if there are no frames.
+     */
+    public static float rms(final float[] in, final int frames) {
+        return KERNELS.rms(in, frames);
+    }
+
+}
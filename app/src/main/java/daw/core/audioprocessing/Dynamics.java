@@ -1,52 +1,164 @@
 package daw.core.audioprocessing;
 
+import daw.core.audioprocessing.ParameterDescriptor.Unit;
 import daw.utilities.AudioContextManager;
-import net.beadsproject.beads.data.DataBead;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
 import net.beadsproject.beads.ugens.Compressor;
-import java.util.Map;
+import java.util.List;
 
 /**
  * Abstract class for all the "dynamics" effects. Dynamics effects adjust volume based upon a volume limit
  * (called a “threshold”), that the user can set. When the sound crosses the threshold,
  * the effect adjusts the volume based upon the type of effect and its settings.
- * Implementations of this class are {@link Compression}, {@link Limiter} and {@link SidechainingImpl}.
+ * Implementations of this class are {@link Compression} and {@link Limiter}.
  */
 public abstract class Dynamics extends RPEffect {
 
+    /**
+     * The identifier of the level above which the volume is reduced.
+     */
+    public static final int THRESHOLD = 0;
+
+    /**
+     * The identifier of the ratio by which the volume above the threshold is reduced.
+     */
+    public static final int RATIO = 1;
+
+    /**
+     * The identifier of the time that the compression takes to begin.
+     */
+    public static final int ATTACK = 2;
+
+    /**
+     * The identifier of the time that the compression takes to end.
+     */
+    public static final int DECAY = 3;
+
+    /**
+     * The identifier of the gain that the compression is applying, which can only be read.
+     */
+    public static final int CURRENT_COMPRESSION = 4;
+
+    private static final float DEFAULT_THRESHOLD = 0.5f;
+    private static final float DEFAULT_RATIO = 2.0f;
+    private static final float DEFAULT_ATTACK = 1.0f;
+    private static final float DEFAULT_DECAY = 0.5f;
+    private static final float MAX_TIME = 5000.0f;
+
     protected final Compressor compressor;
+    private final List<ParameterDescriptor> descriptors;
 
     /**
      * Sets up a dynamics effect.
      * @param channels the number of inputs and outputs of this effect.
      */
     public Dynamics(final int channels) {
-        super(channels);
-        this.compressor = new Compressor(AudioContextManager.getAudioContext(), channels);
+        this(AudioContextManager.getAudioContext(), channels);
+    }
+
+    /**
+     * Sets up a dynamics effect in the given {@link AudioContext}.
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
+     */
+    public Dynamics(final AudioContext context, final int channels) {
+        this(context, channels, DEFAULT_RATIO);
+    }
+
+    /**
+     * Sets up a dynamics effect with the given ratio.
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
+     * @param ratio the ratio that the effect has when it is created.
+     */
+    protected Dynamics(final AudioContext context, final int channels, final float ratio) {
+        super(context, channels);
+        this.descriptors = List.of(
+                ParameterDescriptor.parameter(THRESHOLD, "threshold", 0.0f, 1.0f, DEFAULT_THRESHOLD, Unit.NONE),
+                ParameterDescriptor.parameter(RATIO, "ratio", 1.0f, Float.POSITIVE_INFINITY, ratio, Unit.NONE),
+                ParameterDescriptor.parameter(ATTACK, "attack", 0.0f, MAX_TIME, DEFAULT_ATTACK, Unit.MILLISECONDS),
+                ParameterDescriptor.parameter(DECAY, "decay", 0.0f, MAX_TIME, DEFAULT_DECAY, Unit.MILLISECONDS),
+                ParameterDescriptor.meter(CURRENT_COMPRESSION, ParameterDescriptor.GAIN_REDUCTION, 0.0f, 1.0f, 1.0f,
+                        Unit.NONE));
+        this.compressor = new Compressor(context, channels);
+        for (final ParameterDescriptor descriptor : this.descriptors) {
+            if (!descriptor.isReadOnly()) {
+                this.setParameter(descriptor.getId(), descriptor.getDefaultValue());
+            }
+        }
         this.compressor.addInput(this.getGainIn());
         this.getGainOut().addInput(this.compressor);
     }
 
     /**
      * {@inheritDoc}
-     * @return a {@link Map} where the keys are the parameters and the values are the
-     * current value of each parameter of the effect.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final List<ParameterDescriptor> getParameterDescriptors() {
+        return this.descriptors;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param id {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final float getParameter(final int id) {
+        switch (id) {
+            case THRESHOLD:
+                return this.compressor.getThreshold();
+            case RATIO:
+                return this.compressor.getRatio();
+            case ATTACK:
+                return this.compressor.getAttack();
+            case DECAY:
+                return this.compressor.getDecay();
+            case CURRENT_COMPRESSION:
+                return this.compressor.getCurrentCompression();
+            default:
+                throw new IllegalArgumentException(UNKNOWN_PARAMETER_ERROR);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param id {@inheritDoc}
+     * @param value {@inheritDoc}
      */
     @Override
-    public final Map<String, Float> getParameters() {
-        return Map.of("threshold", this.compressor.getThreshold(), "ratio", this.compressor.getRatio(),
-                "attack", this.compressor.getAttack(), "decay", this.compressor.getDecay(),
-                "current compression", this.compressor.getCurrentCompression());
+    public final void setParameter(final int id, final float value) {
+        final float checked = this.checkValue(id, value);
+        switch (id) {
+            case THRESHOLD:
+                this.compressor.setThreshold(checked);
+                break;
+            case RATIO:
+                this.compressor.setRatio(checked);
+                break;
+            case ATTACK:
+                this.compressor.setAttack(checked);
+                break;
+            case DECAY:
+                this.compressor.setDecay(checked);
+                break;
+            default:
+                break;
+        }
     }
 
     /**
      * {@inheritDoc}
-     * @param parameters the {@link Map} that contains the parameters that must be modified.
+     * @param source the {@link UGen} that outputs the audio to be processed.
+     * @return the compressor.
      */
     @Override
-    public final void setParameters(final Map<String, Float> parameters) {
-        final DataBead db = new DataBead();
-        db.putAll(parameters);
-        this.compressor.sendData(db);
+    public final UGen compile(final UGen source) {
+        this.compressor.clearInputConnections();
+        this.compressor.addInput(source);
+        return this.compressor;
     }
 
     /**
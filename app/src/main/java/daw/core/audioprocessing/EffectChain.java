@@ -0,0 +1,83 @@
+package daw.core.audioprocessing;
+
+import java.util.List;
+
+/**
+ * An immutable sequence of effects, as published by a {@link ProcessingUnit} every time its sequence changes.
+ * The chain is built by the thread that edits the unit, together with what the audio thread needs to know about
+ * its effects, so that a channel strip only has to connect them when it swaps to the new chain at the beginning
+ * of a buffer. Each edit of the unit publishes a single chain, so the strip never runs a sequence in the middle
+ * of an edit.
+ * A crossfaded chain asks the strip to fade the previous chain out along a buffer before swapping to it, and to
+ * fade it in along the next one. The two chains cannot be run together, as they share their effects.
+ * Two chains with the same list of effects are run in the same way, whatever their crossfade.
+ */
+public final class EffectChain {
+
+    /**
+     * The chain with no effects.
+     */
+    public static final EffectChain EMPTY = new EffectChain(List.of(), false);
+
+    private final List<RPEffect> effects;
+    private final boolean crossfaded;
+    private final int[] gainReductions;
+
+    /**
+     * Constructs a chain of the given effects.
+     * @param effects the effects, in the order they process the audio.
+     * @param crossfaded true if the strip must fade between the previous chain and this one.
+     */
+    public EffectChain(final List<RPEffect> effects, final boolean crossfaded) {
+        this.effects = List.copyOf(effects);
+        this.crossfaded = crossfaded;
+        this.gainReductions = new int[effects.size()];
+        for (int e = 0; e < effects.size(); e++) {
+            this.gainReductions[e] = effects.get(e).getParameterDescriptors().stream()
+                    .filter(d -> d.isReadOnly() && ParameterDescriptor.GAIN_REDUCTION.equals(d.getName()))
+                    .mapToInt(ParameterDescriptor::getId).findFirst().orElse(-1);
+        }
+    }
+
+    private EffectChain(final EffectChain chain, final boolean crossfaded) {
+        this.effects = chain.effects;
+        this.crossfaded = crossfaded;
+        this.gainReductions = chain.gainReductions;
+    }
+
+    /**
+     * Gets a chain of the same effects that is crossfaded or not. The effects are the same list, so a strip that
+     * is running this chain does not need to compile them again.
+     * @param crossfade true if the strip must fade between the previous chain and the returned one.
+     * @return the chain with the given crossfade.
+     */
+    public EffectChain withCrossfade(final boolean crossfade) {
+        return crossfade == this.crossfaded ? this : new EffectChain(this, crossfade);
+    }
+
+    /**
+     *
+     * @return the immutable list of the effects, in the order they process the audio.
+     */
+    public List<RPEffect> getEffects() {
+        return this.effects;
+    }
+
+    /**
+     *
+     * @return true if the strip must fade between the previous chain and this one.
+     */
+    public boolean isCrossfaded() {
+        return this.crossfaded;
+    }
+
+    /**
+     * Gets the read-only parameter that tells how much an effect of this chain is reducing the gain.
+     * @param position the position of the effect in this chain.
+     * @return the identifier of the parameter, or -1 if the effect does not reduce the gain.
+     */
+    public int getGainReduction(final int position) {
+        return this.gainReductions[position];
+    }
+
+}
@@ -1,58 +1,99 @@
 package daw.core.audioprocessing;
 
-import daw.utilities.AudioContextManager;
-import net.beadsproject.beads.data.DataBead;
+import daw.core.audioprocessing.ParameterDescriptor.Unit;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
 import net.beadsproject.beads.ugens.CrossoverFilter;
-import java.util.Map;
+import java.util.List;
 
 /**
  * Equalization is the process of adjusting the volume of different frequency bands within an audio signal.
  * Different types of filters are used to achieve this result. These filters include high pass and low pass filter,
  * which are implemented in this software as subclasses of this abstract class.
+ * The effect outputs the buffers of the band of its crossover filter as they are, so that nothing is copied
+ * after the filter.
  */
 public abstract class Equalization extends RPEffect {
 
+    /**
+     * The identifier of the cutoff frequency.
+     */
+    public static final int FREQUENCY = 0;
+
     private static final float LOW_PASS_DEFAULT_FREQUENCY = 18_000.0f;
     private static final float HIGH_PASS_DEFAULT_FREQUENCY = 90.0f;
+    private static final float MIN_FREQUENCY = 20.0f;
+    private static final float MAX_FREQUENCY = 20_000.0f;
 
     private final CrossoverFilter filter;
+    private final List<ParameterDescriptor> descriptors;
 
     /**
      * Sets up an equalization effect, which can be either a low pass filter or a high pass filter.
+     * @param context the {@link AudioContext} that runs this effect.
      * @param channels the number of inputs and outputs of this effect.
      * @param low true if the requested filter is the low pass, false if it is the high pass.
      */
-    protected Equalization(final int channels, final boolean low) {
-        super(channels);
-        this.filter = new CrossoverFilter(AudioContextManager.getAudioContext(), channels);
+    protected Equalization(final AudioContext context, final int channels, final boolean low) {
+        super(context, channels);
+        this.descriptors = List.of(ParameterDescriptor.parameter(FREQUENCY, "frequency", MIN_FREQUENCY,
+                MAX_FREQUENCY, low ? LOW_PASS_DEFAULT_FREQUENCY : HIGH_PASS_DEFAULT_FREQUENCY, Unit.HERTZ));
+        this.filter = new CrossoverFilter(context, channels);
         this.filter.addInput(this.getGainIn());
-        if (low) {
-            this.filter.setFrequency(LOW_PASS_DEFAULT_FREQUENCY);
-            this.filter.drawFromLowOutput(this.getGainOut());
-        } else {
-            this.filter.setFrequency(HIGH_PASS_DEFAULT_FREQUENCY);
-            this.filter.drawFromHighOutput(this.getGainOut());
+        this.filter.setFrequency(this.descriptors.get(FREQUENCY).getDefaultValue());
+        // the low outputs of the filter come before the high ones
+        final int band = low ? 0 : channels;
+        for (int c = 0; c < channels; c++) {
+            this.addInput(c, this.filter, band + c);
         }
+        // the output buffers are the ones of the filter, which are taken again at each buffer
+        this.outputInitializationRegime = OutputInitializationRegime.RETAIN;
+        this.getGainOut().addInput(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final List<ParameterDescriptor> getParameterDescriptors() {
+        return this.descriptors;
     }
 
     /**
      * {@inheritDoc}
+     * @param id {@inheritDoc}
      * @return {@inheritDoc}
      */
     @Override
-    public final Map<String, Float> getParameters() {
-        return Map.of("frequency", this.filter.getFrequency());
+    public final float getParameter(final int id) {
+        if (id != FREQUENCY) {
+            throw new IllegalArgumentException(UNKNOWN_PARAMETER_ERROR);
+        }
+        return this.filter.getFrequency();
     }
 
     /**
      * {@inheritDoc}
-     * @param parameters the {@link Map} that contains the parameters that must be modified
+     * @param id {@inheritDoc}
+     * @param value {@inheritDoc}
      */
     @Override
-    public final void setParameters(final Map<String, Float> parameters) {
-        final DataBead db = new DataBead();
-        db.putAll(parameters);
-        this.filter.sendData(db);
+    public final void setParameter(final int id, final float value) {
+        this.filter.setFrequency(this.checkValue(id, value));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The filter reads from the source, and the band is selected by this effect without copying it.
+     * @param source {@inheritDoc}
+     * @return this effect.
+     */
+    @Override
+    public final UGen compile(final UGen source) {
+        this.filter.clearInputConnections();
+        this.filter.addInput(source);
+        return this;
     }
 
     /**
@@ -60,7 +101,9 @@ public abstract class Equalization extends RPEffect {
      */
     @Override
     public final void calculateBuffer() {
-        this.filter.calculateBuffer();
+        for (int c = 0; c < this.outs; c++) {
+            this.bufOut[c] = this.bufIn[c];
+        }
     }
 
 }
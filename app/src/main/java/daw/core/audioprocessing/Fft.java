@@ -0,0 +1,78 @@
+package daw.core.audioprocessing;
+
+/**
+ * An in-place radix-2 fast Fourier transform of a fixed size, whose tables are computed once
+ * so that transforming allocates nothing.
+ */
+// package-protected since it is only used by PartitionedConvolver
+final class Fft {
+
+    private final int size;
+    private final int[] reversed;
+    private final float[] cos;
+    private final float[] sin;
+
+    /**
+     * Creates a transform of the given size.
+     * @param size the number of points, which must be a power of two.
+     * @throws IllegalArgumentException if the size is not a power of two.
+     */
+    Fft(final int size) {
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("The size of the transform must be a power of two.");
+        }
+        this.size = size;
+        this.reversed = new int[size];
+        final int bits = Integer.numberOfTrailingZeros(size);
+        for (int i = 0; i < size; i++) {
+            this.reversed[i] = Integer.reverse(i) >>> (Integer.SIZE - bits);
+        }
+        this.cos = new float[size / 2];
+        this.sin = new float[size / 2];
+        for (int i = 0; i < size / 2; i++) {
+            this.cos[i] = (float) Math.cos(2 * Math.PI * i / size);
+            this.sin[i] = (float) Math.sin(2 * Math.PI * i / size);
+        }
+    }
+
+    /**
+     * Transforms the given complex values in place. The inverse transform is not scaled, so the values
+     * must be divided by the size to get back to the original ones.
+     * @param re the real parts.
+     * @param im the imaginary parts.
+     * @param inverse true for the inverse transform.
+     */
+    void transform(final float[] re, final float[] im, final boolean inverse) {
+        for (int i = 0; i < this.size; i++) {
+            final int j = this.reversed[i];
+            if (i < j) {
+                final float r = re[i];
+                re[i] = re[j];
+                re[j] = r;
+                final float m = im[i];
+                im[i] = im[j];
+                im[j] = m;
+            }
+        }
+        final float sign = inverse ? 1.0f : -1.0f;
+        for (int length = 2; length <= this.size; length <<= 1) {
+            final int half = length / 2;
+            final int step = this.size / length;
+            for (int i = 0; i < this.size; i += length) {
+                for (int k = 0; k < half; k++) {
+                    final float wr = this.cos[k * step];
+                    final float wi = sign * this.sin[k * step];
+                    final int a = i + k;
+                    final int b = a + half;
+                    final float tr = re[b] * wr - im[b] * wi;
+                    final float ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+
+}
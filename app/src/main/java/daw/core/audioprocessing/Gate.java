@@ -1,9 +1,13 @@
 package daw.core.audioprocessing;
 
+import com.fasterxml.jackson.annotation.JacksonInject;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import daw.core.audioprocessing.ParameterDescriptor.Unit;
 import daw.utilities.AudioContextManager;
-import net.beadsproject.beads.data.DataBead;
-import java.util.Map;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+import java.util.List;
 
 /**
  * Gate is the term for the audio device designed to reduce background noise coming in from an audio source.
@@ -14,15 +18,59 @@ import java.util.Map;
  */
 public class Gate extends RPEffect {
 
+    /**
+     * The identifier of the level below which the volume is reduced.
+     */
+    public static final int THRESHOLD = 0;
+
+    /**
+     * The identifier of the ratio by which the volume below the threshold is reduced.
+     */
+    public static final int RATIO = 1;
+
+    /**
+     * The identifier of the time that the gate takes to close.
+     */
+    public static final int ATTACK = 2;
+
+    /**
+     * The identifier of the time that the gate takes to open.
+     */
+    public static final int DECAY = 3;
+
+    /**
+     * The identifier of the gain that the gate is applying, which can only be read.
+     */
+    public static final int CURRENT_COMPRESSION = 4;
+
+    private static final float MAX_TIME = 5000.0f;
+    private static final List<ParameterDescriptor> DESCRIPTORS = List.of(
+            ParameterDescriptor.parameter(THRESHOLD, "threshold", 0.0f, 1.0f, 0.5f, Unit.NONE),
+            ParameterDescriptor.parameter(RATIO, "ratio", 0.01f, Float.POSITIVE_INFINITY, 2.0f, Unit.NONE),
+            ParameterDescriptor.parameter(ATTACK, "attack", 0.0f, MAX_TIME, 1.0f, Unit.MILLISECONDS),
+            ParameterDescriptor.parameter(DECAY, "decay", 0.0f, MAX_TIME, 0.5f, Unit.MILLISECONDS),
+            ParameterDescriptor.meter(CURRENT_COMPRESSION, ParameterDescriptor.GAIN_REDUCTION, 0.0f, 1.0f, 1.0f,
+                    Unit.NONE));
+
     private final GateEffect gateEffect;
 
     /**
      * Creates a gate and sets its parameters to the default value.
      * @param channels the number of inputs and outputs of this effect.
      */
-    public Gate(@JsonProperty("ins") final int channels) {
-        super(channels);
-        this.gateEffect = new GateEffect(AudioContextManager.getAudioContext(), channels);
+    public Gate(final int channels) {
+        this(AudioContextManager.getAudioContext(), channels);
+    }
+
+    /**
+     * Creates a gate and sets its parameters to the default value.
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
+     */
+    @JsonCreator
+    public Gate(@JacksonInject final AudioContext context, @JsonProperty("ins") final int channels) {
+        super(context, channels);
+        this.gateEffect = new GateEffect(context, channels);
         this.gateEffect.addInput(this.getGainIn());
         this.getGainOut().addInput(this.gateEffect);
     }
@@ -32,21 +80,69 @@ public class Gate extends RPEffect {
      * @return {@inheritDoc}
      */
     @Override
-    public final Map<String, Float> getParameters() {
-        return Map.of("threshold", this.gateEffect.getThreshold(), "ratio", this.gateEffect.getRatio(),
-                "attack", this.gateEffect.getAttack(), "decay", this.gateEffect.getDecay(),
-                "current compression", this.gateEffect.getCurrentCompression());
+    public final List<ParameterDescriptor> getParameterDescriptors() {
+        return DESCRIPTORS;
     }
 
     /**
      * {@inheritDoc}
-     * @param parameters the {@link Map} that contains the parameters that must be modified.
+     * @param id {@inheritDoc}
+     * @return {@inheritDoc}
      */
     @Override
-    public final void setParameters(final Map<String, Float> parameters) {
-        final DataBead db = new DataBead();
-        db.putAll(parameters);
-        this.gateEffect.sendData(db);
+    public final float getParameter(final int id) {
+        switch (id) {
+            case THRESHOLD:
+                return this.gateEffect.getThreshold();
+            case RATIO:
+                return this.gateEffect.getRatio();
+            case ATTACK:
+                return this.gateEffect.getAttack();
+            case DECAY:
+                return this.gateEffect.getDecay();
+            case CURRENT_COMPRESSION:
+                return this.gateEffect.getCurrentCompression();
+            default:
+                throw new IllegalArgumentException(UNKNOWN_PARAMETER_ERROR);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param id {@inheritDoc}
+     * @param value {@inheritDoc}
+     */
+    @Override
+    public final void setParameter(final int id, final float value) {
+        final float checked = this.checkValue(id, value);
+        switch (id) {
+            case THRESHOLD:
+                this.gateEffect.setThreshold(checked);
+                break;
+            case RATIO:
+                this.gateEffect.setRatio(checked);
+                break;
+            case ATTACK:
+                this.gateEffect.setAttack(checked);
+                break;
+            case DECAY:
+                this.gateEffect.setDecay(checked);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param source the {@link UGen} that outputs the audio to be processed.
+     * @return the gate.
+     */
+    @Override
+    public final UGen compile(final UGen source) {
+        this.gateEffect.clearInputConnections();
+        this.gateEffect.addInput(source);
+        return this.gateEffect;
     }
 
     /**
@@ -57,4 +153,14 @@ public class Gate extends RPEffect {
         this.gateEffect.calculateBuffer();
     }
 
+    /**
+     * {@inheritDoc}
+     * @param context {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    protected RPEffect create(final AudioContext context) {
+        return new Gate(context, this.getIns());
+    }
+
 }
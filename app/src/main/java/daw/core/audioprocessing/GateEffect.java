@@ -1,6 +1,5 @@
 package daw.core.audioprocessing;
 
-import daw.utilities.AudioContextManager;
 import net.beadsproject.beads.core.AudioContext;
 import net.beadsproject.beads.core.UGen;
 import net.beadsproject.beads.data.DataBead;
@@ -17,9 +16,7 @@ final class GateEffect extends UGen {
     private static final float DEFAULT_KNEE = 1.0f;
 
     private final int channels;
-    private final int memSize;
-    private int index;
-    private final float[][] delayMem;
+    private final float[] envelope;
     private final BiquadFilter pf;
     private float downStep = DEFAULT_DOWN_STEP;
     private float upStep = DEFAULT_UP_STEP;
@@ -34,16 +31,12 @@ final class GateEffect extends UGen {
     private float attack;
     private float decay;
     private float currentValue = 1;
-    private final int delaySamples;
     private final float[][] myBufIn;
 
     GateEffect(final AudioContext context, final int channels) {
-        super(AudioContextManager.getAudioContext(), channels, channels);
-        this.index = 0;
+        super(context, channels, channels);
         this.channels = channels;
-        this.delaySamples = 0;
-        this.memSize = (int) context.msToSamples(0) + 1;
-        this.delayMem = new float[channels][this.memSize];
+        this.envelope = new float[this.bufferSize];
         this.myBufIn = this.bufIn;
         class MyInputs extends UGen {
             MyInputs(final AudioContext context, final int channels) {
@@ -84,22 +77,24 @@ final class GateEffect extends UGen {
         }
     }
 
-    public void setAttack(final float attack) {
+    // package protection since these setters are only used by Gate
+
+    void setAttack(final float attack) {
         this.attack = Math.max(.0001f, attack);
         this.downStep = (float) Math.pow(Math.pow(10, attack / 20f), -1000f / this.context.getSampleRate());
     }
 
-    private void setDecay(final float decay) {
+    void setDecay(final float decay) {
         this.decay = Math.max(.0001f, decay);
         this.upStep = (float) Math.pow(Math.pow(10, decay / 20f), 1000f / this.context.getSampleRate());
     }
 
-    private void setRatio(final float ratio) {
+    void setRatio(final float ratio) {
         this.ratio = 1 / Math.max(ratio, .01f);
         this.calculateCurrentValues();
     }
 
-    private void setThreshold(final float threshold) {
+    void setThreshold(final float threshold) {
         this.threshold = threshold;
         this.calculateCurrentValues();
     }
@@ -112,45 +107,23 @@ final class GateEffect extends UGen {
     @Override
     public void calculateBuffer() {
         this.pf.update();
-        float target;
-        if (this.channels == 1) {
-            final float[] bi = this.bufIn[0];
-            final float[] bo = this.bufOut[0];
-            final float[] dm = this.delayMem[0];
-            for (int i = 0; i < this.bufferSize; i++) {
-                final float p = this.pf.getValue(0, i);
-                if (p <= this.tok) {
-                    target = 1;
-                } else if (p >= this.kt) {
-                    target = ((p - this.threshold) * this.ratio + this.threshold) / p;
-                } else {
-                    final float x1 = (p - this.tok) * this.ikp1 + this.tok;
-                    target = ((this.kTrm1 * x1 + this.tt1mr) * (p - x1) / (x1 * (this.knee - 1)) + x1) / p;
-                }
-                this.setCurrentValue(target);
-                dm[this.index] = bi[i];
-                bo[i] = dm[(this.index + this.delaySamples) % this.memSize] * this.currentValue;
-                this.index = (this.index + 1) % this.memSize;
-            }
-        } else {
-            for (int i = 0; i < this.bufferSize; i++) {
-                final float p = this.pf.getValue(0, i);
-                if (p <= this.tok) {
-                    target = 1;
-                } else if (p >= this.kt) {
-                    target = ((p - this.threshold) * this.ratio + this.threshold) / p;
-                } else {
-                    final float x1 = (p - this.tok) * this.ikp1 + this.tok;
-                    target = (this.kTrm1 * x1 + this.tt1mr) * (p - x1) / (x1 * (this.knee - 1)) + x1;
-                }
-                this.setCurrentValue(target);
-                final int delIndex = (this.index + this.delaySamples) % this.memSize;
-                for (int j = 0; j < this.channels; j++) {
-                    this.delayMem[j][this.index] = this.bufIn[j][i];
-                    this.bufOut[j][i] = this.delayMem[j][delIndex] * this.currentValue;
-                }
-                this.index = (this.index + 1) % this.memSize;
+        // the gain is computed once for all the channels, then applied to each of them
+        for (int i = 0; i < this.bufferSize; i++) {
+            final float p = this.pf.getValue(0, i);
+            final float target;
+            if (p <= this.tok) {
+                target = 1;
+            } else if (p >= this.kt) {
+                target = ((p - this.threshold) * this.ratio + this.threshold) / p;
+            } else {
+                final float x1 = (p - this.tok) * this.ikp1 + this.tok;
+                target = ((this.kTrm1 * x1 + this.tt1mr) * (p - x1) / (x1 * (this.knee - 1)) + x1) / p;
             }
+            this.setCurrentValue(target);
+            this.envelope[i] = this.currentValue;
+        }
+        for (int j = 0; j < this.channels; j++) {
+            DspKernels.applyEnvelope(this.bufIn[j], this.envelope, this.bufOut[j], this.bufferSize);
         }
     }
 
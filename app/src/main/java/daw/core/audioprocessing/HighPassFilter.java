@@ -1,7 +1,10 @@
 package daw.core.audioprocessing;
 
+import com.fasterxml.jackson.annotation.JacksonInject;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 
 /**
  * Filtering boosts or attenuates frequencies in a sound, thus modifying the frequency spectrum of that sound.
@@ -14,9 +17,28 @@ public class HighPassFilter extends Equalization {
      * Constructs a high-pass filter and sets its cutoff frequency to the given value.
      * @param channels the number of inputs and outputs of this effect.
      */
+    public HighPassFilter(final int channels) {
+        this(AudioContextManager.getAudioContext(), channels);
+    }
+
+    /**
+     * Constructs a high-pass filter and sets its cutoff frequency to the given value.
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
+     */
     @JsonCreator
-    public HighPassFilter(@JsonProperty("ins") final int channels) {
-        super(channels, false);
+    public HighPassFilter(@JacksonInject final AudioContext context, @JsonProperty("ins") final int channels) {
+        super(context, channels, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param context {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    protected RPEffect create(final AudioContext context) {
+        return new HighPassFilter(context, this.getIns());
     }
 
 }
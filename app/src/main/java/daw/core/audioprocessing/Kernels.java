@@ -0,0 +1,62 @@
+package daw.core.audioprocessing;
+
+/**
+ * The inner loops of the audio processing, which can be run in different ways by the implementations.
+ * All the methods work on the first given number of frames of the buffers.
+ */
+// package-protected since it is only used by DspKernels
+interface Kernels {
+
+    /**
+     * Multiplies a buffer by a gain.
+     * @param in the buffer to read.
+     * @param gain the gain.
+     * @param out the buffer to write, which can be the same as the one to read.
+     * @param frames the number of frames to process.
+     */
+    void scale(float[] in, float gain, float[] out, int frames);
+
+    /**
+     * Multiplies a buffer by a gain that goes linearly from a value to another, reaching the latter at the last frame.
+     * @param in the buffer to read.
+     * @param from the gain before the first frame.
+     * @param to the gain at the last frame.
+     * @param out the buffer to write, which can be the same as the one to read.
+     * @param frames the number of frames to process.
+     */
+    void ramp(float[] in, float from, float to, float[] out, int frames);
+
+    /**
+     * Adds a buffer to another.
+     * @param in the buffer to read.
+     * @param out the buffer the read one is added to.
+     * @param frames the number of frames to process.
+     */
+    void sumInto(float[] in, float[] out, int frames);
+
+    /**
+     * Multiplies a buffer by an envelope, frame by frame.
+     * @param in the buffer to read.
+     * @param envelope the gain of each frame.
+     * @param out the buffer to write, which can be the same as the one to read.
+     * @param frames the number of frames to process.
+     */
+    void applyEnvelope(float[] in, float[] envelope, float[] out, int frames);
+
+    /**
+     * Gets the peak of a buffer.
+     * @param in the buffer to read.
+     * @param frames the number of frames to process.
+     * @return the biggest absolute value in the buffer.
+     */
+    float peak(float[] in, int frames);
+
+    /**
+     * Gets the root mean square of a buffer.
+     * @param in the buffer to read.
+     * @param frames the number of frames to process.
+     * @return the root mean square of the buffer, or zero if there are no frames.
+     */
+    float rms(float[] in, int frames);
+
+}
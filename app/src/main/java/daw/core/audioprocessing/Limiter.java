@@ -1,6 +1,10 @@
 package daw.core.audioprocessing;
 
+import com.fasterxml.jackson.annotation.JacksonInject;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 
 /**
  * This class models a limiter, which is a constructor with the ratio fixed at positive infinite.
@@ -14,9 +18,29 @@ public class Limiter extends Dynamics {
      *
      * @param channels the number of inputs and outputs of this effect.
      */
-    public Limiter(@JsonProperty("ins") final int channels) {
-        super(channels);
-        this.compressor.setRatio(Float.POSITIVE_INFINITY);
+    public Limiter(final int channels) {
+        this(AudioContextManager.getAudioContext(), channels);
+    }
+
+    /**
+     * Constructs a limiter and sets its parameters to the current default.
+     *
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
+     */
+    @JsonCreator
+    public Limiter(@JacksonInject final AudioContext context, @JsonProperty("ins") final int channels) {
+        super(context, channels, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param context {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    protected RPEffect create(final AudioContext context) {
+        return new Limiter(context, this.getIns());
     }
 
 }
@@ -0,0 +1,320 @@
+package daw.core.audioprocessing;
+
+import com.fasterxml.jackson.annotation.JacksonInject;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import daw.core.audioprocessing.ParameterDescriptor.Unit;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+import java.util.List;
+
+/**
+ * A gate that looks ahead at the audio, so that it is already open when a word begins instead of cutting its
+ * first syllable. It is meant for speech, where it closes quickly on breaths and pauses.
+ * The gate opens when the level of the audio goes above the threshold, and closes when the level has stayed
+ * below the threshold lowered by the hysteresis for longer than the hold time. A closed gate reduces the
+ * volume by the ratio.
+ * The audio is delayed by the look-ahead, which goes from 0 to {@value #MAX_LOOK_AHEAD} milliseconds.
+ */
+public class LookAheadGate extends RPEffect {
+
+    /**
+     * The longest look-ahead in milliseconds.
+     */
+    public static final float MAX_LOOK_AHEAD = 10.0f;
+
+    /**
+     * The identifier of the level above which the gate opens.
+     */
+    public static final int THRESHOLD = 0;
+
+    /**
+     * The identifier of the ratio by which the closed gate reduces the volume.
+     */
+    public static final int RATIO = 1;
+
+    /**
+     * The identifier of the time that the gate takes to open.
+     */
+    public static final int ATTACK = 2;
+
+    /**
+     * The identifier of the time that the gate takes to close.
+     */
+    public static final int DECAY = 3;
+
+    /**
+     * The identifier of the time that the level must stay low before the gate closes.
+     */
+    public static final int HOLD = 4;
+
+    /**
+     * The identifier of how much the threshold is lowered before the gate closes.
+     */
+    public static final int HYSTERESIS = 5;
+
+    /**
+     * The identifier of how much the audio is delayed, which cannot be automated since changing the delay
+     * would skip audio.
+     */
+    public static final int LOOK_AHEAD = 6;
+
+    /**
+     * The identifier of the gain that the gate is applying, which can only be read.
+     */
+    public static final int CURRENT_COMPRESSION = 7;
+
+    private static final float DEFAULT_RATIO = 8.0f;
+    private static final float MAX_TIME = 5000.0f;
+    private static final float MAX_HYSTERESIS = 60.0f;
+    private static final List<ParameterDescriptor> DESCRIPTORS = List.of(
+            ParameterDescriptor.parameter(THRESHOLD, "threshold", 0.0f, 1.0f, 0.05f, Unit.NONE),
+            ParameterDescriptor.parameter(RATIO, "ratio", 1.0f, Float.POSITIVE_INFINITY, DEFAULT_RATIO, Unit.NONE),
+            ParameterDescriptor.parameter(ATTACK, "attack", 0.0f, MAX_TIME, 1.0f, Unit.MILLISECONDS),
+            ParameterDescriptor.parameter(DECAY, "decay", 0.0f, MAX_TIME, 50.0f, Unit.MILLISECONDS),
+            ParameterDescriptor.parameter(HOLD, "hold", 0.0f, MAX_TIME, 30.0f, Unit.MILLISECONDS),
+            ParameterDescriptor.parameter(HYSTERESIS, "hysteresis", 0.0f, MAX_HYSTERESIS, 6.0f, Unit.DECIBELS),
+            ParameterDescriptor.setting(LOOK_AHEAD, "lookAhead", 0.0f, MAX_LOOK_AHEAD, 5.0f, Unit.MILLISECONDS),
+            ParameterDescriptor.meter(CURRENT_COMPRESSION, ParameterDescriptor.GAIN_REDUCTION, 0.0f, 1.0f,
+                    1.0f / DEFAULT_RATIO, Unit.NONE));
+    // how fast the level of the audio is forgotten, in milliseconds
+    private static final float DETECTOR_DECAY = 5.0f;
+
+    private final int channels;
+    private final float[][] ring;
+    private final int mask;
+    private int writeIndex;
+    private final float[] envelope;
+    private float threshold;
+    private float ratio;
+    private float attack;
+    private float decay;
+    private float hold;
+    private float hysteresis;
+    private float lookAhead;
+    private float closeThreshold;
+    private float closedGain;
+    private float attackCoefficient;
+    private float decayCoefficient;
+    private final float detectorCoefficient;
+    private int holdSamples;
+    private int delaySamples;
+    private float level;
+    private boolean open;
+    private int holdCounter;
+    private float currentGain;
+
+    /**
+     * Creates a look-ahead gate and sets its parameters to the default value.
+     * @param channels the number of inputs and outputs of this effect.
+     */
+    public LookAheadGate(final int channels) {
+        this(AudioContextManager.getAudioContext(), channels);
+    }
+
+    /**
+     * Creates a look-ahead gate and sets its parameters to the default value.
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
+     */
+    @JsonCreator
+    public LookAheadGate(@JacksonInject final AudioContext context, @JsonProperty("ins") final int channels) {
+        super(context, channels);
+        this.channels = channels;
+        this.envelope = new float[this.bufferSize];
+        // the ring holds a whole buffer besides the look-ahead, and its size is a power of two
+        final int size = Integer.highestOneBit(
+                (this.bufferSize + (int) Math.ceil(this.context.msToSamples(MAX_LOOK_AHEAD))) * 2 - 1);
+        this.ring = new float[channels][size];
+        this.mask = size - 1;
+        this.detectorCoefficient = this.coefficient(DETECTOR_DECAY);
+        this.currentGain = 1.0f / DEFAULT_RATIO;
+        for (final ParameterDescriptor descriptor : DESCRIPTORS) {
+            if (!descriptor.isReadOnly()) {
+                this.setParameter(descriptor.getId(), descriptor.getDefaultValue());
+            }
+        }
+        this.addInput(this.getGainIn());
+        this.getGainOut().addInput(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final List<ParameterDescriptor> getParameterDescriptors() {
+        return DESCRIPTORS;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param id {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final float getParameter(final int id) {
+        switch (id) {
+            case THRESHOLD:
+                return this.threshold;
+            case RATIO:
+                return this.ratio;
+            case ATTACK:
+                return this.attack;
+            case DECAY:
+                return this.decay;
+            case HOLD:
+                return this.hold;
+            case HYSTERESIS:
+                return this.hysteresis;
+            case LOOK_AHEAD:
+                return this.lookAhead;
+            case CURRENT_COMPRESSION:
+                return this.currentGain;
+            default:
+                throw new IllegalArgumentException(UNKNOWN_PARAMETER_ERROR);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The attack, the decay, the hold and the look-ahead are in milliseconds, the hysteresis is in decibels.
+     * @param id {@inheritDoc}
+     * @param value {@inheritDoc}
+     */
+    @Override
+    public final void setParameter(final int id, final float value) {
+        final float checked = this.checkValue(id, value);
+        switch (id) {
+            case THRESHOLD:
+                this.threshold = checked;
+                break;
+            case RATIO:
+                this.ratio = checked;
+                break;
+            case ATTACK:
+                this.attack = checked;
+                break;
+            case DECAY:
+                this.decay = checked;
+                break;
+            case HOLD:
+                this.hold = checked;
+                break;
+            case HYSTERESIS:
+                this.hysteresis = checked;
+                break;
+            case LOOK_AHEAD:
+                this.lookAhead = checked;
+                break;
+            default:
+                break;
+        }
+        this.updateCoefficients();
+    }
+
+    private void updateCoefficients() {
+        this.closeThreshold = this.threshold * (float) Math.pow(10, -this.hysteresis / 20);
+        this.closedGain = 1.0f / this.ratio;
+        this.attackCoefficient = this.coefficient(this.attack);
+        this.decayCoefficient = this.coefficient(this.decay);
+        this.holdSamples = (int) this.context.msToSamples(this.hold);
+        this.delaySamples = (int) this.context.msToSamples(this.lookAhead);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The gate processes the audio by itself, without the input and the output gains.
+     * @param source {@inheritDoc}
+     * @return this gate.
+     */
+    @Override
+    public final UGen compile(final UGen source) {
+        this.clearInputConnections();
+        this.addInput(source);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The audio that is still delayed by the look-ahead is the tail of this gate.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final double getTailTime() {
+        return this.lookAhead;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The audio is output after the look-ahead.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final double getLatency() {
+        return this.lookAhead;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void calculateBuffer() {
+        final int delay = this.delaySamples;
+        final int read = (this.writeIndex - delay) & this.mask;
+        // the gain is decided by the audio that has not been output yet, and is the same for all the channels
+        for (int i = 0; i < this.bufferSize; i++) {
+            float peak = 0.0f;
+            for (int c = 0; c < this.channels; c++) {
+                peak = Math.max(peak, Math.abs(this.bufIn[c][i]));
+            }
+            this.level = Math.max(peak, this.level * this.detectorCoefficient);
+            if (this.level >= this.threshold) {
+                this.open = true;
+                this.holdCounter = this.holdSamples;
+            } else if (this.open && this.level < this.closeThreshold && this.holdCounter-- <= 0) {
+                this.open = false;
+            }
+            final float target = this.open ? 1.0f : this.closedGain;
+            final float coefficient = target > this.currentGain ? this.attackCoefficient : this.decayCoefficient;
+            this.currentGain = target + (this.currentGain - target) * coefficient;
+            this.envelope[i] = this.currentGain;
+        }
+        for (int c = 0; c < this.channels; c++) {
+            // the inputs may be the outputs of other UGens, so they are copied before being delayed
+            this.copyIn(this.bufIn[c], this.ring[c], this.writeIndex);
+            this.copyOut(this.ring[c], read, this.bufOut[c]);
+            DspKernels.applyEnvelope(this.bufOut[c], this.envelope, this.bufOut[c], this.bufferSize);
+        }
+        this.writeIndex = (this.writeIndex + this.bufferSize) & this.mask;
+    }
+
+    private void copyIn(final float[] in, final float[] ring, final int index) {
+        final int first = Math.min(this.bufferSize, ring.length - index);
+        System.arraycopy(in, 0, ring, index, first);
+        System.arraycopy(in, first, ring, 0, this.bufferSize - first);
+    }
+
+    private void copyOut(final float[] ring, final int index, final float[] out) {
+        final int first = Math.min(this.bufferSize, ring.length - index);
+        System.arraycopy(ring, index, out, 0, first);
+        System.arraycopy(ring, 0, out, first, this.bufferSize - first);
+    }
+
+    private float coefficient(final float milliseconds) {
+        final double samples = this.context.msToSamples(milliseconds);
+        return samples < 1 ? 0.0f : (float) Math.exp(-1 / samples);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param context {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    protected RPEffect create(final AudioContext context) {
+        return new LookAheadGate(context, this.getIns());
+    }
+
+}
@@ -1,7 +1,10 @@
 package daw.core.audioprocessing;
 
+import com.fasterxml.jackson.annotation.JacksonInject;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 
 /**
  * Filtering boosts or attenuates frequencies in a sound, thus modifying the frequency spectrum of that sound.
@@ -14,9 +17,28 @@ public class LowPassFilter extends Equalization {
      * Constructs a low-pass filter and sets its cutoff frequency to the given value.
      * @param channels the number of inputs and outputs of this effect.
      */
+    public LowPassFilter(final int channels) {
+        this(AudioContextManager.getAudioContext(), channels);
+    }
+
+    /**
+     * Constructs a low-pass filter and sets its cutoff frequency to the given value.
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
+     */
     @JsonCreator
-    public LowPassFilter(@JsonProperty("ins") final int channels) {
-        super(channels, true);
+    public LowPassFilter(@JacksonInject final AudioContext context, @JsonProperty("ins") final int channels) {
+        super(context, channels, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param context {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    protected RPEffect create(final AudioContext context) {
+        return new LowPassFilter(context, this.getIns());
     }
 
 }
@@ -1,10 +1,12 @@
 package daw.core.audioprocessing;
 
+import daw.core.audioprocessing.ParameterDescriptor.Unit;
 import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 import net.beadsproject.beads.core.UGen;
 import net.beadsproject.beads.ugens.Gain;
 
-import java.util.Map;
+import java.util.List;
 
 /**
  * Pan is the element that allows to accomplish audio panning.
@@ -13,6 +15,14 @@ import java.util.Map;
  */
 public class Pan extends UGen implements AudioElement {
 
+    /**
+     * The identifier of the position of the pan, from -1 (left) to 1 (right).
+     */
+    public static final int VALUE = 0;
+
+    private static final List<ParameterDescriptor> DESCRIPTORS = List.of(
+            ParameterDescriptor.parameter(VALUE, "value", -1.0f, 1.0f, 0.0f, Unit.NONE));
+
     private final Gain gainIn;
     private final Gain gainOut;
     private final Gain left;
@@ -26,11 +36,19 @@ public class Pan extends UGen implements AudioElement {
      * whereas 1 pans completely to the right and 0 (the default value) results in center panning.
      */
     public Pan() {
-        super(AudioContextManager.getAudioContext());
-        this.gainIn = new Gain(AudioContextManager.getAudioContext(), 2, 1.0f);
-        this.gainOut = new Gain(AudioContextManager.getAudioContext(), 2, 1.0f);
-        this.left = new Gain(AudioContextManager.getAudioContext(), 1, (float) (1 / Math.sqrt(2.0)));
-        this.right = new Gain(AudioContextManager.getAudioContext(), 1, (float) (1 / Math.sqrt(2.0)));
+        this(AudioContextManager.getAudioContext());
+    }
+
+    /**
+     * Construct a constant power Pan in the given {@link AudioContext}.
+     * @param context the {@link AudioContext} that runs the pan.
+     */
+    public Pan(final AudioContext context) {
+        super(context);
+        this.gainIn = new Gain(context, 2, 1.0f);
+        this.gainOut = new Gain(context, 2, 1.0f);
+        this.left = new Gain(context, 1, (float) (1 / Math.sqrt(2.0)));
+        this.right = new Gain(context, 1, (float) (1 / Math.sqrt(2.0)));
         this.initializeStructure();
     }
 
@@ -46,21 +64,54 @@ public class Pan extends UGen implements AudioElement {
      * @return {@inheritDoc}
      */
     @Override
-    public Map<String, Float> getParameters() {
-        return Map.of("value", this.value);
+    public List<ParameterDescriptor> getParameterDescriptors() {
+        return DESCRIPTORS;
     }
 
     /**
      * {@inheritDoc}
-     * @param parameters the {@link Map} that contains the parameters that must be modified.
+     * @param id {@inheritDoc}
+     * @return {@inheritDoc}
      */
     @Override
-    public void setParameters(Map<String, Float> parameters) {
-        this.value = parameters.get("value");
+    public float getParameter(final int id) {
+        if (id != VALUE) {
+            throw new IllegalArgumentException("The pan has no parameter with the given identifier.");
+        }
+        return this.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param id {@inheritDoc}
+     * @param value {@inheritDoc}
+     */
+    @Override
+    public void setParameter(final int id, final float value) {
+        if (id != VALUE) {
+            throw new IllegalArgumentException("The pan has no parameter with the given identifier.");
+        }
+        this.value = DESCRIPTORS.get(VALUE).clamp(value);
         this.left.setGain((float) Math.cos(Math.PI * (1 + this.value) / 4));
         this.right.setGain((float) Math.sin(Math.PI * (1 + this.value) / 4));
     }
 
+    /**
+     * Gets the gain that the pan law applies to the left channel at the current position.
+     * @return the gain of the left channel.
+     */
+    public float getLeftGain() {
+        return this.left.getGain();
+    }
+
+    /**
+     * Gets the gain that the pan law applies to the right channel at the current position.
+     * @return the gain of the right channel.
+     */
+    public float getRightGain() {
+        return this.right.getGain();
+    }
+
     /**
      * {@inheritDoc}
      * @return {@inheritDoc}
@@ -0,0 +1,184 @@
+package daw.core.audioprocessing;
+
+/**
+ * Describes a parameter of an {@link AudioElement}: its identifier, its name, the range of its values,
+ * its default value and its unit.
+ * The identifier is stable, so it can be kept by clients to get and set the parameter without looking it up
+ * by its name. The name is the key of the parameter in the {@link java.util.Map} of the parameters.
+ * A parameter can be automated, only be set, or only be read, like the current compression of a compressor.
+ */
+public final class ParameterDescriptor {
+
+    /**
+     * The units of the values of the parameters.
+     */
+    public enum Unit {
+
+        /**
+         * The value has no unit, like a ratio or a linear level.
+         */
+        NONE,
+
+        /**
+         * The value is in decibels.
+         */
+        DECIBELS,
+
+        /**
+         * The value is in hertz.
+         */
+        HERTZ,
+
+        /**
+         * The value is in milliseconds.
+         */
+        MILLISECONDS
+    }
+
+    /**
+     * The name of the parameter that shows the gain applied by a dynamics effect, where 1 means no reduction.
+     * The channels meter the gain reduction of their effects through the parameters with this name.
+     */
+    public static final String GAIN_REDUCTION = "current compression";
+
+    private final int id;
+    private final String name;
+    private final float min;
+    private final float max;
+    private final float defaultValue;
+    private final Unit unit;
+    private final boolean automatable;
+    private final boolean readOnly;
+
+    private ParameterDescriptor(final int id, final String name, final float min, final float max,
+                                final float defaultValue, final Unit unit, final boolean automatable,
+                                final boolean readOnly) {
+        this.id = id;
+        this.name = name;
+        this.min = min;
+        this.max = max;
+        this.defaultValue = defaultValue;
+        this.unit = unit;
+        this.automatable = automatable;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Describes a parameter that can be set and automated.
+     * @param id the identifier of the parameter.
+     * @param name the name of the parameter.
+     * @param min the lowest value.
+     * @param max the highest value.
+     * @param defaultValue the value that the parameter has when the element is created.
+     * @param unit the {@link Unit} of the values.
+     * @return the descriptor.
+     */
+    public static ParameterDescriptor parameter(final int id, final String name, final float min, final float max,
+                                                final float defaultValue, final Unit unit) {
+        return new ParameterDescriptor(id, name, min, max, defaultValue, unit, true, false);
+    }
+
+    /**
+     * Describes a parameter that can be set, but not automated, for example because changing it is expensive.
+     * @param id the identifier of the parameter.
+     * @param name the name of the parameter.
+     * @param min the lowest value.
+     * @param max the highest value.
+     * @param defaultValue the value that the parameter has when the element is created.
+     * @param unit the {@link Unit} of the values.
+     * @return the descriptor.
+     */
+    public static ParameterDescriptor setting(final int id, final String name, final float min, final float max,
+                                              final float defaultValue, final Unit unit) {
+        return new ParameterDescriptor(id, name, min, max, defaultValue, unit, false, false);
+    }
+
+    /**
+     * Describes a parameter that can only be read, because it shows what the element is doing.
+     * @param id the identifier of the parameter.
+     * @param name the name of the parameter.
+     * @param min the lowest value.
+     * @param max the highest value.
+     * @param defaultValue the value that the parameter has when the element is created.
+     * @param unit the {@link Unit} of the values.
+     * @return the descriptor.
+     */
+    public static ParameterDescriptor meter(final int id, final String name, final float min, final float max,
+                                            final float defaultValue, final Unit unit) {
+        return new ParameterDescriptor(id, name, min, max, defaultValue, unit, false, true);
+    }
+
+    /**
+     *
+     * @return the identifier of the parameter.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     *
+     * @return the name of the parameter.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     *
+     * @return the lowest value of the parameter.
+     */
+    public float getMin() {
+        return this.min;
+    }
+
+    /**
+     *
+     * @return the highest value of the parameter.
+     */
+    public float getMax() {
+        return this.max;
+    }
+
+    /**
+     *
+     * @return the value that the parameter has when the element is created.
+     */
+    public float getDefaultValue() {
+        return this.defaultValue;
+    }
+
+    /**
+     *
+     * @return the {@link Unit} of the values of the parameter.
+     */
+    public Unit getUnit() {
+        return this.unit;
+    }
+
+    /**
+     *
+     * @return true if the parameter can follow an automation lane.
+     */
+    public boolean isAutomatable() {
+        return this.automatable;
+    }
+
+    /**
+     *
+     * @return true if the parameter can only be read.
+     */
+    public boolean isReadOnly() {
+        return this.readOnly;
+    }
+
+    /**
+     * Limits a value to the range of the parameter.
+     * @param value the value.
+     * @return the closest value that is in the range.
+     */
+    public float clamp(final float value) {
+        return Math.max(this.min, Math.min(this.max, value));
+    }
+
+}
@@ -0,0 +1,394 @@
+package daw.core.audioprocessing;
+
+import com.fasterxml.jackson.annotation.JacksonInject;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import daw.core.audioprocessing.ParameterDescriptor.Unit;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A parametric equalizer with {@value #BANDS} bands, each of which can be a bell, a shelf or a notch.
+ * All the bands are run one after the other on each sample, as a cascade of biquad filters.
+ * The parameters of the bands are named after their number, starting from 1: for example "band1Type",
+ * "band1Frequency", "band1Gain" and "band1Q". The type is the ordinal of a {@link BandType}, the frequency is
+ * in hertz and the gain in decibels. The identifier of a parameter is given by {@link #id(int, int)}.
+ * When a parameter changes, the frequency, the gain and the Q move towards their new values a buffer at a time,
+ * and the coefficients of the band are computed again only while they move, so that changes do not produce clicks.
+ */
+public class ParametricEq extends RPEffect {
+
+    /**
+     * The number of bands.
+     */
+    public static final int BANDS = 8;
+
+    /**
+     * The number of parameters of each band.
+     */
+    public static final int PARAMETERS_PER_BAND = 4;
+
+    /**
+     * The offset of the type of a band among its parameters.
+     */
+    public static final int TYPE = 0;
+
+    /**
+     * The offset of the frequency of a band among its parameters.
+     */
+    public static final int FREQUENCY = 1;
+
+    /**
+     * The offset of the gain of a band among its parameters.
+     */
+    public static final int GAIN = 2;
+
+    /**
+     * The offset of the Q of a band among its parameters.
+     */
+    public static final int Q = 3;
+
+    /**
+     * The shapes of the bands.
+     */
+    public enum BandType {
+
+        /**
+         * The band is not run.
+         */
+        OFF,
+
+        /**
+         * The band boosts or cuts the frequencies around its frequency.
+         */
+        BELL,
+
+        /**
+         * The band boosts or cuts the frequencies below its frequency.
+         */
+        LOW_SHELF,
+
+        /**
+         * The band boosts or cuts the frequencies above its frequency.
+         */
+        HIGH_SHELF,
+
+        /**
+         * The band removes the frequencies around its frequency.
+         */
+        NOTCH
+    }
+
+    private static final float[] DEFAULT_FREQUENCIES = {80, 200, 500, 1000, 2000, 4000, 8000, 12000};
+    private static final float DEFAULT_Q = 0.707f;
+    private static final float MIN_FREQUENCY = 20.0f;
+    private static final float MAX_GAIN = 24.0f;
+    private static final float MIN_Q = 0.1f;
+    private static final float MAX_Q = 20.0f;
+    // the share of the distance from a new value that is covered in a buffer
+    private static final float SMOOTHING = 0.5f;
+    private static final float SETTLED = 1.0e-3f;
+    // the positions of the values of a band, which are the ones of its parameters after the type
+    private static final int FREQUENCY_INDEX = FREQUENCY - 1;
+    private static final int GAIN_INDEX = GAIN - 1;
+    private static final int Q_INDEX = Q - 1;
+
+    private final int channels;
+    private final List<ParameterDescriptor> descriptors;
+    // the values set by the user, published a band at a time so that the audio thread reads them together
+    private final AtomicReferenceArray<Band> targets;
+    // the same values, as they are moving towards the targets on the audio thread
+    private final float[][] current;
+    private final BandType[] currentTypes;
+    // [band][b0, b1, b2, a1, a2], normalized by a0
+    private final float[][] coefficients;
+    // [channel][band][z1, z2]
+    private final float[][][] state;
+    private final int[] active;
+    private int activeCount;
+
+    /**
+     * Constructs a parametric equalizer whose bands are all off.
+     * @param channels the number of inputs and outputs of this effect.
+     */
+    public ParametricEq(final int channels) {
+        this(AudioContextManager.getAudioContext(), channels);
+    }
+
+    /**
+     * Constructs a parametric equalizer whose bands are all off.
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
+     */
+    @JsonCreator
+    public ParametricEq(@JacksonInject final AudioContext context, @JsonProperty("ins") final int channels) {
+        super(context, channels);
+        this.channels = channels;
+        this.descriptors = describe(this.context.getSampleRate() / 2 * 0.95f);
+        this.currentTypes = new BandType[BANDS];
+        this.targets = new AtomicReferenceArray<>(BANDS);
+        this.current = new float[BANDS][];
+        this.coefficients = new float[BANDS][5];
+        for (int b = 0; b < BANDS; b++) {
+            final Band band = new Band(BandType.OFF, new float[] {(float) Math.log(DEFAULT_FREQUENCIES[b]),
+                    0.0f, DEFAULT_Q});
+            this.targets.set(b, band);
+            this.currentTypes[b] = BandType.OFF;
+            this.current[b] = band.values.clone();
+        }
+        this.state = new float[channels][BANDS][2];
+        this.active = new int[BANDS];
+        this.addInput(this.getGainIn());
+        this.getGainOut().addInput(this);
+    }
+
+    private static List<ParameterDescriptor> describe(final float maxFrequency) {
+        final List<ParameterDescriptor> descriptors = new ArrayList<>();
+        for (int b = 0; b < BANDS; b++) {
+            final String band = "band" + (b + 1);
+            descriptors.add(ParameterDescriptor.setting(id(b, TYPE), band + "Type", 0,
+                    BandType.values().length - 1, BandType.OFF.ordinal(), Unit.NONE));
+            descriptors.add(ParameterDescriptor.parameter(id(b, FREQUENCY), band + "Frequency", MIN_FREQUENCY,
+                    maxFrequency, DEFAULT_FREQUENCIES[b], Unit.HERTZ));
+            descriptors.add(ParameterDescriptor.parameter(id(b, GAIN), band + "Gain", -MAX_GAIN, MAX_GAIN, 0.0f,
+                    Unit.DECIBELS));
+            descriptors.add(ParameterDescriptor.parameter(id(b, Q), band + "Q", MIN_Q, MAX_Q, DEFAULT_Q, Unit.NONE));
+        }
+        return List.copyOf(descriptors);
+    }
+
+    /**
+     * Gets the identifier of a parameter of a band.
+     * @param band the band, starting from 0.
+     * @param offset the offset of the parameter among the ones of the band, such as {@link #GAIN}.
+     * @return the identifier of the parameter.
+     */
+    public static int id(final int band, final int offset) {
+        return band * PARAMETERS_PER_BAND + offset;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final List<ParameterDescriptor> getParameterDescriptors() {
+        return this.descriptors;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param id {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final float getParameter(final int id) {
+        this.getDescriptor(id);
+        final int band = id / PARAMETERS_PER_BAND;
+        final int offset = id % PARAMETERS_PER_BAND;
+        final Band target = this.targets.get(band);
+        if (offset == TYPE) {
+            return target.type.ordinal();
+        }
+        final float value = target.values[offset - 1];
+        return offset == FREQUENCY ? (float) Math.exp(value) : value;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The values move towards the new ones on the audio thread, while the type changes at the next buffer.
+     * Unlike the other effects, a change allocates the new values of its band, which are then published
+     * as a whole; setting a parameter to the value it already has allocates nothing.
+     * @param id {@inheritDoc}
+     * @param value {@inheritDoc}
+     */
+    @Override
+    public final void setParameter(final int id, final float value) {
+        final float checked = this.checkValue(id, value);
+        final int band = id / PARAMETERS_PER_BAND;
+        final int offset = id % PARAMETERS_PER_BAND;
+        Band previous;
+        Band next;
+        do {
+            previous = this.targets.get(band);
+            next = previous.with(offset, checked);
+        } while (next != previous && !this.targets.compareAndSet(band, previous, next));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The equalizer processes the audio by itself, without the input and the output gains.
+     * @param source {@inheritDoc}
+     * @return this equalizer.
+     */
+    @Override
+    public final UGen compile(final UGen source) {
+        this.clearInputConnections();
+        this.addInput(source);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void calculateBuffer() {
+        this.updateCoefficients();
+        for (int c = 0; c < this.channels; c++) {
+            final float[] in = this.bufIn[c];
+            final float[] out = this.bufOut[c];
+            final float[][] z = this.state[c];
+            for (int i = 0; i < this.bufferSize; i++) {
+                float x = in[i];
+                for (int a = 0; a < this.activeCount; a++) {
+                    final int b = this.active[a];
+                    final float[] k = this.coefficients[b];
+                    final float[] s = z[b];
+                    // transposed direct form II
+                    final float y = k[0] * x + s[0];
+                    s[0] = k[1] * x - k[3] * y + s[1];
+                    s[1] = k[2] * x - k[4] * y;
+                    x = y;
+                }
+                out[i] = x;
+            }
+        }
+    }
+
+    private void updateCoefficients() {
+        this.activeCount = 0;
+        for (int b = 0; b < BANDS; b++) {
+            final Band target = this.targets.get(b);
+            final BandType type = target.type;
+            final float[] values = target.values;
+            final float[] now = this.current[b];
+            boolean moved = false;
+            if (type != this.currentTypes[b]) {
+                // a band that changes shape starts again from silence
+                for (final float[][] channel : this.state) {
+                    channel[b][0] = 0.0f;
+                    channel[b][1] = 0.0f;
+                }
+                this.currentTypes[b] = type;
+                moved = true;
+            }
+            for (int v = 0; v < 3; v++) {
+                final float distance = values[v] - now[v];
+                if (Math.abs(distance) > SETTLED) {
+                    now[v] += distance * SMOOTHING;
+                    moved = true;
+                } else if (distance != 0.0f) {
+                    now[v] = values[v];
+                    moved = true;
+                }
+            }
+            if (type != BandType.OFF) {
+                if (moved) {
+                    this.computeCoefficients(b, type);
+                }
+                this.active[this.activeCount++] = b;
+            }
+        }
+    }
+
+    // the biquads of the audio equalizer cookbook by Robert Bristow-Johnson
+    private void computeCoefficients(final int band, final BandType type) {
+        final float[] values = this.current[band];
+        final double w0 = 2 * Math.PI * Math.exp(values[FREQUENCY_INDEX]) / this.context.getSampleRate();
+        final double cos = Math.cos(w0);
+        final double alpha = Math.sin(w0) / (2 * values[Q_INDEX]);
+        final double a = Math.pow(10, values[GAIN_INDEX] / 40);
+        final double b0;
+        final double b1;
+        final double b2;
+        final double a0;
+        final double a1;
+        final double a2;
+        switch (type) {
+            case BELL:
+                b0 = 1 + alpha * a;
+                b1 = -2 * cos;
+                b2 = 1 - alpha * a;
+                a0 = 1 + alpha / a;
+                a1 = -2 * cos;
+                a2 = 1 - alpha / a;
+                break;
+            case LOW_SHELF: {
+                final double root = 2 * Math.sqrt(a) * alpha;
+                b0 = a * ((a + 1) - (a - 1) * cos + root);
+                b1 = 2 * a * ((a - 1) - (a + 1) * cos);
+                b2 = a * ((a + 1) - (a - 1) * cos - root);
+                a0 = (a + 1) + (a - 1) * cos + root;
+                a1 = -2 * ((a - 1) + (a + 1) * cos);
+                a2 = (a + 1) + (a - 1) * cos - root;
+                break;
+            }
+            case HIGH_SHELF: {
+                final double root = 2 * Math.sqrt(a) * alpha;
+                b0 = a * ((a + 1) + (a - 1) * cos + root);
+                b1 = -2 * a * ((a - 1) + (a + 1) * cos);
+                b2 = a * ((a + 1) + (a - 1) * cos - root);
+                a0 = (a + 1) - (a - 1) * cos + root;
+                a1 = 2 * ((a - 1) - (a + 1) * cos);
+                a2 = (a + 1) - (a - 1) * cos - root;
+                break;
+            }
+            default:
+                b0 = 1;
+                b1 = -2 * cos;
+                b2 = 1;
+                a0 = 1 + alpha;
+                a1 = -2 * cos;
+                a2 = 1 - alpha;
+                break;
+        }
+        final float[] k = this.coefficients[band];
+        k[0] = (float) (b0 / a0);
+        k[1] = (float) (b1 / a0);
+        k[2] = (float) (b2 / a0);
+        k[3] = (float) (a1 / a0);
+        k[4] = (float) (a2 / a0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param context {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    protected RPEffect create(final AudioContext context) {
+        return new ParametricEq(context, this.getIns());
+    }
+
+    // the parameters of a band, which are never modified once the band is published
+    private static final class Band {
+
+        private final BandType type;
+        // frequency, gain and q, the frequency as its logarithm
+        private final float[] values;
+
+        private Band(final BandType type, final float[] values) {
+            this.type = type;
+            this.values = values;
+        }
+
+        private Band with(final int offset, final float value) {
+            if (offset == TYPE) {
+                final BandType newType = BandType.values()[Math.round(value)];
+                return newType == this.type ? this : new Band(newType, this.values);
+            }
+            final float newValue = offset == FREQUENCY ? (float) Math.log(value) : value;
+            if (Float.compare(newValue, this.values[offset - 1]) == 0) {
+                return this;
+            }
+            final float[] newValues = this.values.clone();
+            newValues[offset - 1] = newValue;
+            return new Band(this.type, newValues);
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+package daw.core.audioprocessing;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Convolves the audio with an impulse response using uniformly partitioned overlap-save.
+ * The impulse response is split in partitions as long as a buffer, whose spectra are computed once.
+ * Every buffer is transformed once and kept in a delay line of spectra, so that the output is the sum of the
+ * products of the latest spectra with the partitions.
+ * The products with all the partitions but the first one only involve past buffers, so they can be summed
+ * ahead of time on a background thread while the audio thread waits for the next buffer.
+ * Nothing is allocated while processing.
+ */
+// package-protected since it is only used by ConvolutionReverb
+final class PartitionedConvolver {
+
+    private final int block;
+    private final int size;
+    private final int bins;
+    private final int partitions;
+    private final int channels;
+    private final Fft fft;
+    // [channel of the impulse][partition][bin]
+    private final float[][][] irRe;
+    private final float[][][] irIm;
+    // [channel][slot][bin]
+    private final float[][][] lineRe;
+    private final float[][][] lineIm;
+    private final float[][] window;
+    private final float[][] tailRe;
+    private final float[][] tailIm;
+    private final float[] re;
+    private final float[] im;
+    private int head;
+    private volatile long requested;
+    private volatile long done;
+    private volatile boolean background;
+    private volatile Thread worker;
+
+    /**
+     * Creates a convolver for the given impulse response.
+     * @param impulse the impulse response, one array per channel. Each channel of the audio is convolved with
+     *                the channel of the impulse response of the same index, modulo the number of these.
+     * @param block the number of frames of the buffers, which must be a power of two.
+     * @param channels the number of channels of the audio.
+     */
+    PartitionedConvolver(final float[][] impulse, final int block, final int channels) {
+        this.block = block;
+        this.size = block * 2;
+        this.bins = block + 1;
+        this.channels = channels;
+        this.fft = new Fft(this.size);
+        this.re = new float[this.size];
+        this.im = new float[this.size];
+        final int length = Arrays.stream(impulse).mapToInt(c -> c.length).max().orElse(0);
+        this.partitions = Math.max(1, (length + block - 1) / block);
+        this.irRe = new float[impulse.length][this.partitions][this.bins];
+        this.irIm = new float[impulse.length][this.partitions][this.bins];
+        for (int c = 0; c < impulse.length; c++) {
+            for (int p = 0; p < this.partitions; p++) {
+                // each partition fills the first half of the transform, the second half is left to the overlap
+                Arrays.fill(this.re, 0.0f);
+                Arrays.fill(this.im, 0.0f);
+                final int from = p * block;
+                System.arraycopy(impulse[c], Math.min(from, impulse[c].length), this.re, 0,
+                        Math.max(0, Math.min(block, impulse[c].length - from)));
+                this.fft.transform(this.re, this.im, false);
+                System.arraycopy(this.re, 0, this.irRe[c][p], 0, this.bins);
+                System.arraycopy(this.im, 0, this.irIm[c][p], 0, this.bins);
+            }
+        }
+        this.lineRe = new float[channels][this.partitions][this.bins];
+        this.lineIm = new float[channels][this.partitions][this.bins];
+        this.window = new float[channels][this.size];
+        this.tailRe = new float[channels][this.bins];
+        this.tailIm = new float[channels][this.bins];
+    }
+
+    /**
+     * Convolves a buffer.
+     * @param in the buffer to read, one array per channel.
+     * @param out the buffer to write, one array per channel.
+     */
+    void process(final float[][] in, final float[][] out) {
+        this.awaitTail();
+        this.head = (this.head + 1) % this.partitions;
+        for (int c = 0; c < this.channels; c++) {
+            final float[] w = this.window[c];
+            System.arraycopy(w, this.block, w, 0, this.block);
+            System.arraycopy(in[c], 0, w, this.block, this.block);
+            System.arraycopy(w, 0, this.re, 0, this.size);
+            Arrays.fill(this.im, 0.0f);
+            this.fft.transform(this.re, this.im, false);
+            final float[] xr = this.lineRe[c][this.head];
+            final float[] xi = this.lineIm[c][this.head];
+            System.arraycopy(this.re, 0, xr, 0, this.bins);
+            System.arraycopy(this.im, 0, xi, 0, this.bins);
+            final float[] hr = this.irRe[c % this.irRe.length][0];
+            final float[] hi = this.irIm[c % this.irIm.length][0];
+            final float[] tr = this.tailRe[c];
+            final float[] ti = this.tailIm[c];
+            for (int k = 0; k < this.bins; k++) {
+                this.re[k] = xr[k] * hr[k] - xi[k] * hi[k] + tr[k];
+                this.im[k] = xr[k] * hi[k] + xi[k] * hr[k] + ti[k];
+            }
+            // the spectrum of a real signal is symmetric
+            for (int k = 1; k < this.block; k++) {
+                this.re[this.size - k] = this.re[k];
+                this.im[this.size - k] = -this.im[k];
+            }
+            this.fft.transform(this.re, this.im, true);
+            // only the second half is free of the circular overlap
+            for (int i = 0; i < this.block; i++) {
+                out[c][i] = this.re[this.block + i] / this.size;
+            }
+        }
+        if (this.background) {
+            this.requested = this.requested + 1;
+            LockSupport.unpark(this.worker);
+        } else {
+            this.computeTail();
+        }
+    }
+
+    /**
+     * Sets where the partitions after the first one are summed.
+     * @param background true to sum them on a background thread, false to sum them on the audio thread.
+     */
+    void setBackground(final boolean background) {
+        this.background = background;
+        final Thread thread = this.worker;
+        if (background && (thread == null || !thread.isAlive())) {
+            final Thread newWorker = new Thread(this::work, "convolution tail");
+            newWorker.setDaemon(true);
+            this.worker = newWorker;
+            newWorker.start();
+        } else {
+            // a worker that is not needed anymore returns as soon as it wakes up
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void awaitTail() {
+        while (this.done != this.requested) {
+            final Thread thread = this.worker;
+            if (thread == null || !thread.isAlive()) {
+                this.computeTail();
+                this.done = this.requested;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void work() {
+        long seen = this.done;
+        while (true) {
+            final long request = this.requested;
+            if (request != seen) {
+                this.computeTail();
+                seen = request;
+                this.done = request;
+            } else if (!this.background) {
+                return;
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    // sums the products that the next buffer will need with the partitions after the first one
+    private void computeTail() {
+        for (int c = 0; c < this.channels; c++) {
+            final float[] tr = this.tailRe[c];
+            final float[] ti = this.tailIm[c];
+            Arrays.fill(tr, 0.0f);
+            Arrays.fill(ti, 0.0f);
+            final float[][] hr = this.irRe[c % this.irRe.length];
+            final float[][] hi = this.irIm[c % this.irIm.length];
+            for (int p = 1; p < this.partitions; p++) {
+                final int slot = (this.head + 1 - p + this.partitions) % this.partitions;
+                final float[] xr = this.lineRe[c][slot];
+                final float[] xi = this.lineIm[c][slot];
+                final float[] pr = hr[p];
+                final float[] pi = hi[p];
+                for (int k = 0; k < this.bins; k++) {
+                    tr[k] += xr[k] * pr[k] - xi[k] * pi[k];
+                    ti[k] += xr[k] * pi[k] + xi[k] * pr[k];
+                }
+            }
+        }
+    }
+
+}
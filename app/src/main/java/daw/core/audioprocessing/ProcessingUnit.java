@@ -51,10 +51,33 @@ public interface ProcessingUnit {
 
     /**
      * Allows getting the sequence of effects as they are stored when this method is called.
+     * The returned list is immutable and it is replaced by a new one every time the sequence changes,
+     * so that it can be compared by identity to find out if the sequence changed.
      * @return the current {@link List} of effects.
      */
     List<RPEffect> getEffects();
 
+    /**
+     * Gets the sequence of effects as the immutable {@link EffectChain} that has been published by the last edit.
+     * A new chain is published by every edit, so that it can be compared by identity to find out if the
+     * sequence changed, and the effects of the chain are the ones returned by {@link #getEffects()}.
+     * @return the current {@link EffectChain}.
+     */
+    EffectChain getChain();
+
+    /**
+     * Makes the channel strip that runs this unit fade out its effects and fade in the new ones whenever
+     * the sequence changes, instead of swapping them at once. The fade takes two buffers.
+     * @param crossfade true if the changes of the sequence must be faded.
+     */
+    void setCrossfade(boolean crossfade);
+
+    /**
+     *
+     * @return true if the changes of the sequence are faded.
+     */
+    boolean isCrossfade();
+
     /**
      * Allows finding which effect is stored at the given position of the sequence.
      * @param index a position in the sequence.
@@ -45,6 +45,20 @@ public interface ProcessingUnitBuilder {
      */
     ProcessingUnitBuilder reverb(int channels);
 
+    /**
+     * Adds a {@link ParametricEq} whose bands are all off to the {@link ProcessingUnit}.
+     * @param channels the number of input and output channels for this effect.
+     * @return a reference to this object.
+     */
+    ProcessingUnitBuilder parametricEq(int channels);
+
+    /**
+     * Adds a {@link ConvolutionReverb} of a synthesized room to the {@link ProcessingUnit}.
+     * @param channels the number of input and output channels for this effect.
+     * @return a reference to this object.
+     */
+    ProcessingUnitBuilder convolutionReverb(int channels);
+
     /**
      * Adds a {@link Gate} to the {@link ProcessingUnit}.
      * @param channels the number of input and output channels for this effect.
@@ -52,6 +66,13 @@ public interface ProcessingUnitBuilder {
      */
     ProcessingUnitBuilder gate(int channels);
 
+    /**
+     * Adds a {@link LookAheadGate} to the {@link ProcessingUnit}.
+     * @param channels the number of input and output channels for this effect.
+     * @return a reference to this object.
+     */
+    ProcessingUnitBuilder lookAheadGate(int channels);
+
     /**
      * Adds a {@link Compression} to the {@link ProcessingUnit}.
      * @param channels the number of input and output channels for this effect.
@@ -1,18 +1,29 @@
 package daw.core.audioprocessing;
 
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import daw.core.automation.Automation;
+import daw.core.automation.AutomationTarget;
+import daw.core.profiling.LoadCounter;
 import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 import net.beadsproject.beads.core.UGen;
 import net.beadsproject.beads.ugens.Gain;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * This class is an extension of {@link UGen}. In the context of this software, this class is the one
  * all effects must extend. Non-abstract subclasses must provide an implementation for method calculateBuffer.
  * The extension of both {@link UGen} and {@link AudioElement} allows this class to be both powerful
  * at audio processing and easy to use for clients.
+ * The parameters of an effect can also follow its {@link Automation} while the audio is playing.
+ * While the {@link daw.core.profiling.DspProfiler} is enabled, the channel strip that runs an effect records
+ * how long it takes into its {@link LoadCounter}.
  */
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type", visible = true)
 @JsonSubTypes({
@@ -20,38 +31,47 @@ import java.util.Map;
         @JsonSubTypes.Type(value = Limiter.class, name = "limiter"),
         @JsonSubTypes.Type(value = HighPassFilter.class, name = "high pass"),
         @JsonSubTypes.Type(value = LowPassFilter.class, name = "low pass"),
+        @JsonSubTypes.Type(value = ParametricEq.class, name = "parametric eq"),
         @JsonSubTypes.Type(value = Gate.class, name = "gate"),
+        @JsonSubTypes.Type(value = LookAheadGate.class, name = "look ahead gate"),
         @JsonSubTypes.Type(value = DigitalReverb.class, name = "reverb"),
+        @JsonSubTypes.Type(value = ConvolutionReverb.class, name = "convolution reverb"),
         @JsonSubTypes.Type(value = SidechainingImpl.class, name = "sidechaining")
 })
-public abstract class RPEffect extends UGen implements AudioElement {
+public abstract class RPEffect extends UGen implements AudioElement, AutomationTarget {
+
+    /**
+     * The message of the exception thrown when a parameter that does not exist is requested.
+     */
+    protected static final String UNKNOWN_PARAMETER_ERROR = "The effect has no parameter with the given identifier.";
+    private static final String READ_ONLY_ERROR = "The parameter can only be read.";
 
     private final Gain gainIn;
     private final Gain gainOut;
+    private final Automation automation;
+    private final LoadCounter load;
 
     /**
      * Base constructor for all the effects of this software.
      * @param channels the number of inputs and outputs of this effect.
      */
     protected RPEffect(final int channels) {
-        super(AudioContextManager.getAudioContext(), channels, channels);
-        this.gainIn = new Gain(AudioContextManager.getAudioContext(), channels, 1.0f);
-        this.gainOut = new Gain(AudioContextManager.getAudioContext(), channels, 1.0f);
+        this(AudioContextManager.getAudioContext(), channels);
     }
 
     /**
-     * {@inheritDoc}
-     * @return {@inheritDoc}
-     */
-    @Override
-    public abstract Map<String, Float> getParameters();
-
-    /**
-     * {@inheritDoc}
-     * @param parameters the {@link Map} that contains the parameters that must be modified.
+     * Base constructor for the effects that are run by the given {@link AudioContext}, rather than by the one
+     * of the {@link AudioContextManager}.
+     * @param context the {@link AudioContext} that runs this effect.
+     * @param channels the number of inputs and outputs of this effect.
      */
-    @Override
-    public abstract void setParameters(Map<String, Float> parameters);
+    protected RPEffect(final AudioContext context, final int channels) {
+        super(context, channels, channels);
+        this.gainIn = new Gain(context, channels, 1.0f);
+        this.gainOut = new Gain(context, channels, 1.0f);
+        this.automation = new Automation();
+        this.load = new LoadCounter();
+    }
 
     /**
      * {@inheritDoc}
@@ -89,6 +109,150 @@ public abstract class RPEffect extends UGen implements AudioElement {
         return this.gainOut;
     }
 
+    /**
+     * Connects the processing of this effect to the given source, so that it can be run by a compiled
+     * channel strip. Subclasses should connect their processing directly to the source, skipping the input
+     * and the output {@link Gain}s, which only copy the audio. By default the input gain reads from the source
+     * and the output gain is returned.
+     * @param source the {@link UGen} that outputs the audio to be processed.
+     * @return the {@link UGen} that outputs the processed audio.
+     */
+    public UGen compile(final UGen source) {
+        this.gainIn.clearInputConnections();
+        this.gainIn.addInput(source);
+        return this.gainOut;
+    }
+
+    /**
+     * Gets how long this effect can keep outputting audio after its input has gone silent, like the tail of a
+     * reverb. A channel strip whose input has been silent for longer than the tails of all its effects stops
+     * running them. By default an effect outputs silence as soon as its input is silent.
+     * @return the length of the tail in milliseconds.
+     */
+    public double getTailTime() {
+        return 0.0;
+    }
+
+    /**
+     * Gets how late this effect outputs its input, like the look-ahead of a gate. By default an effect outputs
+     * each frame in the same buffer it reads it.
+     * @return the delay in milliseconds.
+     */
+    public double getLatency() {
+        return 0.0;
+    }
+
+    /**
+     * Checks if this effect can be copied to another {@link AudioContext}. By default it can, while an effect
+     * that depends on audio of its own context, like the key of a sidechain, cannot.
+     * @return true if {@link #copy(AudioContext)} gives a copy of this effect.
+     */
+    public boolean canCopy() {
+        return true;
+    }
+
+    /**
+     * Creates an effect of the same kind, run by the given {@link AudioContext}, with the same parameters and
+     * automation of this one. The copy is not connected to anything.
+     * @param context the {@link AudioContext} that runs the copy.
+     * @return the copy of this effect, or an empty {@link Optional} if this effect cannot be copied.
+     */
+    public final Optional<RPEffect> copy(final AudioContext context) {
+        if (!this.canCopy()) {
+            return Optional.empty();
+        }
+        final RPEffect copy = this.create(context);
+        copy.setParameters(this.getParameters());
+        copy.automation.copyFrom(this.automation);
+        return Optional.of(copy);
+    }
+
+    /**
+     * Creates an effect of the same kind and with the same channels of this one, run by the given
+     * {@link AudioContext}, with the default parameters. It is only called if {@link #canCopy()} is true.
+     * @param context the {@link AudioContext} that runs the new effect.
+     * @return the new effect.
+     */
+    protected abstract RPEffect create(AudioContext context);
+
+    /**
+     * Gets the automation lanes of the parameters of this effect.
+     * @return the {@link Automation} of this effect.
+     */
+    public Automation getAutomation() {
+        return this.automation;
+    }
+
+    /**
+     * Gets the time that this effect takes to process its buffers while it is being profiled.
+     * @return the {@link LoadCounter} of this effect.
+     */
+    public LoadCounter getLoad() {
+        return this.load;
+    }
+
+    @JsonProperty("automation")
+    private void setAutomation(final Automation automation) {
+        this.automation.copyFrom(automation);
+    }
+
+    // the parameters are saved as fields of their own, so they are restored from the fields that are not known
+    @JsonAnySetter
+    private void setSavedParameter(final String name, final Object value) {
+        if (value instanceof Number) {
+            this.setParameters(Map.of(name, ((Number) value).floatValue()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The effects take the value that the lane has at the first frame of the buffer. The parameters whose
+     * {@link ParameterDescriptor} is not automatable are ignored.
+     * @param parameter {@inheritDoc}
+     * @param values {@inheritDoc}
+     */
+    @Override
+    public void automate(final String parameter, final float[] values) {
+        final List<ParameterDescriptor> descriptors = this.getParameterDescriptors();
+        for (int i = 0; i < descriptors.size(); i++) {
+            final ParameterDescriptor descriptor = descriptors.get(i);
+            if (descriptor.isAutomatable() && descriptor.getName().equals(parameter)) {
+                this.setParameter(descriptor.getId(), values[0]);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the descriptor of a parameter of this effect.
+     * @param id the identifier of the parameter.
+     * @return the {@link ParameterDescriptor} of the parameter.
+     * @throws IllegalArgumentException if this effect has no parameter with the given identifier.
+     */
+    protected final ParameterDescriptor getDescriptor(final int id) {
+        final List<ParameterDescriptor> descriptors = this.getParameterDescriptors();
+        if (id < 0 || id >= descriptors.size()) {
+            throw new IllegalArgumentException(UNKNOWN_PARAMETER_ERROR);
+        }
+        return descriptors.get(id);
+    }
+
+    /**
+     * Checks that a parameter of this effect can be set, and limits the value to its range.
+     * @param id the identifier of the parameter.
+     * @param value the value that the parameter must be set to.
+     * @return the value, limited to the range of the parameter.
+     * @throws IllegalArgumentException if this effect has no parameter with the given identifier,
+     * or if the parameter can only be read.
+     */
+    protected final float checkValue(final int id, final float value) {
+        final ParameterDescriptor descriptor = this.getDescriptor(id);
+        if (descriptor.isReadOnly()) {
+            throw new IllegalArgumentException(READ_ONLY_ERROR);
+        }
+        return descriptor.clamp(value);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,78 @@
+package daw.core.audioprocessing;
+
+/**
+ * Implementation of {@link Kernels} with plain loops, one frame at a time.
+ * It runs on any platform and is the reference for the other implementations.
+ */
+// package-protected since it is only used by DspKernels
+final class ScalarKernels implements Kernels {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void scale(final float[] in, final float gain, final float[] out, final int frames) {
+        for (int i = 0; i < frames; i++) {
+            out[i] = in[i] * gain;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void ramp(final float[] in, final float from, final float to, final float[] out, final int frames) {
+        final float step = (to - from) / frames;
+        for (int i = 0; i < frames; i++) {
+            out[i] = in[i] * (from + step * (i + 1));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sumInto(final float[] in, final float[] out, final int frames) {
+        for (int i = 0; i < frames; i++) {
+            out[i] += in[i];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void applyEnvelope(final float[] in, final float[] envelope, final float[] out, final int frames) {
+        for (int i = 0; i < frames; i++) {
+            out[i] = in[i] * envelope[i];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float peak(final float[] in, final int frames) {
+        float peak = 0.0f;
+        for (int i = 0; i < frames; i++) {
+            peak = Math.max(peak, Math.abs(in[i]));
+        }
+        return peak;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float rms(final float[] in, final int frames) {
+        if (frames == 0) {
+            return 0.0f;
+        }
+        float sum = 0.0f;
+        for (int i = 0; i < frames; i++) {
+            sum += in[i] * in[i];
+        }
+        return (float) Math.sqrt(sum / frames);
+    }
+
+}
@@ -0,0 +1,86 @@
+package daw.core.audioprocessing;
+
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The detector of a sidechain, which follows the level of an audio source so that any number of
+ * {@link SidechainingImpl} can duck their own audio from it.
+ * The level is computed once per buffer, no matter how many effects read it, and each effect keeps its own
+ * threshold, ratio, attack and decay. The level is the only output of this {@link UGen}, sample by sample.
+ * There is at most one key for each source, which is obtained with {@link #of(AudioContext, UGen)}.
+ */
+public final class SidechainKey extends UGen {
+
+    // how fast the level of the source is forgotten, in milliseconds
+    private static final float DETECTOR_TIME = 10.0f;
+    private static final Map<UGen, WeakReference<SidechainKey>> KEYS = new WeakHashMap<>();
+
+    private final int channels;
+    private final float coefficient;
+    private float meanSquare;
+
+    private SidechainKey(final AudioContext context, final UGen source) {
+        super(context, source.getOuts(), 1);
+        this.channels = source.getOuts();
+        final double samples = this.context.msToSamples(DETECTOR_TIME);
+        this.coefficient = samples < 1 ? 0.0f : (float) Math.exp(-1 / samples);
+        this.addInput(source);
+    }
+
+    /**
+     * Gets the key of the given source, creating it if no effect is using one yet.
+     * @param source the {@link UGen} whose level must be followed.
+     * @return the key of the source.
+     */
+    public static SidechainKey of(final UGen source) {
+        return of(AudioContextManager.getAudioContext(), source);
+    }
+
+    /**
+     * Gets the key of the given source, creating it in the given {@link AudioContext} if no effect is using
+     * one yet.
+     * @param context the {@link AudioContext} that runs the source.
+     * @param source the {@link UGen} whose level must be followed.
+     * @return the key of the source.
+     */
+    public static synchronized SidechainKey of(final AudioContext context, final UGen source) {
+        final WeakReference<SidechainKey> reference = KEYS.get(source);
+        SidechainKey key = reference == null ? null : reference.get();
+        if (key == null) {
+            key = new SidechainKey(context, source);
+            KEYS.put(source, new WeakReference<>(key));
+        }
+        return key;
+    }
+
+    /**
+     * Gets the level of the source along the current buffer. The buffer is only valid after this key
+     * has been updated in the current time step, and must not be modified.
+     * @return the level of each frame of the buffer.
+     */
+    public float[] getLevel() {
+        return this.bufOut[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void calculateBuffer() {
+        final float[] level = this.bufOut[0];
+        for (int i = 0; i < this.bufferSize; i++) {
+            float square = 0.0f;
+            for (int c = 0; c < this.channels; c++) {
+                square = Math.max(square, this.bufIn[c][i] * this.bufIn[c][i]);
+            }
+            this.meanSquare = square + (this.meanSquare - square) * this.coefficient;
+            level[i] = (float) Math.sqrt(this.meanSquare);
+        }
+    }
+
+}
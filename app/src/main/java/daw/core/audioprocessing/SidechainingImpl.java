@@ -1,16 +1,69 @@
 package daw.core.audioprocessing;
 
+import com.fasterxml.jackson.annotation.JacksonInject;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import daw.core.audioprocessing.ParameterDescriptor.Unit;
+import net.beadsproject.beads.core.AudioContext;
 import net.beadsproject.beads.core.UGen;
+import java.util.List;
 
 /**
  * Basic implementation of {@link Sidechaining}.
+ * The level which the compression is based upon is read from a {@link SidechainKey}, which is shared by all
+ * the effects that are sidechained to the same source, so that ducking several channels from the same source
+ * only follows its level once. Each effect keeps its own threshold, ratio, attack and decay.
+ * An effect that is not tied to a source, such as one that has just been loaded, compresses its own audio.
  * <p> NOTE: Due to how the Beads library is structured (namely the fact that UGen is an abstract class
  * instead of an interface), this implementation of {@link Sidechaining} is the only one currently supported.
  * This means all clients must use this class when sidechaining is needed. </p>
  */
-public class SidechainingImpl extends Dynamics implements Sidechaining {
+public class SidechainingImpl extends RPEffect implements Sidechaining {
+
+    /**
+     * The identifier of the level of the source above which the volume is reduced.
+     */
+    public static final int THRESHOLD = 0;
+
+    /**
+     * The identifier of the ratio by which the volume is reduced.
+     */
+    public static final int RATIO = 1;
+
+    /**
+     * The identifier of the time that the ducking takes to begin.
+     */
+    public static final int ATTACK = 2;
+
+    /**
+     * The identifier of the time that the ducking takes to end.
+     */
+    public static final int DECAY = 3;
+
+    /**
+     * The identifier of the gain that the ducking is applying, which can only be read.
+     */
+    public static final int CURRENT_COMPRESSION = 4;
+
+    private static final float MAX_TIME = 5000.0f;
+    private static final List<ParameterDescriptor> DESCRIPTORS = List.of(
+            ParameterDescriptor.parameter(THRESHOLD, "threshold", 0.0f, 1.0f, 0.5f, Unit.NONE),
+            ParameterDescriptor.parameter(RATIO, "ratio", 1.0f, Float.POSITIVE_INFINITY, 2.0f, Unit.NONE),
+            ParameterDescriptor.parameter(ATTACK, "attack", 0.0f, MAX_TIME, 1.0f, Unit.MILLISECONDS),
+            ParameterDescriptor.parameter(DECAY, "decay", 0.0f, MAX_TIME, 0.5f, Unit.MILLISECONDS),
+            ParameterDescriptor.meter(CURRENT_COMPRESSION, ParameterDescriptor.GAIN_REDUCTION, 0.0f, 1.0f, 1.0f,
+                    Unit.NONE));
+
+    private final boolean keyed;
+    private volatile SidechainKey key;
+    private final float[] envelope;
+    private float threshold;
+    private float ratio;
+    private float attack;
+    private float decay;
+    private float attackCoefficient;
+    private float decayCoefficient;
+    private float currentGain = 1.0f;
 
     /**
      * Constructs a {@link SidechainingImpl} object with the given parameters.
@@ -18,13 +71,181 @@ public class SidechainingImpl extends Dynamics implements Sidechaining {
      * @param channels the number of inputs and outputs of the given channel.
      */
     public SidechainingImpl(final UGen u, final int channels) {
-        this(channels);
-        this.compressor.setSideChain(u);
+        this(SidechainKey.of(u), channels);
+    }
+
+    /**
+     * Constructs a {@link SidechainingImpl} object in the given {@link AudioContext}.
+     * @param context the {@link AudioContext} that runs this effect and the sidechained channel.
+     * @param u the channel to be sidechained.
+     * @param channels the number of inputs and outputs of the given channel.
+     */
+    public SidechainingImpl(final AudioContext context, final UGen u, final int channels) {
+        this(SidechainKey.of(context, u), channels);
+    }
+
+    /**
+     * Constructs a {@link SidechainingImpl} object that reads the level of the given key.
+     * @param key the {@link SidechainKey} of the source that ducks the audio.
+     * @param channels the number of inputs and outputs of the given channel.
+     */
+    public SidechainingImpl(final SidechainKey key, final int channels) {
+        this(key.getContext(), channels, key);
     }
 
     @JsonCreator
-    private SidechainingImpl(@JsonProperty("ins") final int channels) {
-        super(channels);
+    private SidechainingImpl(@JacksonInject final AudioContext context, @JsonProperty("ins") final int channels) {
+        this(context, channels, null);
+    }
+
+    // the effect is run by the context of its key
+    private SidechainingImpl(final AudioContext context, final int channels, final SidechainKey key) {
+        super(context, channels);
+        this.keyed = key != null;
+        this.envelope = new float[this.bufferSize];
+        for (final ParameterDescriptor descriptor : DESCRIPTORS) {
+            if (!descriptor.isReadOnly()) {
+                this.setParameter(descriptor.getId(), descriptor.getDefaultValue());
+            }
+        }
+        this.addInput(this.getGainIn());
+        this.getGainOut().addInput(this);
+        this.key = this.keyed ? key : SidechainKey.of(context, this.getGainIn());
+    }
+
+    /**
+     * Gets the key whose level this effect is based upon.
+     * @return the {@link SidechainKey}.
+     */
+    public SidechainKey getKey() {
+        return this.key;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final List<ParameterDescriptor> getParameterDescriptors() {
+        return DESCRIPTORS;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param id {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public final float getParameter(final int id) {
+        switch (id) {
+            case THRESHOLD:
+                return this.threshold;
+            case RATIO:
+                return this.ratio;
+            case ATTACK:
+                return this.attack;
+            case DECAY:
+                return this.decay;
+            case CURRENT_COMPRESSION:
+                return this.currentGain;
+            default:
+                throw new IllegalArgumentException(UNKNOWN_PARAMETER_ERROR);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The attack and the decay are in milliseconds.
+     * @param id {@inheritDoc}
+     * @param value {@inheritDoc}
+     */
+    @Override
+    public final void setParameter(final int id, final float value) {
+        final float checked = this.checkValue(id, value);
+        switch (id) {
+            case THRESHOLD:
+                this.threshold = checked;
+                break;
+            case RATIO:
+                this.ratio = checked;
+                break;
+            case ATTACK:
+                this.attack = checked;
+                this.attackCoefficient = this.coefficient(checked);
+                break;
+            case DECAY:
+                this.decay = checked;
+                this.decayCoefficient = this.coefficient(checked);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The effect processes the audio by itself, without the input and the output gains.
+     * @param source {@inheritDoc}
+     * @return this effect.
+     */
+    @Override
+    public final UGen compile(final UGen source) {
+        this.clearInputConnections();
+        this.addInput(source);
+        if (!this.keyed) {
+            this.key = SidechainKey.of(this.context, source);
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void calculateBuffer() {
+        final SidechainKey currentKey = this.key;
+        // the level is only computed by the first effect that reads it in this time step
+        currentKey.update();
+        final float[] level = currentKey.getLevel();
+        for (int i = 0; i < this.bufferSize; i++) {
+            final float target = level[i] > this.threshold
+                    ? (this.threshold + (level[i] - this.threshold) / this.ratio) / level[i]
+                    : 1.0f;
+            // the gain goes down with the attack and back up with the decay
+            final float coefficient = target < this.currentGain ? this.attackCoefficient : this.decayCoefficient;
+            this.currentGain = target + (this.currentGain - target) * coefficient;
+            this.envelope[i] = this.currentGain;
+        }
+        for (int c = 0; c < this.ins; c++) {
+            DspKernels.applyEnvelope(this.bufIn[c], this.envelope, this.bufOut[c], this.bufferSize);
+        }
+    }
+
+    private float coefficient(final float milliseconds) {
+        final double samples = this.context.msToSamples(milliseconds);
+        return samples < 1 ? 0.0f : (float) Math.exp(-1 / samples);
+    }
+
+    /**
+     * {@inheritDoc}
+     * A sidechain cannot be copied, as its key is run by the context of the sidechained source.
+     * @return false.
+     */
+    @Override
+    public boolean canCopy() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * It is never called, since a sidechain cannot be copied.
+     * @param context {@inheritDoc}
+     * @return nothing, as it always throws.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    protected RPEffect create(final AudioContext context) {
+        throw new UnsupportedOperationException("A sidechain cannot be copied.");
     }
 
 }
@@ -0,0 +1,122 @@
+package daw.core.audioprocessing;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of {@link Kernels} with the vector API, processing as many frames at once as the
+ * preferred vector of the platform holds. The frames that do not fill a whole vector are processed one at a time.
+ * This class can only be loaded if the jdk.incubator.vector module is available.
+ */
+// package-protected since it is only used by DspKernels
+final class VectorKernels implements Kernels {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    // 1, 2, ... up to the length of a vector, to compute the gains of a ramp
+    private static final FloatVector INDEXES = FloatVector.zero(SPECIES).addIndex(1).add(1.0f);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void scale(final float[] in, final float gain, final float[] out, final int frames) {
+        final int bound = SPECIES.loopBound(frames);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, in, i).mul(gain).intoArray(out, i);
+        }
+        for (; i < frames; i++) {
+            out[i] = in[i] * gain;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void ramp(final float[] in, final float from, final float to, final float[] out, final int frames) {
+        final float step = (to - from) / frames;
+        final FloatVector steps = INDEXES.mul(step);
+        final int bound = SPECIES.loopBound(frames);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            final FloatVector gains = steps.add(from + step * i);
+            FloatVector.fromArray(SPECIES, in, i).mul(gains).intoArray(out, i);
+        }
+        for (; i < frames; i++) {
+            out[i] = in[i] * (from + step * (i + 1));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sumInto(final float[] in, final float[] out, final int frames) {
+        final int bound = SPECIES.loopBound(frames);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, out, i).add(FloatVector.fromArray(SPECIES, in, i)).intoArray(out, i);
+        }
+        for (; i < frames; i++) {
+            out[i] += in[i];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void applyEnvelope(final float[] in, final float[] envelope, final float[] out, final int frames) {
+        final int bound = SPECIES.loopBound(frames);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, in, i).mul(FloatVector.fromArray(SPECIES, envelope, i)).intoArray(out, i);
+        }
+        for (; i < frames; i++) {
+            out[i] = in[i] * envelope[i];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float peak(final float[] in, final int frames) {
+        final int bound = SPECIES.loopBound(frames);
+        FloatVector peaks = FloatVector.zero(SPECIES);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            peaks = peaks.max(FloatVector.fromArray(SPECIES, in, i).abs());
+        }
+        float peak = peaks.reduceLanes(VectorOperators.MAX);
+        for (; i < frames; i++) {
+            peak = Math.max(peak, Math.abs(in[i]));
+        }
+        return peak;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float rms(final float[] in, final int frames) {
+        if (frames == 0) {
+            return 0.0f;
+        }
+        final int bound = SPECIES.loopBound(frames);
+        FloatVector sums = FloatVector.zero(SPECIES);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            final FloatVector v = FloatVector.fromArray(SPECIES, in, i);
+            sums = v.fma(v, sums);
+        }
+        float sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < frames; i++) {
+            sum += in[i] * in[i];
+        }
+        return (float) Math.sqrt(sum / frames);
+    }
+
+}
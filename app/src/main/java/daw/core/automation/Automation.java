@@ -0,0 +1,166 @@
+package daw.core.automation;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The automation lanes of a channel or of an effect, one for each automated parameter.
+ * The lanes are published as a whole when one is added or removed, so that the audio thread can render
+ * them without locking and without allocating.
+ */
+public final class Automation {
+
+    private volatile Lanes lanes;
+
+    /**
+     * Creates an automation with no lanes.
+     */
+    public Automation() {
+        this.lanes = new Lanes(new String[0], new AutomationLane[0]);
+    }
+
+    /**
+     * Creates an automation with the given lanes.
+     * @param lanes the lanes, where the keys are the names of the parameters.
+     */
+    @JsonCreator
+    public Automation(@JsonProperty("lanes") final Map<String, AutomationLane> lanes) {
+        this();
+        if (lanes != null) {
+            lanes.forEach(this::putLane);
+        }
+    }
+
+    /**
+     * Gets the lane of a parameter, and creates an empty one if the parameter is not automated yet.
+     * @param parameter the name of the parameter.
+     * @return the lane of the parameter.
+     */
+    public synchronized AutomationLane addLane(final String parameter) {
+        final Optional<AutomationLane> lane = this.getLane(parameter);
+        if (lane.isPresent()) {
+            return lane.get();
+        }
+        final AutomationLane newLane = new AutomationLane();
+        this.putLane(parameter, newLane);
+        return newLane;
+    }
+
+    /**
+     * Stops automating a parameter.
+     * @param parameter the name of the parameter.
+     */
+    public synchronized void removeLane(final String parameter) {
+        final Lanes current = this.lanes;
+        final int index = Arrays.asList(current.parameters).indexOf(parameter);
+        if (index >= 0) {
+            final String[] parameters = new String[current.parameters.length - 1];
+            final AutomationLane[] newLanes = new AutomationLane[parameters.length];
+            for (int i = 0, j = 0; i < current.parameters.length; i++) {
+                if (i != index) {
+                    parameters[j] = current.parameters[i];
+                    newLanes[j++] = current.lanes[i];
+                }
+            }
+            this.lanes = new Lanes(parameters, newLanes);
+        }
+    }
+
+    /**
+     * Gets the lane of a parameter.
+     * @param parameter the name of the parameter.
+     * @return the lane, or an empty {@link Optional} if the parameter is not automated.
+     */
+    public Optional<AutomationLane> getLane(final String parameter) {
+        final Lanes current = this.lanes;
+        final int index = Arrays.asList(current.parameters).indexOf(parameter);
+        return index >= 0 ? Optional.of(current.lanes[index]) : Optional.empty();
+    }
+
+    /**
+     *
+     * @return the lanes, where the keys are the names of the parameters.
+     */
+    public Map<String, AutomationLane> getLanes() {
+        final Lanes current = this.lanes;
+        final Map<String, AutomationLane> map = new LinkedHashMap<>();
+        for (int i = 0; i < current.parameters.length; i++) {
+            map.put(current.parameters[i], current.lanes[i]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     *
+     * @return true if no parameter is automated.
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return this.lanes.parameters.length == 0;
+    }
+
+    /**
+     * Replaces the lanes with copies of the lanes of another automation.
+     * @param other the automation to copy.
+     */
+    public synchronized void copyFrom(final Automation other) {
+        this.lanes = new Lanes(new String[0], new AutomationLane[0]);
+        other.getLanes().forEach((parameter, lane) ->
+                this.putLane(parameter, new AutomationLane(lane.getTimes(), lane.getValues())));
+    }
+
+    /**
+     * Renders every lane along a buffer and hands its values to the target. It is meant to be called by the
+     * audio thread, and it allocates nothing.
+     * @param time the time of the first frame of the buffer in milliseconds.
+     * @param frameTime the duration of a frame in milliseconds.
+     * @param values the array where each lane is rendered, as long as a buffer.
+     * @param target the {@link AutomationTarget} whose parameters follow the lanes.
+     */
+    public void render(final double time, final double frameTime, final float[] values,
+                       final AutomationTarget target) {
+        final Lanes current = this.lanes;
+        for (int i = 0; i < current.parameters.length; i++) {
+            if (!current.lanes[i].isEmpty()) {
+                current.lanes[i].fill(time, frameTime, values, values.length);
+                target.automate(current.parameters[i], values);
+            }
+        }
+    }
+
+    private synchronized void putLane(final String parameter, final AutomationLane lane) {
+        final Lanes current = this.lanes;
+        final int index = Arrays.asList(current.parameters).indexOf(parameter);
+        if (index >= 0) {
+            final AutomationLane[] newLanes = current.lanes.clone();
+            newLanes[index] = lane;
+            this.lanes = new Lanes(current.parameters, newLanes);
+        } else {
+            final String[] parameters = Arrays.copyOf(current.parameters, current.parameters.length + 1);
+            final AutomationLane[] newLanes = Arrays.copyOf(current.lanes, current.lanes.length + 1);
+            parameters[current.parameters.length] = parameter;
+            newLanes[current.lanes.length] = lane;
+            this.lanes = new Lanes(parameters, newLanes);
+        }
+    }
+
+    // the lanes, which are never modified once they are published
+    private static final class Lanes {
+
+        private final String[] parameters;
+        private final AutomationLane[] lanes;
+
+        private Lanes(final String[] parameters, final AutomationLane[] lanes) {
+            this.parameters = parameters;
+            this.lanes = lanes;
+        }
+
+    }
+
+}
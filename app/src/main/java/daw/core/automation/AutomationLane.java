@@ -0,0 +1,195 @@
+package daw.core.automation;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Arrays;
+
+/**
+ * The automation of a single parameter along the timeline, made of breakpoints. Between two breakpoints the
+ * value of the parameter moves linearly, before the first one it keeps the value of the first one, and after
+ * the last one it keeps the value of the last one.
+ * The breakpoints are kept in sorted arrays, which are replaced as a whole when they are edited, so that the
+ * audio thread always reads a consistent lane. The audio thread reads the lane a buffer at a time with a cursor,
+ * which only searches the breakpoints again when the playback jumps.
+ */
+public final class AutomationLane {
+
+    private volatile Points points;
+    // the index of the last breakpoint before the frame that follows the last rendered buffer
+    private int cursor;
+    private Points cursorPoints;
+    private double cursorTime = -1;
+
+    /**
+     * Creates a lane with no breakpoints.
+     */
+    public AutomationLane() {
+        this.points = new Points(new double[0], new float[0]);
+    }
+
+    /**
+     * Creates a lane with the given breakpoints.
+     * @param times the times of the breakpoints in milliseconds.
+     * @param values the values of the parameter at the breakpoints, in the same order as the times.
+     * @throws IllegalArgumentException if the times and the values are not as many.
+     */
+    @JsonCreator
+    public AutomationLane(@JsonProperty("times") final double[] times, @JsonProperty("values") final float[] values) {
+        this();
+        if (times.length != values.length) {
+            throw new IllegalArgumentException("Each breakpoint must have a time and a value.");
+        }
+        for (int i = 0; i < times.length; i++) {
+            this.addPoint(times[i], values[i]);
+        }
+    }
+
+    /**
+     * Adds a breakpoint, or changes the value of the one at the same time.
+     * @param time the time of the breakpoint in milliseconds.
+     * @param value the value of the parameter at the given time.
+     * @throws IllegalArgumentException if the time is negative.
+     */
+    public synchronized void addPoint(final double time, final float value) {
+        if (time < 0) {
+            throw new IllegalArgumentException("The time of a breakpoint cannot be negative.");
+        }
+        final Points current = this.points;
+        final int index = Arrays.binarySearch(current.times, time);
+        if (index >= 0) {
+            final float[] values = current.values.clone();
+            values[index] = value;
+            this.points = new Points(current.times, values);
+        } else {
+            final int insertion = -index - 1;
+            final int size = current.times.length;
+            final double[] times = new double[size + 1];
+            final float[] values = new float[size + 1];
+            System.arraycopy(current.times, 0, times, 0, insertion);
+            System.arraycopy(current.values, 0, values, 0, insertion);
+            times[insertion] = time;
+            values[insertion] = value;
+            System.arraycopy(current.times, insertion, times, insertion + 1, size - insertion);
+            System.arraycopy(current.values, insertion, values, insertion + 1, size - insertion);
+            this.points = new Points(times, values);
+        }
+    }
+
+    /**
+     * Removes the breakpoint at the given time, if there is one.
+     * @param time the time of the breakpoint in milliseconds.
+     */
+    public synchronized void removePoint(final double time) {
+        final Points current = this.points;
+        final int index = Arrays.binarySearch(current.times, time);
+        if (index >= 0) {
+            final int size = current.times.length;
+            final double[] times = new double[size - 1];
+            final float[] values = new float[size - 1];
+            System.arraycopy(current.times, 0, times, 0, index);
+            System.arraycopy(current.values, 0, values, 0, index);
+            System.arraycopy(current.times, index + 1, times, index, size - index - 1);
+            System.arraycopy(current.values, index + 1, values, index, size - index - 1);
+            this.points = new Points(times, values);
+        }
+    }
+
+    /**
+     * Gets the times of the breakpoints.
+     * @return the times in milliseconds, in ascending order.
+     */
+    public double[] getTimes() {
+        return this.points.times.clone();
+    }
+
+    /**
+     * Gets the values of the breakpoints.
+     * @return the values, in the same order as the times.
+     */
+    public float[] getValues() {
+        return this.points.values.clone();
+    }
+
+    /**
+     *
+     * @return true if the lane has no breakpoints.
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return this.points.times.length == 0;
+    }
+
+    /**
+     * Gets the value of the parameter at the given time.
+     * @param time the time in milliseconds.
+     * @return the value of the parameter.
+     * @throws IllegalStateException if the lane has no breakpoints.
+     */
+    public float getValue(final double time) {
+        final Points current = this.points;
+        if (current.times.length == 0) {
+            throw new IllegalStateException("The lane has no breakpoints.");
+        }
+        final int index = Arrays.binarySearch(current.times, time);
+        return index >= 0 ? current.values[index] : current.interpolate(-index - 2, time);
+    }
+
+    /**
+     * Writes the value of the parameter at each frame of a buffer. It is meant to be called by the audio thread,
+     * and it allocates nothing. Nothing is written if the lane has no breakpoints.
+     * @param time the time of the first frame of the buffer in milliseconds.
+     * @param frameTime the duration of a frame in milliseconds.
+     * @param out the buffer to write.
+     * @param frames the number of frames to write.
+     */
+    public void fill(final double time, final double frameTime, final float[] out, final int frames) {
+        final Points current = this.points;
+        final int size = current.times.length;
+        if (size == 0) {
+            return;
+        }
+        // the cursor is only valid if the lane has not changed and the playback has not jumped
+        if (current != this.cursorPoints || Math.abs(time - this.cursorTime) > frameTime / 2) {
+            final int index = Arrays.binarySearch(current.times, time);
+            this.cursor = index >= 0 ? index : -index - 2;
+            this.cursorPoints = current;
+        }
+        int index = this.cursor;
+        for (int i = 0; i < frames; i++) {
+            final double now = time + i * frameTime;
+            while (index + 1 < size && current.times[index + 1] <= now) {
+                index++;
+            }
+            out[i] = current.interpolate(index, now);
+        }
+        this.cursor = index;
+        this.cursorTime = time + frames * frameTime;
+    }
+
+    // the breakpoints, which are never modified once they are published
+    private static final class Points {
+
+        private final double[] times;
+        private final float[] values;
+
+        private Points(final double[] times, final float[] values) {
+            this.times = times;
+            this.values = values;
+        }
+
+        // the value at the given time, which follows the breakpoint at the given index
+        private float interpolate(final int index, final double time) {
+            if (index < 0) {
+                return this.values[0];
+            }
+            if (index >= this.times.length - 1) {
+                return this.values[this.times.length - 1];
+            }
+            final double progress = (time - this.times[index]) / (this.times[index + 1] - this.times[index]);
+            return (float) (this.values[index] + (this.values[index + 1] - this.values[index]) * progress);
+        }
+
+    }
+
+}
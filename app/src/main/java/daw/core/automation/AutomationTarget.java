@@ -0,0 +1,20 @@
+package daw.core.automation;
+
+/**
+ * Something whose parameters can follow an {@link Automation} while the audio is playing.
+ * Unlike setting the parameters through their {@link java.util.Map}, following the automation is done on the
+ * audio thread once per buffer, and must allocate nothing.
+ */
+@FunctionalInterface
+public interface AutomationTarget {
+
+    /**
+     * Sets a parameter to the values that its lane has along the current buffer.
+     * The parameters that cannot be automated are ignored.
+     * @param parameter the name of the parameter.
+     * @param values the value of the parameter at each frame of the buffer. The array is reused for the next
+     *               lanes, so it must not be kept.
+     */
+    void automate(String parameter, float[] values);
+
+}
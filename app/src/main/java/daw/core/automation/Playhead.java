@@ -0,0 +1,113 @@
+package daw.core.automation;
+
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The position of the playback on the timeline, as seen by the audio thread.
+ * The position follows the frames that the {@link AudioContext} has processed since the playback was started,
+ * rather than the system clock, so that the automation is rendered in the same way whether the audio is
+ * played in real time or not.
+ * There is a playhead for each {@link AudioContext}, so that the projects that are run by different contexts
+ * are played independently.
+ */
+public final class Playhead {
+
+    // the playheads are forgotten together with their contexts
+    private static final Map<AudioContext, Playhead> PLAYHEADS = new WeakHashMap<>();
+
+    private final Reference<AudioContext> context;
+    private final double frameTime;
+    // null while the playback is stopped
+    private volatile Anchor anchor;
+
+    private Playhead(final AudioContext context) {
+        this.context = new WeakReference<>(context);
+        this.frameTime = context.samplesToMs(1);
+    }
+
+    /**
+     *
+     * @return the playhead of the {@link AudioContext} of the {@link AudioContextManager}.
+     */
+    public static Playhead getPlayhead() {
+        return getPlayhead(AudioContextManager.getAudioContext());
+    }
+
+    /**
+     * Gets the playhead of the given context, creating it the first time it is requested.
+     * @param context an {@link AudioContext}.
+     * @return the playhead of the context.
+     */
+    public static synchronized Playhead getPlayhead(final AudioContext context) {
+        return PLAYHEADS.computeIfAbsent(context, Playhead::new);
+    }
+
+    /**
+     * Starts moving the playhead from the given time, beginning from the buffer that is being processed.
+     * @param time the time on the timeline in milliseconds.
+     */
+    public void start(final double time) {
+        final AudioContext current = this.context.get();
+        if (current != null) {
+            this.anchor = new Anchor(current, current.getTimeStep(), time);
+        }
+    }
+
+    /**
+     * Stops the playhead.
+     */
+    public void stop() {
+        this.anchor = null;
+    }
+
+    /**
+     *
+     * @return true if the playhead is moving.
+     */
+    public boolean isPlaying() {
+        return this.anchor != null;
+    }
+
+    /**
+     * Gets the duration of a frame.
+     * @return the duration in milliseconds.
+     */
+    public double getFrameTime() {
+        return this.frameTime;
+    }
+
+    /**
+     * Gets the time on the timeline of the first frame of the buffer that is being processed.
+     * It is meant to be called by the audio thread.
+     * @return the time in milliseconds, or a negative value if the playhead is stopped.
+     */
+    public double getBufferTime() {
+        final Anchor current = this.anchor;
+        if (current == null) {
+            return -1;
+        }
+        final long buffers = Math.max(0, current.context.getTimeStep() - current.timeStep);
+        return current.time + buffers * current.context.getBufferSize() * this.frameTime;
+    }
+
+    // the audio context and its time step at which the playback was started, and the time it was started from
+    private static final class Anchor {
+
+        private final AudioContext context;
+        private final long timeStep;
+        private final double time;
+
+        private Anchor(final AudioContext context, final long timeStep, final double time) {
+            this.context = context;
+            this.timeStep = timeStep;
+            this.time = time;
+        }
+
+    }
+
+}
@@ -1,16 +1,22 @@
 package daw.core.channel;
 
+import com.fasterxml.jackson.annotation.JacksonInject;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import daw.core.audioprocessing.Pan;
-import daw.utilities.AudioContextManager;
 import daw.core.audioprocessing.ProcessingUnit;
+import daw.core.automation.Automation;
+import daw.core.profiling.LoadCounter;
+import net.beadsproject.beads.core.AudioContext;
 import net.beadsproject.beads.core.UGen;
 import net.beadsproject.beads.ugens.Gain;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * This class represents a basic implementation of {@link RPChannel}, which may be extended if needed.
@@ -19,41 +25,47 @@ import java.util.Optional;
  * Moreover, the channel is thought to initially have no {@link ProcessingUnit}; thereby, the only way to
  * add one is to call the method which does that.
  * A channel can be of one and only one Type, which is immutable and must be declared upon initialization.
+ * The audio of the channel is processed by a single {@link ChannelStrip}, which is also its output.
+ * A return channel is fed by a {@link ReturnBus}, which sums the sends of the other channels.
  */
 public final class BasicChannel implements RPChannel {
 
     private static final float DEFAULT_GAIN_IN = 0.9f;
-    private static final int INS = 2;
 
     private final Pan pan;
     private final Type type;
     private Optional<ProcessingUnit> pu;
-    private final Gain gainIn;
-    private final Gain gainOut;
-    private final Gain gainMute;
+    private final ChannelStrip strip;
+    private final Automation automation;
+    private final Optional<ReturnBus> returnBus;
+    private List<Send> sends;
     private boolean enabled;
 
     /**
      * Constructs a channel with the given type and parameters. The channel is initially enables and has
      * no {@link ProcessingUnit}.
+     * @param context the {@link AudioContext} that runs the channel.
      * @param type a {@link Type}.
      */
     // package-protected since it is only used by BasicChannelFactory
-    BasicChannel(@JsonProperty("type") final Type type) {
-        this(type, null);
+    BasicChannel(final AudioContext context, final Type type) {
+        this(context, type, null, null);
     }
 
     @JsonCreator
-    private BasicChannel(@JsonProperty("type") final Type type, @JsonProperty("processingUnit")
-                        final ProcessingUnit processingUnit) {
-        this.pan = new Pan();
+    private BasicChannel(@JacksonInject final AudioContext context, @JsonProperty("type") final Type type,
+                         @JsonProperty("processingUnit") final ProcessingUnit processingUnit,
+                         @JsonProperty("automation") final Automation automation) {
+        this.pan = new Pan(context);
         this.type = type;
-        this.gainIn = new Gain(AudioContextManager.getAudioContext(), INS, DEFAULT_GAIN_IN);
-        this.gainOut = new Gain(AudioContextManager.getAudioContext(), INS, 1.0f);
+        this.automation = automation != null ? automation : new Automation();
+        // sources -> in -> pu -> pan -> mute -> out, all inside the strip
+        this.strip = new ChannelStrip(context, DEFAULT_GAIN_IN, this.pan, this.automation);
+        this.returnBus = type == Type.RETURN ? Optional.of(new ReturnBus(context)) : Optional.empty();
+        this.returnBus.ifPresent(this.strip::addInput);
+        this.sends = List.of();
         // channel is initially enabled
         this.enabled = true;
-        this.gainMute = new Gain(AudioContextManager.getAudioContext(), INS, 1.0f);
-        this.setStructure();
         // processing unit is present only after deserialization
         this.pu = Optional.empty();
         if (processingUnit != null) {
@@ -61,20 +73,13 @@ public final class BasicChannel implements RPChannel {
         }
     }
 
-    private void setStructure() {
-        // in -> pan -> mute -> out
-        this.pan.getGainIn().addInput(this.gainIn);
-        this.gainMute.addInput(this.pan.getGainOut());
-        this.gainOut.addInput(this.gainMute);
-    }
-
     /**
      * {@inheritDoc}
      * @param in the source that must be connected.
      */
     @Override
     public void connectSource(final UGen in) {
-        this.gainIn.addInput(in);
+        this.strip.addInput(in);
     }
 
     /**
@@ -83,7 +88,7 @@ public final class BasicChannel implements RPChannel {
      */
     @Override
     public void disconnectSource(final UGen u) {
-        this.gainIn.removeAllConnections(u);
+        this.strip.removeAllConnections(u);
     }
 
     /**
@@ -93,7 +98,7 @@ public final class BasicChannel implements RPChannel {
     @Override
     @JsonIgnore
     public Gain getOutput() {
-        return this.gainOut;
+        return this.strip;
     }
 
     /**
@@ -106,7 +111,7 @@ public final class BasicChannel implements RPChannel {
         if (vol < 0 || vol > 100) {
             throw new IllegalArgumentException("Volume level must be between 0 and 100.");
         }
-        this.gainOut.setGain((float) vol / 100);
+        this.strip.setGain((float) vol / 100);
     }
 
     /**
@@ -115,7 +120,7 @@ public final class BasicChannel implements RPChannel {
      */
     @Override
     public int getVolume() {
-        return (int) Math.floor(this.gainOut.getGain() * 100);
+        return (int) Math.floor(this.strip.getGain() * 100);
     }
 
     /**
@@ -133,7 +138,7 @@ public final class BasicChannel implements RPChannel {
     @Override
     public void enable() {
         this.enabled = true;
-        this.gainMute.setGain(1.0f);
+        this.strip.setMuted(false);
     }
 
     /**
@@ -142,7 +147,7 @@ public final class BasicChannel implements RPChannel {
     @Override
     public void disable() {
         this.enabled = false;
-        this.gainMute.setGain(0.0f);
+        this.strip.setMuted(true);
     }
 
     /**
@@ -160,12 +165,9 @@ public final class BasicChannel implements RPChannel {
      */
     @Override
     public void addProcessingUnit(final ProcessingUnit pu) {
-        // in -> pu -> pan -> mute -> out
         if (!this.isProcessingUnitPresent()) {
             this.pu = Optional.of(pu);
-            this.pu.get().addInput(this.gainIn);
-            this.pan.getGainIn().clearInputConnections();
-            this.pu.get().connect(this.pan.getGainIn());
+            this.strip.setProcessingUnit(pu);
         }
     }
 
@@ -176,8 +178,7 @@ public final class BasicChannel implements RPChannel {
     public void removeProcessingUnit() {
         if (this.isProcessingUnitPresent()) {
             this.pu = Optional.empty();
-            this.pan.getGainIn().clearInputConnections();
-            this.pan.getGainIn().addInput(this.gainIn);
+            this.strip.setProcessingUnit(null);
         }
     }
 
@@ -200,6 +201,84 @@ public final class BasicChannel implements RPChannel {
         return this.pu.isPresent();
     }
 
+    /**
+     * {@inheritDoc}
+     * @param returnChannel a channel of type {@link Type#RETURN}.
+     * @param level the gain applied to the sent audio, between 0 and 1.
+     * @param preFader true if the audio is taken before the volume of the channel, false if it is taken after.
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public void setSend(final RPChannel returnChannel, final float level, final boolean preFader)
+            throws IllegalArgumentException {
+        if (returnChannel == this || !(returnChannel instanceof BasicChannel)
+                || ((BasicChannel) returnChannel).returnBus.isEmpty()) {
+            throw new IllegalArgumentException("Audio can only be sent to another return channel.");
+        }
+        if (this.returnBus.isPresent()) {
+            // a return channel that sent to another one could close a cycle between them
+            throw new IllegalArgumentException("A return channel cannot send its audio to another one.");
+        }
+        if (level < 0 || level > 1) {
+            throw new IllegalArgumentException("Send level must be between 0 and 1.");
+        }
+        ((BasicChannel) returnChannel).returnBus.get().put(this.strip, level, preFader);
+        this.sends = Stream.concat(this.sends.stream().filter(s -> s.getReturnChannel() != returnChannel),
+                Stream.of(new Send(returnChannel, level, preFader))).collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param returnChannel a channel of type {@link Type#RETURN}.
+     */
+    @Override
+    public void removeSend(final RPChannel returnChannel) {
+        if (returnChannel instanceof BasicChannel) {
+            ((BasicChannel) returnChannel).returnBus.ifPresent(b -> b.remove(this.strip));
+        }
+        this.sends = this.sends.stream().filter(s -> s.getReturnChannel() != returnChannel)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return a list of {@link Send}.
+     */
+    @Override
+    @JsonIgnore
+    public List<Send> getSends() {
+        return this.sends;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return the {@link Automation} of the channel.
+     */
+    @Override
+    public Automation getAutomation() {
+        return this.automation;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    @JsonIgnore
+    public ChannelMeter getMeter() {
+        return this.strip.getMeter();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    @JsonIgnore
+    public LoadCounter getLoad() {
+        return this.strip.getLoad();
+    }
+
     /**
      *
      * @return the type of the channel.
@@ -222,14 +301,12 @@ public final class BasicChannel implements RPChannel {
                 && Objects.equals(pan, that.pan)
                 && type == that.type
                 && Objects.equals(pu, that.pu)
-                && Objects.equals(gainIn, that.gainIn)
-                && Objects.equals(gainOut, that.gainOut)
-                && Objects.equals(gainMute, that.gainMute);
+                && Objects.equals(strip, that.strip);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(pan, type, pu, gainIn, gainOut, gainMute, enabled);
+        return Objects.hash(pan, type, pu, strip, enabled);
     }
 
 }
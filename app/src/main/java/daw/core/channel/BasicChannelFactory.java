@@ -1,22 +1,42 @@
 package daw.core.channel;
 
 import daw.core.audioprocessing.BasicProcessingUnitBuilder;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 import net.beadsproject.beads.core.UGen;
 
 /**
  * Implements a {@link ChannelFactory}.
+ * The channels and their effects are created in the {@link AudioContext} that the factory is given.
  */
 public class BasicChannelFactory implements ChannelFactory {
 
     private final static int INS = 2;
 
+    private final AudioContext context;
+
+    /**
+     * Constructs a factory of channels that are run by the {@link AudioContext} of the {@link AudioContextManager}.
+     */
+    public BasicChannelFactory() {
+        this(AudioContextManager.getAudioContext());
+    }
+
+    /**
+     * Constructs a factory of channels that are run by the given {@link AudioContext}.
+     * @param context the {@link AudioContext} of the channels.
+     */
+    public BasicChannelFactory(final AudioContext context) {
+        this.context = context;
+    }
+
     /**
      * {@inheritDoc}
      * @return the {@link RPChannel}.
      */
     @Override
     public RPChannel basic() {
-        return new BasicChannel(RPChannel.Type.AUDIO);
+        return new BasicChannel(this.context, RPChannel.Type.AUDIO);
     }
 
     /**
@@ -25,8 +45,8 @@ public class BasicChannelFactory implements ChannelFactory {
      */
     @Override
     public RPChannel gated() {
-        final var bc = new BasicChannel(RPChannel.Type.AUDIO);
-        bc.addProcessingUnit(new BasicProcessingUnitBuilder()
+        final var bc = new BasicChannel(this.context, RPChannel.Type.AUDIO);
+        bc.addProcessingUnit(new BasicProcessingUnitBuilder(this.context)
                 .highPassFilter(INS)
                 .gate(INS)
                 .build());
@@ -40,8 +60,8 @@ public class BasicChannelFactory implements ChannelFactory {
      */
     @Override
     public RPChannel sidechained(final UGen u) {
-        final var bc = new BasicChannel(RPChannel.Type.AUDIO);
-        bc.addProcessingUnit(new BasicProcessingUnitBuilder()
+        final var bc = new BasicChannel(this.context, RPChannel.Type.AUDIO);
+        bc.addProcessingUnit(new BasicProcessingUnitBuilder(this.context)
                 .sidechain(u, INS)
                 .build());
         return bc;
@@ -53,8 +73,8 @@ public class BasicChannelFactory implements ChannelFactory {
      */
     @Override
     public RPChannel returnChannel() {
-        final var bc = new BasicChannel(RPChannel.Type.RETURN);
-        bc.addProcessingUnit(new BasicProcessingUnitBuilder()
+        final var bc = new BasicChannel(this.context, RPChannel.Type.RETURN);
+        bc.addProcessingUnit(new BasicProcessingUnitBuilder(this.context)
                 .reverb(INS)
                 .highPassFilter(INS)
                 .build());
@@ -67,8 +87,8 @@ public class BasicChannelFactory implements ChannelFactory {
      */
     @Override
     public RPChannel masterChannel() {
-        final var bc = new BasicChannel(RPChannel.Type.MASTER);
-        final var pu = new BasicProcessingUnitBuilder()
+        final var bc = new BasicChannel(this.context, RPChannel.Type.MASTER);
+        final var pu = new BasicProcessingUnitBuilder(this.context)
                 .lowPassFilter(INS)  // 0
                 .highPassFilter(INS)   // 1
                 .compressor(INS)  // 2
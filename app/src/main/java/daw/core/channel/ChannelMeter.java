@@ -0,0 +1,102 @@
+package daw.core.channel;
+
+import daw.core.audioprocessing.DspKernels;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The meter of a channel, which measures the peak, the root mean square and the gain reduction of the audio
+ * that the channel outputs.
+ * The audio thread measures every buffer into the fields of this meter, without locking and without allocating,
+ * and the view polls them at its own rate with {@link #read()}. Each reading covers all the buffers measured
+ * since the previous one, so that no peak is missed when the view is slower than the audio.
+ * The fields are published as a whole with a sequence number: the audio thread makes it odd while it writes
+ * them, and a reading is only kept if the number was even and has not changed meanwhile.
+ * The meter is meant to be read by a single thread, usually the one of the view; the peak hold and the decay
+ * of the levels are left to it.
+ */
+public final class ChannelMeter {
+
+    private static final int CHANNELS = 2;
+
+    private volatile long sequence;
+    // the last sequence number that has been read, after which the measures start again
+    private volatile long consumed;
+    private final float[] peak = new float[CHANNELS];
+    private final double[] squares = new double[CHANNELS];
+    private long frames;
+    private float gainReduction = 1.0f;
+    private long buffers;
+
+    // package-protected since it is only created by ChannelStrip
+    ChannelMeter() {
+    }
+
+    /**
+     * Measures a buffer that the channel has output. It is only called by the audio thread.
+     * @param left the left side of the buffer.
+     * @param right the right side of the buffer.
+     * @param length the number of frames of the buffer.
+     * @param reduction the lowest gain applied by the dynamics effects in the buffer.
+     */
+    // package-protected since it is only used by ChannelStrip
+    void measure(final float[] left, final float[] right, final int length, final float reduction) {
+        final float peakLeft = DspKernels.peak(left, length);
+        final float peakRight = DspKernels.peak(right, length);
+        final float rmsLeft = DspKernels.rms(left, length);
+        final float rmsRight = DspKernels.rms(right, length);
+        final long current = this.sequence;
+        final boolean restart = this.consumed == current;
+        this.sequence = current + 1;
+        // the fields must not be written before the sequence number is odd
+        VarHandle.storeStoreFence();
+        if (restart) {
+            this.peak[0] = peakLeft;
+            this.peak[1] = peakRight;
+            this.squares[0] = (double) rmsLeft * rmsLeft * length;
+            this.squares[1] = (double) rmsRight * rmsRight * length;
+            this.frames = length;
+            this.gainReduction = reduction;
+        } else {
+            this.peak[0] = Math.max(this.peak[0], peakLeft);
+            this.peak[1] = Math.max(this.peak[1], peakRight);
+            this.squares[0] += (double) rmsLeft * rmsLeft * length;
+            this.squares[1] += (double) rmsRight * rmsRight * length;
+            this.frames += length;
+            this.gainReduction = Math.min(this.gainReduction, reduction);
+        }
+        this.buffers++;
+        this.sequence = current + 2;
+    }
+
+    /**
+     * Reads what has been measured since the previous reading. If nothing has been measured meanwhile,
+     * the previous reading is returned again.
+     * @return a {@link MeterReading}.
+     */
+    public MeterReading read() {
+        while (true) {
+            final long before = this.sequence;
+            if ((before & 1) == 0) {
+                final float peakLeft = this.peak[0];
+                final float peakRight = this.peak[1];
+                final double squaresLeft = this.squares[0];
+                final double squaresRight = this.squares[1];
+                final long length = this.frames;
+                final float reduction = this.gainReduction;
+                final long count = this.buffers;
+                // the fields must be read before the sequence number is checked again
+                VarHandle.acquireFence();
+                if (this.sequence == before) {
+                    this.consumed = before;
+                    return length == 0 ? MeterReading.SILENCE : new MeterReading(
+                            new float[] {peakLeft, peakRight},
+                            new float[] {(float) Math.sqrt(squaresLeft / length),
+                                    (float) Math.sqrt(squaresRight / length)},
+                            reduction, count);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+}
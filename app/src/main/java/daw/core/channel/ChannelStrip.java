@@ -0,0 +1,374 @@
+package daw.core.channel;
+
+import daw.core.audioprocessing.BufferSource;
+import daw.core.audioprocessing.DspKernels;
+import daw.core.audioprocessing.EffectChain;
+import daw.core.audioprocessing.Pan;
+import daw.core.audioprocessing.ProcessingUnit;
+import daw.core.audioprocessing.RPEffect;
+import daw.core.automation.Automation;
+import daw.core.automation.AutomationTarget;
+import daw.core.automation.Playhead;
+import daw.core.profiling.DspProfiler;
+import daw.core.profiling.LoadCounter;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+import net.beadsproject.beads.ugens.Gain;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The compiled audio path of a {@link BasicChannel}. The input gain, the effects of the {@link ProcessingUnit},
+ * the pan law, the mute and the fader all run on the same buffers inside this single {@link UGen}, whose gain
+ * is the fader.
+ * The effects are compiled again at the beginning of a buffer whenever their {@link EffectChain} changes. If the
+ * new chain is crossfaded, the previous effects are faded out along a buffer before the new ones are compiled and
+ * faded in along the next, so that editing the effects while playing does not produce clicks.
+ * The mute and the fader are ramped together along a buffer, so that changing them does not produce clicks.
+ * A muted strip, or one whose input has been silent for longer than the tails of its effects, does not run
+ * its effects and outputs silence until it is unmuted or its input is no longer silent.
+ * The audio before the mute and the fader can be tapped by the pre-fader sends.
+ * While the {@link Playhead} moves, the automation of the effects is rendered before running them, and the
+ * automation of the volume and of the pan is applied frame by frame instead of their values.
+ * Every buffer that the strip outputs is measured by its {@link ChannelMeter}, together with the gain reduction
+ * of its effects.
+ * While the {@link DspProfiler} is enabled, the strip runs its effects one at a time, so that each of them can
+ * be timed on its own, and times the whole buffer as well, effects included.
+ */
+// package-protected since it is only used by BasicChannel
+final class ChannelStrip extends Gain implements AutomationTarget {
+
+    private static final int CHANNELS = 2;
+    // about -100 dBFS
+    private static final float SILENCE = 1.0e-5f;
+    private static final float MAX_VOLUME = 100.0f;
+
+    private final float inputGain;
+    private final Pan pan;
+    private final float[][] work;
+    private final UGen source;
+    private final float[][] preFader;
+    private final Automation automation;
+    private final Playhead playhead;
+    private final float[] lane;
+    private final float[] volume;
+    private final float[] panPosition;
+    private final float[][] envelope;
+    private final ChannelMeter meter;
+    private final LoadCounter load;
+    private boolean volumeAutomated;
+    private boolean panAutomated;
+    private int preFaderTaps;
+    private volatile boolean preFaderTapped;
+    private volatile ProcessingUnit processingUnit;
+    private volatile boolean muted;
+    private EffectChain chain;
+    private List<RPEffect> compiled;
+    // the UGen that outputs the audio of each compiled effect
+    private UGen[] stages;
+    private UGen output;
+    private float currentMute;
+    private float currentGain;
+    private float currentFade;
+    private float targetFade;
+    private long silentFrames;
+    private boolean dormant;
+    private boolean outputCleared;
+
+    /**
+     * Constructs a strip with no effects.
+     * @param context the {@link AudioContext} that runs the strip.
+     * @param inputGain the gain applied to the sum of the sources.
+     * @param pan the {@link Pan} whose pan law is applied after the effects.
+     * @param automation the {@link Automation} of the volume and of the pan of the channel.
+     */
+    ChannelStrip(final AudioContext context, final float inputGain, final Pan pan, final Automation automation) {
+        super(context, CHANNELS, 1.0f);
+        this.inputGain = inputGain;
+        this.pan = pan;
+        this.work = new float[CHANNELS][this.bufferSize];
+        this.source = new BufferSource(context, this.work);
+        this.preFader = new float[CHANNELS][this.bufferSize];
+        this.automation = automation;
+        this.playhead = Playhead.getPlayhead(context);
+        this.lane = new float[this.bufferSize];
+        this.volume = new float[this.bufferSize];
+        this.panPosition = new float[this.bufferSize];
+        this.envelope = new float[CHANNELS][this.bufferSize];
+        this.meter = new ChannelMeter();
+        this.load = new LoadCounter();
+        this.chain = EffectChain.EMPTY;
+        this.compiled = List.of();
+        this.stages = new UGen[0];
+        this.output = this.source;
+        this.currentMute = 1.0f;
+        this.currentGain = this.getGain();
+        this.currentFade = 1.0f;
+        this.targetFade = 1.0f;
+    }
+
+    /**
+     * Sets the {@link ProcessingUnit} whose effects are run by this strip. It is compiled at the next buffer.
+     * @param processingUnit the {@link ProcessingUnit}, or null to run no effects.
+     */
+    void setProcessingUnit(final ProcessingUnit processingUnit) {
+        this.processingUnit = processingUnit;
+    }
+
+    /**
+     * Mutes or unmutes this strip. The change is ramped along the next buffer.
+     * @param muted true if this strip must output silence.
+     */
+    void setMuted(final boolean muted) {
+        this.muted = muted;
+    }
+
+    /**
+     * Makes this strip keep the audio before the mute and the fader, from the next buffer on, until every
+     * call has been matched by a call to {@link #releasePreFader()}.
+     */
+    synchronized void tapPreFader() {
+        this.preFaderTaps++;
+        this.preFaderTapped = true;
+    }
+
+    /**
+     * Releases a tap of the audio before the mute and the fader. Once all of them have been released,
+     * the audio is no longer kept.
+     */
+    synchronized void releasePreFader() {
+        this.preFaderTaps = Math.max(0, this.preFaderTaps - 1);
+        this.preFaderTapped = this.preFaderTaps > 0;
+    }
+
+    /**
+     * Gets the audio of the last buffer before the mute and the fader. It is only kept after
+     * {@link #tapPreFader()} has been called.
+     * @return the buffers of the two channels.
+     */
+    float[][] getPreFader() {
+        return this.preFader;
+    }
+
+    /**
+     * Gets the meter of the audio that this strip outputs.
+     * @return the {@link ChannelMeter}.
+     */
+    ChannelMeter getMeter() {
+        return this.meter;
+    }
+
+    /**
+     * Gets the time that this strip takes to process its buffers while it is being profiled.
+     * @return the {@link LoadCounter} of this strip.
+     */
+    LoadCounter getLoad() {
+        return this.load;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The volume goes from 0 to 100 and the pan from -1 to 1.
+     * @param parameter {@inheritDoc}
+     * @param values {@inheritDoc}
+     */
+    @Override
+    public void automate(final String parameter, final float[] values) {
+        if ("volume".equals(parameter)) {
+            System.arraycopy(values, 0, this.volume, 0, this.bufferSize);
+            this.volumeAutomated = true;
+        } else if ("pan".equals(parameter)) {
+            System.arraycopy(values, 0, this.panPosition, 0, this.bufferSize);
+            this.panAutomated = true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void calculateBuffer() {
+        if (DspProfiler.isEnabled()) {
+            final long start = System.nanoTime();
+            this.process(true);
+            this.load.record(System.nanoTime() - start);
+        } else {
+            this.process(false);
+        }
+    }
+
+    private void process(final boolean profiled) {
+        this.compileIfChanged();
+        final boolean silentInput = this.isSilent(this.bufIn[0]) && this.isSilent(this.bufIn[1]);
+        this.silentFrames = silentInput ? this.silentFrames + this.bufferSize : 0;
+        if (this.muted && this.currentMute == 0.0f || this.dormant && silentInput) {
+            this.clearOutput();
+            this.meter.measure(this.bufOut[0], this.bufOut[1], this.bufferSize, 1.0f);
+            return;
+        }
+        this.dormant = false;
+        for (int c = 0; c < CHANNELS; c++) {
+            // the inputs may be the outputs of other UGens, so they are never written
+            DspKernels.scale(this.bufIn[c], this.inputGain, this.work[c], this.bufferSize);
+        }
+        this.renderAutomation();
+        if (profiled) {
+            this.updateStages();
+        }
+        this.output.update();
+        final float[] left = this.output.getOutBuffer(0);
+        final float[] right = this.output.getOutBuffer(1 % this.output.getOuts());
+        final float targetMute = this.muted ? 0.0f : 1.0f;
+        if (this.volumeAutomated || this.panAutomated) {
+            this.applyAutomation(left, right, targetMute);
+        } else {
+            final float panLeft = this.pan.getLeftGain();
+            final float panRight = this.pan.getRightGain();
+            if (this.preFaderTapped) {
+                DspKernels.ramp(left, this.currentFade * panLeft, this.targetFade * panLeft, this.preFader[0],
+                        this.bufferSize);
+                DspKernels.ramp(right, this.currentFade * panRight, this.targetFade * panRight, this.preFader[1],
+                        this.bufferSize);
+            }
+            final float targetGain = this.getGain();
+            final float from = this.currentMute * this.currentGain * this.currentFade;
+            final float to = targetMute * targetGain * this.targetFade;
+            DspKernels.ramp(left, from * panLeft, to * panLeft, this.bufOut[0], this.bufferSize);
+            DspKernels.ramp(right, from * panRight, to * panRight, this.bufOut[1], this.bufferSize);
+            this.currentGain = targetGain;
+        }
+        this.currentMute = targetMute;
+        this.currentFade = this.targetFade;
+        this.outputCleared = false;
+        // the tails are over once the effects output silence too
+        this.dormant = silentInput && this.silentFrames > this.getTailFrames()
+                && this.isSilent(left) && this.isSilent(right);
+        this.meter.measure(this.bufOut[0], this.bufOut[1], this.bufferSize, this.getGainReduction());
+    }
+
+    // each stage pulls the previous one, which has already been updated in this buffer, so only its own time counts
+    private void updateStages() {
+        for (int e = 0; e < this.stages.length; e++) {
+            final long start = System.nanoTime();
+            this.stages[e].update();
+            this.compiled.get(e).getLoad().record(System.nanoTime() - start);
+        }
+    }
+
+    // the lowest gain that the compiled effects are applying
+    private float getGainReduction() {
+        float reduction = 1.0f;
+        for (int e = 0; e < this.compiled.size(); e++) {
+            final int id = this.chain.getGainReduction(e);
+            if (id >= 0) {
+                reduction = Math.min(reduction, this.compiled.get(e).getParameter(id));
+            }
+        }
+        return reduction;
+    }
+
+    // renders the lanes of the effects and of the channel at the position of the playhead
+    private void renderAutomation() {
+        this.volumeAutomated = false;
+        this.panAutomated = false;
+        final double time = this.playhead.getBufferTime();
+        if (time < 0) {
+            return;
+        }
+        final double frameTime = this.playhead.getFrameTime();
+        for (int e = 0; e < this.compiled.size(); e++) {
+            final RPEffect effect = this.compiled.get(e);
+            effect.getAutomation().render(time, frameTime, this.lane, effect);
+        }
+        this.automation.render(time, frameTime, this.lane, this);
+    }
+
+    // the automated volume and pan are applied frame by frame, together with the ramp of the mute
+    private void applyAutomation(final float[] left, final float[] right, final float targetMute) {
+        final float staticGain = this.getGain();
+        final float panLeft = this.pan.getLeftGain();
+        final float panRight = this.pan.getRightGain();
+        float gain = staticGain;
+        for (int i = 0; i < this.bufferSize; i++) {
+            gain = this.volumeAutomated ? Math.max(0.0f, Math.min(1.0f, this.volume[i] / MAX_VOLUME)) : staticGain;
+            final float mute = this.currentMute + (targetMute - this.currentMute) * i / this.bufferSize;
+            final float fade = this.currentFade + (this.targetFade - this.currentFade) * i / this.bufferSize;
+            if (this.panAutomated) {
+                final double angle = Math.PI * (1 + Math.max(-1.0f, Math.min(1.0f, this.panPosition[i]))) / 4;
+                this.envelope[0][i] = (float) Math.cos(angle);
+                this.envelope[1][i] = (float) Math.sin(angle);
+            } else {
+                this.envelope[0][i] = panLeft;
+                this.envelope[1][i] = panRight;
+            }
+            this.envelope[0][i] *= fade;
+            this.envelope[1][i] *= fade;
+            if (this.preFaderTapped) {
+                this.preFader[0][i] = left[i] * this.envelope[0][i];
+                this.preFader[1][i] = right[i] * this.envelope[1][i];
+            }
+            this.envelope[0][i] *= mute * gain;
+            this.envelope[1][i] *= mute * gain;
+        }
+        DspKernels.applyEnvelope(left, this.envelope[0], this.bufOut[0], this.bufferSize);
+        DspKernels.applyEnvelope(right, this.envelope[1], this.bufOut[1], this.bufferSize);
+        // the fader goes on from where the automation has left it
+        this.currentGain = gain;
+    }
+
+    private void clearOutput() {
+        if (!this.outputCleared) {
+            for (int c = 0; c < CHANNELS; c++) {
+                Arrays.fill(this.bufOut[c], 0.0f);
+                Arrays.fill(this.preFader[c], 0.0f);
+            }
+            this.outputCleared = true;
+        }
+    }
+
+    private long getTailFrames() {
+        double tail = 0.0;
+        for (final RPEffect effect : this.compiled) {
+            tail += effect.getTailTime();
+        }
+        return (long) this.context.msToSamples(tail);
+    }
+
+    private boolean isSilent(final float[] buffer) {
+        return DspKernels.peak(buffer, this.bufferSize) <= SILENCE;
+    }
+
+    // swaps to the chain of the processing unit, unless the previous one must be faded out along this buffer first
+    private void compileIfChanged() {
+        final ProcessingUnit unit = this.processingUnit;
+        final EffectChain next = unit == null ? EffectChain.EMPTY : unit.getChain();
+        this.targetFade = 1.0f;
+        if (next.getEffects() == this.compiled) {
+            this.chain = next;
+        } else {
+            final boolean silent = this.dormant || this.muted && this.currentMute == 0.0f;
+            // a removed unit is faded out as its chain was
+            final boolean crossfaded = unit == null ? this.chain.isCrossfaded() : next.isCrossfaded();
+            if (crossfaded && this.currentFade > 0.0f && !silent) {
+                this.targetFade = 0.0f;
+            } else {
+                this.compile(next);
+            }
+        }
+    }
+
+    // only connects the effects, as everything else has been prepared by the chain
+    private void compile(final EffectChain next) {
+        final List<RPEffect> effects = next.getEffects();
+        UGen stage = this.source;
+        this.stages = new UGen[effects.size()];
+        for (int e = 0; e < effects.size(); e++) {
+            stage = effects.get(e).compile(stage);
+            this.stages[e] = stage;
+        }
+        this.output = stage;
+        this.chain = next;
+        this.compiled = effects;
+    }
+
+}
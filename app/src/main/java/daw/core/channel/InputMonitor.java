@@ -0,0 +1,323 @@
+package daw.core.channel;
+
+import daw.core.audioprocessing.BasicProcessingUnit;
+import daw.core.audioprocessing.Pan;
+import daw.core.audioprocessing.ParameterDescriptor;
+import daw.core.audioprocessing.ProcessingUnit;
+import daw.core.audioprocessing.RPEffect;
+import daw.utilities.AudioContextManager;
+import daw.utilities.EngineProfile;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Line;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.TargetDataLine;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lets a performer hear the audio input through the strip of a channel while it is being recorded.
+ * The playback runs on large buffers, so routing the input through the mixer would delay it by several of them.
+ * The monitor runs instead in an {@link AudioContext} of its own, whose buffers are much smaller, and plays
+ * the input through a copy of the strip of the monitored channel: its effects are copied when the monitoring
+ * starts, and their parameters, together with the volume, the pan and the mute of the channel, follow the ones
+ * of the channel at every buffer. Effects that cannot leave the context of the channel, like sidechains, are
+ * left out, and effects added to or removed from the channel are only followed when the monitoring starts again.
+ * <p>The buffer size of the monitor is read from the system property {@value #BUFFER_SIZE_PROPERTY}, for example
+ * {@code -Dresplan.monitor.bufferSize=128}, and the resulting latency is given by {@link #getLatency()}.
+ * <p>A context of its own opens the audio input of the device a second time, besides the one of the playback that
+ * records it. Not every device can be opened twice, which {@link #canOpenInputTwice(EngineProfile)} tells: if it
+ * cannot, the monitor is built on the context of the playback instead, with the same input the recording reads,
+ * and its latency is the one of the playback.
+ */
+public final class InputMonitor {
+
+    /**
+     * The system property with the buffer size of the monitor in frames.
+     */
+    public static final String BUFFER_SIZE_PROPERTY = "resplan.monitor.bufferSize";
+
+    /**
+     * The buffer size of the monitor, which is used when no other is given.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64;
+
+    // the input and the output of the device hold a buffer each
+    private static final int DEVICE_BUFFERS = 2;
+    // the format the input of the device is opened with, like the one of the contexts
+    private static final int BIT_DEPTH = 16;
+    private static final int CHANNELS = 2;
+
+    private final EngineProfile profile;
+    private final AudioContext context;
+    // the input the monitor shares with the context it runs in, if the context is not its own
+    private final Optional<UGen> input;
+    private Optional<RPChannel> monitored;
+    private Optional<RPChannel> copy;
+    private List<RPEffect> effects;
+
+    /**
+     * Constructs a monitor like the {@link AudioContext} of the {@link AudioContextManager}, but with the buffer
+     * size read from the system property {@value #BUFFER_SIZE_PROPERTY}.
+     * @throws IllegalArgumentException if the buffer size is not valid.
+     */
+    public InputMonitor() {
+        this(getDefaultProfile());
+    }
+
+    /**
+     * Constructs a monitor that runs with the given profile. The monitor plays on the device only in the
+     * {@link EngineProfile.Mode#REALTIME} mode; otherwise its context is run by the caller.
+     * @param profile the {@link EngineProfile} of the context of the monitor.
+     */
+    public InputMonitor(final EngineProfile profile) {
+        this(profile, AudioContextManager.newAudioContext(profile), Optional.empty());
+    }
+
+    /**
+     * Constructs a monitor that plays through a context which is run by someone else, like the one of the
+     * playback, so that the input of the device is opened only once. The monitor neither starts nor stops the
+     * context.
+     * @param profile the {@link EngineProfile} of the given context.
+     * @param context the {@link AudioContext} the monitor plays through.
+     * @param input the {@link UGen} that outputs every channel of the audio input of the context.
+     */
+    public InputMonitor(final EngineProfile profile, final AudioContext context, final UGen input) {
+        this(profile, context, Optional.of(input));
+    }
+
+    private InputMonitor(final EngineProfile profile, final AudioContext context, final Optional<UGen> input) {
+        this.profile = profile;
+        this.context = context;
+        this.input = input;
+        this.monitored = Optional.empty();
+        this.copy = Optional.empty();
+        this.effects = List.of();
+    }
+
+    /**
+     * Starts playing the given inputs through a copy of the strip of the given channel, replacing the channel that
+     * is being monitored, if any.
+     * @param channel the {@link RPChannel} whose strip the input goes through.
+     * @param inputs the channels of the audio input to monitor.
+     * @throws IllegalArgumentException if no input is given or an input is negative.
+     */
+    public synchronized void start(final RPChannel channel, final int... inputs) {
+        if (inputs.length == 0 || Arrays.stream(inputs).anyMatch(i -> i < 0)) {
+            throw new IllegalArgumentException("At least an input must be monitored, and inputs are not negative.");
+        }
+        this.disconnect();
+        final RPChannel strip = new BasicChannelFactory(this.context).basic();
+        final List<RPEffect> sources = new ArrayList<>();
+        final List<RPEffect> copies = new ArrayList<>();
+        // the effects that cannot be copied are left out of the monitor
+        for (final RPEffect effect : channel.getProcessingUnit().map(ProcessingUnit::getEffects).orElse(List.of())) {
+            effect.copy(this.context).ifPresent(copy -> {
+                copies.add(copy);
+                sources.add(effect);
+            });
+        }
+        if (!copies.isEmpty()) {
+            strip.addProcessingUnit(new BasicProcessingUnit(copies));
+        }
+        final UGen source = new Follower(this.context, channel, strip, sources, copies);
+        if (this.input.isPresent()) {
+            for (int c = 0; c < source.getIns(); c++) {
+                source.addInput(c, this.input.get(), inputs[c % inputs.length]);
+            }
+        } else {
+            source.addInput(this.context.getAudioInput(inputs));
+        }
+        strip.connectSource(source);
+        this.context.out.addInput(strip.getOutput());
+        this.monitored = Optional.of(channel);
+        this.copy = Optional.of(strip);
+        this.effects = List.copyOf(copies);
+        if (this.playsOnDevice() && !this.context.isRunning()) {
+            this.context.start();
+        }
+    }
+
+    /**
+     * Stops the monitoring, if it is running.
+     */
+    public synchronized void stop() {
+        if (this.playsOnDevice()) {
+            this.context.stop();
+        }
+        this.disconnect();
+    }
+
+    /**
+     *
+     * @return true if the monitor plays through a context that is run by someone else.
+     */
+    public boolean isShared() {
+        return this.input.isPresent();
+    }
+
+    /**
+     *
+     * @return true if an input is being monitored.
+     */
+    public synchronized boolean isMonitoring() {
+        return this.monitored.isPresent();
+    }
+
+    /**
+     *
+     * @return the {@link RPChannel} that is being monitored, or an empty {@link Optional} if there is none.
+     */
+    public synchronized Optional<RPChannel> getMonitoredChannel() {
+        return this.monitored;
+    }
+
+    /**
+     * Gets the copy of the strip of the monitored channel, which is run by the context of this monitor.
+     * @return the copy of the monitored {@link RPChannel}, or an empty {@link Optional} if there is none.
+     */
+    public synchronized Optional<RPChannel> getStrip() {
+        return this.copy;
+    }
+
+    /**
+     *
+     * @return the {@link AudioContext} that runs the monitor.
+     */
+    public AudioContext getContext() {
+        return this.context;
+    }
+
+    /**
+     *
+     * @return the {@link EngineProfile} of the context of the monitor.
+     */
+    public EngineProfile getProfile() {
+        return this.profile;
+    }
+
+    /**
+     * Gets the time the input takes to be heard: a buffer for the input of the device and one for its output,
+     * plus the delay of the effects that output their input late, like a look-ahead gate.
+     * The buffering of the drivers below Java Sound is not known, so it is not counted.
+     * @return the latency of the monitor in milliseconds.
+     */
+    public synchronized double getLatency() {
+        return DEVICE_BUFFERS * this.profile.getBufferLatency()
+                + this.effects.stream().mapToDouble(RPEffect::getLatency).sum();
+    }
+
+    /**
+     * Gets the profile of the monitors built by {@link #InputMonitor()}: the one of the {@link AudioContextManager},
+     * with the buffer size read from the system property {@value #BUFFER_SIZE_PROPERTY}.
+     * @return the default {@link EngineProfile} of a monitor.
+     */
+    public static EngineProfile getDefaultProfile() {
+        return AudioContextManager.getProfile().withBufferSize(
+                Integer.getInteger(BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE));
+    }
+
+    /**
+     * Checks whether the audio input of the device can be opened twice at the same time, as it is by a monitor
+     * with a context of its own while the playback records it. The check opens the input twice and closes it.
+     * A profile that does not play on the device never opens it, so it can always be monitored on its own.
+     * @param profile the {@link EngineProfile} the input is opened with.
+     * @return true if the input can be opened twice.
+     */
+    public static boolean canOpenInputTwice(final EngineProfile profile) {
+        if (profile.getMode() != EngineProfile.Mode.REALTIME) {
+            return true;
+        }
+        final AudioFormat format = new AudioFormat(profile.getSampleRate(), BIT_DEPTH, CHANNELS, true, false);
+        final List<Line> lines = new ArrayList<>();
+        try {
+            while (lines.size() < 2) {
+                final TargetDataLine line = AudioSystem.getTargetDataLine(format);
+                line.open(format);
+                lines.add(line);
+            }
+            return true;
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            return false;
+        } finally {
+            lines.forEach(Line::close);
+        }
+    }
+
+    // only a context of its own is started and stopped by the monitor
+    private boolean playsOnDevice() {
+        return this.input.isEmpty() && this.profile.getMode() == EngineProfile.Mode.REALTIME;
+    }
+
+    private void disconnect() {
+        this.copy.ifPresent(c -> this.context.out.removeAllConnections(c.getOutput()));
+        this.monitored = Optional.empty();
+        this.copy = Optional.empty();
+        this.effects = List.of();
+    }
+
+    /**
+     * Outputs the audio input, after setting the copy of the strip like the monitored channel, so that the
+     * copy follows the channel from the first buffer it plays.
+     */
+    private static final class Follower extends UGen {
+
+        private final RPChannel channel;
+        private final RPChannel strip;
+        private final RPEffect[] sources;
+        private final RPEffect[] copies;
+
+        private Follower(final AudioContext context, final RPChannel channel, final RPChannel strip,
+                         final List<RPEffect> sources, final List<RPEffect> copies) {
+            super(context, 2, 2);
+            this.channel = channel;
+            this.strip = strip;
+            this.sources = sources.toArray(new RPEffect[0]);
+            this.copies = copies.toArray(new RPEffect[0]);
+        }
+
+        @Override
+        public void calculateBuffer() {
+            this.follow();
+            for (int c = 0; c < this.outs; c++) {
+                System.arraycopy(this.bufIn[c], 0, this.bufOut[c], 0, this.bufferSize);
+            }
+        }
+
+        // the parameters are set only when they change, as setting some of them is not cheap
+        private void follow() {
+            for (int e = 0; e < this.sources.length; e++) {
+                final List<ParameterDescriptor> descriptors = this.sources[e].getParameterDescriptors();
+                for (int d = 0; d < descriptors.size(); d++) {
+                    final ParameterDescriptor descriptor = descriptors.get(d);
+                    if (!descriptor.isReadOnly()) {
+                        final float value = this.sources[e].getParameter(descriptor.getId());
+                        if (value != this.copies[e].getParameter(descriptor.getId())) {
+                            this.copies[e].setParameter(descriptor.getId(), value);
+                        }
+                    }
+                }
+            }
+            final float volume = this.channel.getOutput().getGain();
+            if (volume != this.strip.getOutput().getGain()) {
+                this.strip.getOutput().setGain(volume);
+            }
+            final float pan = this.channel.getPanner().getParameter(Pan.VALUE);
+            if (pan != this.strip.getPanner().getParameter(Pan.VALUE)) {
+                this.strip.getPanner().setParameter(Pan.VALUE, pan);
+            }
+            if (this.channel.isEnabled() && !this.strip.isEnabled()) {
+                this.strip.enable();
+            } else if (!this.channel.isEnabled() && this.strip.isEnabled()) {
+                this.strip.disable();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package daw.core.channel;
+
+/**
+ * What a {@link ChannelMeter} has measured between two readings. The levels are linear, where 1 is full scale,
+ * and the gain reduction is the gain that the dynamics effects are applying, where 1 means no reduction.
+ * The levels can be converted to decibels with {@link #toDecibels(float)}.
+ */
+public final class MeterReading {
+
+    /**
+     * The reading of a channel that has not played yet.
+     */
+    public static final MeterReading SILENCE = new MeterReading(new float[2], new float[2], 1.0f, 0);
+
+    private final float[] peak;
+    private final float[] rms;
+    private final float gainReduction;
+    private final long buffers;
+
+    // package-protected since it is only created by ChannelMeter
+    MeterReading(final float[] peak, final float[] rms, final float gainReduction, final long buffers) {
+        this.peak = peak;
+        this.rms = rms;
+        this.gainReduction = gainReduction;
+        this.buffers = buffers;
+    }
+
+    /**
+     * Converts a linear level to decibels.
+     * @param level the linear level.
+     * @return the level in decibels, which is negative infinity for silence.
+     */
+    public static double toDecibels(final float level) {
+        return level <= 0.0f ? Double.NEGATIVE_INFINITY : 20 * Math.log10(level);
+    }
+
+    /**
+     * Gets the peak of a side of the channel.
+     * @param channel 0 for the left side, 1 for the right side.
+     * @return the biggest absolute value of the samples.
+     */
+    public float getPeak(final int channel) {
+        return this.peak[channel];
+    }
+
+    /**
+     * Gets the root mean square of a side of the channel.
+     * @param channel 0 for the left side, 1 for the right side.
+     * @return the root mean square of the samples.
+     */
+    public float getRms(final int channel) {
+        return this.rms[channel];
+    }
+
+    /**
+     * Gets the lowest gain that the dynamics effects of the channel have applied.
+     * @return the gain, from 0 to 1.
+     */
+    public float getGainReduction() {
+        return this.gainReduction;
+    }
+
+    /**
+     * Gets how many buffers have been measured since the channel was created. A reading with the same
+     * number of buffers as the previous one means that the channel has not played in the meantime.
+     * @return the number of buffers.
+     */
+    public long getBuffers() {
+        return this.buffers;
+    }
+
+}
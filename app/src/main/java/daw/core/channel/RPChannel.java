@@ -3,8 +3,11 @@ package daw.core.channel;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import daw.core.audioprocessing.Pan;
 import daw.core.audioprocessing.ProcessingUnit;
+import daw.core.automation.Automation;
+import daw.core.profiling.LoadCounter;
 import net.beadsproject.beads.core.UGen;
 import net.beadsproject.beads.ugens.Gain;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -115,6 +118,49 @@ public interface RPChannel {
      */
     boolean isProcessingUnitPresent();
 
+    /**
+     * Sends the audio of the channel to a return channel, or changes the send if there is already one.
+     * The sends of all the channels to the same return channel are summed before its effects,
+     * so that they are run only once.
+     * @param returnChannel a channel of type {@link Type#RETURN}.
+     * @param level the gain applied to the sent audio, between 0 and 1.
+     * @param preFader true if the audio is taken before the volume of the channel, false if it is taken after.
+     * @throws IllegalArgumentException if the given channel is not a return channel, if it is this channel,
+     * if this channel is a return channel itself, or if the level is not between 0 and 1.
+     */
+    void setSend(RPChannel returnChannel, float level, boolean preFader) throws IllegalArgumentException;
+
+    /**
+     * Stops sending the audio of the channel to a return channel, if it is sent to it.
+     * @param returnChannel a channel of type {@link Type#RETURN}.
+     */
+    void removeSend(RPChannel returnChannel);
+
+    /**
+     *
+     * @return the sends of the channel to the return channels.
+     */
+    List<Send> getSends();
+
+    /**
+     * Gets the automation lanes of the channel, which can automate its "volume", from 0 to 100,
+     * and its "pan", from -1 to 1.
+     * @return the {@link Automation} of the channel.
+     */
+    Automation getAutomation();
+
+    /**
+     * Gets the meter of the audio that the channel outputs, which the view can poll at any time.
+     * @return the {@link ChannelMeter} of the channel.
+     */
+    ChannelMeter getMeter();
+
+    /**
+     * Gets the time that the channel takes to process its buffers, effects included, while it is being profiled.
+     * @return the {@link LoadCounter} of the channel.
+     */
+    LoadCounter getLoad();
+
     /**
      *
      * @return the type of the channel.
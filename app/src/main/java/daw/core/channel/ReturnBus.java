@@ -0,0 +1,135 @@
+package daw.core.channel;
+
+import daw.core.audioprocessing.DspKernels;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The source of a return channel, which sums the sends of all the channels once per buffer,
+ * so that the effects of the return channel are shared by all of them.
+ * The levels of the sends are ramped along a buffer, so that changing them does not produce clicks.
+ * A removed send is faded out along a buffer before it is dropped, and switching a send between pre-fader and
+ * post-fader crossfades the two taps, so that neither of them produces clicks.
+ */
+// package-protected since it is only used by BasicChannel
+final class ReturnBus extends UGen {
+
+    private static final int CHANNELS = 2;
+
+    private final float[] scratch;
+    private volatile Entry[] entries;
+
+    private static final class Entry {
+
+        private final ChannelStrip source;
+        private final boolean preFader;
+        private volatile float level;
+        private volatile boolean removed;
+        private float currentLevel;
+
+        private Entry(final ChannelStrip source, final boolean preFader, final float level) {
+            this.source = source;
+            this.preFader = preFader;
+            this.level = level;
+        }
+    }
+
+    /**
+     * Constructs a bus with no sends.
+     * @param context the {@link AudioContext} that runs the bus.
+     */
+    ReturnBus(final AudioContext context) {
+        super(context, 0, CHANNELS);
+        this.scratch = new float[this.bufferSize];
+        this.entries = new Entry[0];
+    }
+
+    /**
+     * Adds the send of a strip, or changes it if the strip already sends to this bus.
+     * If the send is switched between pre-fader and post-fader, the previous tap is faded out while the new one
+     * is faded in.
+     * @param source the strip that sends its audio.
+     * @param level the gain applied to the sent audio.
+     * @param preFader true if the audio is taken before the mute and the fader of the strip.
+     */
+    synchronized void put(final ChannelStrip source, final float level, final boolean preFader) {
+        Entry kept = null;
+        for (final Entry entry : this.entries) {
+            if (entry.source == source) {
+                if (entry.preFader == preFader) {
+                    entry.level = level;
+                    entry.removed = false;
+                    kept = entry;
+                } else {
+                    entry.removed = true;
+                }
+            }
+        }
+        if (kept == null) {
+            if (preFader) {
+                source.tapPreFader();
+            }
+            final Entry[] current = this.entries;
+            final Entry[] added = Arrays.copyOf(current, current.length + 1);
+            added[current.length] = new Entry(source, preFader, level);
+            this.entries = added;
+        }
+    }
+
+    /**
+     * Removes the send of a strip, if it sends to this bus. The send is faded out along the next buffer.
+     * @param source the strip that sends its audio.
+     */
+    synchronized void remove(final ChannelStrip source) {
+        for (final Entry entry : this.entries) {
+            if (entry.source == source) {
+                entry.removed = true;
+            }
+        }
+    }
+
+    // drops the sends that have been faded out, and releases their pre-fader taps
+    private synchronized void dropFaded() {
+        final List<Entry> kept = new ArrayList<>();
+        for (final Entry entry : this.entries) {
+            if (entry.removed && entry.currentLevel == 0.0f) {
+                if (entry.preFader) {
+                    entry.source.releasePreFader();
+                }
+            } else {
+                kept.add(entry);
+            }
+        }
+        this.entries = kept.toArray(new Entry[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void calculateBuffer() {
+        for (final float[] out : this.bufOut) {
+            Arrays.fill(out, 0.0f);
+        }
+        boolean faded = false;
+        for (final Entry entry : this.entries) {
+            // a strip is processed once per buffer, even if it is pulled by other UGens as well
+            entry.source.update();
+            final float level = entry.removed ? 0.0f : entry.level;
+            for (int c = 0; c < CHANNELS; c++) {
+                final float[] tap = entry.preFader ? entry.source.getPreFader()[c] : entry.source.getOutBuffer(c);
+                DspKernels.ramp(tap, entry.currentLevel, level, this.scratch, this.bufferSize);
+                DspKernels.sumInto(this.scratch, this.bufOut[c], this.bufferSize);
+            }
+            entry.currentLevel = level;
+            faded |= entry.removed && level == 0.0f;
+        }
+        if (faded) {
+            this.dropFaded();
+        }
+    }
+
+}
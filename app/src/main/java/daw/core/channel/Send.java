@@ -0,0 +1,50 @@
+package daw.core.channel;
+
+/**
+ * A send of the audio of a channel to a return channel of type {@link RPChannel.Type#RETURN}.
+ * A pre-fader send takes the audio before the volume of the channel, a post-fader one takes it after.
+ */
+public final class Send {
+
+    private final RPChannel returnChannel;
+    private final float level;
+    private final boolean preFader;
+
+    /**
+     * Constructs a send.
+     * @param returnChannel the return channel that receives the audio.
+     * @param level the gain applied to the sent audio, between 0 and 1.
+     * @param preFader true if the audio is taken before the volume of the channel.
+     */
+    // package-protected since sends are created by the channels
+    Send(final RPChannel returnChannel, final float level, final boolean preFader) {
+        this.returnChannel = returnChannel;
+        this.level = level;
+        this.preFader = preFader;
+    }
+
+    /**
+     *
+     * @return the return channel that receives the audio.
+     */
+    public RPChannel getReturnChannel() {
+        return this.returnChannel;
+    }
+
+    /**
+     *
+     * @return the gain applied to the sent audio, between 0 and 1.
+     */
+    public float getLevel() {
+        return this.level;
+    }
+
+    /**
+     *
+     * @return true if the audio is taken before the volume of the channel.
+     */
+    public boolean isPreFader() {
+        return this.preFader;
+    }
+
+}
@@ -0,0 +1,86 @@
+package daw.core.clip;
+
+/**
+ * A change of the placement of a {@link RPClip} in a {@link RPTapeChannel}.
+ */
+public final class ClipChange {
+
+	/**
+	 * The kinds of change a clip can go through.
+	 */
+	public enum Type {
+
+		/**
+		 * The clip has been put in the tape channel.
+		 */
+		ADDED,
+
+		/**
+		 * The clip has been taken out of the tape channel.
+		 */
+		REMOVED,
+
+		/**
+		 * The clip has a new time in, while its duration and content position did not change.
+		 */
+		MOVED,
+
+		/**
+		 * The clip has a new duration or content position, and possibly a new time in.
+		 */
+		TRIMMED
+	}
+
+	private final Type type;
+
+	private final RPClip<?> clip;
+
+	private final double timeIn;
+
+	/**
+	 * Creates a change of the given clip.
+	 *
+	 * @param  type  The kind of change.
+	 *
+	 * @param  clip  The clip that changed.
+	 *
+	 * @param  timeIn  The time in of the clip after the change, or before it if the clip has been removed.
+	 */
+	public ClipChange(final Type type, final RPClip<?> clip, final double timeIn) {
+		this.type = type;
+		this.clip = clip;
+		this.timeIn = timeIn;
+	}
+
+	/**
+	 * Get the kind of this change.
+	 *
+	 * @return  The kind of this change.
+	 */
+	public Type getType() {
+		return this.type;
+	}
+
+	/**
+	 * Get the clip that changed.
+	 *
+	 * @return  The clip that changed.
+	 */
+	public RPClip<?> getClip() {
+		return this.clip;
+	}
+
+	/**
+	 * Get the time in of the clip after the change, or before it if the clip has been removed.
+	 *
+	 * @return  The time in of the clip.
+	 */
+	public double getTimeIn() {
+		return this.timeIn;
+	}
+
+	@Override
+	public String toString() {
+		return "ClipChange [type=" + type + ", clip=" + clip.getTitle() + ", timeIn=" + timeIn + "]";
+	}
+}
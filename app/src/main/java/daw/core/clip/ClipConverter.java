@@ -2,6 +2,7 @@ package daw.core.clip;
 
 import java.io.File;
 import java.io.IOException;
+import daw.utilities.AudioContextManager;
 import net.beadsproject.beads.data.audiofile.FileFormatException;
 import net.beadsproject.beads.data.audiofile.OperationUnsupportedException;
 
@@ -12,6 +13,25 @@ import net.beadsproject.beads.data.audiofile.OperationUnsupportedException;
  */
 public final class ClipConverter implements RPClipConverter {
 
+	private final float sampleRate;
+
+	/**
+	 * Creates a converter whose {@link SampleClip}s are loaded at the sample rate of the
+	 * {@link daw.utilities.AudioContextManager}.
+	 */
+	public ClipConverter() {
+		this(AudioContextManager.getAudioContext().getSampleRate());
+	}
+
+	/**
+	 * Creates a converter whose {@link SampleClip}s are loaded at the given sample rate.
+	 * 
+	 * @param  sampleRate  The sample rate of the audio context that plays the clips.
+	 */
+	public ClipConverter(final float sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+
 	@Override
 	public FileClip fromEmptyToFileClip(final EmptyClip emptyClip, final File file) {
 		return new FileClip(file, emptyClip);
@@ -28,7 +48,7 @@ public final class ClipConverter implements RPClipConverter {
 	 */
 	@Override
 	public SampleClip fromEmptyToSampleClip(final EmptyClip emptyClip, final File file) throws IOException, OperationUnsupportedException, FileFormatException {
-		return new SampleClip(file, emptyClip);
+		return new SampleClip(file, emptyClip, this.sampleRate);
 	}
 
 	/**
@@ -42,7 +62,7 @@ public final class ClipConverter implements RPClipConverter {
 	 */
 	@Override
 	public SampleClip fromFileToSampleClip(final FileClip fileClip) throws IOException, OperationUnsupportedException, FileFormatException {
-		SampleClip clip = new SampleClip(fileClip.getContent(), this.fromFileToEmptyClip(fileClip));
+		SampleClip clip = new SampleClip(fileClip.getContent(), this.fromFileToEmptyClip(fileClip), this.sampleRate);
 		clip.setContentPosition(fileClip.getContentPosition());
 		return clip;
 	}
@@ -59,7 +79,7 @@ public final class ClipConverter implements RPClipConverter {
 
 	@Override
 	public FileClip fromSampleToFileClip(final SampleClip sampleClip) {
-		FileClip clip = new FileClip(new File(sampleClip.getContent().getFileName()), new EmptyClip(sampleClip.getTitle(), sampleClip.getDuration()));
+		FileClip clip = new FileClip(sampleClip.getContentFile(), new EmptyClip(sampleClip.getTitle(), sampleClip.getDuration()));
 		clip.setContentPosition(sampleClip.getContentPosition());
 		return clip;
 	}
@@ -0,0 +1,456 @@
+package daw.core.clip;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import daw.core.automation.Playhead;
+import daw.utilities.RPPair;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+
+/**
+ * Implementation of {@link RPMultitrackRecorder}.
+ * <p>Each armed track is recorded by a {@link UGen} that depends on the output of the {@link AudioContext}, which
+ * copies the frames of its inputs into a {@link RingBuffer} allocated when the recording starts. A thread of the
+ * recorder drains the rings into the WAV files every {@value #DRAIN_PERIOD} milliseconds, so that the audio
+ * thread never waits for the disk and the recorded audio is never kept in memory as a whole.
+ * <p>The time of each buffer is read from the {@link Playhead} of the context, and the punch range is applied
+ * to single frames, so that a take begins and ends exactly at the punch times.
+ */
+public final class MultitrackRecorder implements RPMultitrackRecorder {
+
+	/**
+	 * The milliseconds of audio each ring holds, which is how late the disk can be.
+	 */
+	private static final double RING_TIME = 4000.0;
+
+	/**
+	 * The milliseconds between two drains of the rings.
+	 */
+	private static final long DRAIN_PERIOD = 10;
+
+	/**
+	 * The samples drained at once.
+	 */
+	private static final int CHUNK = 8192;
+
+	private static final long NANOS_PER_MS = 1_000_000L;
+
+	/**
+	 * The audio context to record from.
+	 */
+	private final AudioContext context;
+
+	/**
+	 * The directory of the takes.
+	 */
+	private final File directory;
+
+	/**
+	 * The UGen recorded in place of the audio input, if any.
+	 */
+	private final Optional<UGen> source;
+
+	/**
+	 * The milliseconds of audio each ring holds.
+	 */
+	private final double ringTime;
+
+	/**
+	 * The armed tracks with their inputs.
+	 */
+	private final Map<String, int[]> armed = new LinkedHashMap<>();
+
+	/**
+	 * The recorded range, if any.
+	 */
+	private Optional<RPPair<Double, Double>> punch = Optional.empty();
+
+	/**
+	 * The recorders of the tracks while the recording runs.
+	 */
+	private final List<TrackRecorder> tracks = new ArrayList<>();
+
+	/**
+	 * The thread that writes the rings to disk.
+	 */
+	private Optional<Thread> writer = Optional.empty();
+
+	/**
+	 * True while the writer has to keep draining.
+	 */
+	private volatile boolean draining;
+
+	/**
+	 * Creates a recorder of the audio input of the given {@link AudioContext}.
+	 *
+	 * @param  context  The {@link AudioContext} to record from.
+	 * @param  directory  The directory the takes are written to, which is created when the recording starts.
+	 */
+	public MultitrackRecorder(final AudioContext context, final File directory) {
+		this(context, directory, Optional.empty(), RING_TIME);
+	}
+
+	/**
+	 * Creates a recorder of the outputs of the given {@link UGen}, which take the place of the channels of the
+	 * audio input: a track armed with an input records the output with the same index. This lets the recording
+	 * share the input of the device with others that read it, like the monitor of the input.
+	 *
+	 * @param  context  The {@link AudioContext} that runs the source.
+	 * @param  directory  The directory the takes are written to, which is created when the recording starts.
+	 * @param  source  The {@link UGen} to record.
+	 */
+	public MultitrackRecorder(final AudioContext context, final File directory, final UGen source) {
+		this(context, directory, Optional.of(source), RING_TIME);
+	}
+
+	/**
+	 * Creates a recorder of the outputs of the given {@link UGen}, which take the place of the channels of the
+	 * audio input: a track armed with an input records the output with the same index.
+	 *
+	 * @param  context  The {@link AudioContext} that runs the source.
+	 * @param  directory  The directory the takes are written to, which is created when the recording starts.
+	 * @param  source  The {@link UGen} to record.
+	 * @param  ringTime  The milliseconds of audio each ring holds, which is how late the disk can be.
+	 */
+	public MultitrackRecorder(final AudioContext context, final File directory, final UGen source,
+			final double ringTime) {
+		this(context, directory, Optional.of(source), ringTime);
+	}
+
+	private MultitrackRecorder(final AudioContext context, final File directory, final Optional<UGen> source,
+			final double ringTime) {
+		this.context = context;
+		this.directory = directory;
+		this.source = source;
+		this.ringTime = ringTime;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws  IllegalArgumentException  {@inheritDoc}
+	 * @throws  IllegalStateException  {@inheritDoc}
+	 */
+	@Override
+	public void arm(final String track, final int... inputs) {
+		this.checkStopped();
+		if (inputs.length == 0 || Arrays.stream(inputs).anyMatch(i -> i < 0)) {
+			throw new IllegalArgumentException("A track must record at least an input, and inputs are not negative.");
+		}
+		this.armed.put(track, inputs.clone());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws  IllegalStateException  {@inheritDoc}
+	 */
+	@Override
+	public void disarm(final String track) {
+		this.checkStopped();
+		this.armed.remove(track);
+	}
+
+	@Override
+	public Set<String> getArmedTracks() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(this.armed.keySet()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws  IllegalArgumentException  {@inheritDoc}
+	 */
+	@Override
+	public int[] getInputs(final String track) {
+		final int[] inputs = this.armed.get(track);
+		if (inputs == null) {
+			throw new IllegalArgumentException("The track " + track + " is not armed.");
+		}
+		return inputs.clone();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws  IllegalArgumentException  {@inheritDoc}
+	 * @throws  IllegalStateException  {@inheritDoc}
+	 */
+	@Override
+	public void setPunch(final Optional<RPPair<Double, Double>> punch) {
+		this.checkStopped();
+		punch.ifPresent(p -> {
+			if (p.getKey() < 0 || !(p.getValue() > p.getKey())) {
+				throw new IllegalArgumentException("The punch must start from a positive time and end after it.");
+			}
+		});
+		this.punch = punch;
+	}
+
+	@Override
+	public Optional<RPPair<Double, Double>> getPunch() {
+		return this.punch;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws  IOException  {@inheritDoc}
+	 * @throws  IllegalStateException  {@inheritDoc}
+	 */
+	@Override
+	public void start() throws IOException {
+		this.checkStopped();
+		if (this.armed.isEmpty()) {
+			throw new IllegalStateException("No track is armed.");
+		}
+		final double punchIn = this.punch.map(RPPair::getKey).orElse(0.0);
+		final double punchOut = this.punch.map(RPPair::getValue).orElse(Double.POSITIVE_INFINITY);
+		final int frames = (int) this.context.msToSamples(this.ringTime);
+		Files.createDirectories(this.directory.toPath());
+		try {
+			for (final var entry : this.armed.entrySet()) {
+				//the name of the track is kept only if it is safe for a file name
+				final File file = Files.createTempFile(this.directory.toPath(),
+						entry.getKey().replaceAll("[^A-Za-z0-9_-]", "_") + "-", ".wav").toFile();
+				this.tracks.add(new TrackRecorder(this.context, entry.getKey(), file,
+						new RingBuffer(entry.getValue().length, frames), punchIn, punchOut));
+			}
+		} catch (IOException e) {
+			for (final TrackRecorder track : this.tracks) {
+				try {
+					track.discard();
+				} catch (IOException discarded) {
+					e.addSuppressed(discarded);
+				}
+			}
+			this.tracks.clear();
+			throw e;
+		}
+		for (final TrackRecorder track : this.tracks) {
+			final int[] inputs = this.armed.get(track.name);
+			if (this.source.isPresent()) {
+				for (int c = 0; c < inputs.length; c++) {
+					track.addInput(c, this.source.get(), inputs[c]);
+				}
+			} else {
+				track.addInput(this.context.getAudioInput(inputs));
+			}
+			this.context.out.addDependent(track);
+		}
+		this.draining = true;
+		final Thread thread = new Thread(this::drain, "disk recorder");
+		thread.setDaemon(true);
+		thread.start();
+		this.writer = Optional.of(thread);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws  IOException  {@inheritDoc}
+	 * @throws  IllegalStateException  {@inheritDoc}
+	 */
+	@Override
+	public List<Take> stop() throws IOException {
+		this.halt();
+		final List<Take> takes = new ArrayList<>();
+		IOException failure = null;
+		for (final TrackRecorder track : this.tracks) {
+			try {
+				track.finish().ifPresent(takes::add);
+			} catch (IOException e) {
+				failure = failure == null ? e : failure;
+			}
+		}
+		this.tracks.clear();
+		if (failure != null) {
+			throw failure;
+		}
+		return takes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws  IOException  {@inheritDoc}
+	 * @throws  IllegalStateException  {@inheritDoc}
+	 */
+	@Override
+	public void discard() throws IOException {
+		this.halt();
+		IOException failure = null;
+		for (final TrackRecorder track : this.tracks) {
+			try {
+				track.discard();
+			} catch (IOException e) {
+				failure = failure == null ? e : failure;
+			}
+		}
+		this.tracks.clear();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	//stops the recorders of the tracks and waits for the writer to drain what they have recorded
+	private void halt() {
+		if (!this.isRecording()) {
+			throw new IllegalStateException("The recording is not running.");
+		}
+		//the audio thread removes the killed recorders from the output by itself
+		this.tracks.forEach(TrackRecorder::close);
+		this.draining = false;
+		try {
+			this.writer.get().join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.writer = Optional.empty();
+	}
+
+	@Override
+	public boolean isRecording() {
+		return this.writer.isPresent();
+	}
+
+	private void checkStopped() {
+		if (this.isRecording()) {
+			throw new IllegalStateException("The recording is running.");
+		}
+	}
+
+	private void drain() {
+		final float[] chunk = new float[CHUNK];
+		while (this.draining) {
+			this.tracks.forEach(track -> track.drain(chunk));
+			LockSupport.parkNanos(DRAIN_PERIOD * NANOS_PER_MS);
+		}
+	}
+
+	/**
+	 * Records a track: the audio thread writes its ring, and the thread of the recorder drains it to disk.
+	 */
+	private static final class TrackRecorder extends UGen {
+
+		//the states of the recorder, which the audio thread holds while it writes the ring
+		private static final int OPEN = 0;
+		private static final int BUSY = 1;
+		private static final int CLOSED = 2;
+
+		private final String name;
+		private final File file;
+		private final RingBuffer ring;
+		private final WaveFileWriter output;
+		private final Playhead playhead;
+		private final double frameTime;
+		private final double punchIn;
+		private final double punchOut;
+		private final AtomicInteger state = new AtomicInteger(OPEN);
+		// written by the audio thread only
+		private volatile double timeIn = -1;
+		private double next;
+		private boolean ended;
+		// written by the thread of the recorder only
+		private IOException failure;
+
+		private TrackRecorder(final AudioContext context, final String name, final File file, final RingBuffer ring,
+				final double punchIn, final double punchOut) throws IOException {
+			super(context, ring.getChannels(), 0);
+			this.name = name;
+			this.file = file;
+			this.ring = ring;
+			this.output = new WaveFileWriter(file, ring.getChannels(), context.getSampleRate(), CHUNK);
+			this.playhead = Playhead.getPlayhead(context);
+			this.frameTime = this.playhead.getFrameTime();
+			this.punchIn = punchIn;
+			this.punchOut = punchOut;
+		}
+
+		@Override
+		public void calculateBuffer() {
+			if (this.ended || !this.state.compareAndSet(OPEN, BUSY)) {
+				return;
+			}
+			final double time = this.playhead.getBufferTime();
+			final boolean started = this.timeIn >= 0;
+			if (time < 0 || started && Math.abs(time - this.next) > this.frameTime) {
+				//the take ends when the playback stops or jumps
+				this.ended = started;
+			} else {
+				final int from = (int) Math.max(0, Math.ceil((this.punchIn - time) / this.frameTime));
+				final int to = (int) Math.min(this.bufferSize, Math.ceil((this.punchOut - time) / this.frameTime));
+				if (from < to) {
+					if (!started) {
+						this.timeIn = time + from * this.frameTime;
+					}
+					this.ring.write(this.bufIn, from, to);
+				}
+				this.next = time + this.bufferSize * this.frameTime;
+				//the take ends at the punch out
+				this.ended = to < this.bufferSize;
+			}
+			this.state.set(OPEN);
+		}
+
+		private void drain(final float[] chunk) {
+			if (this.failure != null) {
+				return;
+			}
+			try {
+				for (int count = this.ring.read(chunk); count > 0; count = this.ring.read(chunk)) {
+					this.output.write(chunk, count);
+				}
+			} catch (IOException e) {
+				this.failure = e;
+			}
+		}
+
+		//stops the audio thread from writing the ring, waiting for the buffer it may be writing
+		private void close() {
+			while (!this.state.compareAndSet(OPEN, CLOSED)) {
+				Thread.onSpinWait();
+			}
+			this.kill();
+		}
+
+		private Optional<Take> finish() throws IOException {
+			this.drain(new float[CHUNK]);
+			try {
+				this.output.close();
+			} catch (IOException e) {
+				this.failure = this.failure == null ? e : this.failure;
+			}
+			if (this.failure != null) {
+				throw this.failure;
+			}
+			if (this.timeIn < 0 || this.output.getFrames() == 0) {
+				Files.deleteIfExists(this.file.toPath());
+				return Optional.empty();
+			}
+			return Optional.of(new Take(this.name, this.file, this.timeIn, this.output.getFrames() * this.frameTime,
+					this.ring.getDroppedFrames()));
+		}
+
+		private void discard() throws IOException {
+			try {
+				this.output.close();
+			} finally {
+				Files.deleteIfExists(this.file.toPath());
+			}
+		}
+
+	}
+}
@@ -95,6 +95,13 @@ public interface RPClipPlayer {
 	 */
 	double getPlaybackDuration();
 	
+	/**
+	 * Get the clip played by this player.
+	 * 
+	 * @return  The clip played by this player.
+	 */
+	RPClip<?> getClip();
+	
 	/**
 	 * Get the UGen for connecting this player to any channel.
 	 * 
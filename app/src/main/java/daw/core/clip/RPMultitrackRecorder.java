@@ -0,0 +1,108 @@
+package daw.core.clip;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import daw.utilities.RPPair;
+
+/**
+ * A recorder of several tracks at once, each one from some channels of the audio input, straight to disk.
+ * <p>The tracks are armed before the recording is started, and each recording writes every track to a new WAV
+ * file. While the recording runs, every armed track records the frames that the playback goes through, or only
+ * the ones inside the punch range if one is set, and each track ends as soon as the playback stops, jumps or
+ * leaves the range. When the recording is stopped, every track that
+ * has recorded something becomes a {@link Take}, placed at the time it began on the timeline.
+ * <p>The recorder never starts nor stops the audio context, which keeps playing the project meanwhile.
+ */
+public interface RPMultitrackRecorder {
+
+	/**
+	 * Arm a track, replacing it if it is already armed.
+	 *
+	 * @param  track  The name of the track, such as the title of the channel the take is meant for.
+	 * @param  inputs  The channels of the audio input to record, one for each channel of the take.
+	 *
+	 * @throws  IllegalArgumentException  If no input is given or an input is negative.
+	 * @throws  IllegalStateException  If the recording is running.
+	 */
+	void arm(String track, int... inputs);
+
+	/**
+	 * Disarm a track.
+	 *
+	 * @param  track  The name of the track.
+	 *
+	 * @throws  IllegalStateException  If the recording is running.
+	 */
+	void disarm(String track);
+
+	/**
+	 * Get the armed tracks.
+	 *
+	 * @return  The names of the armed tracks.
+	 */
+	Set<String> getArmedTracks();
+
+	/**
+	 * Get the inputs an armed track records.
+	 *
+	 * @param  track  The name of the track.
+	 *
+	 * @return  The channels of the audio input, one for each channel of the take.
+	 *
+	 * @throws  IllegalArgumentException  If the track is not armed.
+	 */
+	int[] getInputs(String track);
+
+	/**
+	 * Set the range of the timeline that is recorded.
+	 *
+	 * @param  punch  The punch in and punch out times in milliseconds, or nothing to record the whole playback.
+	 *
+	 * @throws  IllegalArgumentException  If the punch out is not after the punch in.
+	 * @throws  IllegalStateException  If the recording is running.
+	 */
+	void setPunch(Optional<RPPair<Double, Double>> punch);
+
+	/**
+	 * Get the range of the timeline that is recorded.
+	 *
+	 * @return  The punch in and punch out times, or nothing if the whole playback is recorded.
+	 */
+	Optional<RPPair<Double, Double>> getPunch();
+
+	/**
+	 * Start to record the armed tracks.
+	 *
+	 * @throws  IOException  If the file of a track cannot be created.
+	 * @throws  IllegalStateException  If the recording is running or no track is armed.
+	 */
+	void start() throws IOException;
+
+	/**
+	 * Stop the recording, waiting for the recorded audio to be written.
+	 *
+	 * @return  The {@link Take} of each track that has recorded something, in the order the tracks were armed.
+	 *
+	 * @throws  IOException  If the audio of a track could not be written.
+	 * @throws  IllegalStateException  If the recording is not running.
+	 */
+	List<Take> stop() throws IOException;
+
+	/**
+	 * Stop the recording and delete what has been recorded, as if it had never started.
+	 *
+	 * @throws  IOException  If the file of a track cannot be deleted.
+	 * @throws  IllegalStateException  If the recording is not running.
+	 */
+	void discard() throws IOException;
+
+	/**
+	 * Check if the recording is running.
+	 *
+	 * @return  {@code true} if the recording has been started and not stopped yet.
+	 */
+	boolean isRecording();
+
+}
@@ -6,6 +6,8 @@ import net.beadsproject.beads.data.Sample;
  * A simple recorder. 
  * Records an audio stream from the default system input and get the 
  * recorded {@link Sample}.
+ * <p>The recorder does not run the audio context, which must be running while it records.
+ * For recording several tracks straight to disk, see {@link RPMultitrackRecorder}.
  */
 public interface RPRecorder {
 	
@@ -31,4 +33,10 @@ public interface RPRecorder {
 	 */
 	Sample getSample();
 
+	/**
+	 * Stop the recording and detach the recorder from the audio context.
+	 * The recorded {@link Sample} can still be got, but the recorder cannot record anymore.
+	 */
+	void close();
+
 }
@@ -2,9 +2,11 @@ package daw.core.clip;
 
 import java.util.Iterator;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.Map.Entry;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import daw.utilities.Versioned;
 import javafx.util.Pair;
 
 /**
@@ -13,9 +15,10 @@ import javafx.util.Pair;
  * <br>For every channel of the Tape is supported one source at time so clips of one RPTapeChannel can't overlap in the timeline.
  * <p>The time in and time out refers to the starting and ending position of a clip in the timeline.
  * Each clip is identified from his time in.
+ * <p>Its state can be saved and restored, together with the duration and content position of its clips.
  */
 @JsonDeserialize(as = TapeChannel.class)
-public interface RPTapeChannel {
+public interface RPTapeChannel extends Versioned {
 	
 	/**
 	 * Add an {@link RPClip} in the timeline of this tape channel. 
@@ -55,6 +58,16 @@ public interface RPTapeChannel {
 	 */
 	boolean isEmpty();
 	
+	/**
+	 * If present get the time in of the specified clip.
+	 * 
+	 * @param  clip  The clip to search in this tape channel.
+	 * 
+	 * @return  {@code Optional<Double>} of the clip time in or
+	 * 			{@code Optional.empty()} if the clip is not in this tape channel.
+	 */
+	Optional<Double> getClipTimeIn(RPClip<?> clip);
+	
 	/**
 	 * If present get an {@link Optional} of {@link Pair} of the clip intersected at the specified time, and it's time in.
 	 * 
@@ -161,5 +174,19 @@ public interface RPTapeChannel {
 	 * @return  The time out of the hypothetical clip.
 	 */
 	double calculateTimeOut(double timeIn, double duration);
+	
+	/**
+	 * Perform an action on each change of the clips of this tape channel since a snapshot was taken.
+	 * <p>Only the parts of the timeline that differ from the snapshot are visited, so the cost 
+	 * depends on the size of the changes and not on the number of clips.
+	 * <br>A clip replaced by an equal one at the same time in is reported as removed and then added.
+	 * 
+	 * @param  since  A snapshot taken from this tape channel, or null to compare with an empty tape channel.
+	 * 
+	 * @param  action  The action to perform on each {@link ClipChange}.
+	 * 
+	 * @throws  IllegalArgumentException  If the snapshot was not taken from this tape channel.
+	 */
+	void forEachChange(Snapshot since, Consumer<ClipChange> action);
 
 }
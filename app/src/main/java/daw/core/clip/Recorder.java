@@ -8,7 +8,8 @@ import net.beadsproject.beads.ugens.RecordToSample;
 
 /**
  * Implementation of {@link RPRecorder}.
- *
+ * <p>The recorder is attached to the output of the {@link AudioContext} when it starts recording for the first
+ * time, and it is detached when it is closed, so that the closed recorders are not updated anymore.
  */
 public final class Recorder implements RPRecorder {
 
@@ -31,31 +32,46 @@ public final class Recorder implements RPRecorder {
 	 * The {@code beads} recorder.
 	 */
 	private final RecordToSample recorder;
+
+	/**
+	 * True if the recorder has been attached to the output of the context.
+	 */
+	private boolean attached;
 	
 	/**
 	 * Create a new {@code Recorder} connected to the default system audio input.
 	 */
 	public Recorder() {
-		ac = AudioContextManager.getAudioContext();
+		this(AudioContextManager.getAudioContext());
+	}
+
+	/**
+	 * Create a new {@code Recorder} connected to the audio input of the given {@link AudioContext}.
+	 * 
+	 * @param  context  The {@link AudioContext} to record from.
+	 */
+	public Recorder(final AudioContext context) {
+		ac = context;
 		input = ac.getAudioInput();
 		recordedData = new Sample(0);
 		recorder = new RecordToSample(ac, recordedData, RecordToSample.Mode.INFINITE);
 		recorder.addInput(input);
-		ac.out.addDependent(recorder);
 		recorder.pause(true);
 		recordedData.clear();
 	}
 
 	@Override
 	public void record() {
-		ac.start();
+		if (!attached) {
+			ac.out.addDependent(recorder);
+			attached = true;
+		}
 		recorder.start();
 	}
 
 	@Override
 	public void pause() {
 		recorder.pause(true);
-		ac.stop();
 	}
 
 	@Override
@@ -68,4 +84,15 @@ public final class Recorder implements RPRecorder {
 		recorder.clip();
 		return this.recordedData;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The output of the context drops the killed recorder at its next buffer, so that it is not
+	 * removed while the audio thread may be updating it.
+	 */
+	@Override
+	public void close() {
+		recorder.pause(true);
+		recorder.kill();
+	}
 }
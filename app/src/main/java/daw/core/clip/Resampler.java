@@ -0,0 +1,143 @@
+package daw.core.clip;
+
+import java.util.stream.IntStream;
+
+/**
+ * Converts audio from a sample rate to another one with a windowed-sinc filter.
+ * <p>The filter is a sinc whose cutoff is just below the lower of the two Nyquist frequencies, shaped by a Kaiser
+ * window that spans {@value #ZERO_CROSSINGS} of its zero crossings on each side. It is stored as a table of
+ * {@value #PHASES} phases, and each output frame interpolates the two phases around its position in the input,
+ * so that any pair of rates is supported, not only the ones with a small ratio.
+ * <p>The output is computed in blocks of {@value #BLOCK} frames, in parallel on the common pool. Every block
+ * reads the input it needs around it, so that the result does not depend on how the output has been split.
+ */
+public final class Resampler {
+
+	/**
+	 * The frames of the output that are computed by the same task.
+	 */
+	public static final int BLOCK = 65_536;
+
+	/**
+	 * The zero crossings of the filter on each side of its center.
+	 */
+	private static final int ZERO_CROSSINGS = 32;
+
+	/**
+	 * The phases of the filter in the table.
+	 */
+	private static final int PHASES = 512;
+
+	/**
+	 * The shape of the Kaiser window, which gives about 90 dB of stopband attenuation.
+	 */
+	private static final double BETA = 9.0;
+
+	/**
+	 * The cutoff of the filter as a fraction of the lower Nyquist frequency.
+	 */
+	private static final double ROLL_OFF = 0.95;
+
+	private Resampler() {
+	}
+
+	/**
+	 * Gets the frames that the given ones last at another sample rate.
+	 *
+	 * @param  frames  The frames at the source rate.
+	 * @param  from  The source sample rate.
+	 * @param  to  The target sample rate.
+	 *
+	 * @return  The frames at the target rate, rounded up.
+	 */
+	public static long getFrames(final long frames, final float from, final float to) {
+		return (long) Math.ceil(frames * (double) to / from);
+	}
+
+	/**
+	 * Converts the given audio to another sample rate.
+	 *
+	 * @param  audio  The samples of each channel, which all have the same length.
+	 * @param  from  The sample rate of the audio.
+	 * @param  to  The target sample rate.
+	 *
+	 * @return  The samples of each channel at the target rate, which last {@link #getFrames(long, float, float)}
+	 * 			frames.
+	 *
+	 * @throws  IllegalArgumentException  If a sample rate is not positive.
+	 */
+	public static float[][] resample(final float[][] audio, final float from, final float to) {
+		if (!(from > 0) || !(to > 0)) {
+			throw new IllegalArgumentException("The sample rates must be positive.");
+		}
+		final int inFrames = audio.length == 0 ? 0 : audio[0].length;
+		final int outFrames = (int) getFrames(inFrames, from, to);
+		final float[][] out = new float[audio.length][outFrames];
+		if (from == to) {
+			for (int c = 0; c < audio.length; c++) {
+				System.arraycopy(audio[c], 0, out[c], 0, inFrames);
+			}
+			return out;
+		}
+		final double cutoff = Math.min(1.0, (double) to / from) * ROLL_OFF;
+		//the filter is wider when it has to cut lower
+		final int span = (int) Math.ceil(ZERO_CROSSINGS / cutoff);
+		final double[][] table = table(cutoff, span);
+		final double step = (double) from / to;
+		final int blocks = (outFrames + BLOCK - 1) / BLOCK;
+		IntStream.range(0, blocks).parallel().forEach(b -> {
+			final double[] kernel = new double[2 * span];
+			final int end = Math.min(outFrames, (b + 1) * BLOCK);
+			for (int n = b * BLOCK; n < end; n++) {
+				final double position = n * step;
+				final int index = (int) position;
+				final double phase = (position - index) * PHASES;
+				final int p = (int) phase;
+				final double weight = phase - p;
+				for (int k = 0; k < kernel.length; k++) {
+					kernel[k] = table[p][k] + (table[p + 1][k] - table[p][k]) * weight;
+				}
+				//the input is silent outside of the audio
+				final int first = Math.max(0, span - 1 - index);
+				final int last = Math.min(kernel.length, inFrames - index + span - 1);
+				for (int c = 0; c < audio.length; c++) {
+					double sum = 0;
+					for (int k = first; k < last; k++) {
+						sum += audio[c][index + k - span + 1] * kernel[k];
+					}
+					out[c][n] = (float) sum;
+				}
+			}
+		});
+		return out;
+	}
+
+	//the taps of each phase, for the input frames from span - 1 before the position to span after it
+	private static double[][] table(final double cutoff, final int span) {
+		final double[][] table = new double[PHASES + 1][2 * span];
+		final double norm = bessel(BETA);
+		for (int p = 0; p <= PHASES; p++) {
+			for (int k = 0; k < 2 * span; k++) {
+				final double x = k - span + 1 - (double) p / PHASES;
+				final double y = x / span;
+				if (Math.abs(y) < 1) {
+					final double arg = Math.PI * cutoff * x;
+					final double sinc = arg == 0 ? 1 : Math.sin(arg) / arg;
+					table[p][k] = cutoff * sinc * bessel(BETA * Math.sqrt(1 - y * y)) / norm;
+				}
+			}
+		}
+		return table;
+	}
+
+	//the modified Bessel function of the first kind and order zero, which shapes the Kaiser window
+	private static double bessel(final double x) {
+		double sum = 1;
+		double term = 1;
+		for (int k = 1; term > sum * 1e-12; k++) {
+			term *= (x / (2 * k)) * (x / (2 * k));
+			sum += term;
+		}
+		return sum;
+	}
+}
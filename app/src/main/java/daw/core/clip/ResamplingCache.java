@@ -0,0 +1,240 @@
+package daw.core.clip;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import net.beadsproject.beads.data.Sample;
+import net.beadsproject.beads.data.audiofile.FileFormatException;
+import net.beadsproject.beads.data.audiofile.OperationUnsupportedException;
+
+/**
+ * Loads audio files as {@link Sample}s at a given sample rate, converting them with the {@link Resampler} when
+ * their rate is a different one.
+ * <p>A converted file is kept in a directory as raw PCM, named after the hash of the content of the source and
+ * the target rate, so that each source is converted once for each rate, even if it is moved or renamed, and
+ * the later loads read it as it is. A file whose rate is already the target one is loaded directly.
+ * <p>The directory of the default cache is read from the system property {@value #DIRECTORY_PROPERTY}, and
+ * it is {@code .resplan/cache} in the home of the user otherwise.
+ */
+public final class ResamplingCache {
+
+	/**
+	 * The system property with the directory of the default cache.
+	 */
+	public static final String DIRECTORY_PROPERTY = "resplan.cache.directory";
+
+	/**
+	 * The extension of the converted files.
+	 */
+	public static final String EXTENSION = ".pcm";
+
+	/**
+	 * The first bytes of a converted file, followed by its channels, its sample rate and its frames.
+	 */
+	private static final int MAGIC = 0x52505243;
+
+	/**
+	 * The bytes before the samples of a converted file.
+	 */
+	private static final int HEADER = Integer.BYTES * 2 + Float.BYTES + Long.BYTES;
+
+	/**
+	 * The frames that are read or written at once.
+	 */
+	private static final int CHUNK = 16_384;
+
+	/**
+	 * The default cache.
+	 */
+	private static final ResamplingCache DEFAULT = new ResamplingCache(new File(System.getProperty(DIRECTORY_PROPERTY,
+			System.getProperty("user.home") + File.separator + ".resplan" + File.separator + "cache")));
+
+	/**
+	 * The directory of the converted files.
+	 */
+	private final File directory;
+
+	/**
+	 * Creates a cache that keeps the converted files in the given directory, which is created when the first
+	 * file is converted.
+	 *
+	 * @param  directory  The directory of the converted files.
+	 */
+	public ResamplingCache(final File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Gets the default cache.
+	 *
+	 * @return  The cache in the directory of the system property {@value #DIRECTORY_PROPERTY}.
+	 */
+	public static ResamplingCache getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Loads the given audio file at the given sample rate.
+	 * The file is converted if it has not been converted to the rate before, and the conversion is kept for
+	 * the next loads.
+	 *
+	 * @param  file  The audio file.
+	 * @param  sampleRate  The sample rate of the {@link Sample}.
+	 *
+	 * @return  The content of the file at the given rate.
+	 *
+	 * @throws  IOException  If some I/O exception has occurred.
+	 *
+	 * @throws  OperationUnsupportedException  If some write/read operation is not supported for this file.
+	 *
+	 * @throws  FileFormatException  If the file format isn't a supported audio format.
+	 */
+	public Sample load(final File file, final float sampleRate)
+			throws IOException, OperationUnsupportedException, FileFormatException {
+		if (this.getSampleRate(file) == sampleRate) {
+			return new Sample(file.getAbsolutePath());
+		}
+		final File converted = this.getConvertedFile(file, sampleRate);
+		if (converted.isFile()) {
+			try {
+				return read(converted);
+			} catch (IOException e) {
+				//a damaged conversion is made again
+				Files.deleteIfExists(converted.toPath());
+			}
+		}
+		final Sample source = new Sample(file.getAbsolutePath());
+		if (source.getSampleRate() == sampleRate) {
+			return source;
+		}
+		final float[][] audio = new float[source.getNumChannels()][(int) source.getNumFrames()];
+		source.getFrames(0, audio);
+		final float[][] resampled = Resampler.resample(audio, source.getSampleRate(), sampleRate);
+		final Sample sample = new Sample(resampled.length == 0 ? 0L : (long) resampled[0].length,
+				resampled.length, sampleRate);
+		sample.putFrames(0, resampled);
+		this.write(converted, resampled, sampleRate);
+		return sample;
+	}
+
+	/**
+	 * Gets the file the given audio file is kept in once converted to the given sample rate.
+	 *
+	 * @param  file  The audio file.
+	 * @param  sampleRate  The target sample rate.
+	 *
+	 * @return  The converted file, which may not exist yet.
+	 *
+	 * @throws  IOException  If the audio file cannot be read.
+	 */
+	public File getConvertedFile(final File file, final float sampleRate) throws IOException {
+		return new File(this.directory, hash(file) + "-" + Math.round(sampleRate) + EXTENSION);
+	}
+
+	//the rate of the file if Java Sound can read its header, which is cheaper than hashing it
+	private float getSampleRate(final File file) throws IOException {
+		try {
+			return AudioSystem.getAudioFileFormat(file).getFormat().getSampleRate();
+		} catch (UnsupportedAudioFileException e) {
+			return -1;
+		}
+	}
+
+	private static String hash(final File file) throws IOException {
+		try (InputStream in = Files.newInputStream(file.toPath())) {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			final byte[] buffer = new byte[CHUNK * Float.BYTES];
+			for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+				digest.update(buffer, 0, read);
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Sample read(final File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(channel, header);
+			if (header.getInt() != MAGIC) {
+				throw new IOException("The file " + file + " is not a converted audio file.");
+			}
+			final int channels = header.getInt();
+			final float sampleRate = header.getFloat();
+			final long frames = header.getLong();
+			if (channel.size() != HEADER + frames * channels * Float.BYTES) {
+				throw new IOException("The file " + file + " is incomplete.");
+			}
+			final Sample sample = new Sample(frames, channels, sampleRate);
+			final ByteBuffer bytes = ByteBuffer.allocate(CHUNK * channels * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			final float[][] chunk = new float[channels][CHUNK];
+			for (long start = 0; start < frames; start += CHUNK) {
+				final int length = (int) Math.min(CHUNK, frames - start);
+				final float[][] buffer = length == CHUNK ? chunk : new float[channels][length];
+				bytes.clear().limit(length * channels * Float.BYTES);
+				readFully(channel, bytes);
+				for (int f = 0; f < length; f++) {
+					for (int c = 0; c < channels; c++) {
+						buffer[c][f] = bytes.getFloat();
+					}
+				}
+				sample.putFrames((int) start, buffer);
+			}
+			return sample;
+		}
+	}
+
+	//the file is written aside and then moved, so that a load never sees it half written
+	private void write(final File file, final float[][] audio, final float sampleRate) throws IOException {
+		Files.createDirectories(this.directory.toPath());
+		final File temp = File.createTempFile(file.getName(), null, this.directory);
+		final int frames = audio.length == 0 ? 0 : audio[0].length;
+		try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+			final ByteBuffer bytes = ByteBuffer.allocate(Math.max(HEADER, CHUNK * audio.length * Float.BYTES))
+					.order(ByteOrder.LITTLE_ENDIAN);
+			bytes.putInt(MAGIC).putInt(audio.length).putFloat(sampleRate).putLong(frames).flip();
+			writeFully(channel, bytes);
+			for (int start = 0; start < frames; start += CHUNK) {
+				final int length = Math.min(CHUNK, frames - start);
+				bytes.clear();
+				for (int f = start; f < start + length; f++) {
+					for (final float[] samples : audio) {
+						bytes.putFloat(samples[f]);
+					}
+				}
+				writeFully(channel, bytes.flip());
+			}
+		} catch (IOException e) {
+			Files.deleteIfExists(temp.toPath());
+			throw e;
+		}
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void readFully(final FileChannel channel, final ByteBuffer bytes) throws IOException {
+		while (bytes.hasRemaining()) {
+			if (channel.read(bytes) < 0) {
+				throw new IOException("The converted file ended unexpectedly.");
+			}
+		}
+		bytes.flip();
+	}
+
+	private static void writeFully(final FileChannel channel, final ByteBuffer bytes) throws IOException {
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package daw.core.clip;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A ring of samples that is written by a thread and read by another one, without locks.
+ * <p>The samples of the channels are interleaved, and the ring is allocated once, so that the writer,
+ * which is the audio thread, never allocates nor waits: when the ring is full, the frames that do not fit
+ * are dropped and counted.
+ */
+// package-protected since it is only used by MultitrackRecorder
+final class RingBuffer {
+
+	private final float[] samples;
+	private final int mask;
+	private final int channels;
+	// the samples written and read since the ring was created, each one changed by a single thread
+	private final AtomicLong written = new AtomicLong();
+	private final AtomicLong read = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * Creates a ring that holds at least the given frames.
+	 *
+	 * @param  channels  The channels of a frame.
+	 * @param  frames  The frames the ring holds, which are rounded up to a power of two.
+	 */
+	RingBuffer(final int channels, final int frames) {
+		final int size = Integer.highestOneBit(Math.max(1, frames * channels - 1)) << 1;
+		this.samples = new float[size];
+		this.mask = size - 1;
+		this.channels = channels;
+	}
+
+	/**
+	 * Writes the given frames, or as many of them as fit.
+	 *
+	 * @param  audio  The samples of each channel.
+	 * @param  from  The first frame to write.
+	 * @param  to  The frame after the last one to write.
+	 *
+	 * @return  The frames that have been written.
+	 */
+	int write(final float[][] audio, final int from, final int to) {
+		final long start = this.written.get();
+		final int free = (int) (this.samples.length - (start - this.read.get())) / this.channels;
+		final int frames = Math.min(to - from, free);
+		long index = start;
+		for (int f = from; f < from + frames; f++) {
+			for (int c = 0; c < this.channels; c++) {
+				this.samples[(int) (index++ & this.mask)] = audio[c][f];
+			}
+		}
+		//the samples are published after they have been stored
+		this.written.lazySet(index);
+		this.dropped.addAndGet(to - from - frames);
+		return frames;
+	}
+
+	/**
+	 * Reads the samples that have been written, as many as the given array holds.
+	 *
+	 * @param  out  The array to fill with interleaved samples.
+	 *
+	 * @return  The samples that have been read.
+	 */
+	int read(final float[] out) {
+		final long start = this.read.get();
+		final int count = (int) Math.min(out.length, this.written.get() - start);
+		for (int i = 0; i < count; i++) {
+			out[i] = this.samples[(int) ((start + i) & this.mask)];
+		}
+		this.read.lazySet(start + count);
+		return count;
+	}
+
+	/**
+	 * @return  The channels of a frame.
+	 */
+	int getChannels() {
+		return this.channels;
+	}
+
+	/**
+	 * @return  The frames that have been dropped because the ring was full.
+	 */
+	long getDroppedFrames() {
+		return this.dropped.get();
+	}
+}
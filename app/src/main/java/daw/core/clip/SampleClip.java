@@ -3,8 +3,11 @@ package daw.core.clip;
 import java.io.File;
 import java.io.IOException;
 import java.util.Objects;
+import com.fasterxml.jackson.annotation.JacksonInject;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 import net.beadsproject.beads.data.Sample;
 import net.beadsproject.beads.data.audiofile.FileFormatException;
 import net.beadsproject.beads.data.audiofile.OperationUnsupportedException;
@@ -13,6 +16,9 @@ import net.beadsproject.beads.data.audiofile.OperationUnsupportedException;
  * A SampleClip object is an RPClip which accepts any Audio File as content.
  * <p>The default duration is the same as the audio content one.
  * A SampleClip wrap a FileClip object and add all the Audio content related features and controls.
+ * <p>The content is loaded at the sample rate of the audio context that plays it through the
+ * {@link ResamplingCache}, so that it is played at its native rate. Unless a sample rate is given, the one of the
+ * {@link AudioContextManager} is taken.
  */
 public final class SampleClip implements RPClip<Sample> {
 	
@@ -26,6 +32,11 @@ public final class SampleClip implements RPClip<Sample> {
 	 */
 	private final Sample sample;
 	
+	/**
+	 * The sample rate the content is loaded at.
+	 */
+	private final float sampleRate;
+	
 	
 	/**
 	 * Private internal constructor used by other public/protected constructors.
@@ -36,6 +47,8 @@ public final class SampleClip implements RPClip<Sample> {
 	 * 
 	 * @param  fileClip  The File Clip to wrap.
 	 * 
+	 * @param  sampleRate  The sample rate the content is loaded at.
+	 * 
 	 * @throws  IllegalArgumentException  If the supplied clip isn't a {@code FileClip.class} object
 	 * 
 	 * @throws  IOException  If some I/O exception has occurred.
@@ -44,12 +57,13 @@ public final class SampleClip implements RPClip<Sample> {
 	 * 
 	 * @throws  FileFormatException  If the file format isn't a supported audio format.
 	 */
-	private SampleClip(final RPClip<File> fileClip) throws IOException, OperationUnsupportedException, FileFormatException {
+	private SampleClip(final RPClip<File> fileClip, final float sampleRate) throws IOException, OperationUnsupportedException, FileFormatException {
 		if (fileClip.getClass() != FileClip.class) {
 			throw new IllegalArgumentException("The supplied fileClip must be a FileClip class object");
 		}
 		this.clip = fileClip;
-		this.sample = new Sample(clip.getContent().getAbsolutePath());
+		this.sampleRate = sampleRate;
+		this.sample = ResamplingCache.getDefault().load(clip.getContent(), sampleRate);
 		if (this.clip.getDuration() > this.sample.getLength()) {
 			this.setDuration(this.sample.getLength());
 		}
@@ -66,14 +80,16 @@ public final class SampleClip implements RPClip<Sample> {
 	 * 
 	 * @param  emptyClip  The empty clip to wrap.
 	 * 
+	 * @param  sampleRate  The sample rate the content is loaded at.
+	 * 
 	 * @throws  IOException  If some I/O exception has occurred.
 	 * 
 	 * @throws  OperationUnsupportedException  If some write/read operation is not supported for this file.
 	 * 
 	 * @throws  FileFormatException  If the file format isn't a supported audio format.
 	 */
-	protected SampleClip(final File file, final RPClip<?> emptyClip) throws IOException, OperationUnsupportedException, FileFormatException {
-		this(new FileClip(file, emptyClip));
+	protected SampleClip(final File file, final RPClip<?> emptyClip, final float sampleRate) throws IOException, OperationUnsupportedException, FileFormatException {
+		this(new FileClip(file, emptyClip), sampleRate);
 	}
 	
 	/**
@@ -91,7 +107,28 @@ public final class SampleClip implements RPClip<Sample> {
 	 */
 	public SampleClip(final String title, final File content)
 			throws IOException, OperationUnsupportedException, FileFormatException {
-		this(new FileClip(title, content));
+		this(title, content, AudioContextManager.getAudioContext().getSampleRate());
+	}
+	
+	/**
+	 * Creates a Sample Clip just specifying an audio file and the sample rate of the audio context that plays it.
+	 * The duration will be fitted to the audio file duration.
+	 * 
+	 * @param title The title of this clip.
+	 * 
+	 * @param  content  The audio file content.
+	 * 
+	 * @param  sampleRate  The sample rate the content is loaded at.
+	 * 
+	 * @throws  IOException  If some I/O exception has occurred.
+	 * 
+	 * @throws  OperationUnsupportedException  If some write/read operation is not supported for this file.
+	 * 
+	 * @throws  FileFormatException  If the file format isn't a supported audio format.
+	 */
+	public SampleClip(final String title, final File content, final float sampleRate)
+			throws IOException, OperationUnsupportedException, FileFormatException {
+		this(new FileClip(title, content), sampleRate);
 		this.setDuration(sample.getLength());
 	}
 	
@@ -112,11 +149,17 @@ public final class SampleClip implements RPClip<Sample> {
 	 * 
 	 * @throws  FileFormatException  If the file format isn't a supported audio format.
 	 */
+	public SampleClip(final String title, final double duration, final File file)
+			throws IOException, OperationUnsupportedException, FileFormatException {
+		this(new FileClip(title, duration, file), AudioContextManager.getAudioContext().getSampleRate());
+	}
+	
+	// the clips of a saved project are loaded at the sample rate of the context the project is loaded in
 	@JsonCreator
-	public SampleClip(@JsonProperty("name") final String title, @JsonProperty("duration") final double duration, 
-			@JsonProperty("content name") final File file)
+	private SampleClip(@JacksonInject final AudioContext context, @JsonProperty("name") final String title,
+			@JsonProperty("duration") final double duration, @JsonProperty("content name") final File file)
 			throws IOException, OperationUnsupportedException, FileFormatException {
-		this(new FileClip(title, duration, file));
+		this(new FileClip(title, duration, file), context.getSampleRate());
 	}
 	
 	/**
@@ -167,6 +210,17 @@ public final class SampleClip implements RPClip<Sample> {
 		return this.sample;
 	}
 
+	/**
+	 * Get the audio file the content is loaded from.
+	 * <p>Unlike the file name of the content, which is missing when the file has been resampled,
+	 * it is always the file this clip has been created with.
+	 * 
+	 * @return  The audio file content.
+	 */
+	public File getContentFile() {
+		return this.clip.getContent();
+	}
+
 	@Override
 	public boolean isEmpty() {
 		return false;
@@ -183,7 +237,7 @@ public final class SampleClip implements RPClip<Sample> {
 	 */
 	@Override
 	public RPClip<Sample> duplicate(final String title) throws IOException, OperationUnsupportedException, FileFormatException {
-			return new SampleClip(this.clip.duplicate(title));
+			return new SampleClip(this.clip.duplicate(title), this.sampleRate);
 	}
 
 	@Override
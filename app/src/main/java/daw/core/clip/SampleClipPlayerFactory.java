@@ -3,24 +3,49 @@ package daw.core.clip;
 import java.util.Optional;
 import daw.core.channel.RPChannel;
 import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 import net.beadsproject.beads.core.UGen;
 import net.beadsproject.beads.data.Sample;
 import net.beadsproject.beads.ugens.SamplePlayer;
+import net.beadsproject.beads.ugens.SamplePlayer.InterpolationType;
 import net.beadsproject.beads.ugens.SamplePlayer.LoopType;
 
 /**
  * A Factory for {@link RPClipPlayer} which plays a {@link SampleClip}
  *	<p>Creates a {@link SampleClipPlayer} and connect it with the given {@link RPChannel}.
  *	Could also create a player with an active cut already set.
+ *	<p>The players are run by the {@link AudioContext} that the factory is given, which must be the one
+ *	of the channels they are connected to.
  */
 public final class SampleClipPlayerFactory implements ClipPlayerFactory {
 
+	/**
+	 * The audio context of the players.
+	 */
+	private final AudioContext context;
+
+	/**
+	 * Creates a factory of players run by the {@link AudioContext} of the {@link AudioContextManager}.
+	 */
+	public SampleClipPlayerFactory() {
+		this(AudioContextManager.getAudioContext());
+	}
+
+	/**
+	 * Creates a factory of players run by the given {@link AudioContext}.
+	 * 
+	 * @param  context  The {@link AudioContext} of the players.
+	 */
+	public SampleClipPlayerFactory(final AudioContext context) {
+		this.context = context;
+	}
+
 	@Override
 	public RPClipPlayer createClipPlayer(final RPClip<?> clip, final RPChannel channel) {
 		if (!clip.getClass().equals(SampleClip.class)) {
 			throw new IllegalArgumentException("The supplied clip must be a Sample Clip");
 		}
-		SampleClipPlayer player = new SampleClipPlayer((SampleClip) clip);
+		SampleClipPlayer player = new SampleClipPlayer(this.context, (SampleClip) clip);
 		channel.connectSource(player.getUGen());
 		return player;
 	}
@@ -55,11 +80,16 @@ public final class SampleClipPlayerFactory implements ClipPlayerFactory {
 		/**
 		 * Creates a SampleClipPlayer from a sampleClip.
 		 * 
+		 * @param  context  The {@link AudioContext} that runs the player.
 		 * @param  sampleClip  The {@link SampleClip} to play.
 		 */
-		private SampleClipPlayer(final SampleClip sampleClip) {
-			this.player = new SamplePlayer(AudioContextManager.getAudioContext(), sampleClip.getContent());
+		private SampleClipPlayer(final AudioContext context, final SampleClip sampleClip) {
+			this.player = new SamplePlayer(context, sampleClip.getContent());
 			this.player.setLoopType(LoopType.NO_LOOP_FORWARDS);
+			//a content at the rate of the context is read frame by frame, with no interpolation
+			if (sampleClip.getContent().getSampleRate() == context.getSampleRate()) {
+				this.player.setInterpolationType(InterpolationType.NONE);
+			}
 			this.clip = sampleClip;
 			this.cutTime = Optional.empty();
 			this.stop();
@@ -154,5 +184,10 @@ public final class SampleClipPlayerFactory implements ClipPlayerFactory {
 		public double getPlaybackDuration() {
 			return this.clip.getDuration();
 		}
+
+		@Override
+		public RPClip<?> getClip() {
+			return this.clip;
+		}
 	}
 }
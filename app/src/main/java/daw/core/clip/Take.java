@@ -0,0 +1,103 @@
+package daw.core.clip;
+
+import java.io.File;
+
+/**
+ * The audio recorded on a track by an {@link RPMultitrackRecorder}, which is ready to be put on the timeline.
+ */
+public final class Take {
+
+	/**
+	 * The track the take has been recorded on.
+	 */
+	private final String track;
+
+	/**
+	 * The WAV file of the take.
+	 */
+	private final File file;
+
+	/**
+	 * The time on the timeline of the first frame.
+	 */
+	private final double timeIn;
+
+	/**
+	 * The duration in milliseconds.
+	 */
+	private final double duration;
+
+	/**
+	 * The frames that have been lost because the disk could not keep up.
+	 */
+	private final long droppedFrames;
+
+	/**
+	 * Creates a take.
+	 *
+	 * @param  track  The track the take has been recorded on.
+	 * @param  file  The WAV file of the take.
+	 * @param  timeIn  The time on the timeline of the first frame, in milliseconds.
+	 * @param  duration  The duration in milliseconds.
+	 * @param  droppedFrames  The frames that have been lost.
+	 */
+	public Take(final String track, final File file, final double timeIn, final double duration,
+			final long droppedFrames) {
+		this.track = track;
+		this.file = file;
+		this.timeIn = timeIn;
+		this.duration = duration;
+		this.droppedFrames = droppedFrames;
+	}
+
+	/**
+	 * Get the track the take has been recorded on.
+	 *
+	 * @return  The name of the track given when it was armed.
+	 */
+	public String getTrack() {
+		return this.track;
+	}
+
+	/**
+	 * Get the file of the take.
+	 *
+	 * @return  The WAV file.
+	 */
+	public File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Get the time the take begins at.
+	 *
+	 * @return  The time on the timeline of the first frame, in milliseconds.
+	 */
+	public double getTimeIn() {
+		return this.timeIn;
+	}
+
+	/**
+	 * Get the duration of the take.
+	 *
+	 * @return  The duration in milliseconds.
+	 */
+	public double getDuration() {
+		return this.duration;
+	}
+
+	/**
+	 * Get the frames that have been lost because the ring buffer of the track was full.
+	 * A take with lost frames is shorter than the time it has been recorded for.
+	 *
+	 * @return  The lost frames.
+	 */
+	public long getDroppedFrames() {
+		return this.droppedFrames;
+	}
+
+	@Override
+	public String toString() {
+		return this.track + " at " + this.timeIn + " ms for " + this.duration + " ms in " + this.file;
+	}
+}
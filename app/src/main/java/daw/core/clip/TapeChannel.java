@@ -5,27 +5,153 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import daw.utilities.PersistentMap;
 import javafx.util.Pair;
 
 /**
  * A {@link RPTapeChannel} implemented with a Map.
+ * <p>The map is a {@link PersistentMap}, so that the state of the tape channel can be saved 
+ * and restored cheaply.
  */
 public final class TapeChannel implements RPTapeChannel {
 	
 	/**
-	 * The clips of this tape channel.
+	 * The clips of this tape channel, each one with the duration and content position it has in it.
 	 */
-	@JsonProperty
-	private final Map<Double, RPClip<?>> timeline;
+	private PersistentMap<Double, Placement> timeline;
+	
+	/**
+	 * The time in of each clip of this tape channel.
+	 * <p>It is the reverse of {@link #timeline} and it is updated together with it, 
+	 * so that a clip could be located without iterating the whole timeline.
+	 */
+	private PersistentMap<RPClip<?>, Double> timesIn;
+	
+	/**
+	 * The last snapshot taken, returned again as long as nothing changes.
+	 */
+	private State lastSnapshot;
 	
 	/**
 	 * Creates an empty tape channel.
 	 */
 	public TapeChannel() {
-		this.timeline = new HashMap<>();
+		this.timeline = PersistentMap.empty();
+		this.timesIn = PersistentMap.empty();
+	}
+	
+	@JsonProperty("timeline")
+	private Map<Double, RPClip<?>> getTimeline() {
+		final Map<Double, RPClip<?>> clips = new HashMap<>();
+		this.timeline.forEach((time, placement) -> clips.put(time, placement.clip));
+		return clips;
+	}
+	
+	@JsonSetter("timeline")
+	private void setTimeline(final Map<Double, RPClip<?>> timeline) {
+		this.clearTape();
+		timeline.forEach(this::put);
+	}
+	
+	private void put(final double time, final RPClip<?> clip) {
+		this.timeline = this.timeline.put(time, new Placement(clip));
+		this.timesIn = this.timesIn.put(clip, time);
+	}
+	
+	private RPClip<?> remove(final double time) {
+		final Placement removed = this.timeline.get(time);
+		if (removed == null) {
+			return null;
+		}
+		this.timeline = this.timeline.remove(time);
+		this.timesIn = this.timesIn.remove(removed.clip);
+		return removed.clip;
+	}
+	
+	private State checkOwner(final Snapshot snapshot) {
+		if (!(snapshot instanceof State) || ((State) snapshot).owner != this) {
+			throw new IllegalArgumentException("The snapshot was not taken from this tape channel");
+		}
+		return (State) snapshot;
+	}
+	
+	private RPClip<?> clipAt(final double time) {
+		final Placement placement = this.timeline.get(time);
+		return placement == null ? null : placement.clip;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Snapshot snapshot() {
+		if (this.lastSnapshot == null || this.lastSnapshot.timeline != this.timeline 
+				|| this.lastSnapshot.timesIn != this.timesIn) {
+			this.lastSnapshot = new State(this, this.timeline, this.timesIn);
+		}
+		return this.lastSnapshot;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Only the clips whose placement differs from the current one are updated.
+	 * 
+	 * @throws  IllegalArgumentException  {@inheritDoc}
+	 */
+	@Override
+	public void restore(final Snapshot snapshot) {
+		final State state = this.checkOwner(snapshot);
+		this.timeline.forEachDifference(state.timeline, (time, placement) -> {
+			if (placement != null) {
+				placement.apply();
+			}
+		});
+		this.timeline = state.timeline;
+		this.timesIn = state.timesIn;
+		this.lastSnapshot = state;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @throws  IllegalArgumentException  {@inheritDoc}
+	 */
+	@Override
+	public void forEachChange(final Snapshot since, final Consumer<ClipChange> action) {
+		final State state = since == null ? new State(this, PersistentMap.empty(), PersistentMap.empty()) 
+				: this.checkOwner(since);
+		//the clips that were added, removed or that have a new time in
+		state.timesIn.forEachDifference(this.timesIn, (clip, time) -> {
+			final Double oldTime = state.timesIn.get(clip);
+			if (time == null) {
+				action.accept(new ClipChange(ClipChange.Type.REMOVED, state.timeline.get(oldTime).clip, oldTime));
+			} else if (oldTime == null) {
+				action.accept(new ClipChange(ClipChange.Type.ADDED, this.timeline.get(time).clip, time));
+			} else if (!oldTime.equals(time)) {
+				final Placement before = state.timeline.get(oldTime);
+				final Placement after = this.timeline.get(time);
+				action.accept(new ClipChange(after.sameSizeOf(before) ? ClipChange.Type.MOVED : ClipChange.Type.TRIMMED, 
+						after.clip, time));
+			}
+		});
+		//the clips that stayed at the same time in but were trimmed or replaced
+		state.timeline.forEachDifference(this.timeline, (time, after) -> {
+			final Placement before = state.timeline.get(time);
+			if (after == null || before == null || !before.clip.equals(after.clip)) {
+				return;
+			}
+			if (before.clip != after.clip) {
+				action.accept(new ClipChange(ClipChange.Type.REMOVED, before.clip, time));
+				action.accept(new ClipChange(ClipChange.Type.ADDED, after.clip, time));
+			} else if (!after.sameSizeOf(before)) {
+				action.accept(new ClipChange(ClipChange.Type.TRIMMED, after.clip, time));
+			}
+		});
 	}
 
 	/**
@@ -37,7 +163,7 @@ public final class TapeChannel implements RPTapeChannel {
 	 */
 	@Override
 	public void insertRPClip(final RPClip<?> clip, final double time) {
-		if (this.timeline.containsValue(clip)) {
+		if (this.timesIn.containsKey(clip)) {
 			throw new IllegalStateException("This clip already exists in this channel");
 		}
 		if (this.timeline.containsKey(time)) {
@@ -46,7 +172,7 @@ public final class TapeChannel implements RPTapeChannel {
 			throw new IllegalArgumentException("Time must be zero or a positive value");
 		}
 		this.clearBetween(time, this.calculateTimeOut(time, clip.getDuration())); 
-		this.timeline.put(time, clip);
+		this.put(time, clip);
 	}	
 	
 	/**
@@ -56,14 +182,15 @@ public final class TapeChannel implements RPTapeChannel {
 	 */
 	@Override
 	public void removeClip(final double clipTimeIn) throws ClipNotFoundException {
-		RPClip<?> removed = this.timeline.remove(clipTimeIn);
+		RPClip<?> removed = this.remove(clipTimeIn);
 		if (removed == null) {
 			throw new ClipNotFoundException("No clip found at the specified time in");
 		}	
 	}
 
 	public void clearTape() {
-		timeline.clear();
+		this.timeline = PersistentMap.empty();
+		this.timesIn = PersistentMap.empty();
 	}
 	
 	@Override
@@ -71,11 +198,16 @@ public final class TapeChannel implements RPTapeChannel {
 		return this.timeline.isEmpty();
 	}
 
+	@Override
+	public Optional<Double> getClipTimeIn(final RPClip<?> clip) {
+		return Optional.ofNullable(this.timesIn.get(clip));
+	}
+
 	@Override
 	public Optional<Pair<Double, RPClip<?>>> getClipAt(final double time) {
-		return this.timeline.entrySet().stream().filter(x -> {
-			return (x.getKey() <= time) && (this.calculateTimeOut(x.getKey(), x.getValue().getDuration()) > time);
-		}).map(x -> (new Pair<Double, RPClip<?>>(x.getKey(), x.getValue()))).findFirst();
+		return this.timeline.stream().filter(x -> {
+			return (x.getKey() <= time) && (this.calculateTimeOut(x.getKey(), x.getValue().clip.getDuration()) > time);
+		}).map(x -> (new Pair<Double, RPClip<?>>(x.getKey(), x.getValue().clip))).findFirst();
 	}
 
 	/**
@@ -92,7 +224,8 @@ public final class TapeChannel implements RPTapeChannel {
 	 */
 	@Override
 	public Iterator<Pair<Double, RPClip<?>>> getClipWithTimeIteratorFiltered(final Predicate<? super Entry<Double, RPClip<?>>> predicate) {
-		return this.timeline.entrySet().stream()
+		return this.timeline.stream()
+				.map(x -> Map.<Double, RPClip<?>>entry(x.getKey(), x.getValue().clip))
 				.filter(predicate)
 				.sorted((x1, x2) -> Double.compare(x1.getKey(), x2.getKey()))
 				.map(x -> (new Pair<Double, RPClip<?>>(x.getKey(), x.getValue())))
@@ -106,7 +239,7 @@ public final class TapeChannel implements RPTapeChannel {
 	 */
 	@Override
 	public void move(final double initialClipTimeIn, final double finalClipTimeIn) throws ClipNotFoundException {
-		RPClip<?> clip = this.timeline.get(initialClipTimeIn);
+		RPClip<?> clip = this.clipAt(initialClipTimeIn);
 		if (clip == null) {
 			throw new ClipNotFoundException("No clip found at the specified time in");
 		}
@@ -123,7 +256,7 @@ public final class TapeChannel implements RPTapeChannel {
 	 */
 	@Override
 	public void setTimeOut(final double initialClipTimeIn, final double finalClipTimeOut) throws ClipNotFoundException {
-		RPClip<?> clip = this.timeline.get(initialClipTimeIn);
+		RPClip<?> clip = this.clipAt(initialClipTimeIn);
 		if (clip == null) {
 			throw new ClipNotFoundException("No clip found at the specified time in");
 		}
@@ -132,6 +265,7 @@ public final class TapeChannel implements RPTapeChannel {
 			this.clearBetween(this.getClipTimeOut(initialClipTimeIn), finalClipTimeOut);
 		}
 		clip.setDuration(newDuration);
+		this.put(initialClipTimeIn, clip);
 	}
 
 	/**
@@ -141,7 +275,7 @@ public final class TapeChannel implements RPTapeChannel {
 	 */
 	@Override
 	public void setTimeIn(final double initialClipTimeIn, final double finalClipTimeIn) throws ClipNotFoundException {
-		RPClip<?> clip = this.timeline.get(initialClipTimeIn);
+		RPClip<?> clip = this.clipAt(initialClipTimeIn);
 		if (clip == null) {
 			throw new ClipNotFoundException("No clip found at the specified time in");
 		}
@@ -163,7 +297,7 @@ public final class TapeChannel implements RPTapeChannel {
 	 */
 	@Override
 	public void split(final double initialClipTimeIn, final double splittingTime) throws ClipNotFoundException {
-		RPClip<?> clip = this.timeline.get(initialClipTimeIn);
+		RPClip<?> clip = this.clipAt(initialClipTimeIn);
 		if (clip == null) {
 			throw new ClipNotFoundException("No clip found at the specified time in");
 		}
@@ -186,7 +320,7 @@ public final class TapeChannel implements RPTapeChannel {
 	}	
 	
 	private boolean titleExists(final String title) {
-		return this.timeline.values().stream().map(c -> c.getTitle()).anyMatch(t -> t.equals(title));
+		return this.timesIn.stream().map(c -> c.getKey().getTitle()).anyMatch(t -> t.equals(title));
 	}
 	
 	/**
@@ -196,7 +330,7 @@ public final class TapeChannel implements RPTapeChannel {
 	 */
 	@Override
 	public double getClipTimeOut(final double clipTimeIn) throws ClipNotFoundException {
-		var clip = this.timeline.get(clipTimeIn);
+		var clip = this.clipAt(clipTimeIn);
 		if (clip == null) {
 			throw new ClipNotFoundException("There's no clip at the specified time in");
 		}
@@ -249,4 +383,53 @@ public final class TapeChannel implements RPTapeChannel {
 			}
 		});
 	}
+
+	/**
+	 * A clip together with the duration and content position it had when it was put in the timeline.
+	 * <p>The clips are mutable, so these values are what allows a saved state to bring them back.
+	 */
+	private static final class Placement {
+		
+		private final RPClip<?> clip;
+		private final double duration;
+		private final double contentPosition;
+		
+		private Placement(final RPClip<?> clip) {
+			this.clip = clip;
+			this.duration = clip.getDuration();
+			this.contentPosition = clip.isEmpty() ? 0 : clip.getContentPosition();
+		}
+		
+		private boolean sameSizeOf(final Placement other) {
+			return this.duration == other.duration && this.contentPosition == other.contentPosition;
+		}
+		
+		private void apply() {
+			this.clip.setDuration(this.duration);
+			if (!this.clip.isEmpty()) {
+				this.clip.setContentPosition(this.contentPosition);
+			}
+		}
+	}
+	
+	private static final class State implements Snapshot {
+		
+		private final TapeChannel owner;
+		private final PersistentMap<Double, Placement> timeline;
+		private final PersistentMap<RPClip<?>, Double> timesIn;
+		
+		private State(final TapeChannel owner, final PersistentMap<Double, Placement> timeline, 
+				final PersistentMap<RPClip<?>, Double> timesIn) {
+			this.owner = owner;
+			this.timeline = timeline;
+			this.timesIn = timesIn;
+		}
+
+		@Override
+		public long estimateRetainedSize(final Snapshot previous) {
+			final State base = previous instanceof State ? (State) previous : null;
+			return this.timeline.estimateRetainedSize(base == null ? null : base.timeline) 
+					+ this.timesIn.estimateRetainedSize(base == null ? null : base.timesIn);
+		}
+	}
 }
@@ -0,0 +1,108 @@
+package daw.core.clip;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams interleaved samples to a 16 bit PCM WAV file, whose sizes are written when it is closed.
+ */
+// package-protected since it is only used by MultitrackRecorder
+final class WaveFileWriter implements Closeable {
+
+	private static final int HEADER = 44;
+	private static final int BYTES = 2;
+	private static final int PCM = 1;
+	private static final float SCALE = Short.MAX_VALUE;
+
+	private final FileChannel channel;
+	private final ByteBuffer bytes;
+	private final int channels;
+	private final float sampleRate;
+	private long samples;
+
+	/**
+	 * Creates the given file, replacing it if it exists.
+	 *
+	 * @param  file  The WAV file.
+	 * @param  channels  The channels of the audio.
+	 * @param  sampleRate  The sample rate of the audio.
+	 * @param  chunk  The most samples that are written at once.
+	 *
+	 * @throws  IOException  If the file cannot be created.
+	 */
+	WaveFileWriter(final File file, final int channels, final float sampleRate, final int chunk) throws IOException {
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		this.bytes = ByteBuffer.allocate(Math.max(HEADER, chunk * BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+		this.channels = channels;
+		this.sampleRate = sampleRate;
+		try {
+			this.writeHeader();
+			this.channel.position(HEADER);
+		} catch (IOException e) {
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes the given samples, clipping them to the range of 16 bits.
+	 *
+	 * @param  audio  The interleaved samples.
+	 * @param  count  The samples to write, which are at most the chunk of the writer.
+	 *
+	 * @throws  IOException  If the samples cannot be written.
+	 */
+	void write(final float[] audio, final int count) throws IOException {
+		this.bytes.clear();
+		for (int i = 0; i < count; i++) {
+			this.bytes.putShort((short) Math.round(Math.max(-1.0f, Math.min(1.0f, audio[i])) * SCALE));
+		}
+		this.bytes.flip();
+		while (this.bytes.hasRemaining()) {
+			this.channel.write(this.bytes);
+		}
+		this.samples += count;
+	}
+
+	/**
+	 * @return  The frames that have been written.
+	 */
+	long getFrames() {
+		return this.samples / this.channels;
+	}
+
+	/**
+	 * Writes the sizes of the audio and closes the file.
+	 *
+	 * @throws  IOException  If the file cannot be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			this.writeHeader();
+		} finally {
+			this.channel.close();
+		}
+	}
+
+	private void writeHeader() throws IOException {
+		final long data = this.samples * BYTES;
+		this.bytes.clear();
+		this.bytes.put(new byte[] {'R', 'I', 'F', 'F'}).putInt((int) (HEADER - 8 + data))
+				.put(new byte[] {'W', 'A', 'V', 'E', 'f', 'm', 't', ' '}).putInt(16).putShort((short) PCM)
+				.putShort((short) this.channels).putInt(Math.round(this.sampleRate))
+				.putInt(Math.round(this.sampleRate) * this.channels * BYTES).putShort((short) (this.channels * BYTES))
+				.putShort((short) (BYTES * Byte.SIZE)).put(new byte[] {'d', 'a', 't', 'a'}).putInt((int) data);
+		this.bytes.flip();
+		int position = 0;
+		while (this.bytes.hasRemaining()) {
+			position += this.channel.write(this.bytes, position);
+		}
+	}
+}
@@ -4,14 +4,30 @@ import daw.core.channel.BasicChannelFactory;
 import daw.core.channel.ChannelFactory;
 import daw.core.channel.RPChannel;
 import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
 
 public final class  Mixer implements RPMixer {
 
     private final ChannelFactory channelFactory;
     private final RPChannel masterChannel;
 
+    private final AudioContext context;
+
+    /**
+     * Constructs a mixer whose channels are run by the {@link AudioContext} of the {@link AudioContextManager}.
+     */
     public Mixer() {
-        this.channelFactory = new BasicChannelFactory();
+        this(AudioContextManager.getAudioContext());
+    }
+
+    /**
+     * Constructs a mixer whose channels are run by the given {@link AudioContext}.
+     *
+     * @param context the {@link AudioContext} of the channels
+     */
+    public Mixer(final AudioContext context) {
+        this.context = context;
+        this.channelFactory = new BasicChannelFactory(context);
         this.masterChannel = this.channelFactory.masterChannel();
     }
 
@@ -91,7 +107,7 @@ public final class  Mixer implements RPMixer {
 
     @Override
     public void connectToSystem() {
-        AudioContextManager.getAudioContext().out.addInput(this.masterChannel.getOutput());
+        this.context.out.addInput(this.masterChannel.getOutput());
     }
 
 }
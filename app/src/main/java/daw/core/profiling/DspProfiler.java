@@ -0,0 +1,64 @@
+package daw.core.profiling;
+
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
+
+/**
+ * Switches on and off the profiling of the audio graph. While it is enabled, the channel strips time
+ * themselves and each of their effects with {@link System#nanoTime()} into their {@link LoadCounter}s,
+ * which are then gathered in a {@link LoadReport}. While it is disabled, the audio thread only checks a flag.
+ * Enabling the profiler starts a new profile, so the counters start again from zero.
+ */
+public final class DspProfiler {
+
+    private static final double NANOS_PER_SECOND = 1.0e9;
+
+    private static volatile boolean enabled;
+    private static volatile long session;
+
+    private DspProfiler() {
+    }
+
+    /**
+     * Enables or disables the profiling. Enabling it discards the previous profile.
+     * @param enable true if the audio graph must be profiled.
+     */
+    public static void setEnabled(final boolean enable) {
+        if (enable && !enabled) {
+            session++;
+        }
+        enabled = enable;
+    }
+
+    /**
+     *
+     * @return true if the audio graph is being profiled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the time the audio thread has to process a buffer before the audio device runs out of it, which is
+     * the length of a buffer.
+     * @return the deadline of a buffer, in nanoseconds.
+     */
+    public static double getDeadlineNanos() {
+        return getDeadlineNanos(AudioContextManager.getAudioContext());
+    }
+
+    /**
+     * Gets the length of a buffer of the given context, which is the time its audio thread has to process it.
+     * @param ac the {@link AudioContext}.
+     * @return the deadline of a buffer, in nanoseconds.
+     */
+    public static double getDeadlineNanos(final AudioContext ac) {
+        return ac.getBufferSize() * NANOS_PER_SECOND / ac.getSampleRate();
+    }
+
+    // the profile that the counters are recording, which changes every time the profiler is enabled
+    static long getSession() {
+        return session;
+    }
+
+}
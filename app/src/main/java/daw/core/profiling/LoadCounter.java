@@ -0,0 +1,69 @@
+package daw.core.profiling;
+
+/**
+ * Accumulates how long a node of the audio graph, such as an effect or a channel strip, takes to process its
+ * buffers. It is only written by the audio thread, which records every buffer while the {@link DspProfiler}
+ * is enabled, without locking and without allocating.
+ * The fields are read by other threads one at a time, so a reader may see a maximum from a buffer that is not
+ * yet counted in the total: this is negligible over the many buffers that a profile covers.
+ * The counter starts again from zero at the first buffer recorded after the profiler has been enabled.
+ */
+public final class LoadCounter {
+
+    private volatile long buffers;
+    private volatile long totalNanos;
+    private volatile long maxNanos;
+    private volatile long session = -1;
+
+    /**
+     * Records a buffer. It is only called by the audio thread.
+     * @param nanos how long the buffer has taken to be processed, in nanoseconds.
+     */
+    public void record(final long nanos) {
+        final long current = DspProfiler.getSession();
+        if (this.session != current) {
+            this.buffers = 0;
+            this.totalNanos = 0;
+            this.maxNanos = 0;
+            this.session = current;
+        }
+        this.totalNanos = this.totalNanos + nanos;
+        if (nanos > this.maxNanos) {
+            this.maxNanos = nanos;
+        }
+        this.buffers = this.buffers + 1;
+    }
+
+    /**
+     *
+     * @return the number of buffers recorded since the profiler has been enabled.
+     */
+    public long getBuffers() {
+        return this.buffers;
+    }
+
+    /**
+     *
+     * @return the time taken by all the recorded buffers, in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return this.totalNanos;
+    }
+
+    /**
+     *
+     * @return the time taken by the slowest recorded buffer, in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+
+    /**
+     *
+     * @return true if this counter has recorded buffers since the profiler has last been enabled.
+     */
+    public boolean isCurrent() {
+        return this.session == DspProfiler.getSession() && this.buffers > 0;
+    }
+
+}
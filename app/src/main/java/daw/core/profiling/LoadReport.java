@@ -0,0 +1,280 @@
+package daw.core.profiling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * The load of the audio graph, as recorded by the {@link LoadCounter}s since the {@link DspProfiler} has been
+ * enabled. The load of each channel and bus includes the one of its effects, while the load of each type of
+ * effect is the sum of the loads of all the effects of that type.
+ * The times are in microseconds per buffer, and the loads in percentage of the deadline of a buffer.
+ */
+public final class LoadReport {
+
+    private static final double NANOS_PER_MICRO = 1000.0;
+    private static final double PERCENT = 100.0;
+    private static final String CSV_HEADER = "category,name,buffers,average us,max us,average load %,max load %";
+
+    private final double deadline;
+    private final List<Entry> entries;
+
+    /**
+     * The kinds of node of the audio graph whose load is reported.
+     */
+    public enum Category {
+        /**
+         * A channel that plays the clips of a role.
+         */
+        CHANNEL,
+        /**
+         * A channel that sums other channels, such as a group, a return channel or the master channel.
+         */
+        BUS,
+        /**
+         * All the effects of the same type.
+         */
+        EFFECT
+    }
+
+    /**
+     * The load of a single channel, bus or type of effect.
+     */
+    public static final class Entry {
+
+        private final Category category;
+        private final String name;
+        private final long buffers;
+        private final double average;
+        private final double max;
+        private final double deadline;
+
+        private Entry(final Category category, final String name, final long buffers, final double average,
+                      final double max, final double deadline) {
+            this.category = category;
+            this.name = name;
+            this.buffers = buffers;
+            this.average = average;
+            this.max = max;
+            this.deadline = deadline;
+        }
+
+        /**
+         *
+         * @return the {@link Category} of the node.
+         */
+        public Category getCategory() {
+            return this.category;
+        }
+
+        /**
+         *
+         * @return the name of the channel or bus, or the type of the effects.
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         *
+         * @return the number of buffers that have been recorded.
+         */
+        public long getBuffers() {
+            return this.buffers;
+        }
+
+        /**
+         *
+         * @return the average time taken by a buffer, in microseconds.
+         */
+        public double getAverage() {
+            return this.average;
+        }
+
+        /**
+         *
+         * @return the time taken by the slowest buffer, in microseconds.
+         */
+        public double getMax() {
+            return this.max;
+        }
+
+        /**
+         *
+         * @return the average time taken by a buffer, in percentage of the deadline of a buffer.
+         */
+        public double getAverageLoad() {
+            return PERCENT * this.average / this.deadline;
+        }
+
+        /**
+         *
+         * @return the time taken by the slowest buffer, in percentage of the deadline of a buffer.
+         */
+        public double getMaxLoad() {
+            return PERCENT * this.max / this.deadline;
+        }
+
+        private String toCsv() {
+            return String.format(Locale.ROOT, "%s,%s,%d,%.2f,%.2f,%.2f,%.2f", this.category,
+                    escape(this.name), this.buffers, this.average, this.max, this.getAverageLoad(), this.getMaxLoad());
+        }
+    }
+
+    private LoadReport(final double deadline, final List<Entry> entries) {
+        this.deadline = deadline;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     *
+     * @return the deadline of a buffer, in microseconds.
+     */
+    public double getDeadline() {
+        return this.deadline;
+    }
+
+    /**
+     * Gets the load of all the nodes that have been recorded, the channels first, then the buses and the effects.
+     * @return an unmodifiable list of {@link Entry}.
+     */
+    public List<Entry> getEntries() {
+        return this.entries;
+    }
+
+    /**
+     * Gets the load of all the recorded nodes of the given category.
+     * @param category the {@link Category} of the nodes.
+     * @return a list of {@link Entry}.
+     */
+    public List<Entry> getEntries(final Category category) {
+        return this.entries.stream().filter(e -> e.getCategory() == category).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the load of a node.
+     * @param category the {@link Category} of the node.
+     * @param name the name of the channel or bus, or the type of the effects.
+     * @return the {@link Entry} of the node, or an empty optional if it has not been recorded.
+     */
+    public Optional<Entry> getEntry(final Category category, final String name) {
+        return this.entries.stream().filter(e -> e.getCategory() == category && e.getName().equals(name))
+                .findFirst();
+    }
+
+    /**
+     * Writes this report as comma separated values, with a header and a line for each node.
+     * @return the text of the CSV file.
+     */
+    public String toCsv() {
+        final StringBuilder csv = new StringBuilder(CSV_HEADER).append(System.lineSeparator());
+        this.entries.forEach(e -> csv.append(e.toCsv()).append(System.lineSeparator()));
+        return csv.toString();
+    }
+
+    private static String escape(final String field) {
+        return field.contains(",") || field.contains("\"")
+                ? "\"" + field.replace("\"", "\"\"") + "\"" : field;
+    }
+
+    /**
+     * Gathers the {@link LoadCounter}s of the audio graph into a {@link LoadReport}. The counters that have not
+     * recorded any buffer since the profiler has been enabled are left out.
+     */
+    public static final class Builder {
+
+        private final double deadline;
+        private final Map<String, LoadCounter> channels = new LinkedHashMap<>();
+        private final Map<String, LoadCounter> buses = new LinkedHashMap<>();
+        private final Map<String, List<LoadCounter>> effects = new LinkedHashMap<>();
+
+        /**
+         * Constructs a builder with no counters.
+         * @param deadlineNanos the deadline of a buffer in nanoseconds, usually {@link DspProfiler#getDeadlineNanos()}.
+         * @throws IllegalArgumentException if the deadline is not positive.
+         */
+        public Builder(final double deadlineNanos) {
+            if (deadlineNanos <= 0) {
+                throw new IllegalArgumentException("The deadline must be positive.");
+            }
+            this.deadline = deadlineNanos / NANOS_PER_MICRO;
+        }
+
+        /**
+         * Adds the counter of a channel.
+         * @param name the name of the channel.
+         * @param counter the {@link LoadCounter} of the channel.
+         * @return this builder.
+         */
+        public Builder channel(final String name, final LoadCounter counter) {
+            this.channels.put(name, counter);
+            return this;
+        }
+
+        /**
+         * Adds the counter of a bus.
+         * @param name the name of the bus.
+         * @param counter the {@link LoadCounter} of the bus.
+         * @return this builder.
+         */
+        public Builder bus(final String name, final LoadCounter counter) {
+            this.buses.put(name, counter);
+            return this;
+        }
+
+        /**
+         * Adds the counter of an effect, which is summed with the ones of the other effects of its type.
+         * @param type the type of the effect.
+         * @param counter the {@link LoadCounter} of the effect.
+         * @return this builder.
+         */
+        public Builder effect(final String type, final LoadCounter counter) {
+            this.effects.computeIfAbsent(type, t -> new ArrayList<>()).add(counter);
+            return this;
+        }
+
+        /**
+         *
+         * @return the {@link LoadReport} of the added counters.
+         */
+        public LoadReport build() {
+            final List<Entry> entries = new ArrayList<>();
+            this.channels.forEach((name, counter) -> this.single(Category.CHANNEL, name, counter)
+                    .ifPresent(entries::add));
+            this.buses.forEach((name, counter) -> this.single(Category.BUS, name, counter)
+                    .ifPresent(entries::add));
+            this.effects.forEach((type, counters) -> {
+                long buffers = 0;
+                double average = 0.0;
+                double max = 0.0;
+                for (final LoadCounter counter : counters) {
+                    final long count = counter.isCurrent() ? counter.getBuffers() : 0;
+                    if (count > 0) {
+                        buffers = Math.max(buffers, count);
+                        average += counter.getTotalNanos() / NANOS_PER_MICRO / count;
+                        max = Math.max(max, counter.getMaxNanos() / NANOS_PER_MICRO);
+                    }
+                }
+                if (buffers > 0) {
+                    entries.add(new Entry(Category.EFFECT, type, buffers, average, max, this.deadline));
+                }
+            });
+            return new LoadReport(this.deadline, entries);
+        }
+
+        private Optional<Entry> single(final Category category, final String name, final LoadCounter counter) {
+            final long count = counter.isCurrent() ? counter.getBuffers() : 0;
+            if (count == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new Entry(category, name, count, counter.getTotalNanos() / NANOS_PER_MICRO / count,
+                    counter.getMaxNanos() / NANOS_PER_MICRO, this.deadline));
+        }
+    }
+
+}
@@ -1,6 +1,8 @@
 package daw.engine;
 
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import daw.core.clip.RPClipPlayer;
 
 /**
@@ -8,14 +10,20 @@ import daw.core.clip.RPClipPlayer;
  */
 public final class ClipPlayerNotifier implements RPClipPlayerNotifier {
 	
-	private final RPPlayersMap toStop = new PlayersMap();
+	private RPPlayersMap toStop = new PlayersMap();
 	
 	private Long oldStep = -1L;
 	
 	/**
 	 * The players to notify.
 	 */
-	private final RPPlayersMap toPlay;
+	private RPPlayersMap toPlay;
+	
+	/**
+	 * The published timelines and the scheduled or cancelled players, 
+	 * waiting for the next update to be applied in the order they were handed over.
+	 */
+	private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
 	
 	/**
 	 * Creates a clip player notifier with all the given observers subscribed.
@@ -35,6 +43,9 @@ public final class ClipPlayerNotifier implements RPClipPlayerNotifier {
 
 	@Override
 	public void update(final Long step) {
+		for (Runnable edit = this.pending.poll(); edit != null; edit = this.pending.poll()) {
+			edit.run();
+		}
 		toPlay.entrySet().stream().filter(entry -> {
 			return entry.getKey() <= step && entry.getKey() > oldStep;
 		}).forEach(entry -> {
@@ -66,6 +77,17 @@ public final class ClipPlayerNotifier implements RPClipPlayerNotifier {
 		});
 	}
 
+	private void swap(final Long step, final RPPlayersMap observers) {
+		//the players still playing belong to the old timeline
+		toStop.entrySet().stream().filter(entry -> entry.getKey() > oldStep).forEach(entry -> {
+			this.stop(entry.getValue());
+		});
+		this.toStop = new PlayersMap();
+		this.toPlay = observers;
+		//the new players subscribed from the given step on have to be notified
+		this.oldStep = Math.min(this.oldStep, step - 1);
+	}
+
 	private void addToStop(final Long step, final RPClipPlayer player) {
 		Double cutTime = player.isCutActive() ? player.getCutTime() : 0.0;
 		toStop.putClipPlayer(step + Clock.Utility.timeToClockSteps(player.getPlaybackDuration() - cutTime), player);
@@ -78,6 +100,25 @@ public final class ClipPlayerNotifier implements RPClipPlayerNotifier {
 		});
 	}
 
+	@Override
+	public void publish(final Long step, final RPPlayersMap observers) {
+		this.pending.add(() -> this.swap(step, observers));
+	}
+
+	@Override
+	public void scheduleObserver(final Long step, final RPClipPlayer clipPlayer) {
+		//a step already notified would never be reached, so the player starts at the next update
+		this.pending.add(() -> this.addObserver(Math.max(step, oldStep + 1), clipPlayer));
+	}
+
+	@Override
+	public void cancelObserver(final Long step, final RPClipPlayer clipPlayer) {
+		this.pending.add(() -> {
+			this.removeObserver(step, clipPlayer);
+			clipPlayer.stop();
+		});
+	}
+
 	@Override
 	public boolean addObserver(final Long step, final RPClipPlayer clipPlayer) {
 		return this.toPlay.putClipPlayer(step, clipPlayer);
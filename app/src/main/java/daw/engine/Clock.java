@@ -8,15 +8,15 @@ import daw.utilities.AudioContextManager;
 public final class Clock implements RPClock {
 	
 	/**
-	 * The corresponding time in ms to a single step of the clock.
+	 * Approximately one year is the max time value reachable for this clock.
 	 */
-	private static final Double CLOCK_STEP_UNIT = (double) (1 / AudioContextManager.getAudioContext().getSampleRate());
+	private static final double MAX_TIME = 3.154E10;
 	
 	/**
-	 * Approximately one year is the max time value reachable for this clock.
-	 * CLOCK_MAX_TIME avoids Double representation problems.
+	 * The constants of the clock for the sample rate of the current audio context.
+	 * They are built again when the context is replaced with one that has another sample rate.
 	 */
-	private static final Double CLOCK_MAX_TIME = Clock.Utility.roundToExistingClockTime(3.154E10);
+	private static volatile Constants constants = new Constants(AudioContextManager.getAudioContext().getSampleRate());
 	
 	/**
 	 * The current step of the clock.
@@ -30,7 +30,7 @@ public final class Clock implements RPClock {
 	 */
 	@Override
 	public void step() throws ClockException {
-		if (this.getTime() >= Clock.CLOCK_MAX_TIME) {
+		if (this.getTime() >= Clock.constants().maxTime) {
 			throw new ClockException("Clock has reached the CLOCK_MAX_TIME value.");
 		}
 		this.steps++;
@@ -43,7 +43,7 @@ public final class Clock implements RPClock {
 
 	@Override
 	public void setTime(final Double time) {
-		if (time > Clock.CLOCK_MAX_TIME) {
+		if (time > Clock.constants().maxTime) {
 			throw new IllegalArgumentException("Time or corresponding steps are bigger than Clock.CLOCK_MAX_TIME");
 		}
 		this.steps =  Clock.Utility.timeToClockSteps(time);
@@ -59,6 +59,33 @@ public final class Clock implements RPClock {
 		return Clock.Utility.clockStepToTime(this.steps);
 	}
 
+	private static Constants constants() {
+		final Constants current = Clock.constants;
+		final float sampleRate = AudioContextManager.getAudioContext().getSampleRate();
+		if (current.sampleRate == sampleRate) {
+			return current;
+		}
+		final Constants rebuilt = new Constants(sampleRate);
+		Clock.constants = rebuilt;
+		return rebuilt;
+	}
+
+	/**
+	 * The step unit and the max time of the clock at a sample rate.
+	 * CLOCK_MAX_TIME is rounded to an existing time to avoid Double representation problems.
+	 */
+	private static final class Constants {
+		private final float sampleRate;
+		private final Double stepUnit;
+		private final Double maxTime;
+
+		private Constants(final float sampleRate) {
+			this.sampleRate = sampleRate;
+			this.stepUnit = (double) (1 / sampleRate);
+			this.maxTime = Double.valueOf(MAX_TIME / this.stepUnit).longValue() * this.stepUnit;
+		}
+	}
+
 	public static final class Utility {
 
 		/**
@@ -76,7 +103,7 @@ public final class Clock implements RPClock {
 		 * @return  The step corresponding to the given time.
 		 */
 		public static Long timeToClockSteps(final Double time) {
-			return Double.valueOf(time / Clock.CLOCK_STEP_UNIT).longValue();
+			return Double.valueOf(time / Clock.constants().stepUnit).longValue();
 		}
 	
 		/**
@@ -87,7 +114,7 @@ public final class Clock implements RPClock {
 		 * @return  The time corresponding to the given step.
 		 */
 		public static Double clockStepToTime(final Long clockStep) {
-			return clockStep * Clock.CLOCK_STEP_UNIT;
+			return clockStep * Clock.constants().stepUnit;
 		}
 	
 		/**
@@ -96,7 +123,7 @@ public final class Clock implements RPClock {
 		 * @return  The clock step unit in milliseconds.
 		 */
 		public static Double getClockStepUnit() {
-			return Clock.CLOCK_STEP_UNIT;
+			return Clock.constants().stepUnit;
 		}
 	
 		/**
@@ -105,7 +132,7 @@ public final class Clock implements RPClock {
 		 * @return  The clock max time value in milliseconds.
 		 */
 		public static Double getClockMaxTime() {
-			return CLOCK_MAX_TIME;
+			return Clock.constants().maxTime;
 		}
 
 		/**
@@ -114,7 +141,7 @@ public final class Clock implements RPClock {
 		 * @return  The clock max step.
 		 */
 		public static Long getClockMaxStep() {
-			return Clock.Utility.timeToClockSteps(Clock.CLOCK_MAX_TIME);
+			return Clock.Utility.timeToClockSteps(Clock.constants().maxTime);
 		}
 
 		/**
@@ -1,11 +1,14 @@
 package daw.engine;
 
+import daw.core.automation.Playhead;
 import resplan.Starter;
 import javafx.util.Pair;
 
 /**
  * A {@link Thread} which updates clock and the clip player notifier 
  * every {@code Clock.CLOCK_TIME_UNIT}.
+ * The clock follows the {@link Playhead}, which counts the buffers processed by the audio context,
+ * rather than the system clock, so that the clips are started in step with the automation.
  */
 public final class Conductor extends Thread {
 	
@@ -32,19 +35,21 @@ public final class Conductor extends Thread {
 	private final Pair<Long, Integer> sleepTime;
 
 	/**
-	 * The time when the conductor was started.
+	 * The playhead the clock follows.
 	 */
-	private long startTime;
+	private final Playhead playhead;
 
 	/**
-	 * Creates a new conductor from a notifier and a clock.
+	 * Creates a new conductor from a notifier, a clock and a playhead.
 	 * 
 	 * @param  notifier  The clip player notifier to update.
 	 * @param  clock  The clock to update.
+	 * @param  playhead  The started playhead of the audio context that plays the clips.
 	 */
-	public Conductor(final RPClipPlayerNotifier notifier, final RPClock clock) {
+	public Conductor(final RPClipPlayerNotifier notifier, final RPClock clock, final Playhead playhead) {
 		this.notifier = notifier;
 		this.clock = clock;
+		this.playhead = playhead;
 		this.sleepTime = this.fromDoubleMsToMsAndNs(Clock.Utility.getClockStepUnit());
 	}
 	
@@ -54,7 +59,6 @@ public final class Conductor extends Thread {
 	@Override
 	public void run() {
 		this.stopped = false;
-		this.startTime = System.currentTimeMillis() - clock.getTime().longValue();
 		while (!stopped) {
 			//notifier update
 			notifier.update(clock.getStep());
@@ -65,8 +69,11 @@ public final class Conductor extends Thread {
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
-			//update time
-			clock.setTime(Long.valueOf(System.currentTimeMillis() - startTime).doubleValue());
+			//update time, which only moves once a buffer has been processed
+			final double time = playhead.getBufferTime();
+			if (time >= 0) {
+				clock.setTime(time);
+			}
 		}
 		this.interrupt();
 	}
@@ -1,7 +1,20 @@
 package daw.engine;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import daw.core.automation.Playhead;
+import daw.core.channel.RPChannel;
+import daw.core.clip.ClipChange;
+import daw.core.clip.ClipPlayerFactory;
+import daw.core.clip.RPClip;
+import daw.core.clip.RPClipPlayer;
+import daw.core.clip.SampleClip;
+import daw.core.clip.SampleClipPlayerFactory;
 import daw.manager.RPChannelLinker;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.AudioContext;
+import javafx.util.Pair;
 
 /**
  * Implementation of {@link RPEngine}.
@@ -16,6 +29,13 @@ import daw.manager.RPChannelLinker;
  * every {@code Clock.CLOCK_STEP_UNIT}.
  * <li>Every time the clip player notifier is updated from the conductor the players 
  * subscribed to the current clock step will be notified.
+ * <li>When the timeline is edited during the playback, a new players map is built and 
+ * published to the notifier, which swaps it in at its next update.
+ * <li>When a single clip is edited during the playback, only its player is cancelled 
+ * and a new one is scheduled on the notifier.
+ * <li>The {@link Playhead} is started together with the conductor, so that the automation 
+ * follows the playback on the audio thread. The conductor takes the time from the playhead, 
+ * so that the clips and the automation do not drift apart.
  * </ol>
  */
 public final class Engine implements RPEngine {
@@ -39,18 +59,53 @@ public final class Engine implements RPEngine {
 	 * The thread which updates clock ad notifier every CLOCK_STEP_UNIT.
 	 */
 	private Optional<Conductor> conductor;
+	
+	/**
+	 * The step and the player of each clip subscribed to the notifier.
+	 */
+	private final Map<RPClip<?>, Pair<Long, RPClipPlayer>> players;
+	
+	/**
+	 * The factory of the players of the edited clips.
+	 */
+	private final ClipPlayerFactory samplePlayerFactory;
 
+	/**
+	 * The playhead of the audio context of the channels.
+	 */
+	private final Playhead playhead;
+
+	/**
+	 * Creates an engine for channels run by the {@link AudioContext} of the {@link AudioContextManager}.
+	 * 
+	 * @param  channelLinker  The {@link RPChannelLinker} to get the channels and clips from.
+	 */
 	public Engine(final RPChannelLinker channelLinker) {
+		this(channelLinker, AudioContextManager.getAudioContext());
+	}
+
+	/**
+	 * Creates an engine for channels run by the given {@link AudioContext}.
+	 * 
+	 * @param  channelLinker  The {@link RPChannelLinker} to get the channels and clips from.
+	 * @param  context  The {@link AudioContext} of the channels.
+	 */
+	public Engine(final RPChannelLinker channelLinker, final AudioContext context) {
 		this.channelLinker = channelLinker;
+		this.playhead = Playhead.getPlayhead(context);
+		this.notifier = Optional.empty();
 		this.conductor = Optional.empty();
 		this.clock = new Clock();
+		this.players = new HashMap<>();
+		this.samplePlayerFactory = new SampleClipPlayerFactory(context);
 	}
 
 	@Override
 	public void start() {
 		if (isPaused()) {
 			this.updateObservers();
-			this.conductor = Optional.of(new Conductor(notifier.get(), clock));
+			this.playhead.start(this.clock.getTime());
+			this.conductor = Optional.of(new Conductor(notifier.get(), clock, this.playhead));
 			this.conductor.get().start();
 		}
 	}
@@ -58,10 +113,12 @@ public final class Engine implements RPEngine {
 	@Override
 	public void pause() {
 		if (!isPaused()) {
+			this.playhead.stop();
 			this.conductor.get().notifyStopped();
 			this.conductor = Optional.empty();
 			this.notifier.get().notifyStopped();
 			this.notifier = Optional.empty();
+			this.players.clear();
 		}
 	}
 
@@ -82,16 +139,60 @@ public final class Engine implements RPEngine {
 		return this.clock.getTime();
 	}
 
+	@Override
+	public void publishTimeline() {
+		this.notifier.ifPresent(n -> {
+			final Long step = this.clock.getStep();
+			n.publish(step, this.buildObservers(Clock.Utility.clockStepToTime(step)));
+		});
+	}
+
+	@Override
+	public void clipEdited(final RPChannel channel, final ClipChange change) {
+		this.notifier.ifPresent(n -> {
+			final Pair<Long, RPClipPlayer> old = this.players.remove(change.getClip());
+			if (old != null) {
+				n.cancelObserver(old.getKey(), old.getValue());
+			}
+			if (change.getType() != ClipChange.Type.REMOVED 
+					&& change.getClip().getClass().equals(SampleClip.class)) {
+				this.schedule(n, channel, change.getClip(), change.getTimeIn());
+			}
+		});
+	}
+
 	@Override
 	public boolean isPaused() {
 		return this.conductor.isEmpty();
 	}
 	
 	private void updateObservers() {
-		this.notifier = Optional.of(new ClipPlayerNotifier(
-			new PlayersMapBuilderImpl().setChannelLinker(channelLinker)
-				.addSampleClipsBetween(Optional.of(this.getPlaybackTime()), Optional.empty())
-				.build()
-		));
+		this.notifier = Optional.of(new ClipPlayerNotifier(this.buildObservers(this.getPlaybackTime())));
+	}
+	
+	private RPPlayersMap buildObservers(final Double time) {
+		final RPPlayersMap observers = new PlayersMapBuilderImpl(this.samplePlayerFactory).setChannelLinker(channelLinker)
+				.addSampleClipsBetween(Optional.of(time), Optional.empty())
+				.build();
+		this.players.clear();
+		observers.entrySet().forEach(e -> e.getValue().forEach(player -> {
+			this.players.put(player.getClip(), new Pair<>(e.getKey(), player));
+		}));
+		return observers;
+	}
+	
+	private void schedule(final RPClipPlayerNotifier notifier, final RPChannel channel, 
+			final RPClip<?> clip, final double timeIn) {
+		final Long step = this.clock.getStep();
+		final double time = Clock.Utility.clockStepToTime(step);
+		if (timeIn + clip.getDuration() <= time) {
+			return;
+		}
+		//a clip that already began is played from the current time
+		final Pair<Long, RPClipPlayer> scheduled = timeIn < time 
+				? new Pair<>(step, this.samplePlayerFactory.createClipPlayerWithActiveCut(clip, channel, time - timeIn))
+				: new Pair<>(Clock.Utility.timeToClockSteps(timeIn), this.samplePlayerFactory.createClipPlayer(clip, channel));
+		this.players.put(clip, scheduled);
+		notifier.scheduleObserver(scheduled.getKey(), scheduled.getValue());
 	}
 }
@@ -0,0 +1,138 @@
+package daw.engine;
+
+import java.util.Optional;
+import daw.core.analysis.LoudnessAnalyzer;
+import daw.core.analysis.LoudnessReport;
+import daw.core.audioprocessing.DspKernels;
+import daw.core.automation.Playhead;
+import daw.core.clip.ClipNotFoundException;
+import daw.core.clip.SampleClipPlayerFactory;
+import daw.manager.RPManager;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+import net.beadsproject.beads.data.Sample;
+import net.beadsproject.beads.ugens.RecordToSample;
+
+/**
+ * Renders the master channel of a project into a {@link Sample}, without playing it.
+ * <p>Unlike the {@link Engine}, whose {@link Conductor} waits for the device to process the buffers in real
+ * time, the renderer runs the {@link AudioContext} of the project a buffer at a time from the thread of the
+ * caller, and notifies the clip players from the frames that have been processed. The render is then as fast
+ * as the machine allows, and it does not depend on the load: each clip starts at the beginning of the buffer
+ * its time in falls into.
+ * <p>The context of the project must not be run by anyone else during the render, so that it should be a
+ * context with no device, such as the ones made by
+ * {@link daw.utilities.AudioContextManager#newAudioContext(daw.utilities.EngineProfile)}.
+ * Projects run by different contexts can be rendered at the same time.
+ */
+public final class OfflineRenderer {
+
+	/**
+	 * The frames of the sample that are scaled at once.
+	 */
+	private static final int CHUNK = 65_536;
+
+	/**
+	 * The project to render.
+	 */
+	private final RPManager manager;
+
+	/**
+	 * Creates a renderer of the given project.
+	 *
+	 * @param  manager  The {@link RPManager} of the project, run by its own {@link AudioContext}.
+	 */
+	public OfflineRenderer(final RPManager manager) {
+		this.manager = manager;
+	}
+
+	/**
+	 * Renders the master channel of the project from the beginning to the time out of its last clip,
+	 * or for the length of the project if it has no clips.
+	 *
+	 * @return  The rendered {@link Sample}.
+	 */
+	public Sample render() {
+		double timeOut;
+		try {
+			timeOut = this.manager.getProjectTimeOut();
+		} catch (ClipNotFoundException e) {
+			timeOut = 0.0;
+		}
+		return this.render(0.0, timeOut > 0.0 ? timeOut : this.manager.getProjectLength());
+	}
+
+	/**
+	 * Renders the master channel of the project between the given times.
+	 * The clips that began before the time in are played from their middle, as they are by the {@link Engine}.
+	 *
+	 * @param  timeIn  The time the render starts from, in milliseconds.
+	 * @param  timeOut  The time the render ends at, in milliseconds.
+	 *
+	 * @return  The rendered {@link Sample}, which lasts {@code timeOut - timeIn}.
+	 *
+	 * @throws  IllegalArgumentException  If the time in is negative or the time out is not after it.
+	 */
+	public Sample render(final double timeIn, final double timeOut) {
+		if (timeIn < 0 || !(timeOut > timeIn)) {
+			throw new IllegalArgumentException("The render must start from a positive time and end after it.");
+		}
+		final AudioContext context = this.manager.getAudioContext();
+		final UGen master = this.manager.getMixer().getMasterChannel().getOutput();
+		final Sample sample = new Sample(timeOut - timeIn, master.getOuts(), context.getSampleRate());
+		final RecordToSample recorder = new RecordToSample(context, sample, RecordToSample.Mode.FINITE);
+		recorder.addInput(master);
+		final RPClipPlayerNotifier notifier = new ClipPlayerNotifier(
+				new PlayersMapBuilderImpl(new SampleClipPlayerFactory(context))
+				.setChannelLinker(this.manager.getChannelLinker())
+				.addSampleClipsBetween(Optional.of(timeIn), Optional.empty())
+				.build());
+		final Playhead playhead = Playhead.getPlayhead(context);
+		final double bufferTime = context.samplesToMs(context.getBufferSize());
+		final long end = context.getTimeStep()
+				+ (long) Math.ceil(context.msToSamples(timeOut - timeIn) / context.getBufferSize());
+		context.out.addDependent(recorder);
+		playhead.start(timeIn);
+		try {
+			while (context.getTimeStep() < end) {
+				//the clips whose time in falls into the buffer are started at the beginning of it
+				notifier.update(Clock.Utility.timeToClockSteps(playhead.getBufferTime() + bufferTime) - 1);
+				context.runForNMillisecondsNonRealTime(bufferTime);
+			}
+		} finally {
+			playhead.stop();
+			notifier.notifyStopped();
+			context.out.removeDependent(recorder);
+		}
+		return sample;
+	}
+
+	/**
+	 * Scales the given sample so that its integrated loudness is the given one.
+	 * A silent sample is left as it is.
+	 *
+	 * @param  sample  The {@link Sample} to normalize.
+	 * @param  loudness  The target loudness in LUFS.
+	 *
+	 * @return  {@code true} if the sample has been scaled.
+	 */
+	public static boolean normalize(final Sample sample, final double loudness) {
+		final LoudnessReport report = LoudnessAnalyzer.analyze(sample);
+		if (Double.isInfinite(report.getIntegrated())) {
+			return false;
+		}
+		//the sample is scaled a chunk at a time, so that it is not copied as a whole
+		final float gain = report.getNormalizationGain(loudness);
+		final float[][] frames = new float[sample.getNumChannels()][CHUNK];
+		for (long start = 0; start < sample.getNumFrames(); start += CHUNK) {
+			final int length = (int) Math.min(CHUNK, sample.getNumFrames() - start);
+			final float[][] buffer = length == CHUNK ? frames : new float[frames.length][length];
+			sample.getFrames((int) start, buffer);
+			for (final float[] channel : buffer) {
+				DspKernels.scale(channel, gain, channel, length);
+			}
+			sample.putFrames((int) start, buffer);
+		}
+		return true;
+	}
+}
@@ -26,7 +26,23 @@ public final class PlayersMapBuilderImpl implements PlayersMapBuilder {
 	/**
 	 * The sample player factory.
 	 */
-	private final ClipPlayerFactory samplePlayerFactory = new SampleClipPlayerFactory();
+	private final ClipPlayerFactory samplePlayerFactory;
+
+	/**
+	 * Creates a builder whose players are run by the default audio context.
+	 */
+	public PlayersMapBuilderImpl() {
+		this(new SampleClipPlayerFactory());
+	}
+
+	/**
+	 * Creates a builder whose sample players are created by the given factory.
+	 * 
+	 * @param  samplePlayerFactory  The {@link ClipPlayerFactory} of the sample clips.
+	 */
+	public PlayersMapBuilderImpl(final ClipPlayerFactory samplePlayerFactory) {
+		this.samplePlayerFactory = samplePlayerFactory;
+	}
 
 	@Override
 	public RPPlayersMap build() {
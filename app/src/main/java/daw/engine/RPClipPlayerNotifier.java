@@ -22,6 +22,41 @@ public interface RPClipPlayerNotifier {
 	 */
 	void notifyStopped();
 	
+	/**
+	 * Publish a new timeline: the given players replace all the subscribed ones
+	 * at the next update, and the players still playing are stopped.
+	 * <p>The players map is handed over with a single atomic operation, so this method can be
+	 * called from any thread while the notifier is being updated. 
+	 * The given map must not be modified after being published.
+	 *
+	 * @param  step  The clock step the players map was built from.
+	 * 
+	 * @param  observers  The clip players to subscribe instead of the current ones.
+	 */
+	void publish(Long step, RPPlayersMap observers);
+	
+	/**
+	 * Subscribe a player to this clip player notifier from any thread.
+	 * <p>The player is subscribed at the next update, after the timelines and the players 
+	 * handed over before it. If the given step has already been notified, the player is played at the next update.
+	 *
+	 * @param  step  The step to subscribe the player at.
+	 * 
+	 * @param  clipPlayer  The clip player to subscribe.
+	 */
+	void scheduleObserver(Long step, RPClipPlayer clipPlayer);
+	
+	/**
+	 * Unsubscribe a player from this clip player notifier from any thread, and stop it if it is playing.
+	 * <p>The player is unsubscribed at the next update, after the timelines and the players 
+	 * handed over before it.
+	 *
+	 * @param  step  The step where to find the player to unsubscribe.
+	 * 
+	 * @param  clipPlayer  The clip player to unsubscribe.
+	 */
+	void cancelObserver(Long step, RPClipPlayer clipPlayer);
+	
 	/**
 	 * Subscribe a player to this clip player notifier.
 	 *
@@ -1,5 +1,8 @@
 package daw.engine;
 
+import daw.core.channel.RPChannel;
+import daw.core.clip.ClipChange;
+
 /**
  * The engine which sets and starts playback of each playable {@link RPClip}.
  * <p>The engine could be started, paused and stopped. 
@@ -36,6 +39,28 @@ public interface RPEngine {
 	 */
 	Double getPlaybackTime();
 	
+	/**
+	 * Make the playback follow the timeline as it is now.
+	 * <p>An immutable snapshot of the timeline is built on the calling thread and handed to 
+	 * the playback, which picks it up at its next clock step. Nothing happens if the engine is paused,
+	 * as the timeline is read again when it starts.
+	 */
+	void publishTimeline();
+	
+	/**
+	 * Make the playback follow the edit of a single clip.
+	 * <p>Only the player of the given clip is cancelled and, unless the clip has been removed, 
+	 * a new one is scheduled. Nothing happens if the engine is paused.
+	 * 
+	 * @param  channel  The channel of the edited clip.
+	 * 
+	 * @param  change  The edit of the clip.
+	 * 
+	 * @throws  IllegalArgumentException  If no player can be created for the edited clip, which is then
+	 * not played.
+	 */
+	void clipEdited(RPChannel channel, ClipChange change);
+	
 	/**
 	 * Check if the engine is playing back.
 	 * 
@@ -2,25 +2,42 @@ package daw.manager;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
 import daw.core.channel.RPChannel;
 import daw.core.clip.RPTapeChannel;
+import daw.utilities.PersistentMap;
 import daw.utilities.RPPair;
 import planning.RPRole;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public final class ChannelLinker implements RPChannelLinker {
 
-    @JsonProperty
-    private final Map<RPRole, RPPair<RPChannel, RPTapeChannel>> channelMap;
+    private PersistentMap<RPRole, RPPair<RPChannel, RPTapeChannel>> channelMap;
+    // index kept aligned with channelMap, so that lookups by title do not scan all the roles
+    private PersistentMap<String, RPRole> rolesByTitle;
+    private State lastSnapshot;
 
     ChannelLinker() {
-        this.channelMap = new HashMap<>();
+        this.channelMap = PersistentMap.empty();
+        this.rolesByTitle = PersistentMap.empty();
+    }
+
+    @JsonProperty("channelMap")
+    private Map<RPRole, RPPair<RPChannel, RPTapeChannel>> getChannelMap() {
+        return this.channelMap.toMap();
+    }
+
+    @JsonSetter("channelMap")
+    private void setChannelMap(final Map<RPRole, RPPair<RPChannel, RPTapeChannel>> channelMap) {
+        this.channelMap = PersistentMap.empty();
+        this.rolesByTitle = PersistentMap.empty();
+        channelMap.forEach((role, pair) -> this.addChannelReferences(pair.getKey(), pair.getValue(), role));
     }
 
     /**
@@ -32,7 +49,8 @@ public final class ChannelLinker implements RPChannelLinker {
      */
     @Override
     public void addChannelReferences(final RPChannel channel, final RPTapeChannel tapeChannel, final RPRole role) {
-        channelMap.put(role, new RPPair<>(channel, tapeChannel));
+        channelMap = channelMap.put(role, new RPPair<>(channel, tapeChannel));
+        rolesByTitle = rolesByTitle.put(role.getTitle(), role);
     }
 
     /**
@@ -62,10 +80,15 @@ public final class ChannelLinker implements RPChannelLinker {
      *
      * @param title the title of the {@link RPRole}
      * @return the {@link RPRole} with the given title
+     * @throws NoSuchElementException if no {@link RPRole} has the given title
      */
     @Override
     public RPRole getRole(final String title) {
-        return channelMap.keySet().stream().filter(k -> k.getTitle().equals(title)).findAny().orElseThrow();
+        final RPRole role = rolesByTitle.get(title);
+        if (role == null) {
+            throw new NoSuchElementException("No value present");
+        }
+        return role;
     }
 
     /**
@@ -75,7 +98,10 @@ public final class ChannelLinker implements RPChannelLinker {
      */
     @Override
     public void removeChannel(final RPRole role) {
-        channelMap.remove(role);
+        channelMap = channelMap.remove(role);
+        if (role.equals(rolesByTitle.get(role.getTitle()))) {
+            rolesByTitle = rolesByTitle.remove(role.getTitle());
+        }
     }
 
     /**
@@ -86,7 +112,8 @@ public final class ChannelLinker implements RPChannelLinker {
      */
     @Override
     public Set<RPRole> getRoleSet(final RPRole.RoleType type) {
-        return channelMap.keySet().stream().filter(k -> k.getType().equals(type)).collect(Collectors.toSet());
+        return channelMap.stream().map(Map.Entry::getKey).filter(k -> k.getType().equals(type))
+                .collect(Collectors.toSet());
     }
 
     /**
@@ -97,7 +124,7 @@ public final class ChannelLinker implements RPChannelLinker {
     @Override
     @JsonIgnore
     public Set<RPPair<RPChannel, RPTapeChannel>> getAudioSet() {
-        return new HashSet<>(channelMap.values());
+        return channelMap.stream().map(Map.Entry::getValue).collect(Collectors.toCollection(HashSet::new));
     }
 
     /**
@@ -108,12 +135,60 @@ public final class ChannelLinker implements RPChannelLinker {
      */
     @Override
     public boolean channelExists(final String title) {
-        return this.channelMap.keySet().stream().anyMatch(k -> k.getTitle().equals(title));
+        return this.rolesByTitle.containsKey(title);
     }
 
     @Override
     @JsonIgnore
     public List<RPRole> getRolesAndGroups() {
-        return new ArrayList<>(this.channelMap.keySet());
+        return this.channelMap.stream().map(Map.Entry::getKey).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Snapshot snapshot() {
+        if (this.lastSnapshot == null || this.lastSnapshot.channelMap != this.channelMap
+                || this.lastSnapshot.rolesByTitle != this.rolesByTitle) {
+            this.lastSnapshot = new State(this, this.channelMap, this.rolesByTitle);
+        }
+        return this.lastSnapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public void restore(final Snapshot snapshot) {
+        if (!(snapshot instanceof State) || ((State) snapshot).owner != this) {
+            throw new IllegalArgumentException("The snapshot was not taken from this linker");
+        }
+        final State state = (State) snapshot;
+        this.channelMap = state.channelMap;
+        this.rolesByTitle = state.rolesByTitle;
+        this.lastSnapshot = state;
+    }
+
+    private static final class State implements Snapshot {
+
+        private final ChannelLinker owner;
+        private final PersistentMap<RPRole, RPPair<RPChannel, RPTapeChannel>> channelMap;
+        private final PersistentMap<String, RPRole> rolesByTitle;
+
+        private State(final ChannelLinker owner, final PersistentMap<RPRole, RPPair<RPChannel, RPTapeChannel>> channelMap,
+                      final PersistentMap<String, RPRole> rolesByTitle) {
+            this.owner = owner;
+            this.channelMap = channelMap;
+            this.rolesByTitle = rolesByTitle;
+        }
+
+        @Override
+        public long estimateRetainedSize(final Snapshot previous) {
+            final State base = previous instanceof State ? (State) previous : null;
+            return this.channelMap.estimateRetainedSize(base == null ? null : base.channelMap)
+                    + this.rolesByTitle.estimateRetainedSize(base == null ? null : base.rolesByTitle);
+        }
     }
 }
@@ -0,0 +1,75 @@
+package daw.manager;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * A send of a channel to a return channel, as the {@link Manager} records it, so that it can be saved
+ * and undone. The return channel is the one the send is recorded under.
+ */
+public final class ChannelSend {
+
+    private final String channel;
+    private final float level;
+    private final boolean preFader;
+
+    /**
+     * Constructs a send.
+     *
+     * @param channel the title of the channel that sends its audio
+     * @param level the gain applied to the sent audio, between 0 and 1
+     * @param preFader true if the audio is taken before the volume of the channel
+     */
+    @JsonCreator
+    public ChannelSend(@JsonProperty("channel") final String channel, @JsonProperty("level") final float level,
+                       @JsonProperty("preFader") final boolean preFader) {
+        this.channel = channel;
+        this.level = level;
+        this.preFader = preFader;
+    }
+
+    /**
+     *
+     * @return the title of the channel that sends its audio
+     */
+    public String getChannel() {
+        return this.channel;
+    }
+
+    /**
+     *
+     * @return the gain applied to the sent audio, between 0 and 1
+     */
+    public float getLevel() {
+        return this.level;
+    }
+
+    /**
+     *
+     * @return true if the audio is taken before the volume of the channel
+     */
+    public boolean isPreFader() {
+        return this.preFader;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final ChannelSend that = (ChannelSend) o;
+        return Float.compare(this.level, that.level) == 0 && this.preFader == that.preFader
+                && this.channel.equals(that.channel);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.channel, this.level, this.preFader);
+    }
+
+}
@@ -0,0 +1,19 @@
+package daw.manager;
+
+import daw.core.channel.RPChannel;
+import daw.core.clip.ClipChange;
+
+/**
+ * This interface represents an observer of the edits made to the clips through a {@link RPManager}.
+ */
+@FunctionalInterface
+public interface ClipEditListener {
+
+    /**
+     * This method is called after a clip has been added, removed, moved or trimmed in a channel.
+     *
+     * @param channel the {@link RPChannel} whose tape contains, or contained, the clip
+     * @param change the {@link ClipChange} the clip went through
+     */
+    void clipEdited(RPChannel channel, ClipChange change);
+}
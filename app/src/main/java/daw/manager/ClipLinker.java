@@ -1,30 +1,56 @@
 package daw.manager;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
 import daw.core.clip.RPClip;
+import daw.utilities.PersistentMap;
 import planning.RPPart;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
 public class ClipLinker implements RPClipLinker {
 
-    @JsonProperty
-    private final Map<RPPart, RPClip<?>> clipMap;
+    private PersistentMap<RPPart, RPClip<?>> clipMap;
+    // indexes kept aligned with clipMap, so that lookups by title or by clip do not scan the whole map
+    private PersistentMap<String, RPPart> partsByTitle;
+    private PersistentMap<RPClip<?>, RPPart> partsByClip;
+    private State lastSnapshot;
 
     ClipLinker() {
-        clipMap = new HashMap<>();
+        clipMap = PersistentMap.empty();
+        partsByTitle = PersistentMap.empty();
+        partsByClip = PersistentMap.empty();
+    }
+
+    @JsonProperty("clipMap")
+    private Map<RPPart, RPClip<?>> getClipMap() {
+        return this.clipMap.toMap();
+    }
+
+    @JsonSetter("clipMap")
+    private void setClipMap(final Map<RPPart, RPClip<?>> clipMap) {
+        this.clipMap = PersistentMap.empty();
+        this.partsByTitle = PersistentMap.empty();
+        this.partsByClip = PersistentMap.empty();
+        clipMap.forEach((part, clip) -> this.addClipReferences(clip, part));
     }
 
     /**
      * This method links the given {@link RPPart} to the given {@link RPClip}.
+     * If the {@link RPPart} was already linked, the previous {@link RPClip} is unlinked.
      *
      * @param clip the {@link RPClip} to link
      * @param part the {@link RPPart} to link
      */
     @Override
     public void addClipReferences(final RPClip<?> clip, final RPPart part) {
-        clipMap.put(part, clip);
+        final RPClip<?> previous = clipMap.get(part);
+        if (previous != null && !previous.equals(clip) && part.equals(partsByClip.get(previous))) {
+            partsByClip = partsByClip.remove(previous);
+        }
+        clipMap = clipMap.put(part, clip);
+        partsByTitle = partsByTitle.put(part.getTitle(), part);
+        partsByClip = partsByClip.put(clip, part);
     }
 
     /**
@@ -41,11 +67,15 @@ public class ClipLinker implements RPClipLinker {
     /**
      * @param clip the {@link RPClip} linked
      * @return the {@link RPPart} linked
+     * @throws NoSuchElementException if the given {@link RPClip} is not linked to any {@link RPPart}
      */
     @Override
     public RPPart getPartFromClip(final RPClip<?> clip) {
-        return this.clipMap.entrySet().stream().filter(k -> k.getValue().equals(clip)).map(Map.Entry::getKey)
-                .findFirst().orElseThrow();
+        final RPPart part = this.partsByClip.get(clip);
+        if (part == null) {
+            throw new NoSuchElementException("No value present");
+        }
+        return part;
     }
 
     /**
@@ -53,11 +83,15 @@ public class ClipLinker implements RPClipLinker {
      *
      * @param title the title of the {@link RPPart}
      * @return the {@link RPPart} with the given title
+     * @throws NoSuchElementException if no {@link RPPart} has the given title
      */
     @Override
     public RPPart getPart(final String title) {
-        return this.clipMap.keySet().stream().filter(k -> k.getTitle().equals(title)).findAny().orElseThrow(() ->
-                new NoSuchElementException("Clip does not exists"));
+        final RPPart part = this.partsByTitle.get(title);
+        if (part == null) {
+            throw new NoSuchElementException("Clip does not exists");
+        }
+        return part;
     }
 
     /**
@@ -68,7 +102,7 @@ public class ClipLinker implements RPClipLinker {
      */
     @Override
     public boolean clipExists(final String title) {
-        return this.clipMap.keySet().stream().anyMatch(k -> k.getTitle().equals(title));
+        return this.partsByTitle.containsKey(title);
     }
 
     /**
@@ -78,6 +112,68 @@ public class ClipLinker implements RPClipLinker {
      */
     @Override
     public void removeClip(final RPPart part) {
-        this.clipMap.remove(part);
+        final RPClip<?> removed = this.clipMap.get(part);
+        if (removed != null) {
+            this.clipMap = this.clipMap.remove(part);
+            if (part.equals(this.partsByClip.get(removed))) {
+                this.partsByClip = this.partsByClip.remove(removed);
+            }
+            if (part.equals(this.partsByTitle.get(part.getTitle()))) {
+                this.partsByTitle = this.partsByTitle.remove(part.getTitle());
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Snapshot snapshot() {
+        if (this.lastSnapshot == null || this.lastSnapshot.clipMap != this.clipMap
+                || this.lastSnapshot.partsByTitle != this.partsByTitle || this.lastSnapshot.partsByClip != this.partsByClip) {
+            this.lastSnapshot = new State(this, this.clipMap, this.partsByTitle, this.partsByClip);
+        }
+        return this.lastSnapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public void restore(final Snapshot snapshot) {
+        if (!(snapshot instanceof State) || ((State) snapshot).owner != this) {
+            throw new IllegalArgumentException("The snapshot was not taken from this linker");
+        }
+        final State state = (State) snapshot;
+        this.clipMap = state.clipMap;
+        this.partsByTitle = state.partsByTitle;
+        this.partsByClip = state.partsByClip;
+        this.lastSnapshot = state;
+    }
+
+    private static final class State implements Snapshot {
+
+        private final ClipLinker owner;
+        private final PersistentMap<RPPart, RPClip<?>> clipMap;
+        private final PersistentMap<String, RPPart> partsByTitle;
+        private final PersistentMap<RPClip<?>, RPPart> partsByClip;
+
+        private State(final ClipLinker owner, final PersistentMap<RPPart, RPClip<?>> clipMap,
+                      final PersistentMap<String, RPPart> partsByTitle,
+                      final PersistentMap<RPClip<?>, RPPart> partsByClip) {
+            this.owner = owner;
+            this.clipMap = clipMap;
+            this.partsByTitle = partsByTitle;
+            this.partsByClip = partsByClip;
+        }
+
+        @Override
+        public long estimateRetainedSize(final Snapshot previous) {
+            final State base = previous instanceof State ? (State) previous : null;
+            return this.clipMap.estimateRetainedSize(base == null ? null : base.clipMap)
+                    + this.partsByTitle.estimateRetainedSize(base == null ? null : base.partsByTitle)
+                    + this.partsByClip.estimateRetainedSize(base == null ? null : base.partsByClip);
+        }
     }
 }
@@ -2,7 +2,10 @@ package daw.manager;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import daw.core.audioprocessing.RPEffect;
 import daw.core.channel.RPChannel;
+import daw.core.clip.ClipChange;
 import daw.core.clip.ClipConverter;
 import daw.core.clip.ClipNotFoundException;
 import daw.core.clip.EmptyClip;
@@ -10,9 +13,16 @@ import daw.core.clip.RPClip;
 import daw.core.clip.RPClipConverter;
 import daw.core.clip.RPTapeChannel;
 import daw.core.clip.SampleClip;
+import daw.core.clip.Take;
 import daw.core.clip.TapeChannel;
 import daw.core.mixer.Mixer;
 import daw.core.mixer.RPMixer;
+import daw.utilities.AudioContextManager;
+import daw.utilities.BoundedHistory;
+import daw.utilities.PersistentMap;
+import daw.utilities.Versioned;
+import javafx.util.Pair;
+import net.beadsproject.beads.core.AudioContext;
 import net.beadsproject.beads.data.audiofile.FileFormatException;
 import net.beadsproject.beads.data.audiofile.OperationUnsupportedException;
 import planning.EffectsPart;
@@ -35,7 +45,7 @@ import planning.TimelineImpl;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -51,34 +61,87 @@ public final class Manager implements RPManager {
 
     private static final double MIN_LENGTH = 600_000;
     private static final double MIN_SPACING = 120_000;
+    private static final int HISTORY_LENGTH = 100;
+    private static final long HISTORY_SIZE = 16 * 1024 * 1024;
 
+    private final AudioContext context;
     private final RPMixer mixer;
     private final RPChannelLinker channelLinker;
     private final RPClipLinker clipLinker;
-    @JsonProperty
-    private final Map<RPRole, List<RPRole>> groupMap;
+    private PersistentMap<RPRole, List<RPRole>> groupMap;
+    // the return channels with the sends to them, which are recorded here so that they are saved and undone
+    private PersistentMap<RPRole, List<ChannelSend>> returnMap;
+    // the roles whose tape has been added, edited or removed since the last saved state
+    private final Set<RPRole> dirtyTapes = new HashSet<>();
     @JsonProperty
     private final RPTimeline timeline;
     private final RPClipConverter clipConverter;
     private final SpeakerRubric rubric;
+    // the channel each linked part has been put into, so that a clip can be located without scanning the tapes
+    private PersistentMap<RPPart, RPRole> partChannels;
+    // the parameters of the effects that have been set through this manager, so that they can be undone
+    private PersistentMap<RPEffect, Map<String, Float>> effectParameters;
+    private final BoundedHistory<State> history;
+    private final List<ClipEditListener> clipListeners;
     private double projectLength;
 
+    /**
+     * Constructs an empty project, which is run by the {@link AudioContext} of the {@link AudioContextManager}.
+     */
     public Manager() {
-        this.mixer = new Mixer();
+        this(AudioContextManager.getAudioContext());
+    }
+
+    /**
+     * Constructs an empty project, which is run by the given {@link AudioContext}. Projects that are run by
+     * different contexts do not share any audio element, so that they can be rendered at the same time.
+     *
+     * @param context the {@link AudioContext} that runs the channels of this project
+     */
+    public Manager(final AudioContext context) {
+        this.context = context;
+        this.mixer = new Mixer(context);
         this.channelLinker = new ChannelLinker();
         this.clipLinker = new ClipLinker();
-        this.groupMap = new HashMap<>();
-        this.clipConverter = new ClipConverter();
+        this.groupMap = PersistentMap.empty();
+        this.returnMap = PersistentMap.empty();
+        this.partChannels = PersistentMap.empty();
+        this.effectParameters = PersistentMap.empty();
+        this.clipConverter = new ClipConverter(context.getSampleRate());
         this.projectLength = MIN_LENGTH;
         this.timeline = new TimelineImpl();
         this.rubric = new SimpleSpeakerRubric();
+        this.clipListeners = new ArrayList<>();
         this.initializeGroups();
+        this.history = new BoundedHistory<>(HISTORY_LENGTH, HISTORY_SIZE, this.saveState(null));
     }
 
     private void initializeGroups() {
-        this.createGroup("Speech", RPRole.RoleType.SPEECH);
-        this.createGroup("Effects", RPRole.RoleType.EFFECTS);
-        this.createGroup("Soundtrack", RPRole.RoleType.SOUNDTRACK);
+        this.addGroup("Speech", RPRole.RoleType.SPEECH);
+        this.addGroup("Effects", RPRole.RoleType.EFFECTS);
+        this.addGroup("Soundtrack", RPRole.RoleType.SOUNDTRACK);
+    }
+
+    @JsonProperty("groupMap")
+    private Map<RPRole, List<RPRole>> getGroupMap() {
+        return this.groupMap.toMap();
+    }
+
+    @JsonSetter("groupMap")
+    private void setGroupMap(final Map<RPRole, List<RPRole>> groupMap) {
+        this.groupMap = PersistentMap.empty();
+        groupMap.forEach((group, roles) -> this.groupMap = this.groupMap.put(group, List.copyOf(roles)));
+    }
+
+    @JsonProperty("returnMap")
+    private Map<RPRole, List<ChannelSend>> getReturnMap() {
+        return this.returnMap.toMap();
+    }
+
+    @JsonSetter("returnMap")
+    private void setReturnMap(final Map<RPRole, List<ChannelSend>> returnMap) {
+        this.returnMap = PersistentMap.empty();
+        returnMap.forEach((ret, sends) -> this.returnMap = this.returnMap.put(ret, List.copyOf(sends)));
     }
 
     /**
@@ -107,7 +170,9 @@ public final class Manager implements RPManager {
             channel = this.mixer.createBasicChannel();
         }
         this.channelLinker.addChannelReferences(channel, tapeChannel, role);
+        this.dirtyTapes.add(role);
         this.automaticGrouping(role);
+        this.commit();
     }
 
     /**
@@ -121,17 +186,36 @@ public final class Manager implements RPManager {
         if (!this.channelLinker.channelExists(title)) {
             throw new NoSuchElementException("The Channel does not exist");
         }
+        if (this.returnMap.containsKey(this.channelLinker.getRole(title))) {
+            this.removeReturn(title);
+            return;
+        }
+        final RPChannel channel = this.channelLinker.getChannel(this.channelLinker.getRole(title));
+        // the return buses must not keep pulling the removed channel
+        for (final var e : this.returnMap) {
+            if (e.getValue().stream().anyMatch(send -> send.getChannel().equals(title))) {
+                channel.removeSend(this.channelLinker.getChannel(e.getKey()));
+                this.returnMap = this.returnMap.put(e.getKey(), this.without(e.getValue(), title));
+            }
+        }
         this.channelLinker.getTapeChannel(this.channelLinker.getRole(title))
-                .getClipWithTimeIterator().forEachRemaining(e ->
-                        this.clipLinker.removeClip(this.getClipLinker().getPartFromClip(e.getValue())));
-        this.channelLinker.getTapeChannel(this.channelLinker.getRole(title)).clearTape();
-        this.getGroupList(this.getGroupName(this.channelLinker.getRole(title)))
-                .remove(this.channelLinker.getRole(title));
+                .getClipWithTimeIterator().forEachRemaining(e -> {
+                    final RPPart part = this.getClipLinker().getPartFromClip(e.getValue());
+                    this.clipLinker.removeClip(part);
+                    this.partChannels = this.partChannels.remove(part);
+                    this.fireClipEdit(channel, new ClipChange(ClipChange.Type.REMOVED, e.getValue(), e.getKey()));
+                });
+        this.editTape(title).clearTape();
+        final RPRole group = this.getGroup(this.getGroupName(this.channelLinker.getRole(title)));
+        this.groupMap = this.groupMap.put(group, this.groupMap.get(group).stream()
+                .filter(r -> !r.equals(this.channelLinker.getRole(title)))
+                .collect(Collectors.toUnmodifiableList()));
         this.channelLinker.removeChannel(this.channelLinker.getRole(title));
+        this.commit();
     }
 
     private String getGroupName(final RPRole part) {
-        return this.groupMap.entrySet().stream()
+        return this.groupMap.stream()
                 .filter(e -> e.getValue().contains(part))
                 .map(e -> e.getKey().getTitle())
                 .findAny()
@@ -140,16 +224,18 @@ public final class Manager implements RPManager {
 
     private void automaticGrouping(final RPRole role) {
         if (role.getType().equals(RPRole.RoleType.SPEECH)) {
-            this.addToGroup(role, "Speech");
+            this.linkToGroup(role, "Speech");
         } else if (role.getType().equals(RPRole.RoleType.EFFECTS)) {
-            this.addToGroup(role, "Effects");
+            this.linkToGroup(role, "Effects");
         } else {
-            this.addToGroup(role, "Soundtrack");
+            this.linkToGroup(role, "Soundtrack");
         }
     }
 
     private boolean groupExists(final String name) {
-        return this.groupMap.keySet().stream().anyMatch(k -> k.getTitle().equals(name));
+        // groups are registered in the channel linker too, so its title index can be used to find them
+        return this.channelLinker.channelExists(name)
+                && this.groupMap.containsKey(this.channelLinker.getRole(name));
     }
 
     private RPRole createRole(final RPRole.RoleType type, final String title, final Optional<String> description) {
@@ -171,10 +257,21 @@ public final class Manager implements RPManager {
      */
     @Override
     public void addToGroup(final RPRole role, final String groupName) throws NoSuchElementException {
+        if (this.returnMap.containsKey(role)) {
+            throw new IllegalArgumentException("A return channel cannot be added to a group.");
+        }
+        this.linkToGroup(role, groupName);
+        this.commit();
+    }
+
+    private void linkToGroup(final RPRole role, final String groupName) {
         if (!this.groupContains(role, groupName)) {
-            this.getGroupList(groupName).add(role);
+            final RPRole group = this.getGroup(groupName);
+            final List<RPRole> roles = new ArrayList<>(this.groupMap.get(group));
+            roles.add(role);
+            this.groupMap = this.groupMap.put(group, List.copyOf(roles));
             this.mixer.linkToGroup(this.channelLinker.getChannel(role),
-                    this.channelLinker.getChannel(this.getGroup(groupName)));
+                    this.channelLinker.getChannel(group));
         } else {
             throw new NoSuchElementException("Group does not exist");
         }
@@ -196,20 +293,148 @@ public final class Manager implements RPManager {
      */
     @Override
     public void createGroup(final String groupName, final RPRole.RoleType type) {
+        this.addGroup(groupName, type);
+        this.commit();
+    }
+
+    private void addGroup(final String groupName, final RPRole.RoleType type) {
         if (this.groupExists(groupName)) {
             throw new IllegalArgumentException("Group already exists");
         } else {
             final RPChannel channel;
             if (type.equals(RPRole.RoleType.SOUNDTRACK)) {
-                channel = this.mixer.createSidechained(this.channelLinker.getChannel(this.groupMap.keySet().stream()
-                        .filter(k -> "Speech".equals(k.getTitle())).findAny().orElseThrow()));
+                channel = this.mixer.createSidechained(this.channelLinker.getChannel(this.getGroup("Speech")));
             } else {
                 channel = this.mixer.createBasicChannel();
             }
             final RPRole role = this.createRole(type, groupName, Optional.empty());
             this.channelLinker.addChannelReferences(channel, new TapeChannel(), role);
-            this.groupMap.put(role, new ArrayList<>());
+            this.dirtyTapes.add(role);
+            this.groupMap = this.groupMap.put(role, List.of());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param title the title of the return channel
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public void createReturn(final String title) throws IllegalArgumentException {
+        if (this.channelLinker.channelExists(title)) {
+            throw new IllegalArgumentException("Channel already exists");
+        } else if ("".equals(title)) {
+            throw new IllegalArgumentException("Title is mandatory");
         }
+        final RPRole role = this.createRole(RPRole.RoleType.EFFECTS, title, Optional.empty());
+        this.channelLinker.addChannelReferences(this.mixer.createReturnChannel(), new TapeChannel(), role);
+        this.dirtyTapes.add(role);
+        this.returnMap = this.returnMap.put(role, List.of());
+        this.commit();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param title the title of the return channel
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    @Override
+    public void removeReturn(final String title) throws NoSuchElementException {
+        final RPRole role = this.getReturn(title);
+        final RPChannel returnChannel = this.channelLinker.getChannel(role);
+        // the channel stays connected to the master, so that the removal can be undone, but nothing feeds it
+        this.returnMap.get(role).forEach(send -> this.getSendingChannel(send).removeSend(returnChannel));
+        this.returnMap = this.returnMap.remove(role);
+        this.dirtyTapes.add(role);
+        this.channelLinker.removeChannel(role);
+        this.commit();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param channel the title of the Channel that sends its audio
+     * @param returnChannel the title of the return channel
+     * @param level the gain applied to the sent audio
+     * @param preFader true if the audio is taken before the volume of the Channel
+     * @throws IllegalArgumentException {@inheritDoc}
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    @Override
+    public void setSend(final String channel, final String returnChannel, final float level, final boolean preFader) {
+        final RPRole role = this.getReturn(returnChannel);
+        if (!this.channelLinker.channelExists(channel)) {
+            throw new NoSuchElementException("The Channel does not exist");
+        }
+        this.channelLinker.getChannel(this.channelLinker.getRole(channel))
+                .setSend(this.channelLinker.getChannel(role), level, preFader);
+        final List<ChannelSend> sends = new ArrayList<>(this.without(this.returnMap.get(role), channel));
+        sends.add(new ChannelSend(channel, level, preFader));
+        this.returnMap = this.returnMap.put(role, List.copyOf(sends));
+        this.commit();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param channel the title of the Channel that sends its audio
+     * @param returnChannel the title of the return channel
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    @Override
+    public void removeSend(final String channel, final String returnChannel) {
+        final RPRole role = this.getReturn(returnChannel);
+        if (this.returnMap.get(role).stream().anyMatch(send -> send.getChannel().equals(channel))) {
+            this.channelLinker.getChannel(this.channelLinker.getRole(channel))
+                    .removeSend(this.channelLinker.getChannel(role));
+            this.returnMap = this.returnMap.put(role, this.without(this.returnMap.get(role), channel));
+            this.commit();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    @JsonIgnore
+    public List<RPRole> getReturns() {
+        return this.channelLinker.getRolesAndGroups().stream()
+                .filter(this.returnMap::containsKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param returnChannel the title of the return channel
+     * @return {@inheritDoc}
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    @Override
+    public List<ChannelSend> getSends(final String returnChannel) {
+        return this.returnMap.get(this.getReturn(returnChannel));
+    }
+
+    private RPRole getReturn(final String title) {
+        if (!this.channelLinker.channelExists(title)
+                || !this.returnMap.containsKey(this.channelLinker.getRole(title))) {
+            throw new NoSuchElementException("The return channel does not exist");
+        }
+        return this.channelLinker.getRole(title);
+    }
+
+    private RPChannel getSendingChannel(final ChannelSend send) {
+        return this.channelLinker.getChannel(this.channelLinker.getRole(send.getChannel()));
+    }
+
+    private List<ChannelSend> without(final List<ChannelSend> sends, final String channel) {
+        return sends.stream()
+                .filter(send -> !send.getChannel().equals(channel))
+                .collect(Collectors.toUnmodifiableList());
     }
 
     /**
@@ -234,17 +459,104 @@ public final class Manager implements RPManager {
         RPClip<?> clip;
         if (content.isPresent()) {
             try {
-                clip = new SampleClip(title, content.get());
+                clip = new SampleClip(title, content.get(), this.context.getSampleRate());
             } catch (FileFormatException | OperationUnsupportedException | IOException exception) {
                 throw new ImportException("Error in loading file");
             }
         } else {
             clip = new EmptyClip(title, duration);
         }
-        final RPPart part = this.createPart(type, title, description);
-        this.channelLinker.getTapeChannel(channelLinker.getRole(channel)).insertRPClip(clip, time);
-        this.clipLinker.addClipReferences(clip, part);
+        this.linkClip(this.createPart(type, title, description), channel, clip, time);
         this.updateProjectLength();
+        this.commit();
+    }
+
+    private void linkClip(final RPPart part, final String channel, final RPClip<?> clip, final double time) {
+        this.editTape(channel).insertRPClip(clip, time);
+        this.clipLinker.addClipReferences(clip, part);
+        this.partChannels = this.partChannels.put(part, this.channelLinker.getRole(channel));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param takes {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws ImportException {@inheritDoc}
+     */
+    @Override
+    public List<String> addTakes(final List<Take> takes) throws ImportException {
+        final List<String> titles = new ArrayList<>();
+        ImportException failure = null;
+        for (final Take take : takes) {
+            final String channel = take.getTrack();
+            final String title = this.newTakeTitle(channel);
+            final RPClip<?> clip;
+            try {
+                clip = new SampleClip(title, take.getFile(), this.context.getSampleRate());
+            } catch (FileFormatException | OperationUnsupportedException | IOException
+                    | IllegalArgumentException exception) {
+                final ImportException e = new ImportException("The take " + take.getFile() + " cannot be loaded.");
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+                continue;
+            }
+            this.clearForTake(channel, take.getTimeIn(), take.getTimeIn() + clip.getDuration());
+            this.linkClip(this.createPart(this.getTakeType(channel), title, Optional.empty()), channel, clip,
+                    take.getTimeIn());
+            titles.add(title);
+        }
+        if (!titles.isEmpty()) {
+            this.updateProjectLength();
+            this.commit();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return titles;
+    }
+
+    // the first title of the form "channel take n" that is not used yet
+    private String newTakeTitle(final String channel) {
+        int number = 1;
+        while (this.clipLinker.clipExists(channel + " take " + number)) {
+            number++;
+        }
+        return channel + " take " + number;
+    }
+
+    private RPPart.PartType getTakeType(final String channel) {
+        final RPRole.RoleType type = this.channelLinker.getRole(channel).getType();
+        if (type.equals(RPRole.RoleType.SPEECH)) {
+            return RPPart.PartType.SPEECH;
+        } else if (type.equals(RPRole.RoleType.EFFECTS)) {
+            return RPPart.PartType.EFFECTS;
+        } else {
+            return RPPart.PartType.SOUNDTRACK;
+        }
+    }
+
+    // the clips a take covers entirely are removed, and one that begins together with it is cut at its end,
+    // while the tape cuts the others when the take is inserted
+    private void clearForTake(final String channel, final double timeIn, final double timeOut) {
+        final RPTapeChannel tape = this.channelLinker.getTapeChannel(this.channelLinker.getRole(channel));
+        final List<Pair<Double, RPClip<?>>> covered = new ArrayList<>();
+        tape.getClipWithTimeIteratorFiltered(e -> e.getKey() >= timeIn && e.getKey() < timeOut)
+                .forEachRemaining(covered::add);
+        try {
+            for (final Pair<Double, RPClip<?>> entry : covered) {
+                if (tape.calculateTimeOut(entry.getKey(), entry.getValue().getDuration()) <= timeOut) {
+                    this.unlinkClip(channel, entry.getValue().getTitle(), entry.getKey());
+                } else if (entry.getKey() == timeIn) {
+                    this.editTape(channel).setTimeIn(timeIn, timeOut);
+                }
+            }
+        } catch (ClipNotFoundException e) {
+            // the clips have just been found on the tape
+            throw new IllegalStateException(e);
+        }
     }
 
     private RPPart createPart(final RPPart.PartType type, final String title, final Optional<String> description) {
@@ -274,18 +586,20 @@ public final class Manager implements RPManager {
         final double clipTimeIn = this.getClipTime(clip, channel);
         final RPPart part = this.clipLinker.getPart(clip);
         if (!this.clipLinker.getClipFromPart(this.clipLinker.getPart(clip)).isEmpty()) {
-            this.removeFileFromClip(clip);
+            this.emptyClip(clip);
         }
         RPClip<?> rpClip = this.getClipFromTitle(clip);
         try {
-            this.removeClip(channel, clip, clipTimeIn);
+            this.unlinkClip(channel, clip, clipTimeIn);
             rpClip = this.clipConverter.fromEmptyToSampleClip((EmptyClip) rpClip, content);
         } catch (OperationUnsupportedException | FileFormatException | IOException exception) {
             throw new ImportException("Error in loading file");
         }
         this.clipLinker.addClipReferences(rpClip, part);
-        this.channelLinker.getTapeChannel(this.channelLinker.getRole(channel)).insertRPClip(rpClip, clipTimeIn);
+        this.partChannels = this.partChannels.put(part, this.channelLinker.getRole(channel));
+        this.editTape(channel).insertRPClip(rpClip, clipTimeIn);
         this.updateProjectLength();
+        this.commit();
     }
 
     /**
@@ -304,14 +618,20 @@ public final class Manager implements RPManager {
         if (!this.clipLinker.getClipFromPart(this.clipLinker.getPart(clip)).getClass().equals(SampleClip.class)) {
             throw new IllegalArgumentException("The Clip has no content");
         }
+        this.emptyClip(clip);
+        this.commit();
+    }
+
+    private void emptyClip(final String clip) throws ClipNotFoundException {
         final String channel = this.getClipChannel(clip);
         final double clipTimeIn = this.getClipTime(clip, channel);
         final RPPart part = this.clipLinker.getPart(clip);
         RPClip<?> rpClip = this.clipLinker.getClipFromPart(part);
-        this.removeClip(channel, clip, clipTimeIn);
+        this.unlinkClip(channel, clip, clipTimeIn);
         rpClip = this.clipConverter.fromSampleToEmptyClip((SampleClip) rpClip);
         this.clipLinker.addClipReferences(rpClip, part);
-        this.channelLinker.getTapeChannel(this.channelLinker.getRole(channel)).insertRPClip(rpClip, clipTimeIn);
+        this.partChannels = this.partChannels.put(part, this.channelLinker.getRole(channel));
+        this.editTape(channel).insertRPClip(rpClip, clipTimeIn);
         this.updateProjectLength();
     }
 
@@ -325,9 +645,16 @@ public final class Manager implements RPManager {
      */
     @Override
     public void removeClip(final String channel, final String clip, final double time) throws ClipNotFoundException {
-        this.channelLinker.getTapeChannel(this.channelLinker.getRole(channel)).removeClip(time);
-        this.clipLinker.removeClip(this.getClipLinker().getPart(clip));
+        this.unlinkClip(channel, clip, time);
         this.updateProjectLength();
+        this.commit();
+    }
+
+    private void unlinkClip(final String channel, final String clip, final double time) throws ClipNotFoundException {
+        this.editTape(channel).removeClip(time);
+        final RPPart part = this.getClipLinker().getPart(clip);
+        this.clipLinker.removeClip(part);
+        this.partChannels = this.partChannels.remove(part);
     }
 
     /**
@@ -339,10 +666,10 @@ public final class Manager implements RPManager {
      */
     @Override
     public RPRole getGroup(final String groupName) throws NoSuchElementException {
-        return this.groupMap.keySet().stream()
-                .filter(k -> k.getTitle().equals(groupName))
-                .findAny()
-                .orElseThrow(() -> new NoSuchElementException("Group does not exist"));
+        if (!this.groupExists(groupName)) {
+            throw new NoSuchElementException("Group does not exist");
+        }
+        return this.channelLinker.getRole(groupName);
     }
 
     /**
@@ -382,6 +709,15 @@ public final class Manager implements RPManager {
         return this.mixer;
     }
 
+    /**
+     * @return the {@link AudioContext} that runs the channels of this manager
+     */
+    @Override
+    @JsonIgnore
+    public AudioContext getAudioContext() {
+        return this.context;
+    }
+
     /**
      * {@inheritDoc}
      * @return {@inheritDoc}
@@ -390,7 +726,7 @@ public final class Manager implements RPManager {
     @JsonIgnore
     public List<RPRole> getRoles() {
         return this.channelLinker.getRolesAndGroups().stream()
-                .filter(k -> !this.groupMap.containsKey(k))
+                .filter(k -> !this.groupMap.containsKey(k) && !this.returnMap.containsKey(k))
                 .collect(Collectors.toList());
     }
 
@@ -413,15 +749,9 @@ public final class Manager implements RPManager {
      */
     @Override
     public Double getClipTime(final String clip, final String channel) {
-        final var it =
-                this.channelLinker.getTapeChannel(this.channelLinker.getRole(channel)).getClipWithTimeIterator();
-        while (it.hasNext()) {
-            final var h = it.next();
-            if (h.getValue().equals(this.clipLinker.getClipFromPart(this.clipLinker.getPart(clip)))) {
-                return h.getKey();
-            }
-        }
-        return null;
+        return this.channelLinker.getTapeChannel(this.channelLinker.getRole(channel))
+                .getClipTimeIn(this.clipLinker.getClipFromPart(this.clipLinker.getPart(clip)))
+                .orElse(null);
     }
 
     /**
@@ -465,9 +795,10 @@ public final class Manager implements RPManager {
      */
     @Override
     public void moveClip(final String clip, final String channel, final Double finalTimeIn) throws ClipNotFoundException {
-        this.channelLinker.getTapeChannel(this.channelLinker.getRole(channel))
+        this.editTape(channel)
                 .move(this.getClipTime(clip, channel), finalTimeIn);
         this.updateProjectLength();
+        this.commit();
     }
 
     /**
@@ -479,9 +810,10 @@ public final class Manager implements RPManager {
      */
     @Override
     public void setClipTimeIn(final String clip, final String channel, final Double finalTimeIn) throws ClipNotFoundException {
-    	this.channelLinker.getTapeChannel(this.channelLinker.getRole(channel))
+        this.editTape(channel)
                 .setTimeIn(this.getClipTime(clip, channel), finalTimeIn);
         this.updateProjectLength();
+        this.commit();
     }
 
     /**
@@ -493,9 +825,10 @@ public final class Manager implements RPManager {
      */
     @Override
     public void setClipTimeOut(final String clip, final String channel, final Double finalTimeOut) throws ClipNotFoundException {
-        this.channelLinker.getTapeChannel(this.channelLinker.getRole(channel))
+        this.editTape(channel)
                 .setTimeOut(this.getClipTime(clip, channel), finalTimeOut);
         this.updateProjectLength();
+        this.commit();
     }
 
     /**
@@ -509,11 +842,13 @@ public final class Manager implements RPManager {
     public void splitClip(final String clip, final String channel, final Double splittingTime) throws ClipNotFoundException {
         final Double time = this.getClipTime(clip, channel);
         final RPPart part = this.clipLinker.getPart(clip);
-        final RPTapeChannel tapeChannel = this.channelLinker.getTapeChannel(this.channelLinker.getRole(channel));
-        tapeChannel.split(this.getClipTime(clip, channel), splittingTime);
-        final String newClip = tapeChannel.getClipAt(time).orElseThrow().getValue().getTitle();
-        final RPPart newPart = this.createPart(part.getType(), newClip, part.getDescription());
-        this.clipLinker.addClipReferences(tapeChannel.getClipAt(time).orElseThrow().getValue(), newPart);
+        final RPTapeChannel tapeChannel = this.editTape(channel);
+        tapeChannel.split(time, splittingTime);
+        final RPClip<?> newClip = tapeChannel.getClipAt(time).orElseThrow().getValue();
+        final RPPart newPart = this.createPart(part.getType(), newClip.getTitle(), part.getDescription());
+        this.clipLinker.addClipReferences(newClip, newPart);
+        this.partChannels = this.partChannels.put(newPart, this.channelLinker.getRole(channel));
+        this.commit();
     }
 
     /**
@@ -552,6 +887,7 @@ public final class Manager implements RPManager {
         if (!flag) {
             throw new IllegalArgumentException("Incompatible arguments for creation of section");
         }
+        this.commit();
     }
 
     private RPSection createSection(final String title, final Optional<String> description, final Double duration) {
@@ -569,6 +905,7 @@ public final class Manager implements RPManager {
             throw new NoSuchElementException("No section present at that time");
         } else {
             this.timeline.removeSection(this.timeline.getSection(time).get());
+            this.commit();
         }
     }
 
@@ -599,23 +936,19 @@ public final class Manager implements RPManager {
     private Double furthestClipTime() throws ClipNotFoundException {
         double time = 0.0;
         for (final var r : this.getRoles()) {
-            final var i = this.channelLinker.getTapeChannel(r).getClipWithTimeIterator();
+            final var tapeChannel = this.channelLinker.getTapeChannel(r);
+            final var i = tapeChannel.getClipWithTimeIterator();
             while (i.hasNext()) {
-                final var clip = i.next().getValue();
-                if (Double.compare(this.clipEndTime(clip), time) > 0) {
-                    time = this.clipEndTime(clip);
+                final var clip = i.next();
+                final double timeOut = tapeChannel.calculateTimeOut(clip.getKey(), clip.getValue().getDuration());
+                if (Double.compare(timeOut, time) > 0) {
+                    time = timeOut;
                 }
             }
         }
         return time;
     }
 
-    private Double clipEndTime(final RPClip<?> clip) throws ClipNotFoundException {
-        final String channel = this.getClipChannel(clip.getTitle());
-        return this.channelLinker.getTapeChannel(this.channelLinker.getRole(channel))
-                .getClipTimeOut(this.getClipTime(clip.getTitle(), channel));
-    }
-
     /**
      * {@inheritDoc}
      * @param clip the name of a clip.
@@ -623,14 +956,97 @@ public final class Manager implements RPManager {
      */
     @Override
     public String getClipChannel(final String clip) {
-        for (final var r : this.getRoles()) {
-            final var i = this.channelLinker.getTapeChannel(r)
-                    .getClipWithTimeIteratorFiltered(c -> c.getValue().getTitle().equals(clip));
-            if (i.hasNext()) {
-                return r.getTitle();
-            }
+        if (!this.clipLinker.clipExists(clip)) {
+            return null;
         }
-        return null;
+        final RPRole role = this.partChannels.get(this.clipLinker.getPart(clip));
+        return role == null ? null : role.getTitle();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param channel the name of a channel.
+     * @param index the position of the effect in the processing unit of the channel.
+     * @param parameters the new values of the parameters of the effect.
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    @Override
+    public void setEffectParameters(final String channel, final int index, final Map<String, Float> parameters)
+            throws NoSuchElementException {
+        final RPEffect effect = this.getChannelFromTitle(channel).getProcessingUnit().orElseThrow()
+                .getEffectAtPosition(index);
+        if (!this.effectParameters.containsKey(effect)) {
+            // the values the effect had until now become part of the current version, so that they can be restored
+            this.effectParameters = this.effectParameters.put(effect, Map.copyOf(effect.getParameters()));
+            this.history.amend(this.saveState(this.history.getCurrent()));
+        }
+        effect.setParameters(parameters);
+        this.effectParameters = this.effectParameters.put(effect, Map.copyOf(effect.getParameters()));
+        this.commit();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean canUndo() {
+        return this.history.canUndo();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean canRedo() {
+        return this.history.canRedo();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalStateException {@inheritDoc}
+     */
+    @Override
+    public void undo() throws IllegalStateException {
+        final State current = this.saveState(this.history.getCurrent());
+        this.restoreState(current, this.history.undo());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalStateException {@inheritDoc}
+     */
+    @Override
+    public void redo() throws IllegalStateException {
+        final State current = this.saveState(this.history.getCurrent());
+        this.restoreState(current, this.history.redo());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clearHistory() {
+        this.history.reset(this.saveState(this.history.getCurrent()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param listener {@inheritDoc}
+     */
+    @Override
+    public void addClipEditListener(final ClipEditListener listener) {
+        this.clipListeners.add(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param listener {@inheritDoc}
+     */
+    @Override
+    public void removeClipEditListener(final ClipEditListener listener) {
+        this.clipListeners.remove(listener);
     }
 
     /**
@@ -672,4 +1088,143 @@ public final class Manager implements RPManager {
         return this.rubric.getSpeakers();
     }
 
+    private void commit() {
+        final State previous = this.history.getCurrent();
+        final State state = this.saveState(previous);
+        this.history.commit(state, state.estimateRetainedSize(previous));
+        this.fireClipEdits(previous.tapes, state.tapes);
+    }
+
+    // only the tapes that changed are compared, and inside them only the clips that changed
+    private void fireClipEdits(final PersistentMap<RPRole, Versioned.Snapshot> before,
+                               final PersistentMap<RPRole, Versioned.Snapshot> after) {
+        if (this.clipListeners.isEmpty()) {
+            return;
+        }
+        before.forEachDifference(after, (role, tape) -> {
+            if (tape != null) {
+                final RPChannel channel = this.channelLinker.getChannel(role);
+                this.channelLinker.getTapeChannel(role).forEachChange(before.get(role),
+                        change -> this.fireClipEdit(channel, change));
+            }
+        });
+    }
+
+    private void fireClipEdit(final RPChannel channel, final ClipChange change) {
+        this.clipListeners.forEach(l -> l.clipEdited(channel, change));
+    }
+
+    // the tape of a channel that is going to be edited, which is taken again by the next saved state
+    private RPTapeChannel editTape(final String channel) {
+        final RPRole role = this.channelLinker.getRole(channel);
+        this.dirtyTapes.add(role);
+        return this.channelLinker.getTapeChannel(role);
+    }
+
+    // the tapes are taken again from the previous state, so only the ones that have been edited are visited
+    private State saveState(final State previous) {
+        PersistentMap<RPRole, Versioned.Snapshot> tapes = previous == null ? PersistentMap.empty() : previous.tapes;
+        for (final RPRole role : this.dirtyTapes) {
+            if (this.channelLinker.channelExists(role.getTitle())
+                    && role.equals(this.channelLinker.getRole(role.getTitle()))) {
+                tapes = tapes.put(role, this.channelLinker.getTapeChannel(role).snapshot());
+            } else {
+                tapes = tapes.remove(role);
+            }
+        }
+        this.dirtyTapes.clear();
+        return new State(this.channelLinker.snapshot(), this.clipLinker.snapshot(), this.timeline.snapshot(), tapes,
+                this.groupMap, this.returnMap, this.partChannels, this.effectParameters, this.projectLength);
+    }
+
+    private void restoreState(final State current, final State target) {
+        // the sends that go away are removed while their channels can still be found
+        current.returnMap.forEachDifference(target.returnMap, (role, sends) -> {
+            if (current.returnMap.containsKey(role)) {
+                current.returnMap.get(role).stream()
+                        .filter(send -> sends == null || this.without(sends, send.getChannel()).equals(sends))
+                        .forEach(send -> this.getSendingChannel(send).removeSend(this.channelLinker.getChannel(role)));
+            }
+        });
+        this.channelLinker.restore(target.channels);
+        this.clipLinker.restore(target.clips);
+        this.timeline.restore(target.sections);
+        current.tapes.forEachDifference(target.tapes, (role, tape) -> {
+            if (tape != null) {
+                this.channelLinker.getTapeChannel(role).restore(tape);
+            }
+        });
+        current.effectParameters.forEachDifference(target.effectParameters, (effect, parameters) -> {
+            if (parameters != null) {
+                effect.setParameters(parameters);
+            }
+        });
+        current.returnMap.forEachDifference(target.returnMap, (role, sends) -> {
+            if (sends != null) {
+                final List<ChannelSend> previous = current.returnMap.containsKey(role)
+                        ? current.returnMap.get(role) : List.of();
+                sends.stream()
+                        .filter(send -> !previous.contains(send))
+                        .forEach(send -> this.getSendingChannel(send)
+                                .setSend(this.channelLinker.getChannel(role), send.getLevel(), send.isPreFader()));
+            }
+        });
+        this.groupMap = target.groupMap;
+        this.returnMap = target.returnMap;
+        this.partChannels = target.partChannels;
+        this.effectParameters = target.effectParameters;
+        this.projectLength = target.projectLength;
+    }
+
+    /**
+     * A version of the editable state of a manager. All its parts share their structure with the
+     * other versions, so it only takes the memory of what changed.
+     */
+    private static final class State {
+
+        private final Versioned.Snapshot channels;
+        private final Versioned.Snapshot clips;
+        private final Versioned.Snapshot sections;
+        private final PersistentMap<RPRole, Versioned.Snapshot> tapes;
+        private final PersistentMap<RPRole, List<RPRole>> groupMap;
+        private final PersistentMap<RPRole, List<ChannelSend>> returnMap;
+        private final PersistentMap<RPPart, RPRole> partChannels;
+        private final PersistentMap<RPEffect, Map<String, Float>> effectParameters;
+        private final double projectLength;
+
+        private State(final Versioned.Snapshot channels, final Versioned.Snapshot clips,
+                      final Versioned.Snapshot sections, final PersistentMap<RPRole, Versioned.Snapshot> tapes,
+                      final PersistentMap<RPRole, List<RPRole>> groupMap,
+                      final PersistentMap<RPRole, List<ChannelSend>> returnMap,
+                      final PersistentMap<RPPart, RPRole> partChannels,
+                      final PersistentMap<RPEffect, Map<String, Float>> effectParameters,
+                      final double projectLength) {
+            this.channels = channels;
+            this.clips = clips;
+            this.sections = sections;
+            this.tapes = tapes;
+            this.groupMap = groupMap;
+            this.returnMap = returnMap;
+            this.partChannels = partChannels;
+            this.effectParameters = effectParameters;
+            this.projectLength = projectLength;
+        }
+
+        private long estimateRetainedSize(final State previous) {
+            long size = this.channels.estimateRetainedSize(previous.channels)
+                    + this.clips.estimateRetainedSize(previous.clips)
+                    + this.sections.estimateRetainedSize(previous.sections)
+                    + this.tapes.estimateRetainedSize(previous.tapes)
+                    + this.groupMap.estimateRetainedSize(previous.groupMap)
+                    + this.returnMap.estimateRetainedSize(previous.returnMap)
+                    + this.partChannels.estimateRetainedSize(previous.partChannels)
+                    + this.effectParameters.estimateRetainedSize(previous.effectParameters);
+            for (final var e : this.tapes) {
+                if (previous.tapes.get(e.getKey()) != e.getValue()) {
+                    size += e.getValue().estimateRetainedSize(previous.tapes.get(e.getKey()));
+                }
+            }
+            return size;
+        }
+    }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import daw.core.channel.RPChannel;
 import daw.core.clip.RPTapeChannel;
 import daw.utilities.RPPair;
+import daw.utilities.Versioned;
 import planning.RPRole;
 import java.util.List;
 import java.util.Set;
@@ -13,7 +14,7 @@ import java.util.Set;
  * {@link RPTapeChannel}.
  */
 @JsonDeserialize(as = ChannelLinker.class)
-public interface RPChannelLinker {
+public interface RPChannelLinker extends Versioned {
 
 	/**
 	 * This method links all the given components.
@@ -2,13 +2,14 @@ package daw.manager;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import daw.core.clip.RPClip;
+import daw.utilities.Versioned;
 import planning.RPPart;
 
 /**
  * This interface represents a class to link a {@link RPPart} to its corresponding {@link RPClip}.
  */
 @JsonDeserialize(as = ClipLinker.class)
-public interface RPClipLinker {
+public interface RPClipLinker extends Versioned {
 
 	/**
 	 * This method links the given {@link RPPart} to the given {@link RPClip}.
@@ -3,7 +3,9 @@ package daw.manager;
 import daw.core.channel.RPChannel;
 import daw.core.clip.ClipNotFoundException;
 import daw.core.clip.RPClip;
+import daw.core.clip.Take;
 import daw.core.mixer.RPMixer;
+import net.beadsproject.beads.core.AudioContext;
 import planning.RPPart;
 import planning.RPRole;
 import planning.RPSection;
@@ -58,6 +60,60 @@ public interface RPManager {
      */
     void createGroup(String groupName, RPRole.RoleType type) throws IllegalArgumentException;
 
+    /**
+     * A method to create a return channel, which runs its effects on the audio that the other channels send to it.
+     *
+     * @param title the title of the return channel
+     * @throws IllegalArgumentException if a Channel with the given title already exists or the title is empty
+     */
+    void createReturn(String title) throws IllegalArgumentException;
+
+    /**
+     * A method to remove a return channel, together with the sends to it.
+     *
+     * @param title the title of the return channel
+     * @throws NoSuchElementException if a return channel with the given title does not exist
+     */
+    void removeReturn(String title) throws NoSuchElementException;
+
+    /**
+     * A method to send the audio of a Channel to a return channel, or to change the send if it already exists.
+     *
+     * @param channel the title of the Channel that sends its audio, which cannot be a return channel
+     * @param returnChannel the title of the return channel
+     * @param level the gain applied to the sent audio, between 0 and 1
+     * @param preFader true if the audio is taken before the volume of the Channel
+     * @throws IllegalArgumentException if the Channel is a return channel, so that sends cannot make a cycle,
+     * or if the level is not between 0 and 1
+     * @throws NoSuchElementException if the Channel or the return channel do not exist
+     */
+    void setSend(String channel, String returnChannel, float level, boolean preFader);
+
+    /**
+     * A method to remove the send of a Channel to a return channel, if it exists.
+     *
+     * @param channel the title of the Channel that sends its audio
+     * @param returnChannel the title of the return channel
+     * @throws NoSuchElementException if the return channel does not exist
+     */
+    void removeSend(String channel, String returnChannel);
+
+    /**
+     * A method to get the return channels.
+     *
+     * @return a List of the {@link RPRole} of the return channels
+     */
+    List<RPRole> getReturns();
+
+    /**
+     * A method to get the sends to a return channel.
+     *
+     * @param returnChannel the title of the return channel
+     * @return a List of {@link ChannelSend}
+     * @throws NoSuchElementException if the return channel does not exist
+     */
+    List<ChannelSend> getSends(String returnChannel);
+
     /**
      * This method creates Clip and all the corresponding components.
      *
@@ -74,6 +130,18 @@ public interface RPManager {
     void addClip(RPPart.PartType type, String title, Optional<String> description, String channel, Double time,
                  Double duration,  Optional<File> content) throws ImportException, IllegalArgumentException;
 
+    /**
+     * This method puts the recorded takes on the channels they have been recorded on, as a single edit that is
+     * undone at once. Each take is a clip of the type of its channel, titled "channel take n", and replaces what
+     * was on its channel while it was recorded: the clips it covers entirely are removed, and the others are cut.
+     * The takes that can be loaded are added even if others cannot.
+     *
+     * @param takes the recorded {@link Take}s
+     * @return the titles of the clips that have been added
+     * @throws ImportException if a take cannot be loaded, once all the others have been added
+     */
+    List<String> addTakes(List<Take> takes) throws ImportException;
+
     /**
      * This method adds a content to a Clip.
      *
@@ -139,6 +207,12 @@ public interface RPManager {
      */
     RPMixer getMixer();
 
+    /**
+     *
+     * @return the {@link AudioContext} that runs the channels of this manager
+     */
+    AudioContext getAudioContext();
+
     /**
      *
      * @return the list of {@link RPRole}  of all channels excluded groups
@@ -266,6 +340,58 @@ public interface RPManager {
      */
     String getClipChannel(String clip);
 
+    /**
+     * Sets the parameters of an effect, so that the change can be undone.
+     * @param channel the name of a channel.
+     * @param index the position of the effect in the processing unit of the channel.
+     * @param parameters the new values of the parameters of the effect.
+     * @throws NoSuchElementException if the channel has no processing unit.
+     */
+    void setEffectParameters(String channel, int index, Map<String, Float> parameters) throws NoSuchElementException;
+
+    /**
+     * Checks if there is an edit that can be undone. Every edit made through this manager to the channels, groups,
+     * clips, sections and effect parameters can be undone.
+     * @return true if an edit can be undone, false otherwise.
+     */
+    boolean canUndo();
+
+    /**
+     * Checks if there is an undone edit that can be redone.
+     * @return true if an edit can be redone, false otherwise.
+     */
+    boolean canRedo();
+
+    /**
+     * Undoes the last edit.
+     * @throws IllegalStateException if there is nothing to undo.
+     */
+    void undo() throws IllegalStateException;
+
+    /**
+     * Redoes the last undone edit.
+     * @throws IllegalStateException if there is nothing to redo.
+     */
+    void redo() throws IllegalStateException;
+
+    /**
+     * Forgets all the edits, so that the current state cannot be undone.
+     */
+    void clearHistory();
+
+    /**
+     * Registers a listener that is told about every clip that is added, removed, moved or trimmed by an edit made
+     * through this manager. Undoing and redoing are not reported, as they can change any number of clips.
+     * @param listener a {@link ClipEditListener}.
+     */
+    void addClipEditListener(ClipEditListener listener);
+
+    /**
+     * Unregisters a listener of the clip edits.
+     * @param listener a {@link ClipEditListener} previously registered.
+     */
+    void removeClipEditListener(ClipEditListener listener);
+
     /**
      * Creates a new {@link Speaker}.
      * @param id a numeric value representing the speaker.
@@ -1,19 +1,174 @@
 package daw.utilities;
 
 import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.AudioIO;
+import net.beadsproject.beads.core.IOAudioFormat;
+import net.beadsproject.beads.core.io.JavaSoundAudioIO;
+import net.beadsproject.beads.core.io.NonrealtimeIO;
+import java.util.Optional;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Singleton based class that allows to get the lone {@link AudioContext} object,
  * which is the link between the Beads library and the Java Sound API.
+ * <p>The context is built from an {@link EngineProfile}, which is read from the system properties at startup
+ * (or is {@link EngineProfile#DEFAULT} if they are not valid) and can be changed later with
+ * {@link #setProfile(EngineProfile)}. Changing it replaces the context, so
+ * everything that has been built in the previous one must be built again.
+ * <p>The context must be started and stopped with {@link #start()} and {@link #stop()}, which follow the
+ * {@link EngineProfile.Mode} of the profile.
+ * <p>This is the context of the application. A project can also be run by a context of its own, created with
+ * {@link #newAudioContext(EngineProfile)} and given to its {@link daw.manager.Manager}, so that several projects
+ * can be rendered at the same time, each one by its own thread.
  */
 public final class AudioContextManager {
 
-    private static final AudioContext AC = new AudioContext();
+    private static final int BIT_DEPTH = 16;
+    private static final int CHANNELS = 2;
+    private static final long NANOS_PER_MS = 1_000_000L;
+
+    // why the profile of the system properties has been replaced by the default one, if it has
+    private static volatile Optional<String> profileError = Optional.empty();
+    private static volatile EngineProfile profile = readProfile();
+    private static volatile AudioContext ac = newAudioContext(profile);
+    // the thread that runs the context when there is no device
+    private static Thread runner;
+    private static volatile boolean running;
 
     private AudioContextManager() {}
 
+    // a wrong property must not stop the application from starting, so the default profile is taken instead
+    private static EngineProfile readProfile() {
+        try {
+            return EngineProfile.fromProperties(System.getProperties());
+        } catch (IllegalArgumentException e) {
+            profileError = Optional.of("Invalid engine properties, the default profile is used: " + e.getMessage());
+            return EngineProfile.DEFAULT;
+        }
+    }
+
+    /**
+     * Gets the error that made the profile of the system properties be replaced by {@link EngineProfile#DEFAULT}
+     * at startup, so that it can be reported once there is someone to report it to.
+     *
+     * @return the message of the error, or an empty {@link Optional} if the properties were valid.
+     */
+    public static Optional<String> getProfileError() {
+        return profileError;
+    }
+
     public static AudioContext getAudioContext() {
-        return AC;
+        return ac;
+    }
+
+    /**
+     * @return the {@link EngineProfile} of the current {@link AudioContext}.
+     */
+    public static EngineProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Replaces the {@link AudioContext} with a new one built from the given profile, after stopping the
+     * current one. The {@link net.beadsproject.beads.core.UGen}s of the previous context are not moved to
+     * the new one, so the caller must build them again.
+     * Nothing is done if the profile is the current one.
+     *
+     * @param  newProfile  the {@link EngineProfile} of the new context.
+     *
+     * @return true if the context has been replaced.
+     */
+    public static synchronized boolean setProfile(final EngineProfile newProfile) {
+        if (newProfile.equals(profile)) {
+            return false;
+        }
+        setProfile(newProfile, newAudioContext(newProfile));
+        return true;
+    }
+
+    /**
+     * Replaces the {@link AudioContext} with the given one, after stopping the current one. This lets the
+     * caller build everything in the new context before replacing the current one, so that nothing is lost
+     * if the building fails.
+     *
+     * @param  newProfile  the {@link EngineProfile} of the new context.
+     *
+     * @param  context  the new context, created with {@link #newAudioContext(EngineProfile)} from the profile.
+     */
+    public static synchronized void setProfile(final EngineProfile newProfile, final AudioContext context) {
+        stop();
+        ac = context;
+        profile = newProfile;
+    }
+
+    /**
+     * Starts running the {@link AudioContext}: on the system device in realtime mode, or on a thread of its
+     * own otherwise.
+     */
+    public static synchronized void start() {
+        if (profile.getMode() == EngineProfile.Mode.REALTIME) {
+            ac.start();
+        } else if (runner == null) {
+            final AudioContext context = ac;
+            final boolean paced = profile.getMode() == EngineProfile.Mode.NULL;
+            final double bufferTime = profile.getBufferLatency();
+            running = true;
+            runner = new Thread(() -> run(context, paced, bufferTime), "audio engine");
+            runner.setDaemon(true);
+            runner.start();
+        }
+    }
+
+    /**
+     * Stops running the {@link AudioContext}, waiting for the buffer being processed to be done.
+     */
+    public static synchronized void stop() {
+        if (runner != null) {
+            running = false;
+            try {
+                runner.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            runner = null;
+        } else {
+            ac.stop();
+        }
+    }
+
+    // runs a buffer at a time, waiting for the time it would take to play it if the run is paced
+    private static void run(final AudioContext context, final boolean paced, final double bufferTime) {
+        final long period = (long) (bufferTime * NANOS_PER_MS);
+        long next = System.nanoTime();
+        while (running) {
+            context.runForNMillisecondsNonRealTime(bufferTime);
+            if (paced) {
+                next += period;
+                final long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else {
+                    // a late buffer is not made up for
+                    next = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a context that is not managed by this class, with the given profile.
+     * A context with no device is run by calling its
+     * {@link AudioContext#runForNMillisecondsNonRealTime(double)} from the thread of the caller.
+     *
+     * @param  profile  the {@link EngineProfile} of the context.
+     *
+     * @return the new {@link AudioContext}.
+     */
+    public static AudioContext newAudioContext(final EngineProfile profile) {
+        final AudioIO io = profile.getMode() == EngineProfile.Mode.REALTIME
+                ? new JavaSoundAudioIO() : new NonrealtimeIO();
+        return new AudioContext(io, profile.getBufferSize(),
+                new IOAudioFormat(profile.getSampleRate(), BIT_DEPTH, CHANNELS, CHANNELS));
     }
 
 }
@@ -0,0 +1,173 @@
+package daw.utilities;
+
+import java.util.Arrays;
+
+/**
+ * A linear undo/redo history of versions, bounded both in length and in memory.
+ * <p>The memory of a version is estimated as the bytes it does not share with the version before it,
+ * so the versions are expected to share most of their structure (see {@link PersistentMap}).
+ * When a bound is exceeded the oldest versions are forgotten. Undo and redo only move a cursor.
+ *
+ * @param  <S>  the type of the versions.
+ */
+public final class BoundedHistory<S> {
+
+	private final Object[] versions;
+	private final long[] sizes;
+	private final long maxRetainedSize;
+	private int first;
+	private int count;
+	private int cursor;
+	private long retainedSize;
+
+	/**
+	 * Creates a history whose only version is the given one.
+	 *
+	 * @param  maxVersions  the maximum number of versions to keep, the current one included.
+	 *
+	 * @param  maxRetainedSize  the maximum number of bytes the kept versions should take.
+	 *
+	 * @param  initial  the first version.
+	 *
+	 * @throws  IllegalArgumentException  if {@code maxVersions} is less than one or {@code maxRetainedSize} is negative.
+	 */
+	public BoundedHistory(final int maxVersions, final long maxRetainedSize, final S initial) {
+		if (maxVersions < 1 || maxRetainedSize < 0) {
+			throw new IllegalArgumentException("The history must be able to keep at least one version");
+		}
+		this.versions = new Object[maxVersions];
+		this.sizes = new long[maxVersions];
+		this.maxRetainedSize = maxRetainedSize;
+		this.reset(initial);
+	}
+
+	/**
+	 * Forgets all the versions and keeps the given one only.
+	 *
+	 * @param  initial  the new first version.
+	 */
+	public void reset(final S initial) {
+		Arrays.fill(this.versions, null);
+		Arrays.fill(this.sizes, 0);
+		this.first = 0;
+		this.count = 1;
+		this.cursor = 0;
+		this.retainedSize = 0;
+		this.versions[0] = initial;
+	}
+
+	/**
+	 * Adds a new version after the current one. The versions that could be redone are forgotten.
+	 *
+	 * @param  version  the new version.
+	 *
+	 * @param  size  the estimated bytes the new version does not share with the current one.
+	 */
+	public void commit(final S version, final long size) {
+		for (int i = this.cursor + 1; i < this.count; i++) {
+			this.retainedSize -= this.sizes[this.slot(i)];
+			this.versions[this.slot(i)] = null;
+		}
+		this.count = this.cursor + 1;
+		if (this.count == this.versions.length) {
+			this.dropOldest();
+		}
+		this.versions[this.slot(this.count)] = version;
+		this.sizes[this.slot(this.count)] = size;
+		this.retainedSize += size;
+		this.count++;
+		this.cursor = this.count - 1;
+		while (this.retainedSize > this.maxRetainedSize && this.count > 1) {
+			this.dropOldest();
+		}
+	}
+
+	/**
+	 * Replaces the current version with the given one, which must describe the same state.
+	 *
+	 * @param  version  the version that replaces the current one.
+	 */
+	public void amend(final S version) {
+		this.versions[this.slot(this.cursor)] = version;
+	}
+
+	/**
+	 * @return {@code true} if there is a version before the current one.
+	 */
+	public boolean canUndo() {
+		return this.cursor > 0;
+	}
+
+	/**
+	 * @return {@code true} if there is a version after the current one.
+	 */
+	public boolean canRedo() {
+		return this.cursor < this.count - 1;
+	}
+
+	/**
+	 * Moves back to the previous version.
+	 *
+	 * @return the version that became the current one.
+	 *
+	 * @throws  IllegalStateException  if there is nothing to undo.
+	 */
+	public S undo() {
+		if (!this.canUndo()) {
+			throw new IllegalStateException("Nothing to undo");
+		}
+		this.cursor--;
+		return this.getCurrent();
+	}
+
+	/**
+	 * Moves forward to the next version.
+	 *
+	 * @return the version that became the current one.
+	 *
+	 * @throws  IllegalStateException  if there is nothing to redo.
+	 */
+	public S redo() {
+		if (!this.canRedo()) {
+			throw new IllegalStateException("Nothing to redo");
+		}
+		this.cursor++;
+		return this.getCurrent();
+	}
+
+	/**
+	 * @return the current version.
+	 */
+	@SuppressWarnings("unchecked")
+	public S getCurrent() {
+		return (S) this.versions[this.slot(this.cursor)];
+	}
+
+	/**
+	 * @return the estimated bytes taken by the kept versions in addition to the oldest one.
+	 */
+	public long getRetainedSize() {
+		return this.retainedSize;
+	}
+
+	/**
+	 * @return the number of kept versions, the current one included.
+	 */
+	public int size() {
+		return this.count;
+	}
+
+	private int slot(final int position) {
+		return (this.first + position) % this.versions.length;
+	}
+
+	// the second oldest version becomes the base, freeing about as much memory as it took on top of the oldest one
+	private void dropOldest() {
+		this.retainedSize -= this.sizes[this.slot(1)];
+		this.sizes[this.slot(1)] = 0;
+		this.versions[this.first] = null;
+		this.first = this.slot(1);
+		this.count--;
+		this.cursor--;
+	}
+}
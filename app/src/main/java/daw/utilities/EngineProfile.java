@@ -0,0 +1,199 @@
+package daw.utilities;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * The settings the {@link net.beadsproject.beads.core.AudioContext} is built with: its buffer size, its sample rate
+ * and the way it is run.
+ * <p>A small buffer lowers the latency, which matters while recording, while a large one lowers the load,
+ * which matters while mixing or exporting.
+ * <p>The profile used at startup is read from the system properties {@value #BUFFER_SIZE_PROPERTY},
+ * {@value #SAMPLE_RATE_PROPERTY} and {@value #MODE_PROPERTY}, for example
+ * {@code -Dresplan.engine.bufferSize=256}.
+ */
+public final class EngineProfile {
+
+	/**
+	 * The system property with the buffer size in frames.
+	 */
+	public static final String BUFFER_SIZE_PROPERTY = "resplan.engine.bufferSize";
+
+	/**
+	 * The system property with the sample rate in Hz.
+	 */
+	public static final String SAMPLE_RATE_PROPERTY = "resplan.engine.sampleRate";
+
+	/**
+	 * The system property with the name of the {@link Mode}.
+	 */
+	public static final String MODE_PROPERTY = "resplan.engine.mode";
+
+	/**
+	 * The buffer size of Beads, which is used when no other is given.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 512;
+
+	/**
+	 * The sample rate of Beads, which is used when no other is given.
+	 */
+	public static final float DEFAULT_SAMPLE_RATE = 44_100.0f;
+
+	/**
+	 * The default profile, which plays on the system device with the defaults of Beads.
+	 */
+	public static final EngineProfile DEFAULT = new EngineProfile(Mode.REALTIME, DEFAULT_BUFFER_SIZE,
+			DEFAULT_SAMPLE_RATE);
+
+	private static final int MIN_BUFFER_SIZE = 16;
+	private static final int MAX_BUFFER_SIZE = 8192;
+
+	private final Mode mode;
+	private final int bufferSize;
+	private final float sampleRate;
+
+	/**
+	 * The ways the audio can be run.
+	 */
+	public enum Mode {
+		/**
+		 * The audio is played on the system device through Java Sound, at the pace of the device.
+		 */
+		REALTIME,
+		/**
+		 * There is no device, and the audio is run as fast as possible once started. It is meant for renders
+		 * that follow the frames of the audio, like the automation does, rather than the system clock.
+		 */
+		OFFLINE,
+		/**
+		 * There is no device, and the audio is run at the pace it would be played at, then discarded.
+		 * It is meant for machines with no audio device.
+		 */
+		NULL
+	}
+
+	/**
+	 * Constructs a profile.
+	 *
+	 * @param  mode  the {@link Mode} the audio is run in.
+	 * @param  bufferSize  the frames of a buffer, which must be a power of two between 16 and 8192.
+	 * @param  sampleRate  the sample rate in Hz.
+	 *
+	 * @throws  IllegalArgumentException  if the buffer size or the sample rate are not valid.
+	 */
+	public EngineProfile(final Mode mode, final int bufferSize, final float sampleRate) {
+		if (bufferSize < MIN_BUFFER_SIZE || bufferSize > MAX_BUFFER_SIZE || Integer.bitCount(bufferSize) != 1) {
+			throw new IllegalArgumentException("The buffer size must be a power of two between "
+					+ MIN_BUFFER_SIZE + " and " + MAX_BUFFER_SIZE + ".");
+		}
+		if (!(sampleRate > 0.0f)) {
+			throw new IllegalArgumentException("The sample rate must be positive.");
+		}
+		this.mode = Objects.requireNonNull(mode);
+		this.bufferSize = bufferSize;
+		this.sampleRate = sampleRate;
+	}
+
+	/**
+	 * Reads a profile from the given properties, taking the default value of each missing one.
+	 *
+	 * @param  properties  the properties, usually the system ones.
+	 *
+	 * @return the {@link EngineProfile}.
+	 *
+	 * @throws  IllegalArgumentException  if a property is not valid.
+	 */
+	public static EngineProfile fromProperties(final Properties properties) {
+		try {
+			return new EngineProfile(
+					Mode.valueOf(properties.getProperty(MODE_PROPERTY, DEFAULT.mode.name()).toUpperCase(Locale.ROOT)),
+					Integer.parseInt(properties.getProperty(BUFFER_SIZE_PROPERTY, String.valueOf(DEFAULT_BUFFER_SIZE))),
+					Float.parseFloat(properties.getProperty(SAMPLE_RATE_PROPERTY, String.valueOf(DEFAULT_SAMPLE_RATE))));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("The engine profile is not valid: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return the {@link Mode} the audio is run in.
+	 */
+	public Mode getMode() {
+		return this.mode;
+	}
+
+	/**
+	 * @return the frames of a buffer.
+	 */
+	public int getBufferSize() {
+		return this.bufferSize;
+	}
+
+	/**
+	 * @return the sample rate in Hz.
+	 */
+	public float getSampleRate() {
+		return this.sampleRate;
+	}
+
+	/**
+	 * @return the latency of a buffer in milliseconds.
+	 */
+	public double getBufferLatency() {
+		return this.bufferSize * 1000.0 / this.sampleRate;
+	}
+
+	/**
+	 * @param  mode  the new {@link Mode}.
+	 *
+	 * @return a profile like this one, run in the given {@link Mode}.
+	 */
+	public EngineProfile withMode(final Mode mode) {
+		return new EngineProfile(mode, this.bufferSize, this.sampleRate);
+	}
+
+	/**
+	 * @param  bufferSize  the new frames of a buffer.
+	 *
+	 * @return a profile like this one, with the given buffer size.
+	 *
+	 * @throws  IllegalArgumentException  if the buffer size is not valid.
+	 */
+	public EngineProfile withBufferSize(final int bufferSize) {
+		return new EngineProfile(this.mode, bufferSize, this.sampleRate);
+	}
+
+	/**
+	 * @param  sampleRate  the new sample rate in Hz.
+	 *
+	 * @return a profile like this one, with the given sample rate.
+	 *
+	 * @throws  IllegalArgumentException  if the sample rate is not valid.
+	 */
+	public EngineProfile withSampleRate(final float sampleRate) {
+		return new EngineProfile(this.mode, this.bufferSize, sampleRate);
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		final EngineProfile that = (EngineProfile) o;
+		return this.mode == that.mode && this.bufferSize == that.bufferSize
+				&& Float.compare(this.sampleRate, that.sampleRate) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.mode, this.bufferSize, this.sampleRate);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "%s, %d frames at %.0f Hz", this.mode, this.bufferSize, this.sampleRate);
+	}
+}
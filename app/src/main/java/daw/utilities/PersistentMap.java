@@ -0,0 +1,485 @@
+package daw.utilities;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * An immutable map whose updates return a new map sharing with the previous one
+ * every part of the structure that the update did not touch.
+ * <p>It is implemented as a hash array mapped trie: an update copies only the nodes on the path
+ * of the updated key, which are O(log n), so keeping many versions of a big map is cheap.
+ * The shape of the trie only depends on the keys it contains, so two versions of the same map
+ * can be compared by skipping all the nodes they share.
+ *
+ * @param  <K>  the type of keys maintained by this map.
+ *
+ * @param  <V>  the type of mapped values.
+ */
+public final class PersistentMap<K, V> implements Iterable<Entry<K, V>> {
+
+	/**
+	 * An estimate of the bytes taken by a node of the trie, used to account the memory of the versions.
+	 */
+	public static final int NODE_SIZE = 48;
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+
+	/**
+	 * Either null, a {@link Leaf}, a {@link Collision} or a {@link Branch}.
+	 */
+	private final Object root;
+	private final int size;
+
+	private PersistentMap(final Object root, final int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * @param  <K>  the type of keys.
+	 *
+	 * @param  <V>  the type of values.
+	 *
+	 * @return the empty map.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentMap<K, V> empty() {
+		return (PersistentMap<K, V>) EMPTY;
+	}
+
+	/**
+	 * @param  <K>  the type of keys.
+	 *
+	 * @param  <V>  the type of values.
+	 *
+	 * @param  map  the mappings to copy.
+	 *
+	 * @return a map containing the same mappings of the given {@link Map}.
+	 */
+	public static <K, V> PersistentMap<K, V> copyOf(final Map<? extends K, ? extends V> map) {
+		PersistentMap<K, V> copy = empty();
+		for (final Entry<? extends K, ? extends V> e : map.entrySet()) {
+			copy = copy.put(e.getKey(), e.getValue());
+		}
+		return copy;
+	}
+
+	/**
+	 * @param  key  the key whose associated value is to be returned.
+	 *
+	 * @return the value to which the specified {@code key} is mapped, or null if this map contains no mapping for it.
+	 */
+	public V get(final Object key) {
+		final Leaf<K, V> leaf = this.find(key);
+		return leaf == null ? null : leaf.value;
+	}
+
+	/**
+	 * @param  key  the key whose presence is to be tested.
+	 *
+	 * @return {@code true} if this map contains a mapping for the specified {@code key}.
+	 */
+	public boolean containsKey(final Object key) {
+		return this.find(key) != null;
+	}
+
+	/**
+	 * Associates the specified {@code value} with the specified {@code key}.
+	 *
+	 * @param  key  key with which the specified {@code value} is to be associated.
+	 *
+	 * @param  value  value to be associated with the specified {@code key}.
+	 *
+	 * @return a map containing the new mapping, or this same map if the {@code key} was already mapped to {@code value}.
+	 */
+	public PersistentMap<K, V> put(final K key, final V value) {
+		final Leaf<K, V> leaf = new Leaf<>(hash(key), key, value);
+		final Object newRoot = put(this.root, 0, leaf);
+		if (newRoot == this.root) {
+			return this;
+		}
+		return new PersistentMap<>(newRoot, this.containsKey(key) ? this.size : this.size + 1);
+	}
+
+	/**
+	 * Removes the mapping for the specified {@code key}.
+	 *
+	 * @param  key  key whose mapping is to be removed.
+	 *
+	 * @return a map without the mapping, or this same map if there was no mapping for the {@code key}.
+	 */
+	public PersistentMap<K, V> remove(final Object key) {
+		final Object newRoot = remove(this.root, 0, hash(key), key);
+		if (newRoot == this.root) {
+			return this;
+		}
+		return newRoot == null ? empty() : new PersistentMap<>(newRoot, this.size - 1);
+	}
+
+	/**
+	 * @return the number of mappings in this map.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @return {@code true} if this map contains no mappings.
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Performs the given {@code action} for each mapping of this map.
+	 *
+	 * @param  action  the action to be performed.
+	 */
+	public void forEach(final BiConsumer<? super K, ? super V> action) {
+		this.stream().forEach(e -> action.accept(e.getKey(), e.getValue()));
+	}
+
+	/**
+	 * @return a sequential stream of the mappings of this map, in no particular order.
+	 */
+	public Stream<Entry<K, V>> stream() {
+		return leaves(this.root);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<Entry<K, V>> iterator() {
+		return this.stream().iterator();
+	}
+
+	/**
+	 * @return a new mutable {@link Map} containing the same mappings of this map.
+	 */
+	public Map<K, V> toMap() {
+		final Map<K, V> map = new HashMap<>();
+		this.forEach(map::put);
+		return map;
+	}
+
+	/**
+	 * Performs the given {@code action} for each key whose mapping differs between this map and the {@code target}.
+	 * <p>Values are compared by identity. The action receives the value the key has in the {@code target},
+	 * or null if the {@code target} has no mapping for it. Parts shared by the two maps are not visited.
+	 *
+	 * @param  target  the map to compare to.
+	 *
+	 * @param  action  the action to be performed.
+	 */
+	public void forEachDifference(final PersistentMap<K, V> target, final BiConsumer<? super K, ? super V> action) {
+		difference(this.root, target.root, action);
+	}
+
+	/**
+	 * @param  base  the map to compare to, or null to consider this map on its own.
+	 *
+	 * @return an estimate of the bytes taken by the nodes of this map that are not shared with the {@code base}.
+	 */
+	public long estimateRetainedSize(final PersistentMap<?, ?> base) {
+		return (long) unshared(this.root, base == null ? null : base.root) * NODE_SIZE;
+	}
+
+	private Leaf<K, V> find(final Object key) {
+		final int hash = hash(key);
+		Object node = this.root;
+		int shift = 0;
+		while (node instanceof Branch) {
+			final Branch branch = (Branch) node;
+			final int bit = bit(hash, shift);
+			if ((branch.bitmap & bit) == 0) {
+				return null;
+			}
+			node = branch.children[branch.index(bit)];
+			shift += BITS;
+		}
+		if (node instanceof Collision) {
+			node = ((Collision) node).find(key);
+		}
+		return this.cast(node, key);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Leaf<K, V> cast(final Object node, final Object key) {
+		if (node instanceof Leaf && Objects.equals(((Leaf<?, ?>) node).key, key)) {
+			return (Leaf<K, V>) node;
+		}
+		return null;
+	}
+
+	private static int hash(final Object key) {
+		final int h = Objects.hashCode(key);
+		return h ^ (h >>> 16);
+	}
+
+	private static int bit(final int hash, final int shift) {
+		return 1 << ((hash >>> shift) & MASK);
+	}
+
+	private static Object put(final Object node, final int shift, final Leaf<?, ?> leaf) {
+		if (node == null) {
+			return leaf;
+		} else if (node instanceof Leaf) {
+			final Leaf<?, ?> old = (Leaf<?, ?>) node;
+			if (old.hash != leaf.hash) {
+				return merge(old, old.hash, leaf, shift);
+			} else if (Objects.equals(old.key, leaf.key)) {
+				return old.value == leaf.value ? old : leaf;
+			}
+			return new Collision(leaf.hash, new Leaf<?, ?>[] {old, leaf});
+		} else if (node instanceof Collision) {
+			final Collision collision = (Collision) node;
+			return collision.hash == leaf.hash ? collision.put(leaf) : merge(collision, collision.hash, leaf, shift);
+		}
+		final Branch branch = (Branch) node;
+		final int bit = bit(leaf.hash, shift);
+		final int index = branch.index(bit);
+		if ((branch.bitmap & bit) == 0) {
+			return branch.insert(bit, index, leaf);
+		}
+		final Object child = branch.children[index];
+		final Object updated = put(child, shift + BITS, leaf);
+		return updated == child ? branch : branch.replace(index, updated);
+	}
+
+	// builds the branches needed to keep apart two nodes with different hashes
+	private static Object merge(final Object node, final int nodeHash, final Leaf<?, ?> leaf, final int shift) {
+		final int nodeBit = bit(nodeHash, shift);
+		final int leafBit = bit(leaf.hash, shift);
+		if (nodeBit == leafBit) {
+			return new Branch(nodeBit, new Object[] {merge(node, nodeHash, leaf, shift + BITS)});
+		}
+		final boolean nodeFirst = ((nodeHash >>> shift) & MASK) < ((leaf.hash >>> shift) & MASK);
+		return new Branch(nodeBit | leafBit, nodeFirst ? new Object[] {node, leaf} : new Object[] {leaf, node});
+	}
+
+	private static Object remove(final Object node, final int shift, final int hash, final Object key) {
+		if (node == null) {
+			return null;
+		} else if (node instanceof Leaf) {
+			final Leaf<?, ?> leaf = (Leaf<?, ?>) node;
+			return leaf.hash == hash && Objects.equals(leaf.key, key) ? null : node;
+		} else if (node instanceof Collision) {
+			final Collision collision = (Collision) node;
+			return collision.hash == hash ? collision.remove(key) : node;
+		}
+		final Branch branch = (Branch) node;
+		final int bit = bit(hash, shift);
+		if ((branch.bitmap & bit) == 0) {
+			return node;
+		}
+		final int index = branch.index(bit);
+		final Object child = branch.children[index];
+		final Object updated = remove(child, shift + BITS, hash, key);
+		if (updated == child) {
+			return node;
+		}
+		final Branch newBranch = updated == null ? branch.delete(bit, index) : branch.replace(index, updated);
+		// a branch holding a single leaf or collision is replaced by it, so that the shape only depends on the keys
+		if (newBranch.children.length == 0) {
+			return null;
+		} else if (newBranch.children.length == 1 && !(newBranch.children[0] instanceof Branch)) {
+			return newBranch.children[0];
+		}
+		return newBranch;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> Stream<Entry<K, V>> leaves(final Object node) {
+		if (node == null) {
+			return Stream.empty();
+		} else if (node instanceof Leaf) {
+			return Stream.of((Entry<K, V>) node);
+		} else if (node instanceof Collision) {
+			return Arrays.stream(((Collision) node).leaves).map(l -> (Entry<K, V>) l);
+		}
+		return Arrays.stream(((Branch) node).children).flatMap(PersistentMap::leaves);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> void difference(final Object from, final Object to, final BiConsumer<? super K, ? super V> action) {
+		if (from == to) {
+			return;
+		}
+		if (from instanceof Branch && to instanceof Branch) {
+			final Branch fromBranch = (Branch) from;
+			final Branch toBranch = (Branch) to;
+			int bits = fromBranch.bitmap | toBranch.bitmap;
+			while (bits != 0) {
+				final int bit = Integer.lowestOneBit(bits);
+				bits &= ~bit;
+				difference(fromBranch.child(bit), toBranch.child(bit), action);
+			}
+			return;
+		}
+		// at least one of the two is small or missing, so their entries are compared one by one
+		final Map<Object, Entry<K, V>> previous = new HashMap<>();
+		PersistentMap.<K, V>leaves(from).forEach(e -> previous.put(e.getKey(), e));
+		PersistentMap.<K, V>leaves(to).forEach(e -> {
+			final Entry<K, V> old = previous.remove(e.getKey());
+			if (old == null || old.getValue() != e.getValue()) {
+				action.accept(e.getKey(), e.getValue());
+			}
+		});
+		previous.values().forEach(e -> action.accept(e.getKey(), null));
+	}
+
+	private static int unshared(final Object node, final Object base) {
+		if (node == null || node == base) {
+			return 0;
+		} else if (!(node instanceof Branch)) {
+			return 1;
+		}
+		final Branch branch = (Branch) node;
+		final Branch baseBranch = base instanceof Branch ? (Branch) base : null;
+		int count = 1;
+		int bits = branch.bitmap;
+		while (bits != 0) {
+			final int bit = Integer.lowestOneBit(bits);
+			bits &= ~bit;
+			count += unshared(branch.child(bit), baseBranch == null ? null : baseBranch.child(bit));
+		}
+		return count;
+	}
+
+	private static final class Leaf<K, V> implements Entry<K, V> {
+
+		private final int hash;
+		private final K key;
+		private final V value;
+
+		private Leaf(final int hash, final K key, final V value) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public K getKey() {
+			return this.key;
+		}
+
+		@Override
+		public V getValue() {
+			return this.value;
+		}
+
+		@Override
+		public V setValue(final V value) {
+			throw new UnsupportedOperationException("The entries of a persistent map cannot be modified");
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof Entry)) {
+				return false;
+			}
+			final Entry<?, ?> other = (Entry<?, ?>) obj;
+			return Objects.equals(this.key, other.getKey()) && Objects.equals(this.value, other.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(this.key) ^ Objects.hashCode(this.value);
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.value;
+		}
+	}
+
+	// the keys with the very same hash
+	private static final class Collision {
+
+		private final int hash;
+		private final Leaf<?, ?>[] leaves;
+
+		private Collision(final int hash, final Leaf<?, ?>[] leaves) {
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+
+		private Leaf<?, ?> find(final Object key) {
+			return Arrays.stream(this.leaves).filter(l -> Objects.equals(l.key, key)).findFirst().orElse(null);
+		}
+
+		private Object put(final Leaf<?, ?> leaf) {
+			for (int i = 0; i < this.leaves.length; i++) {
+				if (Objects.equals(this.leaves[i].key, leaf.key)) {
+					if (this.leaves[i].value == leaf.value) {
+						return this;
+					}
+					final Leaf<?, ?>[] copy = this.leaves.clone();
+					copy[i] = leaf;
+					return new Collision(this.hash, copy);
+				}
+			}
+			final Leaf<?, ?>[] copy = Arrays.copyOf(this.leaves, this.leaves.length + 1);
+			copy[this.leaves.length] = leaf;
+			return new Collision(this.hash, copy);
+		}
+
+		private Object remove(final Object key) {
+			final Leaf<?, ?>[] left = Arrays.stream(this.leaves)
+					.filter(l -> !Objects.equals(l.key, key))
+					.toArray(Leaf<?, ?>[]::new);
+			if (left.length == this.leaves.length) {
+				return this;
+			}
+			return left.length == 1 ? left[0] : new Collision(this.hash, left);
+		}
+	}
+
+	private static final class Branch {
+
+		private final int bitmap;
+		private final Object[] children;
+
+		private Branch(final int bitmap, final Object[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+
+		private int index(final int bit) {
+			return Integer.bitCount(this.bitmap & (bit - 1));
+		}
+
+		private Object child(final int bit) {
+			return (this.bitmap & bit) == 0 ? null : this.children[this.index(bit)];
+		}
+
+		private Branch insert(final int bit, final int index, final Object child) {
+			final Object[] copy = new Object[this.children.length + 1];
+			System.arraycopy(this.children, 0, copy, 0, index);
+			copy[index] = child;
+			System.arraycopy(this.children, index, copy, index + 1, this.children.length - index);
+			return new Branch(this.bitmap | bit, copy);
+		}
+
+		private Branch replace(final int index, final Object child) {
+			final Object[] copy = this.children.clone();
+			copy[index] = child;
+			return new Branch(this.bitmap, copy);
+		}
+
+		private Branch delete(final int bit, final int index) {
+			final Object[] copy = new Object[this.children.length - 1];
+			System.arraycopy(this.children, 0, copy, 0, index);
+			System.arraycopy(this.children, index + 1, copy, index, copy.length - index);
+			return new Branch(this.bitmap & ~bit, copy);
+		}
+	}
+}
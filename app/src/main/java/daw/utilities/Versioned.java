@@ -0,0 +1,39 @@
+package daw.utilities;
+
+/**
+ * An element whose state can be saved and later brought back.
+ * <p>Implementations are expected to keep their state in {@link PersistentMap}s, so that
+ * saving it only means keeping its roots and bringing it back only means swapping them.
+ */
+public interface Versioned {
+
+	/**
+	 * An immutable saved state of a {@link Versioned} element.
+	 */
+	interface Snapshot {
+
+		/**
+		 * @param  previous  an older {@link Snapshot} of the same element, or null.
+		 *
+		 * @return an estimate of the bytes taken by this {@link Snapshot} that are not shared with the {@code previous} one.
+		 */
+		long estimateRetainedSize(Snapshot previous);
+	}
+
+	/**
+	 * Saves the current state of this element.
+	 * <p>If the state did not change since the last call, the same {@link Snapshot} is returned.
+	 *
+	 * @return a {@link Snapshot} of the current state.
+	 */
+	Snapshot snapshot();
+
+	/**
+	 * Brings this element back to the given state.
+	 *
+	 * @param  snapshot  a {@link Snapshot} taken from this element.
+	 *
+	 * @throws  IllegalArgumentException  if the {@code snapshot} was not taken from this element.
+	 */
+	void restore(Snapshot snapshot);
+}
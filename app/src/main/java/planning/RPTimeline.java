@@ -1,16 +1,18 @@
 package planning;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import daw.utilities.Versioned;
 
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 /**
- * This interface represents the timeline at high level
+ * This interface represents the timeline at high level.
+ * Its state can be saved and restored.
  */
 @JsonDeserialize(as = TimelineImpl.class)
-public interface RPTimeline {
+public interface RPTimeline extends Versioned {
 	
 	/**
 	 * Allows to add a section to the timeline.
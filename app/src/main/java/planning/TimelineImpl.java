@@ -2,33 +2,42 @@ package planning;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import daw.utilities.PersistentMap;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 /**
- * It's the implementation of a {@link planning.RPTimeline}
+ * It's the implementation of a {@link planning.RPTimeline}.
+ * Sections are kept in a {@link PersistentMap}, so that saving and restoring them is cheap.
  */
 public final class TimelineImpl implements RPTimeline{
 
-	@JsonProperty
-	private final Map<Double, RPSection> sections = new HashMap<>();
+	private PersistentMap<Double, RPSection> sections = PersistentMap.empty();
+	private State lastSnapshot;
+
+	@JsonProperty("sections")
+	private Map<Double, RPSection> getSectionsMap() {
+		return this.sections.toMap();
+	}
+
+	@JsonSetter("sections")
+	private void setSectionsMap(Map<Double, RPSection> sections) {
+		this.sections = PersistentMap.copyOf(sections);
+	}
 
 	private boolean isAddValid(double initialTime, RPSection section) {
-		for(Double i : this.sections.keySet()) {
-			if(i.equals(initialTime)) {
-				return false;
-			}
+		if(this.sections.containsKey(initialTime)) {
+			return false;
 		}
-		for(RPSection s : this.sections.values()) {
-			if(s.equals(section)) {
+		for(Map.Entry<Double, RPSection> e : this.sections) {
+			if(e.getValue().equals(section)) {
 				return false;
 			}
-		}
-		for(Double i : this.sections.keySet()) {
-			if(initialTime >= i && initialTime <= i + this.sections.get(i).getDuration()) {
+			if(initialTime >= e.getKey() && initialTime <= e.getKey() + e.getValue().getDuration()) {
 				return false;
 			}
 		}
@@ -41,7 +50,7 @@ public final class TimelineImpl implements RPTimeline{
 	@Override
 	public boolean addSection(double initialTime, RPSection section) {
 		if(this.isAddValid(initialTime, section)) {
-			this.sections.put(initialTime, section);
+			this.sections = this.sections.put(initialTime, section);
 			return true;
 		}
 		return false;
@@ -54,7 +63,7 @@ public final class TimelineImpl implements RPTimeline{
 	public void removeSection(RPSection section) {
 		this.sections.forEach((i, s) -> {
 			if(s.equals(section)) {
-				this.sections.remove(i);
+				this.sections = this.sections.remove(i);
 			}
 		});
 	}
@@ -64,12 +73,7 @@ public final class TimelineImpl implements RPTimeline{
 	 */
 	@Override
 	public Optional<RPSection> getSection(double initialTime) {
-		for(Double i : this.sections.keySet()) {
-			if(i.equals(initialTime)) {
-				return Optional.of(this.sections.get(i));
-			}
-		}
-		return Optional.empty();
+		return Optional.ofNullable(this.sections.get(initialTime));
 	}
 	
 	/**
@@ -81,13 +85,9 @@ public final class TimelineImpl implements RPTimeline{
 		if(this.sections.size() == 0) {
 			return totalDuration;
 		}
-		double max = this.sections.keySet().stream()
+		double max = this.sections.stream().map(Map.Entry::getKey)
 						.max(Double::compareTo).get();
-		for(Double i : this.sections.keySet()) {
-			if(i.equals(max)) {
-				totalDuration = i + this.sections.get(i).getDuration();
-			}
-		}
+		totalDuration = max + this.sections.get(max).getDuration();
 		return totalDuration;
 	}
 
@@ -97,6 +97,45 @@ public final class TimelineImpl implements RPTimeline{
 	@Override
 	@JsonIgnore
 	public Set<Map.Entry<Double,RPSection>> getAllSections() {
-		return this.sections.entrySet();
+		return Collections.unmodifiableSet(this.sections.toMap().entrySet());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Snapshot snapshot() {
+		if(this.lastSnapshot == null || this.lastSnapshot.sections != this.sections) {
+			this.lastSnapshot = new State(this, this.sections);
+		}
+		return this.lastSnapshot;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void restore(Snapshot snapshot) {
+		if(!(snapshot instanceof State) || ((State) snapshot).owner != this) {
+			throw new IllegalArgumentException("The snapshot was not taken from this timeline");
+		}
+		this.sections = ((State) snapshot).sections;
+		this.lastSnapshot = (State) snapshot;
+	}
+
+	private static final class State implements Snapshot {
+
+		private final TimelineImpl owner;
+		private final PersistentMap<Double, RPSection> sections;
+
+		private State(TimelineImpl owner, PersistentMap<Double, RPSection> sections) {
+			this.owner = owner;
+			this.sections = sections;
+		}
+
+		@Override
+		public long estimateRetainedSize(Snapshot previous) {
+			return this.sections.estimateRetainedSize(previous instanceof State ? ((State) previous).sections : null);
+		}
 	}
 }
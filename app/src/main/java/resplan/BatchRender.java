@@ -0,0 +1,214 @@
+package resplan;
+
+import controller.general.ProjectLoaderImpl;
+import daw.engine.OfflineRenderer;
+import daw.manager.Manager;
+import daw.utilities.AudioContextManager;
+import daw.utilities.EngineProfile;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.data.Sample;
+import net.beadsproject.beads.data.audiofile.AudioFileType;
+import net.beadsproject.beads.data.audiofile.FileFormatException;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Renders projects to WAV files without the user interface, so that it can be run on a machine with no display
+ * and no audio device:
+ * <pre>
+ * java -cp Resplan.jar resplan.BatchRender [--out dir] [--range in:out]... [--parallelism n] [--loudness lufs]
+ *         project.json...
+ * </pre>
+ * <p>Each project is rendered as a whole, from the beginning to the end of its last clip, or once for each given
+ * range, whose times are in seconds. A render is named after its project, followed by its range if it has one,
+ * and is written next to the project unless another directory is given.
+ * <p>Every render loads its project in an {@link AudioContext} of its own, so that up to the given number of
+ * renders are run at the same time, whether they belong to different projects or to different ranges of the
+ * same one. The renders follow the {@link EngineProfile} of the system properties, in
+ * {@link EngineProfile.Mode#OFFLINE} mode.
+ * <p>The exit status is 0 if every render has been written, 1 if some have failed and 2 if the arguments are
+ * not valid.
+ */
+public final class BatchRender {
+
+    private static final String USAGE = "Usage: BatchRender [--out dir] [--range in:out]... [--parallelism n]"
+            + " [--loudness lufs] project.json...";
+    private static final String EXTENSION = ".wav";
+    private static final int MS_PER_SECOND = 1000;
+    private static final int FAILURE = 1;
+    private static final int WRONG_ARGUMENTS = 2;
+
+    private BatchRender() { }
+
+    /**
+     * Renders the projects given by the arguments.
+     * @param args the options followed by the project files.
+     */
+    public static void main(final String[] args) {
+        // the application context must not look for a device either
+        if (System.getProperty(EngineProfile.MODE_PROPERTY) == null) {
+            System.setProperty(EngineProfile.MODE_PROPERTY, EngineProfile.Mode.OFFLINE.name());
+        }
+        final Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(WRONG_ARGUMENTS);
+            return;
+        }
+        final EngineProfile profile = AudioContextManager.getProfile().withMode(EngineProfile.Mode.OFFLINE);
+        final List<Job> jobs = options.getJobs();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(options.parallelism, jobs.size()));
+        final List<Future<?>> renders = new ArrayList<>();
+        jobs.forEach(job -> renders.add(executor.submit(() -> {
+            job.run(profile, options.loudness);
+            return null;
+        })));
+        executor.shutdown();
+        int failed = 0;
+        for (int i = 0; i < jobs.size(); i++) {
+            try {
+                renders.get(i).get();
+                System.out.println("Rendered " + jobs.get(i));
+            } catch (ExecutionException e) {
+                failed++;
+                System.err.println("Failed to render " + jobs.get(i) + ": " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+                System.exit(FAILURE);
+            }
+        }
+        System.out.println((jobs.size() - failed) + " of " + jobs.size() + " renders written.");
+        System.exit(failed == 0 ? 0 : FAILURE);
+    }
+
+    // the options given by the arguments
+    private static final class Options {
+
+        private final List<File> projects = new ArrayList<>();
+        private final List<double[]> ranges = new ArrayList<>();
+        private Optional<File> directory = Optional.empty();
+        private Optional<Double> loudness = Optional.empty();
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private static Options parse(final String[] args) {
+            final Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--out":
+                        options.directory = Optional.of(new File(value(args, ++i)));
+                        break;
+                    case "--range":
+                        options.ranges.add(range(value(args, ++i)));
+                        break;
+                    case "--parallelism":
+                        options.parallelism = Integer.parseInt(value(args, ++i));
+                        if (options.parallelism < 1) {
+                            throw new IllegalArgumentException("The parallelism must be at least 1.");
+                        }
+                        break;
+                    case "--loudness":
+                        options.loudness = Optional.of(Double.parseDouble(value(args, ++i)));
+                        break;
+                    default:
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option " + args[i] + ".");
+                        }
+                        options.projects.add(new File(args[i]));
+                }
+            }
+            if (options.projects.isEmpty()) {
+                throw new IllegalArgumentException("No project to render.");
+            }
+            return options;
+        }
+
+        private static String value(final String[] args, final int index) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException("The option " + args[index - 1] + " needs a value.");
+            }
+            return args[index];
+        }
+
+        // a range in seconds, such as 30:95.5, turned into milliseconds
+        private static double[] range(final String value) {
+            final String[] times = value.split(":");
+            if (times.length != 2) {
+                throw new IllegalArgumentException("The range " + value + " is not in the form in:out.");
+            }
+            final double in = Double.parseDouble(times[0]) * MS_PER_SECOND;
+            final double out = Double.parseDouble(times[1]) * MS_PER_SECOND;
+            if (in < 0 || !(out > in)) {
+                throw new IllegalArgumentException("The range " + value + " must start from a positive time"
+                        + " and end after it.");
+            }
+            return new double[] {in, out};
+        }
+
+        private List<Job> getJobs() {
+            final List<Job> jobs = new ArrayList<>();
+            for (final File project : this.projects) {
+                final File directory = this.directory.orElse(project.getAbsoluteFile().getParentFile());
+                final String name = FilenameUtils.getBaseName(project.getName());
+                if (this.ranges.isEmpty()) {
+                    jobs.add(new Job(project, Optional.empty(), new File(directory, name + EXTENSION)));
+                }
+                this.ranges.forEach(range -> jobs.add(new Job(project, Optional.of(range),
+                        new File(directory, String.format(Locale.ROOT, "%s_%.3f-%.3f%s", name,
+                                range[0] / MS_PER_SECOND, range[1] / MS_PER_SECOND, EXTENSION)))));
+            }
+            return jobs;
+        }
+
+    }
+
+    // the render of a project, or of one of its ranges, to a file
+    private static final class Job {
+
+        private final File project;
+        private final Optional<double[]> range;
+        private final File output;
+
+        private Job(final File project, final Optional<double[]> range, final File output) {
+            this.project = project;
+            this.range = range;
+            this.output = output;
+        }
+
+        private void run(final EngineProfile profile, final Optional<Double> loudness)
+                throws IOException, FileFormatException {
+            final AudioContext context = AudioContextManager.newAudioContext(profile);
+            final Manager manager = new ProjectLoaderImpl(context).load(this.project);
+            final OfflineRenderer renderer = new OfflineRenderer(manager);
+            final Sample sample = this.range.isPresent()
+                    ? renderer.render(this.range.get()[0], this.range.get()[1])
+                    : renderer.render();
+            loudness.ifPresent(l -> OfflineRenderer.normalize(sample, l));
+            final File directory = this.output.getAbsoluteFile().getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("The directory " + directory + " cannot be created.");
+            }
+            sample.write(this.output.getAbsolutePath(), AudioFileType.WAV);
+        }
+
+        @Override
+        public String toString() {
+            return this.project + " to " + this.output;
+        }
+
+    }
+
+}
@@ -0,0 +1,8 @@
+package view.common;
+
+public class CsvFilePicker extends FilePicker {
+
+    public CsvFilePicker() {
+        super("File CSV", "*.csv");
+    }
+}
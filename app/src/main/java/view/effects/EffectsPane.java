@@ -1,26 +1,42 @@
 package view.effects;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 import resplan.Starter;
+import daw.core.channel.MeterReading;
+import daw.core.profiling.LoadReport;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Label;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.Circle;
+import javafx.util.Duration;
+import view.common.AlertDispatcher;
 import view.common.App;
+import view.common.CsvFilePicker;
 import view.common.ViewDataImpl.Effect;
 
 public final class EffectsPane extends ScrollPane {
 	
+	private static final double LOAD_REFRESH_SECONDS = 0.5;
+
 	private final Map<String, Class<? extends Pane>> effectsType = createEffects();
 	private final Map<Effect, Node> effects = new HashMap<>();
 	private final String channel;
@@ -45,7 +61,10 @@ public final class EffectsPane extends ScrollPane {
 		final HBox root = new HBox();
 		final Button add = new Button("+");
 		VBox left = new VBox();
-		left.getChildren().add(add);
+		//the gain reduction of the whole channel, polled at every frame
+		final VUMeterPane reduction = new VUMeterPane(Double.NEGATIVE_INFINITY, 0.0);
+		reduction.follow(() -> MeterReading.toDecibels(Starter.getController().getMeterReading(channel).getGainReduction()));
+		left.getChildren().addAll(reduction, this.createLoad(), add);
 		left.setAlignment(Pos.CENTER);
 		root.getChildren().add(left);
 		final ContextMenu menu = new ContextMenu();
@@ -62,6 +81,57 @@ public final class EffectsPane extends ScrollPane {
 		this.setContent(root);
 	}
 	
+	//the load of the channel and of its effects, refreshed while the profiler is running
+	private Node createLoad() {
+		final ToggleButton profile = new ToggleButton("Load");
+		profile.setSelected(Starter.getController().isProfiling());
+		final Label load = new Label();
+		final Tooltip details = new Tooltip();
+		load.setTooltip(details);
+		final Timeline refresh = new Timeline(new KeyFrame(Duration.seconds(LOAD_REFRESH_SECONDS), e -> {
+			final LoadReport report = Starter.getController().getLoadReport();
+			load.setText(report.getEntry(LoadReport.Category.CHANNEL, channel)
+					.or(() -> report.getEntry(LoadReport.Category.BUS, channel))
+					.map(l -> String.format("%.1f%% (max %.1f%%)", l.getAverageLoad(), l.getMaxLoad()))
+					.orElse(""));
+			details.setText(report.getEntries(LoadReport.Category.EFFECT).stream()
+					.map(l -> String.format("%s: %.1f us, max %.1f us", l.getName(), l.getAverage(), l.getMax()))
+					.collect(Collectors.joining("\n")));
+		}));
+		refresh.setCycleCount(Animation.INDEFINITE);
+		profile.selectedProperty().addListener((o, was, selected) -> {
+			Starter.getController().setProfiling(selected);
+			if (selected) {
+				refresh.play();
+			} else {
+				refresh.stop();
+			}
+		});
+		if (profile.isSelected()) {
+			refresh.play();
+		}
+		this.sceneProperty().addListener((o, was, scene) -> {
+			if (scene == null) {
+				refresh.stop();
+			}
+		});
+		final MenuItem export = new MenuItem("Export CSV");
+		export.setOnAction(e -> {
+			final File file = new CsvFilePicker().getFileChooser().showSaveDialog(this.getScene().getWindow());
+			if (file != null) {
+				try {
+					Starter.getController().exportLoadReport(file);
+				} catch (IOException ex) {
+					AlertDispatcher.dispatchError("Cannot write the load report");
+				}
+			}
+		});
+		profile.setContextMenu(new ContextMenu(export));
+		final VBox box = new VBox(profile, load);
+		box.setAlignment(Pos.CENTER);
+		return box;
+	}
+
 	private final Map<String, Class<? extends Pane>> createEffects(){
 		Map<String, Class<? extends Pane>> effects = new HashMap<>();
 		effects.put("Compressor", CompressorPane.class);
@@ -69,7 +139,9 @@ public final class EffectsPane extends ScrollPane {
 		effects.put("Low pass", PassPane.class);
 		effects.put("High pass", PassPane.class);
 		effects.put("Reverb", ReverbPane.class);
+		effects.put("Convolution reverb", ReverbPane.class);
 		effects.put("Gate", GatePane.class);
+		effects.put("Look-ahead gate", GatePane.class);
 		return effects;
 	}
 	
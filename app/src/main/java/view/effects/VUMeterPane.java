@@ -1,5 +1,7 @@
 package view.effects;
 
+import java.util.function.DoubleSupplier;
+import javafx.animation.AnimationTimer;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
@@ -8,10 +10,20 @@ import javafx.scene.layout.HBox;
 
 public final class VUMeterPane extends HBox {
 
+	//how long the lowest value is held, and how fast the meter goes back afterwards, in decibels
+	private static final double HOLD_SECONDS = 1.0;
+	private static final double DECAY_PER_SECOND = 20.0;
+
 	private final double lowerbound;
 	private final double upperbound;
 	private final ProgressBar compressor = new ProgressBar();
 	private final Label lcurrent;
+	private AnimationTimer timer;
+	private double displayed;
+	private double held;
+	private long heldSince;
+	private long lastFrame;
+	private boolean shown;
 	
 	public VUMeterPane(final Double lowerbound, final Double upperbound) {
 		AnchorPane root = new AnchorPane();
@@ -61,4 +73,43 @@ public final class VUMeterPane extends HBox {
 		}
 		lcurrent.setText("" + value);
 	}
+	
+	/**
+	 * Polls the given source at every frame of the view, until the meter is removed from its scene.
+	 * The meter follows the values that go towards the lower bound at once, such as a deeper gain reduction,
+	 * and goes back slowly afterwards, while the label holds the lowest value for a while.
+	 * @param source the source of the values, which is read on the JavaFX thread.
+	 */
+	public final void follow(final DoubleSupplier source) {
+		if(timer != null) {
+			timer.stop();
+		}
+		displayed = upperbound;
+		held = upperbound;
+		lastFrame = 0;
+		shown = false;
+		timer = new AnimationTimer() {
+			@Override
+			public void handle(final long now) {
+				if(getScene() == null) {
+					if(shown) {
+						this.stop();
+					}
+					return;
+				}
+				shown = true;
+				final double elapsed = lastFrame == 0 ? 0 : (now - lastFrame) / 1e9;
+				lastFrame = now;
+				final double value = Math.max(lowerbound, Math.min(upperbound, source.getAsDouble()));
+				displayed = Math.min(value, displayed + DECAY_PER_SECOND * elapsed);
+				if(value <= held || (now - heldSince) / 1e9 > HOLD_SECONDS) {
+					held = value;
+					heldSince = now;
+				}
+				compressor.setProgress((displayed - upperbound) / (lowerbound - upperbound));
+				lcurrent.setText(String.format("%.1f", held));
+			}
+		};
+		timer.start();
+	}
 }
@@ -15,6 +15,7 @@ import view.common.NumberFormatConverter;
 import view.common.WavFilePicker;
 import java.io.File;
 import java.io.IOException;
+import java.util.Optional;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -33,6 +34,10 @@ public final class ExportViewController {
     private CheckBox projectCheck;
     @FXML
     private TextField startTime;
+    @FXML
+    private CheckBox normalizeCheck;
+    @FXML
+    private TextField loudness;
 
     private ProgressBar progressBar;
     private File file;
@@ -47,6 +52,7 @@ public final class ExportViewController {
         this.projectCheck.setSelected(true);
         this.startTime.setDisable(true);
         this.endTime.setDisable(true);
+        this.loudness.setDisable(true);
         this.progress = 0.0;
     }
 
@@ -63,6 +69,14 @@ public final class ExportViewController {
             AlertDispatcher.dispatchError("Select a file first");
         } else {
             this.window = this.fileName.getScene().getWindow();
+            try {
+                Starter.getController().setExportLoudness(this.normalizeCheck.isSelected()
+                        ? Optional.of(Double.parseDouble(this.loudness.getText()))
+                        : Optional.empty());
+            } catch (NumberFormatException e) {
+                AlertDispatcher.dispatchError("Invalid loudness");
+                return;
+            }
             try {
                 if (this.projectCheck.isSelected()) {
                     final Double tickTime = Starter.getController().getProjectTimeOut() / 100;
@@ -133,6 +147,10 @@ public final class ExportViewController {
         }
     }
 
+    public void onNormalize() {
+        this.loudness.setDisable(!this.normalizeCheck.isSelected());
+    }
+
     public void cancelPressed() {
         Starter.getController().stop();
         this.endTime.getScene().getWindow().hide();
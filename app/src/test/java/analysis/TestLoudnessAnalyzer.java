@@ -0,0 +1,65 @@
+package analysis;
+
+import daw.core.analysis.LoudnessAnalyzer;
+import daw.core.analysis.LoudnessReport;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLoudnessAnalyzer {
+
+    private static final float SAMPLE_RATE = 48_000;
+
+    private float[][] sine(final double decibels, final double seconds) {
+        final float amplitude = (float) Math.pow(10, decibels / 20);
+        final float[][] audio = new float[2][(int) (SAMPLE_RATE * seconds)];
+        for (int i = 0; i < audio[0].length; i++) {
+            audio[0][i] = amplitude * (float) Math.sin(2 * Math.PI * 1000 * i / SAMPLE_RATE);
+            audio[1][i] = audio[0][i];
+        }
+        return audio;
+    }
+
+    @Test
+    public void testSine() {
+        // a stereo sine at 1 kHz is as loud as its level, as in the tests of EBU Tech 3341
+        final LoudnessReport report = LoudnessAnalyzer.analyze(sine(-23, 20), SAMPLE_RATE);
+        assertEquals(-23.0, report.getIntegrated(), 0.1);
+        assertEquals(-23.0, report.getMaxShortTerm(), 0.1);
+        assertEquals(-23.0, report.getMaxMomentary(), 0.1);
+        assertEquals(0.0, report.getRange(), 0.1);
+        assertEquals(-23.0, report.getTruePeak(), 0.1);
+        assertEquals(Math.pow(10, 7.0 / 20), report.getNormalizationGain(-16), 0.02);
+    }
+
+    @Test
+    public void testGatesAndRange() {
+        // 10 seconds at -20 and 10 seconds at -30, followed by silence which is gated out
+        final float[][] loud = sine(-20, 10);
+        final float[][] quiet = sine(-30, 10);
+        final float[][] audio = new float[2][loud[0].length * 3];
+        for (int c = 0; c < 2; c++) {
+            System.arraycopy(loud[c], 0, audio[c], 0, loud[c].length);
+            System.arraycopy(quiet[c], 0, audio[c], loud[c].length, quiet[c].length);
+        }
+        final LoudnessReport report = LoudnessAnalyzer.analyze(audio, SAMPLE_RATE);
+        assertEquals(10 * Math.log10((0.01 + 0.001) / 2), report.getIntegrated(), 0.2);
+        assertEquals(-20.0, report.getTruePeak(), 0.1);
+        assertEquals(audio[0].length / (SAMPLE_RATE / 10) - 29, report.getShortTerm().length);
+        // without the silence, the short-term loudness goes from -20 to -30
+        final float[][] speech = new float[2][loud[0].length * 2];
+        for (int c = 0; c < 2; c++) {
+            System.arraycopy(audio[c], 0, speech[c], 0, speech[c].length);
+        }
+        assertEquals(10.0, LoudnessAnalyzer.analyze(speech, SAMPLE_RATE).getRange(), 0.5);
+    }
+
+    @Test
+    public void testSilence() {
+        final LoudnessReport report = LoudnessAnalyzer.analyze(new float[1][(int) SAMPLE_RATE], SAMPLE_RATE);
+        assertEquals(Double.NEGATIVE_INFINITY, report.getIntegrated());
+        assertEquals(Double.NEGATIVE_INFINITY, report.getTruePeak());
+        assertThrows(IllegalStateException.class, () -> report.getNormalizationGain(-16));
+        assertThrows(IllegalArgumentException.class, () -> LoudnessAnalyzer.analyze(new float[0][], SAMPLE_RATE));
+    }
+
+}
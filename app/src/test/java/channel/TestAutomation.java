@@ -0,0 +1,70 @@
+package channel;
+
+import daw.core.automation.AutomationLane;
+import daw.core.automation.Playhead;
+import daw.core.channel.BasicChannelFactory;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.ugens.Static;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestAutomation {
+
+    // the input gain followed by a centered pan
+    private static final double STRIP = 0.9 / Math.sqrt(2);
+
+    @Test
+    public void testLane() {
+        final var lane = new AutomationLane();
+        assertTrue(lane.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> lane.addPoint(-1, 0f));
+        lane.addPoint(100, 1f);
+        lane.addPoint(0, 0f);
+        lane.addPoint(200, 1f);
+        lane.addPoint(200, 0f);
+        assertArrayEquals(new double[] {0, 100, 200}, lane.getTimes());
+        assertEquals(0.5f, lane.getValue(50), 1e-6);
+        assertEquals(0.5f, lane.getValue(150), 1e-6);
+        assertEquals(0f, lane.getValue(1000));
+        final float[] buffer = new float[4];
+        // the buffers follow each other, then the playback jumps back
+        lane.fill(90, 5, buffer, 4);
+        assertArrayEquals(new float[] {0.9f, 0.95f, 1f, 0.95f}, buffer, 1e-6f);
+        lane.fill(110, 5, buffer, 4);
+        assertArrayEquals(new float[] {0.9f, 0.85f, 0.8f, 0.75f}, buffer, 1e-6f);
+        lane.fill(0, 5, buffer, 4);
+        assertArrayEquals(new float[] {0f, 0.05f, 0.1f, 0.15f}, buffer, 1e-6f);
+        lane.removePoint(100);
+        assertEquals(0f, lane.getValue(100));
+    }
+
+    @Test
+    public void testChannelAutomation() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var channel = new BasicChannelFactory().basic();
+        channel.connectSource(new Static(ac, 1f));
+        final var volume = channel.getAutomation().addLane("volume");
+        volume.addPoint(0, 0f);
+        volume.addPoint(1000, 100f);
+        channel.getAutomation().addLane("pan").addPoint(0, -1f);
+        ac.out.addInput(channel.getOutput());
+        // the automation is only followed while the playhead moves
+        ac.runForNMillisecondsNonRealTime(20);
+        assertEquals(STRIP, channel.getOutput().getOutBuffer(1)[0], 0.01);
+        Playhead.getPlayhead().start(0);
+        try {
+            ac.runForNMillisecondsNonRealTime(500);
+            final double frame = Playhead.getPlayhead().getFrameTime();
+            // the time step has already moved past the last buffer
+            final double time = Playhead.getPlayhead().getBufferTime() - ac.getBufferSize() * frame;
+            for (final int i : new int[] {0, 100, ac.getBufferSize() - 1}) {
+                assertEquals(0.9 * (time + i * frame) / 1000, channel.getOutput().getOutBuffer(0)[i], 1e-4);
+                assertEquals(0.0, channel.getOutput().getOutBuffer(1)[i], 1e-6);
+            }
+        } finally {
+            Playhead.getPlayhead().stop();
+            ac.out.removeAllConnections(channel.getOutput());
+        }
+    }
+
+}
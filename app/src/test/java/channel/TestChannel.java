@@ -3,6 +3,8 @@ package channel;
 import daw.core.audioprocessing.Gate;
 import daw.core.audioprocessing.HighPassFilter;
 import daw.core.channel.BasicChannelFactory;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.ugens.Static;
 import org.junit.jupiter.api.Test;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,4 +34,35 @@ public class TestChannel {
         }
     }
 
+    @Test
+    public void testCompiledStrip() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var channel = new BasicChannelFactory().basic();
+        channel.connectSource(new Static(ac, 1f));
+        ac.out.addInput(channel.getOutput());
+        ac.runForNMillisecondsNonRealTime(50);
+        // input gain, then centered pan
+        assertEquals(0.9 / Math.sqrt(2), channel.getOutput().getOutBuffer(0)[0], 0.01);
+        channel.disable();
+        ac.runForNMillisecondsNonRealTime(50);
+        assertEquals(0.0, channel.getOutput().getOutBuffer(0)[0], 0.01);
+        ac.out.removeAllConnections(channel.getOutput());
+    }
+
+    @Test
+    public void testSilentStrip() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var channel = new BasicChannelFactory().basic();
+        final var source = new Static(ac, 0f);
+        channel.connectSource(source);
+        ac.out.addInput(channel.getOutput());
+        ac.runForNMillisecondsNonRealTime(50);
+        assertEquals(0.0, channel.getOutput().getOutBuffer(0)[0], 0.01);
+        // the strip wakes up as soon as its input is not silent anymore
+        source.setValue(1f);
+        ac.runForNMillisecondsNonRealTime(50);
+        assertEquals(0.9 / Math.sqrt(2), channel.getOutput().getOutBuffer(0)[0], 0.01);
+        ac.out.removeAllConnections(channel.getOutput());
+    }
+
 }
@@ -0,0 +1,68 @@
+package channel;
+
+import daw.core.audioprocessing.BasicProcessingUnitBuilder;
+import daw.core.audioprocessing.LookAheadGate;
+import daw.core.channel.BasicChannelFactory;
+import daw.core.channel.MeterReading;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.ugens.Static;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestChannelMeter {
+
+    // the input gain followed by a centered pan
+    private static final double STRIP = 0.9 / Math.sqrt(2);
+
+    @Test
+    public void testLevels() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var channel = new BasicChannelFactory().basic();
+        assertSame(MeterReading.SILENCE, channel.getMeter().read());
+        channel.connectSource(new Static(ac, 0.5f));
+        ac.out.addInput(channel.getOutput());
+        try {
+            ac.runForNMillisecondsNonRealTime(100);
+            final MeterReading reading = channel.getMeter().read();
+            assertTrue(reading.getBuffers() > 0);
+            assertEquals(0.5 * STRIP, reading.getPeak(0), 0.01);
+            assertEquals(0.5 * STRIP, reading.getRms(1), 0.01);
+            assertEquals(1.0f, reading.getGainReduction());
+            assertEquals(20 * Math.log10(reading.getPeak(0)), MeterReading.toDecibels(reading.getPeak(0)), 1e-9);
+            // nothing has been measured since the previous reading
+            assertEquals(reading.getBuffers(), channel.getMeter().read().getBuffers());
+            channel.setVolume(0);
+            ac.runForNMillisecondsNonRealTime(100);
+            ac.runForNMillisecondsNonRealTime(100);
+            // the peak covers all the buffers since the previous reading
+            assertEquals(0.5 * STRIP, channel.getMeter().read().getPeak(0), 0.01);
+            ac.runForNMillisecondsNonRealTime(100);
+            assertEquals(0.0f, channel.getMeter().read().getPeak(1), 1e-6);
+        } finally {
+            ac.out.removeAllConnections(channel.getOutput());
+        }
+    }
+
+    @Test
+    public void testGainReduction() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var channel = new BasicChannelFactory().basic();
+        channel.addProcessingUnit(new BasicProcessingUnitBuilder().lookAheadGate(2).build());
+        // the gate never opens, so it reduces the volume by its ratio
+        channel.getProcessingUnit().orElseThrow().getEffectAtPosition(0).setParameters(Map.of("threshold", 1.0f));
+        channel.connectSource(new Static(ac, 0.5f));
+        ac.out.addInput(channel.getOutput());
+        try {
+            ac.runForNMillisecondsNonRealTime(300);
+            channel.getMeter().read();
+            ac.runForNMillisecondsNonRealTime(50);
+            final float ratio = channel.getProcessingUnit().orElseThrow().getEffectAtPosition(0)
+                    .getParameter(LookAheadGate.RATIO);
+            assertEquals(1 / ratio, channel.getMeter().read().getGainReduction(), 0.01);
+        } finally {
+            ac.out.removeAllConnections(channel.getOutput());
+        }
+    }
+
+}
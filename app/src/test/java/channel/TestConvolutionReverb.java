@@ -0,0 +1,78 @@
+package channel;
+
+import daw.core.audioprocessing.ConvolutionReverb;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.core.Bead;
+import net.beadsproject.beads.core.UGen;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestConvolutionReverb {
+
+    private UGen createImpulse() {
+        return new UGen(AudioContextManager.getAudioContext(), 0, 2) {
+            private boolean fired;
+
+            @Override
+            public void calculateBuffer() {
+                for (final float[] out : this.bufOut) {
+                    Arrays.fill(out, 0.0f);
+                    out[0] = this.fired ? 0.0f : 1.0f;
+                }
+                this.fired = true;
+            }
+        };
+    }
+
+    @Test
+    public void testParameters() {
+        final var reverb = new ConvolutionReverb(2);
+        assertEquals(Optional.empty(), reverb.getImpulse());
+        assertEquals(Map.of("roomSize", 0.2f, "damping", 0.5f, "dryWet", 0.3f, "background", 0.0f),
+                reverb.getParameters());
+        final double tail = reverb.getTailTime();
+        reverb.setParameters(Map.of("roomSize", 0.5f));
+        assertTrue(reverb.getTailTime() > tail);
+        // a room is synthesized if the impulse response cannot be read
+        assertEquals(Optional.empty(), ConvolutionReverb.create(2, "missing.wav").getImpulse());
+    }
+
+    @Test
+    public void testConvolution() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var reverb = new ConvolutionReverb(2);
+        final var backgroundReverb = new ConvolutionReverb(2);
+        reverb.setParameters(Map.of("dryWet", 1.0f));
+        backgroundReverb.setParameters(Map.of("dryWet", 1.0f, "background", 1.0f));
+        final UGen out = reverb.compile(this.createImpulse());
+        final UGen backgroundOut = backgroundReverb.compile(this.createImpulse());
+        ac.out.addInput(out);
+        ac.out.addInput(backgroundOut);
+        final double[] energy = new double[1];
+        final float[] difference = new float[1];
+        final Bead listener = new Bead() {
+            @Override
+            protected void messageReceived(final Bead message) {
+                for (int i = 0; i < ac.getBufferSize(); i++) {
+                    final float sample = out.getOutBuffer(0)[i];
+                    energy[0] += sample * sample;
+                    difference[0] = Math.max(difference[0], Math.abs(sample - backgroundOut.getOutBuffer(0)[i]));
+                }
+            }
+        };
+        ac.invokeAfterEveryFrame(listener);
+        ac.runForNMillisecondsNonRealTime(reverb.getTailTime() + 100);
+        listener.kill();
+        ac.out.removeAllConnections(out);
+        ac.out.removeAllConnections(backgroundOut);
+        backgroundReverb.setParameters(Map.of("background", 0.0f));
+        // the response has the energy of a unit impulse
+        assertEquals(1.0, energy[0], 0.01);
+        // summing the tail in the background does not change the result
+        assertEquals(0.0f, difference[0], 1e-6);
+    }
+
+}
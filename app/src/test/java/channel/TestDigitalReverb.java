@@ -0,0 +1,37 @@
+package channel;
+
+import daw.core.audioprocessing.BasicProcessingUnitBuilder;
+import daw.core.audioprocessing.DigitalReverb;
+import daw.core.channel.BasicChannelFactory;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.ugens.Static;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDigitalReverb {
+
+    private static final double STRIP = 0.9 / Math.sqrt(2);
+
+    @Test
+    public void testDryMix() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var reverb = new DigitalReverb(2);
+        final var source = new Static(ac, 1f);
+        // the reverb mixes the signals by itself, without the output gain
+        assertSame(reverb, reverb.compile(source));
+        final var channel = new BasicChannelFactory().basic();
+        channel.addProcessingUnit(new BasicProcessingUnitBuilder().reverb(2).build());
+        channel.getProcessingUnit().get().getEffects().get(0).setParameters(Map.of("dryWet", 0f));
+        channel.connectSource(source);
+        ac.out.addInput(channel.getOutput());
+        try {
+            ac.runForNMillisecondsNonRealTime(100);
+            // with no wet signal the input goes through as it is
+            assertEquals(STRIP, channel.getOutput().getOutBuffer(0)[0], 0.01);
+        } finally {
+            ac.out.removeAllConnections(channel.getOutput());
+        }
+    }
+
+}
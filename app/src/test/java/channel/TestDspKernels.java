@@ -0,0 +1,58 @@
+package channel;
+
+import daw.core.audioprocessing.DspKernels;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDspKernels {
+
+    // not a multiple of any vector length, so that the last frames are processed one at a time
+    private static final int FRAMES = 37;
+
+    private float[] createBuffer() {
+        final float[] buffer = new float[FRAMES + 3];
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = (float) Math.sin(i);
+        }
+        return buffer;
+    }
+
+    @Test
+    public void testGains() {
+        final float[] in = this.createBuffer();
+        final float[] out = new float[in.length];
+        DspKernels.scale(in, 0.5f, out, FRAMES);
+        for (int i = 0; i < FRAMES; i++) {
+            assertEquals(in[i] * 0.5f, out[i], 1e-6);
+        }
+        assertEquals(0.0f, out[FRAMES]);
+        DspKernels.ramp(in, 1.0f, 0.0f, out, FRAMES);
+        for (int i = 0; i < FRAMES; i++) {
+            assertEquals(in[i] * (1.0f - (i + 1) / (float) FRAMES), out[i], 1e-6);
+        }
+        final float[] envelope = this.createBuffer();
+        DspKernels.applyEnvelope(in, envelope, out, FRAMES);
+        for (int i = 0; i < FRAMES; i++) {
+            assertEquals(in[i] * envelope[i], out[i], 1e-6);
+        }
+        DspKernels.sumInto(in, out, FRAMES);
+        for (int i = 0; i < FRAMES; i++) {
+            assertEquals(in[i] * envelope[i] + in[i], out[i], 1e-6);
+        }
+    }
+
+    @Test
+    public void testLevels() {
+        final float[] in = this.createBuffer();
+        float peak = 0.0f;
+        double sum = 0.0;
+        for (int i = 0; i < FRAMES; i++) {
+            peak = Math.max(peak, Math.abs(in[i]));
+            sum += in[i] * in[i];
+        }
+        assertEquals(peak, DspKernels.peak(in, FRAMES));
+        assertEquals(Math.sqrt(sum / FRAMES), DspKernels.rms(in, FRAMES), 1e-5);
+        assertEquals(0.0f, DspKernels.rms(in, 0));
+    }
+
+}
@@ -0,0 +1,80 @@
+package channel;
+
+import daw.core.audioprocessing.BasicProcessingUnitBuilder;
+import daw.core.audioprocessing.DigitalReverb;
+import daw.core.audioprocessing.EffectChain;
+import daw.core.audioprocessing.HighPassFilter;
+import daw.core.audioprocessing.LowPassFilter;
+import daw.core.audioprocessing.ProcessingUnit;
+import daw.core.channel.BasicChannelFactory;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.ugens.Static;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEffectChain {
+
+    // the input gain followed by a centered pan
+    private static final double STRIP = 0.9 / Math.sqrt(2);
+
+    private final TestUtility ref = new TestUtility();
+
+    @Test
+    public void testSinglePublication() {
+        final ProcessingUnit pu = new BasicProcessingUnitBuilder().reverb(2).lowPassFilter(2).highPassFilter(2)
+                .build();
+        final EffectChain before = pu.getChain();
+        // swapping backwards is a single edit as well
+        pu.swapEffects(2, 0);
+        assertNotSame(before, pu.getChain());
+        assertSame(pu.getEffects(), pu.getChain().getEffects());
+        assertEquals(List.of(HighPassFilter.class, LowPassFilter.class, DigitalReverb.class),
+                this.ref.getList(pu.getEffects()));
+        assertTrue(this.ref.effectsAreConnected(pu.getEffectAtPosition(0), pu.getEffectAtPosition(1)));
+        // a wrong edit does not publish anything
+        final EffectChain current = pu.getChain();
+        assertThrows(IllegalArgumentException.class, () -> pu.moveEffect(0, 3));
+        assertSame(current, pu.getChain());
+        // replacing the only effect is allowed
+        final ProcessingUnit single = new BasicProcessingUnitBuilder().reverb(2).build();
+        single.replace(0, new LowPassFilter(2));
+        assertEquals(List.of(LowPassFilter.class), this.ref.getList(single.getEffects()));
+    }
+
+    @Test
+    public void testFade() {
+        final var ac = AudioContextManager.getAudioContext();
+        final double buffer = ac.samplesToMs(ac.getBufferSize()) / 2;
+        final var channel = new BasicChannelFactory().basic();
+        channel.addProcessingUnit(new BasicProcessingUnitBuilder().parametricEq(2).parametricEq(2).build());
+        final ProcessingUnit pu = channel.getProcessingUnit().orElseThrow();
+        pu.setCrossfade(true);
+        assertTrue(pu.getChain().isCrossfaded());
+        channel.connectSource(new Static(ac, 0.5f));
+        ac.out.addInput(channel.getOutput());
+        try {
+            ac.runForNMillisecondsNonRealTime(100);
+            final float[] out = channel.getOutput().getOutBuffer(0);
+            final int last = out.length - 1;
+            pu.swapEffects(0, 1);
+            // the previous effects fade out
+            ac.runForNMillisecondsNonRealTime(buffer);
+            assertEquals(0.5 * STRIP, out[0], 0.01);
+            assertEquals(0.0, out[last], 0.01);
+            // and the new ones fade in
+            ac.runForNMillisecondsNonRealTime(buffer);
+            assertEquals(0.0, out[0], 0.01);
+            assertEquals(0.5 * STRIP, out[last], 0.01);
+            // without the crossfade, the effects are swapped at once
+            pu.setCrossfade(false);
+            pu.swapEffects(0, 1);
+            ac.runForNMillisecondsNonRealTime(buffer);
+            assertEquals(0.5 * STRIP, out[0], 0.01);
+            assertEquals(0.5 * STRIP, out[last], 0.01);
+        } finally {
+            ac.out.removeAllConnections(channel.getOutput());
+        }
+    }
+
+}
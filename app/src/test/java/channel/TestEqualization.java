@@ -0,0 +1,43 @@
+package channel;
+
+import daw.core.audioprocessing.BasicProcessingUnit;
+import daw.core.audioprocessing.HighPassFilter;
+import daw.core.audioprocessing.LowPassFilter;
+import daw.core.audioprocessing.RPEffect;
+import daw.core.channel.BasicChannelFactory;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.ugens.Static;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEqualization {
+
+    private static final double STRIP = 0.9 / Math.sqrt(2);
+
+    private float run(final RPEffect filter) {
+        final var ac = AudioContextManager.getAudioContext();
+        final var channel = new BasicChannelFactory().basic();
+        channel.addProcessingUnit(new BasicProcessingUnit(List.of(filter)));
+        channel.connectSource(new Static(ac, 1f));
+        ac.out.addInput(channel.getOutput());
+        try {
+            ac.runForNMillisecondsNonRealTime(500);
+            return channel.getOutput().getOutBuffer(0)[0];
+        } finally {
+            ac.out.removeAllConnections(channel.getOutput());
+        }
+    }
+
+    @Test
+    public void testBands() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var filter = new LowPassFilter(2);
+        // the band of the filter is output without the output gain
+        assertSame(filter, filter.compile(new Static(ac, 1f)));
+        // a constant signal is all in the low band
+        assertEquals(STRIP, this.run(new LowPassFilter(2)), 0.01);
+        assertEquals(0.0, this.run(new HighPassFilter(2)), 0.01);
+    }
+
+}
@@ -0,0 +1,102 @@
+package channel;
+
+import daw.core.audioprocessing.BasicProcessingUnit;
+import daw.core.audioprocessing.LookAheadGate;
+import daw.core.audioprocessing.ParametricEq;
+import daw.core.audioprocessing.RPEffect;
+import daw.core.audioprocessing.SidechainingImpl;
+import daw.core.channel.BasicChannelFactory;
+import daw.core.channel.InputMonitor;
+import daw.core.channel.RPChannel;
+import daw.utilities.AudioContextManager;
+import daw.utilities.EngineProfile;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestInputMonitor {
+
+    private static final int BUFFER_SIZE = 64;
+
+    private final InputMonitor monitor = new InputMonitor(EngineProfile.DEFAULT.withMode(EngineProfile.Mode.OFFLINE)
+            .withBufferSize(BUFFER_SIZE));
+    private final double bufferTime = this.monitor.getProfile().getBufferLatency();
+
+    @Test
+    public void testStrip() {
+        final RPChannel channel = new BasicChannelFactory().basic();
+        final var gate = new LookAheadGate(2);
+        final var sidechain = new SidechainingImpl(new BasicChannelFactory().basic().getOutput(), 2);
+        channel.addProcessingUnit(new BasicProcessingUnit(List.of(gate, sidechain, new ParametricEq(2))));
+        assertFalse(sidechain.canCopy());
+        assertTrue(sidechain.copy(this.monitor.getContext()).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> this.monitor.start(channel));
+        this.monitor.start(channel, 0);
+        assertTrue(this.monitor.isMonitoring());
+        assertSame(channel, this.monitor.getMonitoredChannel().get());
+        // the sidechain is left out, the other effects are copied into the context of the monitor
+        final List<RPEffect> copies = this.monitor.getStrip().get().getProcessingUnit().get().getEffects();
+        assertEquals(2, copies.size());
+        assertTrue(copies.get(0) instanceof LookAheadGate);
+        assertTrue(copies.get(1) instanceof ParametricEq);
+        copies.forEach(e -> assertSame(this.monitor.getContext(), e.getContext()));
+        assertEquals(gate.getParameters(), copies.get(0).getParameters());
+        // the look-ahead of the gate delays the input
+        assertEquals(2 * this.bufferTime + gate.getLatency(), this.monitor.getLatency(), 1e-9);
+        this.monitor.stop();
+        assertFalse(this.monitor.isMonitoring());
+        assertEquals(2 * this.bufferTime, this.monitor.getLatency(), 1e-9);
+    }
+
+    @Test
+    public void testFollow() {
+        final RPChannel channel = new BasicChannelFactory().basic();
+        final var gate = new LookAheadGate(2);
+        channel.addProcessingUnit(new BasicProcessingUnit(List.of(gate)));
+        this.monitor.start(channel, 0, 1);
+        final RPChannel strip = this.monitor.getStrip().get();
+        gate.setParameter(LookAheadGate.LOOK_AHEAD, 1.0f);
+        channel.setVolume(50);
+        channel.getPanner().setParameter(0, -1.0f);
+        channel.disable();
+        // the copy follows the channel at the next buffer of the monitor
+        this.monitor.getContext().runForNMillisecondsNonRealTime(this.bufferTime);
+        assertEquals(1.0f, strip.getProcessingUnit().get().getEffects().get(0).getParameter(LookAheadGate.LOOK_AHEAD));
+        assertEquals(2 * this.bufferTime + 1.0, this.monitor.getLatency(), 1e-6);
+        assertEquals(50, strip.getVolume());
+        assertEquals(-1.0f, strip.getPanner().getParameter(0));
+        assertFalse(strip.isEnabled());
+        // monitoring another channel replaces the copy
+        this.monitor.start(new BasicChannelFactory().basic(), 0);
+        assertNotSame(strip, this.monitor.getStrip().get());
+        assertFalse(this.monitor.getStrip().get().isProcessingUnitPresent());
+        this.monitor.stop();
+    }
+
+    @Test
+    public void testShared() {
+        final EngineProfile profile = EngineProfile.DEFAULT.withMode(EngineProfile.Mode.OFFLINE);
+        assertTrue(InputMonitor.canOpenInputTwice(profile));
+        // the monitor plays through the playback, reading the input the recording reads
+        final AudioContext context = AudioContextManager.newAudioContext(profile);
+        final UGen input = context.getAudioInput(new int[] {0, 1});
+        final InputMonitor shared = new InputMonitor(profile, context, input);
+        assertTrue(shared.isShared());
+        assertFalse(this.monitor.isShared());
+        final RPChannel channel = new BasicChannelFactory(context).basic();
+        shared.start(channel, 1);
+        assertSame(context, shared.getContext());
+        context.runForNMillisecondsNonRealTime(profile.getBufferLatency());
+        final RPChannel strip = shared.getStrip().get();
+        // both sides of the strip play the second channel of the input, through the gain and the centered pan
+        for (int c = 0; c < 2; c++) {
+            assertEquals(input.getOutBuffer(1)[0] * 0.9 / Math.sqrt(2), strip.getOutput().getOutBuffer(c)[0], 1e-4);
+        }
+        assertEquals(2 * profile.getBufferLatency(), shared.getLatency(), 1e-9);
+        shared.stop();
+        assertFalse(shared.isMonitoring());
+    }
+
+}
@@ -0,0 +1,42 @@
+package channel;
+
+import daw.core.audioprocessing.BasicProcessingUnitBuilder;
+import daw.core.audioprocessing.LookAheadGate;
+import daw.core.channel.BasicChannelFactory;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.ugens.Static;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLookAheadGate {
+
+    @Test
+    public void testParameters() {
+        final var gate = new LookAheadGate(2);
+        assertEquals(Map.of("threshold", 0.05f, "ratio", 8.0f, "attack", 1.0f, "decay", 50.0f, "hold", 30.0f,
+                "hysteresis", 6.0f, "lookAhead", 5.0f, "current compression", 0.125f), gate.getParameters());
+        gate.setParameters(Map.of("lookAhead", 20.0f, "ratio", 0.5f));
+        assertEquals(LookAheadGate.MAX_LOOK_AHEAD, gate.getParameters().get("lookAhead"));
+        assertEquals(1.0f, gate.getParameters().get("ratio"));
+        assertEquals(0.05f, gate.getParameters().get("threshold"));
+    }
+
+    @Test
+    public void testGating() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var channel = new BasicChannelFactory().basic();
+        channel.addProcessingUnit(new BasicProcessingUnitBuilder().lookAheadGate(2).build());
+        final var source = new Static(ac, 0.01f);
+        channel.connectSource(source);
+        ac.out.addInput(channel.getOutput());
+        ac.runForNMillisecondsNonRealTime(200);
+        // below the threshold the volume is reduced by the ratio
+        assertEquals(0.009 / 8 / Math.sqrt(2), channel.getOutput().getOutBuffer(0)[0], 0.0001);
+        source.setValue(1f);
+        ac.runForNMillisecondsNonRealTime(100);
+        assertEquals(0.9 / Math.sqrt(2), channel.getOutput().getOutBuffer(0)[0], 0.01);
+        ac.out.removeAllConnections(channel.getOutput());
+    }
+
+}
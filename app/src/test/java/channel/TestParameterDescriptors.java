@@ -0,0 +1,63 @@
+package channel;
+
+import daw.core.audioprocessing.Compression;
+import daw.core.audioprocessing.Dynamics;
+import daw.core.audioprocessing.Gate;
+import daw.core.audioprocessing.Pan;
+import daw.core.audioprocessing.ParameterDescriptor;
+import daw.core.audioprocessing.ParametricEq;
+import daw.core.audioprocessing.RPEffect;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestParameterDescriptors {
+
+    @Test
+    public void testDescriptors() {
+        final RPEffect compression = new Compression(2);
+        final var descriptors = compression.getParameterDescriptors();
+        assertEquals(5, descriptors.size());
+        for (int i = 0; i < descriptors.size(); i++) {
+            assertEquals(i, descriptors.get(i).getId());
+        }
+        assertEquals("threshold", descriptors.get(Dynamics.THRESHOLD).getName());
+        assertEquals(ParameterDescriptor.Unit.MILLISECONDS, descriptors.get(Dynamics.ATTACK).getUnit());
+        assertTrue(descriptors.get(Dynamics.CURRENT_COMPRESSION).isReadOnly());
+        assertEquals(descriptors.get(Dynamics.RATIO).getDefaultValue(), compression.getParameter(Dynamics.RATIO));
+        assertEquals(ParametricEq.id(2, ParametricEq.GAIN),
+                new ParametricEq(2).getParameterDescriptors().stream()
+                        .filter(d -> d.getName().equals("band3Gain")).findFirst().orElseThrow().getId());
+    }
+
+    @Test
+    public void testGetAndSet() {
+        final RPEffect compression = new Compression(2);
+        compression.setParameter(Dynamics.THRESHOLD, 0.3f);
+        assertEquals(0.3f, compression.getParameter(Dynamics.THRESHOLD));
+        assertEquals(0.3f, compression.getParameters().get("threshold"));
+        compression.setParameter(Dynamics.THRESHOLD, 2.0f);
+        assertEquals(1.0f, compression.getParameter(Dynamics.THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> compression.setParameter(Dynamics.CURRENT_COMPRESSION, 1));
+        assertThrows(IllegalArgumentException.class, () -> compression.getParameter(-1));
+        compression.setParameters(Map.of("ratio", 4.0f, "current compression", 0.0f, "unknown", 1.0f));
+        assertEquals(4.0f, compression.getParameter(Dynamics.RATIO));
+        final Pan pan = new Pan();
+        pan.setParameter(Pan.VALUE, -3.0f);
+        assertEquals(-1.0f, pan.getParameter(Pan.VALUE));
+        assertEquals(0.0f, pan.getRightGain(), 1e-6);
+    }
+
+    @Test
+    public void testAutomation() {
+        final RPEffect gate = new Gate(2);
+        gate.automate("threshold", new float[] {0.2f});
+        assertEquals(0.2f, gate.getParameter(Gate.THRESHOLD));
+        final RPEffect eq = new ParametricEq(2);
+        eq.automate("band1Type", new float[] {1.0f});
+        assertEquals(0.0f, eq.getParameter(ParametricEq.id(0, ParametricEq.TYPE)));
+        eq.automate("band1Gain", new float[] {6.0f});
+        assertEquals(6.0f, eq.getParameter(ParametricEq.id(0, ParametricEq.GAIN)));
+    }
+
+}
@@ -0,0 +1,46 @@
+package channel;
+
+import daw.core.audioprocessing.BasicProcessingUnitBuilder;
+import daw.core.audioprocessing.ParametricEq;
+import daw.core.channel.BasicChannelFactory;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.ugens.Static;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestParametricEq {
+
+    @Test
+    public void testParameters() {
+        final var eq = new ParametricEq(2);
+        assertEquals(ParametricEq.BANDS * 4, eq.getParameters().size());
+        assertEquals((float) ParametricEq.BandType.OFF.ordinal(), eq.getParameters().get("band1Type"));
+        eq.setParameters(Map.of("band2Type", (float) ParametricEq.BandType.NOTCH.ordinal(),
+                "band2Frequency", 50f, "band2Gain", 100f, "band2Q", 0f, "unknown", 1f));
+        assertEquals((float) ParametricEq.BandType.NOTCH.ordinal(), eq.getParameters().get("band2Type"));
+        assertEquals(50f, eq.getParameters().get("band2Frequency"), 0.01);
+        assertEquals(24f, eq.getParameters().get("band2Gain"));
+        assertEquals(0.1f, eq.getParameters().get("band2Q"));
+    }
+
+    @Test
+    public void testShelf() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var channel = new BasicChannelFactory().basic();
+        final var eq = new ParametricEq(2);
+        channel.addProcessingUnit(new BasicProcessingUnitBuilder().parametricEq(2).build());
+        final var unitEq = (ParametricEq) channel.getProcessingUnit().get().getEffects().get(0);
+        // a bell and a notch let the constant signal through, the low shelf boosts it
+        unitEq.setParameters(Map.of("band1Type", (float) ParametricEq.BandType.LOW_SHELF.ordinal(),
+                "band1Gain", 6f, "band4Type", (float) ParametricEq.BandType.BELL.ordinal(), "band4Gain", 12f,
+                "band6Type", (float) ParametricEq.BandType.NOTCH.ordinal()));
+        channel.connectSource(new Static(ac, 1f));
+        ac.out.addInput(channel.getOutput());
+        ac.runForNMillisecondsNonRealTime(500);
+        assertEquals(Math.pow(10, 6.0 / 20) * 0.9 / Math.sqrt(2), channel.getOutput().getOutBuffer(0)[0], 0.01);
+        ac.out.removeAllConnections(channel.getOutput());
+        assertEquals(eq.getParameters().get("band1Frequency"), unitEq.getParameters().get("band1Frequency"));
+    }
+
+}
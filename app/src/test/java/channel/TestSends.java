@@ -0,0 +1,72 @@
+package channel;
+
+import daw.core.channel.BasicChannelFactory;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.ugens.Static;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSends {
+
+    // the input gain followed by a centered pan
+    private static final double STRIP = 0.9 / Math.sqrt(2);
+
+    @Test
+    public void testSends() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var factory = new BasicChannelFactory();
+        final var first = factory.basic();
+        final var second = factory.basic();
+        final var returnChannel = factory.returnChannel();
+        returnChannel.removeProcessingUnit();
+        first.connectSource(new Static(ac, 1f));
+        second.connectSource(new Static(ac, 1f));
+        second.setVolume(0);
+        assertThrows(IllegalArgumentException.class, () -> first.setSend(second, 0.5f, false));
+        assertThrows(IllegalArgumentException.class, () -> first.setSend(returnChannel, 2f, false));
+        first.setSend(returnChannel, 0.5f, false);
+        second.setSend(returnChannel, 1f, true);
+        assertEquals(1, first.getSends().size());
+        assertEquals(returnChannel, second.getSends().get(0).getReturnChannel());
+        assertTrue(second.getSends().get(0).isPreFader());
+        ac.out.addInput(returnChannel.getOutput());
+        ac.runForNMillisecondsNonRealTime(50);
+        // the muted fader of the second channel does not affect its pre-fader send
+        assertEquals((STRIP * 0.5 + STRIP) * STRIP, returnChannel.getOutput().getOutBuffer(0)[0], 0.01);
+        first.removeSend(returnChannel);
+        assertTrue(first.getSends().isEmpty());
+        ac.runForNMillisecondsNonRealTime(50);
+        assertEquals(STRIP * STRIP, returnChannel.getOutput().getOutBuffer(0)[0], 0.01);
+        ac.out.removeAllConnections(returnChannel.getOutput());
+    }
+
+    @Test
+    public void testPreFaderSwitch() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var factory = new BasicChannelFactory();
+        final var channel = factory.basic();
+        final var returnChannel = factory.returnChannel();
+        returnChannel.removeProcessingUnit();
+        channel.connectSource(new Static(ac, 1f));
+        channel.setVolume(100);
+        channel.setSend(returnChannel, 1f, false);
+        ac.out.addInput(returnChannel.getOutput());
+        ac.runForNMillisecondsNonRealTime(50);
+        // at full volume the two taps are the same, so the switch is crossfaded without changing the gain
+        channel.setSend(returnChannel, 1f, true);
+        for (int i = 0; i < 5; i++) {
+            ac.runForNMillisecondsNonRealTime(5);
+            for (final float sample : returnChannel.getOutput().getOutBuffer(0)) {
+                assertEquals(STRIP * STRIP, sample, 0.01);
+            }
+        }
+        channel.setVolume(0);
+        ac.runForNMillisecondsNonRealTime(50);
+        assertEquals(STRIP * STRIP, returnChannel.getOutput().getOutBuffer(0)[0], 0.01);
+        channel.setSend(returnChannel, 1f, false);
+        ac.runForNMillisecondsNonRealTime(50);
+        assertEquals(0.0, returnChannel.getOutput().getOutBuffer(0)[0], 0.01);
+        ac.out.removeAllConnections(returnChannel.getOutput());
+    }
+
+}
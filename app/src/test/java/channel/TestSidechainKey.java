@@ -0,0 +1,41 @@
+package channel;
+
+import daw.core.audioprocessing.SidechainingImpl;
+import daw.core.channel.BasicChannelFactory;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.ugens.Static;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSidechainKey {
+
+    // the input gain followed by a centered pan
+    private static final double STRIP = 0.9 / Math.sqrt(2);
+
+    @Test
+    public void testSharedKey() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var factory = new BasicChannelFactory();
+        final var speech = factory.basic();
+        final var music = factory.sidechained(speech.getOutput());
+        final var ambience = factory.sidechained(speech.getOutput());
+        final var musicDucker = (SidechainingImpl) music.getProcessingUnit().get().getEffectAtPosition(0);
+        final var ambienceDucker = (SidechainingImpl) ambience.getProcessingUnit().get().getEffectAtPosition(0);
+        assertSame(musicDucker.getKey(), ambienceDucker.getKey());
+        ambienceDucker.setParameters(Map.of("threshold", 0.2f, "ratio", 4f));
+        speech.connectSource(new Static(ac, 1f));
+        music.connectSource(new Static(ac, 1f));
+        ambience.connectSource(new Static(ac, 1f));
+        ac.out.addInput(music.getOutput());
+        ac.out.addInput(ambience.getOutput());
+        ac.runForNMillisecondsNonRealTime(200);
+        // each ducker applies its own threshold and ratio to the same level
+        assertEquals(STRIP * (0.5 + (STRIP - 0.5) / 2) / STRIP, music.getOutput().getOutBuffer(0)[0], 0.01);
+        assertEquals(STRIP * (0.2 + (STRIP - 0.2) / 4) / STRIP, ambience.getOutput().getOutBuffer(0)[0], 0.01);
+        assertEquals(STRIP, musicDucker.getKey().getLevel()[0], 0.01);
+        ac.out.removeAllConnections(music.getOutput());
+        ac.out.removeAllConnections(ambience.getOutput());
+    }
+
+}
@@ -0,0 +1,217 @@
+package clip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import daw.core.automation.Playhead;
+import daw.core.clip.MultitrackRecorder;
+import daw.core.clip.RPMultitrackRecorder;
+import daw.core.clip.Take;
+import daw.utilities.AudioContextManager;
+import daw.utilities.EngineProfile;
+import daw.utilities.RPPair;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.core.UGen;
+
+class TestMultitrackRecorder {
+
+	private final AudioContext context = AudioContextManager.newAudioContext(
+			EngineProfile.DEFAULT.withMode(EngineProfile.Mode.OFFLINE));
+
+	private final Playhead playhead = Playhead.getPlayhead(this.context);
+
+	private final File directory;
+
+	private final RPMultitrackRecorder recorder;
+
+	TestMultitrackRecorder() throws IOException {
+		this.directory = Files.createTempDirectory("takes").toFile();
+		this.recorder = new MultitrackRecorder(this.context, this.directory);
+	}
+
+	@AfterEach
+	void deleteTakes() throws IOException {
+		try (Stream<Path> files = Files.walk(this.directory.toPath())) {
+			for (final Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	//a different ramp on each channel, so that each frame of a take can be told from the others
+	private static float value(final int channel, final long frame) {
+		return (frame % 1000) / 1000.0f * (channel == 0 ? 1 : -1);
+	}
+
+	//outputs the ramps, counting the frames from the first buffer it is run for
+	private static final class Ramp extends UGen {
+
+		private long frame;
+
+		private Ramp(final AudioContext context) {
+			super(context, 2);
+		}
+
+		@Override
+		public void calculateBuffer() {
+			for (int i = 0; i < this.bufferSize; i++, this.frame++) {
+				for (int c = 0; c < this.outs; c++) {
+					this.bufOut[c][i] = value(c, this.frame);
+				}
+			}
+		}
+
+	}
+
+	//the samples of each channel of a take
+	private short[][] read(final Take take) throws IOException, UnsupportedAudioFileException {
+		try (AudioInputStream in = AudioSystem.getAudioInputStream(take.getFile())) {
+			final int channels = in.getFormat().getChannels();
+			final ByteBuffer bytes = ByteBuffer.wrap(in.readAllBytes()).order(ByteOrder.LITTLE_ENDIAN);
+			final short[][] samples = new short[channels][bytes.remaining() / 2 / channels];
+			for (int f = 0; f < samples[0].length; f++) {
+				for (int c = 0; c < channels; c++) {
+					samples[c][f] = bytes.getShort();
+				}
+			}
+			return samples;
+		}
+	}
+
+	@Test
+	void testPunch() throws IOException, UnsupportedAudioFileException {
+		final double frame = this.playhead.getFrameTime();
+		this.recorder.arm("Voice", 0);
+		this.recorder.arm("Guest", 1, 2);
+		this.recorder.setPunch(Optional.of(new RPPair<>(1000.0, 2000.0)));
+		this.recorder.start();
+		assertThrows(IllegalStateException.class, () -> this.recorder.arm("Music", 3));
+		this.playhead.start(500.0);
+		this.context.runForNMillisecondsNonRealTime(2000);
+		this.playhead.stop();
+		final List<Take> takes = this.recorder.stop();
+		assertFalse(this.recorder.isRecording());
+		assertEquals(List.of("Voice", "Guest"), List.of(takes.get(0).getTrack(), takes.get(1).getTrack()));
+		for (final Take take : takes) {
+			//the take begins and ends at the punch, whatever the buffers are
+			assertEquals(1000.0, take.getTimeIn(), frame);
+			assertEquals(1000.0, take.getDuration(), frame);
+			assertEquals(0, take.getDroppedFrames());
+		}
+		//each take has a channel for each of its inputs
+		final short[][] voice = this.read(takes.get(0));
+		assertEquals(1, voice.length);
+		assertEquals(Math.round(this.context.msToSamples(1000.0)), voice[0].length, 1);
+		final short[][] guest = this.read(takes.get(1));
+		assertEquals(2, guest.length);
+		assertEquals(voice[0].length, guest[1].length);
+	}
+
+	@Test
+	void testPlayback() throws IOException {
+		this.recorder.arm("Voice", 0);
+		this.recorder.start();
+		//nothing is recorded while the playback is stopped
+		this.context.runForNMillisecondsNonRealTime(100);
+		this.playhead.start(0.0);
+		this.context.runForNMillisecondsNonRealTime(300);
+		this.playhead.stop();
+		this.context.runForNMillisecondsNonRealTime(100);
+		//the take ended when the playback stopped
+		this.playhead.start(0.0);
+		this.context.runForNMillisecondsNonRealTime(100);
+		this.playhead.stop();
+		final List<Take> takes = this.recorder.stop();
+		assertEquals(1, takes.size());
+		assertEquals(0.0, takes.get(0).getTimeIn());
+		final double buffer = this.context.samplesToMs(this.context.getBufferSize());
+		assertEquals(Math.ceil(300 / buffer) * buffer, takes.get(0).getDuration(), 1e-6);
+		//a track that records nothing leaves no file
+		this.recorder.start();
+		assertTrue(this.recorder.stop().isEmpty());
+		assertEquals(1, this.directory.list().length);
+	}
+
+	@Test
+	void testSignal() throws IOException, UnsupportedAudioFileException {
+		final RPMultitrackRecorder recorder = new MultitrackRecorder(this.context, this.directory,
+				new Ramp(this.context), 4000.0);
+		recorder.arm("Guest", 1, 0);
+		recorder.setPunch(Optional.of(new RPPair<>(100.0, 300.0)));
+		recorder.start();
+		this.playhead.start(0.0);
+		this.context.runForNMillisecondsNonRealTime(400);
+		this.playhead.stop();
+		final Take take = recorder.stop().get(0);
+		final short[][] samples = this.read(take);
+		assertEquals(Math.round(this.context.msToSamples(200.0)), samples[0].length, 1);
+		//the take holds the frames of the inputs from the punch in, in the order they were armed in
+		final long first = Math.round(take.getTimeIn() / this.playhead.getFrameTime());
+		for (int f = 0; f < samples[0].length; f++) {
+			assertEquals(Math.round(value(1, first + f) * Short.MAX_VALUE), samples[0][f]);
+			assertEquals(Math.round(value(0, first + f) * Short.MAX_VALUE), samples[1][f]);
+		}
+	}
+
+	@Test
+	void testOverflow() throws IOException {
+		final double buffer = this.context.samplesToMs(this.context.getBufferSize());
+		//a ring that holds a single buffer overflows as soon as the disk is late
+		final RPMultitrackRecorder recorder = new MultitrackRecorder(this.context, this.directory,
+				new Ramp(this.context), buffer);
+		recorder.arm("Voice", 0);
+		recorder.start();
+		this.playhead.start(0.0);
+		this.context.runForNMillisecondsNonRealTime(5000);
+		this.playhead.stop();
+		final Take take = recorder.stop().get(0);
+		assertTrue(take.getDroppedFrames() > 0);
+		//the frames that have been written and the ones that have been dropped make up the whole take
+		assertEquals(Math.ceil(5000 / buffer) * buffer,
+				take.getDuration() + take.getDroppedFrames() * this.playhead.getFrameTime(), 1e-3);
+	}
+
+	@Test
+	void testDiscard() throws IOException {
+		this.recorder.arm("Voice", 0);
+		this.recorder.start();
+		this.playhead.start(0.0);
+		this.context.runForNMillisecondsNonRealTime(300);
+		this.playhead.stop();
+		this.recorder.discard();
+		assertFalse(this.recorder.isRecording());
+		assertEquals(0, this.directory.list().length);
+		assertThrows(IllegalStateException.class, this.recorder::discard);
+	}
+
+	@Test
+	void testStates() {
+		assertThrows(IllegalStateException.class, this.recorder::start);
+		assertThrows(IllegalStateException.class, this.recorder::stop);
+		assertThrows(IllegalArgumentException.class, () -> this.recorder.arm("Voice"));
+		assertThrows(IllegalArgumentException.class, () -> this.recorder.arm("Voice", -1));
+		assertThrows(IllegalArgumentException.class,
+				() -> this.recorder.setPunch(Optional.of(new RPPair<>(2000.0, 1000.0))));
+		this.recorder.arm("Voice", 0);
+		this.recorder.disarm("Voice");
+		assertTrue(this.recorder.getArmedTracks().isEmpty());
+	}
+
+}
@@ -0,0 +1,74 @@
+package clip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import daw.core.clip.Resampler;
+import daw.core.clip.ResamplingCache;
+
+class TestResampler {
+
+	//the frames at each end that the filter sees beyond the audio
+	private static final int EDGE = 200;
+
+	private float[] sine(final double frequency, final float sampleRate, final int frames) {
+		final float[] audio = new float[frames];
+		for (int i = 0; i < frames; i++) {
+			audio[i] = (float) Math.sin(2 * Math.PI * frequency * i / sampleRate);
+		}
+		return audio;
+	}
+
+	private double maxError(final float[] actual, final float[] expected) {
+		double error = 0;
+		for (int i = EDGE; i < expected.length - EDGE; i++) {
+			error = Math.max(error, Math.abs(actual[i] - expected[i]));
+		}
+		return error;
+	}
+
+	@Test
+	void testUpsampling() {
+		//longer than a block, so that the blocks meet in the middle
+		final float[][] audio = {this.sine(1000, 44_100, 88_200), this.sine(5000, 44_100, 88_200)};
+		final float[][] out = Resampler.resample(audio, 44_100, 48_000);
+		assertEquals(2, out.length);
+		assertEquals(Resampler.getFrames(88_200, 44_100, 48_000), out[0].length);
+		assertTrue(out[0].length > Resampler.BLOCK);
+		assertTrue(this.maxError(out[0], this.sine(1000, 48_000, out[0].length)) < 1e-3);
+		assertTrue(this.maxError(out[1], this.sine(5000, 48_000, out[1].length)) < 1e-3);
+	}
+
+	@Test
+	void testDownsampling() {
+		final float[][] audio = {this.sine(1000, 96_000, 96_000), this.sine(30_000, 96_000, 96_000)};
+		final float[][] out = Resampler.resample(audio, 96_000, 44_100);
+		assertEquals(44_100, out[0].length);
+		assertTrue(this.maxError(out[0], this.sine(1000, 44_100, 44_100)) < 1e-3);
+		//a tone above the new Nyquist frequency is filtered out rather than folded back
+		assertTrue(this.maxError(out[1], new float[44_100]) < 1e-3);
+		assertThrows(IllegalArgumentException.class, () -> Resampler.resample(audio, 0, 44_100));
+	}
+
+	@Test
+	void testCacheKey() throws IOException {
+		final Path directory = Files.createTempDirectory("cache");
+		final File first = Files.write(directory.resolve("first.wav"), new byte[] {1, 2, 3}).toFile();
+		final File copy = Files.write(directory.resolve("copy.wav"), new byte[] {1, 2, 3}).toFile();
+		final File other = Files.write(directory.resolve("other.wav"), new byte[] {3, 2, 1}).toFile();
+		final ResamplingCache cache = new ResamplingCache(directory.toFile());
+		//the conversions follow the content and the rate, not the name
+		assertEquals(cache.getConvertedFile(first, 48_000), cache.getConvertedFile(copy, 48_000));
+		assertNotEquals(cache.getConvertedFile(first, 48_000), cache.getConvertedFile(other, 48_000));
+		assertNotEquals(cache.getConvertedFile(first, 48_000), cache.getConvertedFile(first, 44_100));
+		assertEquals(directory.toFile(), cache.getConvertedFile(first, 48_000).getParentFile());
+	}
+
+}
@@ -5,9 +5,12 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import daw.core.clip.ClipChange;
 import daw.core.clip.ClipNotFoundException;
 import daw.core.clip.EmptyClip;
 import daw.core.clip.RPClip;
@@ -162,4 +165,72 @@ class TestTapeChannel {
 		assertEquals(tapeChannel.getClipAt(500), Optional.empty());
 	}
 
+	@Test
+	void testGetClipTimeIn() {
+		RPTapeChannel tapeChannel = new TapeChannel();
+		RPClip<?> clip = new EmptyClip("title", 100);
+		RPClip<?> clip2 = new EmptyClip("title2", 10);
+		tapeChannel.insertRPClip(clip, 0);
+		assertEquals(tapeChannel.getClipTimeIn(clip), Optional.of(0.0));
+		tapeChannel.insertRPClip(clip2, 20);
+		assertEquals(tapeChannel.getClipTimeIn(clip), Optional.of(30.0));
+		assertEquals(tapeChannel.getClipTimeIn(new EmptyClip("title(1)")), Optional.of(0.0));
+		assertEquals(tapeChannel.getClipTimeIn(clip2), Optional.of(20.0));
+		try {
+			tapeChannel.move(20, 200);
+			tapeChannel.removeClip(30);
+		} catch (ClipNotFoundException e) {
+			e.printStackTrace();
+			fail();
+		}
+		assertEquals(tapeChannel.getClipTimeIn(clip2), Optional.of(200.0));
+		assertEquals(tapeChannel.getClipTimeIn(clip), Optional.empty());
+		tapeChannel.clearTape();
+		assertEquals(tapeChannel.getClipTimeIn(clip2), Optional.empty());
+	}
+	
+	@Test
+	void testForEachChange() {
+		RPTapeChannel tapeChannel = new TapeChannel();
+		RPClip<?> clip = new EmptyClip("title", 100);
+		RPClip<?> clip2 = new EmptyClip("title2", 10);
+		tapeChannel.insertRPClip(clip, 0);
+		final var first = tapeChannel.snapshot();
+		final List<ClipChange> changes = new ArrayList<>();
+		tapeChannel.forEachChange(null, changes::add);
+		assertEquals(1, changes.size());
+		assertEquals(ClipChange.Type.ADDED, changes.get(0).getType());
+		changes.clear();
+		tapeChannel.forEachChange(first, changes::add);
+		assertTrue(changes.isEmpty());
+		tapeChannel.insertRPClip(clip2, 200);
+		try {
+			tapeChannel.move(0, 50);
+			tapeChannel.setTimeOut(200, 205);
+		} catch (ClipNotFoundException e) {
+			e.printStackTrace();
+			fail();
+		}
+		final var second = tapeChannel.snapshot();
+		tapeChannel.forEachChange(first, changes::add);
+		assertEquals(2, changes.size());
+		assertTrue(changes.stream().anyMatch(c -> c.getType() == ClipChange.Type.MOVED 
+				&& c.getClip() == clip && c.getTimeIn() == 50));
+		assertTrue(changes.stream().anyMatch(c -> c.getType() == ClipChange.Type.ADDED && c.getClip() == clip2));
+		changes.clear();
+		try {
+			tapeChannel.setTimeOut(50, 100);
+			tapeChannel.removeClip(200);
+		} catch (ClipNotFoundException e) {
+			e.printStackTrace();
+			fail();
+		}
+		tapeChannel.forEachChange(second, changes::add);
+		assertEquals(2, changes.size());
+		assertTrue(changes.stream().anyMatch(c -> c.getType() == ClipChange.Type.TRIMMED && c.getClip() == clip));
+		assertTrue(changes.stream().anyMatch(c -> c.getType() == ClipChange.Type.REMOVED 
+				&& c.getClip() == clip2 && c.getTimeIn() == 200));
+		assertThrows(IllegalArgumentException.class, () -> new TapeChannel().forEachChange(first, changes::add));
+	}
+
 }
@@ -8,11 +8,14 @@ import java.io.IOException;
 import org.junit.jupiter.api.Test;
 import daw.core.channel.BasicChannelFactory;
 import daw.core.channel.RPChannel;
+import daw.core.clip.RPClip;
+import daw.core.clip.RPClipPlayer;
 import daw.core.clip.SampleClip;
 import daw.core.clip.SampleClipPlayerFactory;
 import daw.engine.ClipPlayerNotifier;
 import daw.engine.Clock;
 import daw.engine.PlayersMap;
+import net.beadsproject.beads.core.UGen;
 import net.beadsproject.beads.data.audiofile.FileFormatException;
 import net.beadsproject.beads.data.audiofile.OperationUnsupportedException;
 
@@ -75,5 +78,95 @@ class TestClipPlayerNotifier {
 			});
 		});	
 	}
+	
+	@Test
+	void observersPublished() {
+		final PlayersMap oldMap = new PlayersMap();
+		final RPClipPlayer oldPlayer = new TestPlayer();
+		oldMap.putClipPlayer(0L, oldPlayer);
+		ClipPlayerNotifier cpn = new ClipPlayerNotifier(oldMap);
+		cpn.update(2L);
+		assertFalse(oldPlayer.isPaused(), "the old player should be playing");
+		final PlayersMap newMap = new PlayersMap();
+		final RPClipPlayer current = new TestPlayer();
+		final RPClipPlayer next = new TestPlayer();
+		newMap.putClipPlayer(2L, current);
+		newMap.putClipPlayer(5L, next);
+		cpn.publish(2L, newMap);
+		assertFalse(oldPlayer.isPaused(), "nothing changes before the next update");
+		cpn.update(3L);
+		assertTrue(oldPlayer.isPaused(), "the old player should be stopped");
+		assertFalse(current.isPaused(), "the player at the publishing step should be playing");
+		assertTrue(next.isPaused(), "the next player should wait for its step");
+		cpn.update(5L);
+		assertFalse(next.isPaused(), "the next player should be playing");
+	}
+	
+	private static final class TestPlayer implements RPClipPlayer {
+		
+		private boolean paused = true;
+
+		@Override
+		public void play() {
+			this.paused = false;
+		}
+
+		@Override
+		public void pause() {
+			this.paused = true;
+		}
+
+		@Override
+		public void stop() {
+			this.pause();
+		}
+
+		@Override
+		public void setPlaybackPosition(final double milliseconds) {
+		}
+
+		@Override
+		public void setCut(final double time) {
+		}
+
+		@Override
+		public void disableCut() {
+		}
+
+		@Override
+		public double getPlaybackPosition() {
+			return 0;
+		}
+
+		@Override
+		public boolean isPaused() {
+			return this.paused;
+		}
+
+		@Override
+		public boolean isCutActive() {
+			return false;
+		}
+
+		@Override
+		public double getCutTime() {
+			return 0;
+		}
+
+		@Override
+		public double getPlaybackDuration() {
+			return 1000.0;
+		}
+
+		@Override
+		public RPClip<?> getClip() {
+			return null;
+		}
+
+		@Override
+		public UGen getUGen() {
+			return null;
+		}
+	}
 
 }
@@ -0,0 +1,54 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+import daw.engine.Clock;
+import daw.utilities.AudioContextManager;
+import daw.utilities.EngineProfile;
+
+class TestEngineProfile {
+
+	@Test
+	void testProfile() {
+		final Properties properties = new Properties();
+		assertEquals(EngineProfile.DEFAULT, EngineProfile.fromProperties(properties));
+		properties.setProperty(EngineProfile.BUFFER_SIZE_PROPERTY, "256");
+		properties.setProperty(EngineProfile.MODE_PROPERTY, "offline");
+		final EngineProfile profile = EngineProfile.fromProperties(properties);
+		assertEquals(EngineProfile.Mode.OFFLINE, profile.getMode());
+		assertEquals(256, profile.getBufferSize());
+		assertEquals(EngineProfile.DEFAULT_SAMPLE_RATE, profile.getSampleRate());
+		properties.setProperty(EngineProfile.BUFFER_SIZE_PROPERTY, "300");
+		assertThrows(IllegalArgumentException.class, () -> EngineProfile.fromProperties(properties));
+		assertThrows(IllegalArgumentException.class, () -> profile.withSampleRate(0));
+	}
+
+	@Test
+	void testRestart() {
+		final EngineProfile previous = AudioContextManager.getProfile();
+		final var context = AudioContextManager.getAudioContext();
+		final EngineProfile profile = new EngineProfile(EngineProfile.Mode.OFFLINE, 256, 48_000.0f);
+		try {
+			assertTrue(AudioContextManager.setProfile(profile));
+			assertFalse(AudioContextManager.setProfile(profile));
+			assertNotSame(context, AudioContextManager.getAudioContext());
+			assertEquals(256, AudioContextManager.getAudioContext().getBufferSize());
+			// the clock follows the sample rate of the new context
+			assertEquals((double) (1 / 48_000.0f), Clock.Utility.getClockStepUnit());
+			final long steps = Clock.Utility.getClockMaxStep();
+			assertEquals(steps, Clock.Utility.timeToClockSteps(Clock.Utility.getClockMaxTime()));
+			AudioContextManager.start();
+			AudioContextManager.stop();
+		} finally {
+			AudioContextManager.setProfile(previous);
+		}
+		assertEquals((double) (1 / previous.getSampleRate()), Clock.Utility.getClockStepUnit());
+	}
+
+}
@@ -0,0 +1,98 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import daw.core.automation.Playhead;
+import daw.engine.OfflineRenderer;
+import daw.manager.ImportException;
+import daw.manager.Manager;
+import daw.utilities.AudioContextManager;
+import daw.utilities.EngineProfile;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.data.Sample;
+import planning.RPPart;
+import planning.RPRole;
+
+class TestOfflineRenderer {
+
+	private final AudioContext context = AudioContextManager.newAudioContext(
+			EngineProfile.DEFAULT.withMode(EngineProfile.Mode.OFFLINE));
+
+	private final Manager manager = new Manager(this.context);
+
+	private long buffers(final double time) {
+		return (long) Math.ceil(this.context.msToSamples(time) / this.context.getBufferSize());
+	}
+
+	@Test
+	void testRange() {
+		final Manager other = new Manager(AudioContextManager.newAudioContext(
+				EngineProfile.DEFAULT.withMode(EngineProfile.Mode.OFFLINE)));
+		final OfflineRenderer renderer = new OfflineRenderer(this.manager);
+		renderer.render(1000.0, 3000.0);
+		assertEquals(this.buffers(2000.0), this.context.getTimeStep());
+		assertFalse(Playhead.getPlayhead(this.context).isPlaying());
+		//only the context of the rendered project is run
+		assertEquals(0, other.getAudioContext().getTimeStep());
+		assertThrows(IllegalArgumentException.class, () -> renderer.render(-1.0, 1000.0));
+		assertThrows(IllegalArgumentException.class, () -> renderer.render(1000.0, 1000.0));
+	}
+
+	@Test
+	void testWholeProject() {
+		new OfflineRenderer(this.manager).render();
+		//a project with no clips lasts its minimum length
+		assertEquals(this.buffers(this.manager.getProjectLength()), this.context.getTimeStep());
+	}
+
+	@Test
+	void testClip() throws IOException, ImportException {
+		final int bufferSize = this.context.getBufferSize();
+		final int frames = 4 * bufferSize;
+		//a ramp, so that each frame of the clip can be told from the others
+		final Sample ramp = new Sample((long) frames, 1, this.context.getSampleRate());
+		for (int i = 0; i < frames; i++) {
+			ramp.putFrame(i, new float[] {(i + 1) / (2.0f * frames)});
+		}
+		final File file = File.createTempFile("ramp", ".wav");
+		file.deleteOnExit();
+		ramp.write(file.getAbsolutePath());
+		//the filters of the master would change the ramp
+		this.manager.getMixer().getMasterChannel().removeProcessingUnit();
+		this.manager.addChannel(RPRole.RoleType.EFFECTS, "claps", Optional.empty());
+		//a clip in the middle of the third buffer starts at the beginning of it
+		final int start = 2 * bufferSize;
+		this.manager.addClip(RPPart.PartType.EFFECTS, "clap", Optional.empty(), "claps",
+				this.context.samplesToMs(start + bufferSize / 2), 0.0, Optional.of(file));
+		final Sample content = (Sample) this.manager.getClipFromTitle("clap").getContent();
+		final Sample render = new OfflineRenderer(this.manager).render(0.0, this.context.samplesToMs(start + 2 * frames));
+		final float[] played = new float[content.getNumChannels()];
+		final float[] rendered = new float[render.getNumChannels()];
+		for (int i = 0; i < start; i++) {
+			render.getFrame(i, rendered);
+			assertEquals(0.0f, rendered[0]);
+		}
+		content.getFrame(frames - 1, played);
+		render.getFrame(start + frames - 1, rendered);
+		final float gain = rendered[0] / played[0];
+		assertTrue(gain > 0.0f);
+		//the clip is played frame by frame from the beginning of its buffer, scaled by the channels it goes through
+		for (int i = 0; i < frames; i++) {
+			content.getFrame(i, played);
+			render.getFrame(start + i, rendered);
+			assertEquals(gain * played[0], rendered[0], 1.0e-4);
+		}
+		for (int i = start + frames; i < start + 2 * frames; i++) {
+			render.getFrame(i, rendered);
+			assertEquals(0.0f, rendered[0], 1.0e-4);
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+package manager;
+
+import controller.storing.deserialization.ManagerDeserializer;
+import controller.storing.serialization.ManagerSerializer;
+import daw.core.audioprocessing.BasicProcessingUnitBuilder;
+import daw.core.audioprocessing.LowPassFilter;
+import daw.core.audioprocessing.ProcessingUnit;
+import daw.core.automation.Playhead;
+import daw.manager.Manager;
+import daw.utilities.AudioContextManager;
+import daw.utilities.EngineProfile;
+import net.beadsproject.beads.core.AudioContext;
+import net.beadsproject.beads.ugens.Static;
+import org.junit.jupiter.api.Test;
+import planning.RPRole;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestIsolatedContexts {
+
+    private static final EngineProfile OFFLINE = EngineProfile.DEFAULT.withMode(EngineProfile.Mode.OFFLINE);
+
+    private final AudioContext first = AudioContextManager.newAudioContext(OFFLINE);
+    private final AudioContext second = AudioContextManager.newAudioContext(OFFLINE);
+
+    @Test
+    public void testOwnContext() {
+        final Manager manager = new Manager(this.first);
+        manager.addChannel(RPRole.RoleType.SPEECH, "Voice", Optional.empty());
+        assertSame(this.first, manager.getAudioContext());
+        assertSame(this.first, manager.getChannelFromTitle("Voice").getOutput().getContext());
+        manager.getMixer().getMasterChannel().getProcessingUnit().orElseThrow().getEffects()
+                .forEach(e -> assertSame(this.first, e.getContext()));
+        assertNotSame(Playhead.getPlayhead(this.first), Playhead.getPlayhead(this.second));
+        // the effects of a unit cannot be run by different contexts
+        final ProcessingUnit pu = new BasicProcessingUnitBuilder(this.first).lowPassFilter(2).build();
+        assertThrows(IllegalArgumentException.class, () -> pu.addEffect(new LowPassFilter(this.second, 2)));
+        assertEquals(1, pu.size());
+    }
+
+    @Test
+    public void testIndependentRendering() {
+        final Manager playing = new Manager(this.first);
+        final Manager idle = new Manager(this.second);
+        playing.addChannel(RPRole.RoleType.EFFECTS, "Cheer", Optional.empty());
+        final var cheer = playing.getChannelFromTitle("Cheer");
+        cheer.connectSource(new Static(this.first, 0.5f));
+        playing.getMixer().connectToSystem();
+        idle.getMixer().connectToSystem();
+        this.first.out.addInput(cheer.getOutput());
+        this.first.runForNMillisecondsNonRealTime(50);
+        assertTrue(this.first.getTimeStep() > 0);
+        assertEquals(0, this.second.getTimeStep());
+        assertNotEquals(0.0f, cheer.getOutput().getOutBuffer(0)[0]);
+    }
+
+    @Test
+    public void testLoadIntoContext() throws IOException {
+        final Manager manager = new Manager(this.first);
+        manager.addChannel(RPRole.RoleType.SPEECH, "Voice", Optional.empty());
+        final Manager loaded = new ManagerDeserializer(this.second)
+                .deserialize(new ManagerSerializer().serialize(manager));
+        assertSame(this.second, loaded.getAudioContext());
+        final var voice = loaded.getChannelFromTitle("Voice");
+        assertSame(this.second, voice.getOutput().getContext());
+        voice.getProcessingUnit().orElseThrow().getEffects()
+                .forEach(e -> assertSame(this.second, e.getContext()));
+    }
+
+}
@@ -1,16 +1,24 @@
 package manager;
 
+import daw.core.clip.ClipChange;
 import daw.core.clip.ClipNotFoundException;
+import daw.core.clip.Take;
+import daw.manager.ChannelSend;
 import daw.manager.ImportException;
 import daw.manager.Manager;
 import daw.manager.RPManager;
+import net.beadsproject.beads.data.Sample;
 import org.junit.jupiter.api.Test;
 import planning.RPPart;
 import planning.RPRole;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -89,4 +97,184 @@ public class TestManager {
         assertEquals(1, manager.getPartList("Paolo").size());
         assertEquals(1, manager.getPartList("Stefano").size());
     }
+
+    @Test
+    public void testLookupsAfterSplit() {
+        manager.addChannel(RPRole.RoleType.SPEECH, "Paolo", Optional.empty());
+        try {
+            manager.addClip(RPPart.PartType.SPEECH, "Song", Optional.empty(), "Paolo",
+                    0.0d, 240000d, Optional.empty());
+            manager.splitClip("Song", "Paolo", 120000d);
+        } catch (ImportException | ClipNotFoundException e) {
+            fail();
+        }
+        assertTrue(manager.getClipLinker().clipExists("Song"));
+        assertTrue(manager.getClipLinker().clipExists("Song(1)"));
+        assertEquals(0.0, manager.getClipTime("Song(1)", "Paolo"));
+        assertEquals(120000d, manager.getClipTime("Song", "Paolo"));
+        assertEquals(manager.getClipLinker().getPart("Song(1)"),
+                manager.getClipLinker().getPartFromClip(manager.getClipFromTitle("Song(1)")));
+        assertEquals(2, manager.getPartList("Paolo").size());
+        assertEquals("Speech", manager.getGroup("Speech").getTitle());
+        assertThrows(NoSuchElementException.class, () -> manager.getGroup("Paolo"));
+        assertThrows(NoSuchElementException.class, () -> manager.getClipLinker().getPart("Sang"));
+    }
+
+    @Test
+    public void testClipEditListener() {
+        final List<ClipChange> changes = new ArrayList<>();
+        manager.addChannel(RPRole.RoleType.SPEECH, "Paolo", Optional.empty());
+        manager.addClipEditListener((channel, change) -> {
+            assertSame(manager.getChannelFromTitle("Paolo"), channel);
+            changes.add(change);
+        });
+        try {
+            manager.addClip(RPPart.PartType.SPEECH, "Song", Optional.empty(), "Paolo",
+                    0.0d, 240000d, Optional.empty());
+            assertEquals(ClipChange.Type.ADDED, changes.get(0).getType());
+            manager.moveClip("Song", "Paolo", 1000d);
+            assertEquals(ClipChange.Type.MOVED, changes.get(1).getType());
+            assertEquals(1000d, changes.get(1).getTimeIn());
+            manager.setClipTimeOut("Song", "Paolo", 2000d);
+            assertEquals(ClipChange.Type.TRIMMED, changes.get(2).getType());
+            manager.splitClip("Song", "Paolo", 1500d);
+            assertEquals(5, changes.size());
+            manager.addSection("Intro", Optional.empty(), 0.0d, 1000d);
+            assertEquals(5, changes.size());
+        } catch (ImportException | ClipNotFoundException e) {
+            fail();
+        }
+        manager.removeChannel("Paolo");
+        assertEquals(7, changes.size());
+        assertTrue(changes.subList(5, 7).stream().allMatch(c -> c.getType() == ClipChange.Type.REMOVED));
+    }
+
+    @Test
+    public void testUndoRedo() {
+        assertFalse(manager.canUndo());
+        manager.addChannel(RPRole.RoleType.SPEECH, "Paolo", Optional.empty());
+        try {
+            manager.addClip(RPPart.PartType.SPEECH, "Song", Optional.empty(), "Paolo",
+                    0.0d, 240000d, Optional.empty());
+            manager.splitClip("Song", "Paolo", 120000d);
+            manager.setClipTimeOut("Song", "Paolo", 180000d);
+            manager.moveClip("Song(1)", "Paolo", 300000d);
+        } catch (ImportException | ClipNotFoundException e) {
+            fail();
+        }
+        assertEquals(300000d, manager.getClipTime("Song(1)", "Paolo"));
+        manager.undo();
+        assertEquals(0.0, manager.getClipTime("Song(1)", "Paolo"));
+        manager.undo();
+        assertEquals(120000d, manager.getClipDuration("Song"));
+        manager.undo();
+        assertFalse(manager.getClipLinker().clipExists("Song(1)"));
+        assertEquals(0.0, manager.getClipTime("Song", "Paolo"));
+        assertEquals(240000d, manager.getClipDuration("Song"));
+        manager.redo();
+        manager.redo();
+        assertEquals(60000d, manager.getClipDuration("Song"));
+        assertEquals(0.0, manager.getClipTime("Song(1)", "Paolo"));
+        manager.undo();
+        manager.undo();
+        manager.undo();
+        assertFalse(manager.getClipLinker().clipExists("Song"));
+        manager.undo();
+        assertThrows(NoSuchElementException.class, () -> manager.getGroup("Paolo"));
+        assertEquals(0, manager.getGroupList("Speech").size());
+        assertFalse(manager.canUndo());
+        assertThrows(IllegalStateException.class, () -> manager.undo());
+        manager.redo();
+        manager.addSection("Intro", Optional.empty(), 0.0d, 1000d);
+        assertFalse(manager.canRedo());
+        assertEquals(1, manager.getGroupList("Speech").size());
+        manager.undo();
+        assertTrue(manager.getSections().isEmpty());
+    }
+
+    @Test
+    public void testReturnsAndSends() {
+        manager.addChannel(RPRole.RoleType.SPEECH, "Paolo", Optional.empty());
+        manager.createReturn("Reverb");
+        manager.createReturn("Delay");
+        assertEquals(1, manager.getRoles().size());
+        assertEquals(2, manager.getReturns().size());
+        assertThrows(IllegalArgumentException.class, () -> manager.createReturn("Paolo"));
+        manager.setSend("Paolo", "Reverb", 0.5f, false);
+        manager.setSend("Paolo", "Reverb", 0.8f, true);
+        assertEquals(List.of(new ChannelSend("Paolo", 0.8f, true)), manager.getSends("Reverb"));
+        assertEquals(1, manager.getChannelFromTitle("Paolo").getSends().size());
+        // a return channel cannot send to another one
+        assertThrows(IllegalArgumentException.class, () -> manager.setSend("Reverb", "Delay", 0.5f, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.addToGroup(manager.getReturns().get(0), "Speech"));
+        assertThrows(NoSuchElementException.class, () -> manager.setSend("Paolo", "Chorus", 0.5f, false));
+        manager.undo();
+        assertEquals(0.5f, manager.getChannelFromTitle("Paolo").getSends().get(0).getLevel());
+        manager.undo();
+        assertTrue(manager.getSends("Reverb").isEmpty());
+        assertTrue(manager.getChannelFromTitle("Paolo").getSends().isEmpty());
+        manager.redo();
+        manager.redo();
+        assertEquals(0.8f, manager.getChannelFromTitle("Paolo").getSends().get(0).getLevel());
+        // removing a channel removes its sends
+        manager.removeChannel("Paolo");
+        assertTrue(manager.getSends("Reverb").isEmpty());
+        manager.undo();
+        assertEquals(1, manager.getSends("Reverb").size());
+        assertEquals(1, manager.getChannelFromTitle("Paolo").getSends().size());
+        manager.removeReturn("Reverb");
+        assertTrue(manager.getChannelFromTitle("Paolo").getSends().isEmpty());
+        assertEquals(1, manager.getReturns().size());
+    }
+
+    @Test
+    public void testTakes() throws IOException, ClipNotFoundException {
+        manager.addChannel(RPRole.RoleType.SPEECH, "Paolo", Optional.empty());
+        manager.addChannel(RPRole.RoleType.SPEECH, "Stefano", Optional.empty());
+        final File first = this.takeFile(1000d);
+        final File second = this.takeFile(1000d);
+        final File third = this.takeFile(500d);
+        try {
+            assertEquals(List.of("Paolo take 1"), manager.addTakes(List.of(new Take("Paolo", first, 100d, 1000d, 0))));
+            // a take recorded again with the same punch replaces the previous one
+            assertEquals(List.of("Paolo take 2", "Stefano take 1"), manager.addTakes(List.of(
+                    new Take("Paolo", second, 100d, 1000d, 0), new Take("Stefano", third, 100d, 500d, 0))));
+        } catch (ImportException e) {
+            fail();
+        }
+        assertFalse(manager.getClipLinker().clipExists("Paolo take 1"));
+        assertEquals(List.of("Paolo take 2"), this.partTitles("Paolo"));
+        assertEquals(100d, manager.getClipTime("Paolo take 2", "Paolo"));
+        // the whole recording is undone at once
+        manager.undo();
+        assertEquals(List.of("Paolo take 1"), this.partTitles("Paolo"));
+        assertTrue(this.partTitles("Stefano").isEmpty());
+        // a shorter take cuts the clip it begins together with
+        try {
+            manager.addTakes(List.of(new Take("Paolo", third, 100d, 500d, 0)));
+        } catch (ImportException e) {
+            fail();
+        }
+        assertEquals(600d, manager.getClipTime("Paolo take 1", "Paolo"), 1e-6);
+        assertEquals(500d, manager.getClipDuration("Paolo take 1"), 1e-6);
+        assertEquals(100d, manager.getClipTime("Paolo take 2", "Paolo"));
+        // the takes that can be loaded are added even if another one cannot
+        final File missing = new File(first.getParentFile(), first.getName() + ".missing");
+        assertThrows(ImportException.class, () -> manager.addTakes(List.of(
+                new Take("Paolo", missing, 2000d, 1000d, 0), new Take("Stefano", second, 0.0, 1000d, 0))));
+        assertEquals(List.of("Stefano take 1"), this.partTitles("Stefano"));
+        assertEquals(2, manager.getPartList("Paolo").size());
+    }
+
+    private File takeFile(final double duration) throws IOException {
+        final File file = File.createTempFile("take", ".wav");
+        file.deleteOnExit();
+        new Sample(duration, 1, manager.getAudioContext().getSampleRate()).write(file.getAbsolutePath());
+        return file;
+    }
+
+    private List<String> partTitles(final String channel) {
+        return manager.getPartList(channel).stream().map(RPPart::getTitle).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,66 @@
+package profiling;
+
+import daw.core.audioprocessing.BasicProcessingUnitBuilder;
+import daw.core.channel.BasicChannelFactory;
+import daw.core.profiling.DspProfiler;
+import daw.core.profiling.LoadCounter;
+import daw.core.profiling.LoadReport;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.ugens.Static;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDspProfiler {
+
+    @Test
+    public void testLoad() {
+        final var ac = AudioContextManager.getAudioContext();
+        final var channel = new BasicChannelFactory().basic();
+        channel.addProcessingUnit(new BasicProcessingUnitBuilder().lookAheadGate(2).build());
+        final var effect = channel.getProcessingUnit().orElseThrow().getEffectAtPosition(0);
+        channel.connectSource(new Static(ac, 0.5f));
+        ac.out.addInput(channel.getOutput());
+        try {
+            DspProfiler.setEnabled(false);
+            ac.runForNMillisecondsNonRealTime(50);
+            // nothing is recorded while the profiler is disabled
+            assertFalse(channel.getLoad().isCurrent());
+            DspProfiler.setEnabled(true);
+            ac.runForNMillisecondsNonRealTime(100);
+            final LoadReport report = new LoadReport.Builder(DspProfiler.getDeadlineNanos())
+                    .channel("voice", channel.getLoad())
+                    .effect("LookAheadGate", effect.getLoad())
+                    .build();
+            final LoadReport.Entry strip = report.getEntry(LoadReport.Category.CHANNEL, "voice").orElseThrow();
+            final LoadReport.Entry gate = report.getEntry(LoadReport.Category.EFFECT, "LookAheadGate").orElseThrow();
+            assertTrue(strip.getBuffers() > 0);
+            assertEquals(strip.getBuffers(), gate.getBuffers());
+            // the strip is timed with its effects
+            assertTrue(strip.getAverage() >= gate.getAverage());
+            assertTrue(strip.getMax() >= strip.getAverage());
+            assertEquals(100 * strip.getAverage() / report.getDeadline(), strip.getAverageLoad(), 1e-9);
+            assertEquals(3, report.toCsv().lines().count());
+            // enabling the profiler again starts a new profile
+            final long buffers = channel.getLoad().getBuffers();
+            DspProfiler.setEnabled(false);
+            DspProfiler.setEnabled(true);
+            assertFalse(channel.getLoad().isCurrent());
+            ac.runForNMillisecondsNonRealTime(10);
+            assertTrue(channel.getLoad().getBuffers() < buffers);
+        } finally {
+            DspProfiler.setEnabled(false);
+            ac.out.removeAllConnections(channel.getOutput());
+        }
+    }
+
+    @Test
+    public void testReport() {
+        final LoadReport report = new LoadReport.Builder(1000).bus("Master", new LoadCounter())
+                .build();
+        // the counters that have not recorded anything are left out
+        assertTrue(report.getEntries().isEmpty());
+        assertEquals(1.0, report.getDeadline());
+        assertThrows(IllegalArgumentException.class, () -> new LoadReport.Builder(0));
+    }
+
+}
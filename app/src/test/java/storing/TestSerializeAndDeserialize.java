@@ -7,9 +7,13 @@ import controller.storing.Writer;
 import controller.storing.RPFileWriter;
 import controller.storing.deserialization.ManagerDeserializer;
 import controller.storing.serialization.ManagerSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import daw.core.audioprocessing.BasicProcessingUnitBuilder;
+import daw.core.clip.SampleClip;
 import daw.manager.ImportException;
 import daw.manager.Manager;
+import daw.utilities.AudioContextManager;
+import net.beadsproject.beads.data.Sample;
 import org.junit.jupiter.api.Test;
 import planning.*;
 import java.io.File;
@@ -80,4 +84,25 @@ public class TestSerializeAndDeserialize {
         }
     }
 
+    @Test
+    public void resampledClipSerializationAndDeserialization() throws IOException, ImportException {
+        // a file at another rate than the project is loaded from the cache, not from the file itself
+        final File file = File.createTempFile("resampled", ".wav");
+        file.deleteOnExit();
+        new Sample(1000.0, 1, AudioContextManager.getAudioContext().getSampleRate() / 2)
+                .write(file.getAbsolutePath());
+        final Manager man = new Manager();
+        man.addChannel(RPRole.RoleType.SPEECH, "Giacomo", Optional.empty());
+        man.addClip(RPPart.PartType.SPEECH, "part", Optional.empty(), "Giacomo", 10.00, 1000.00,
+                Optional.of(file));
+        final String serialized = new ManagerSerializer().serialize(man);
+        assertTrue(serialized.contains(new ObjectMapper().writeValueAsString(file.getAbsolutePath())));
+        final var manAfterRead = new ManagerDeserializer().deserialize(serialized);
+        assertEquals(file.getAbsoluteFile(),
+                ((SampleClip) manAfterRead.getClipFromTitle("part")).getContentFile().getAbsoluteFile());
+        // the content is as long at the rate of the project as it is in the file
+        assertEquals(1000.00, manAfterRead.getClipDuration("part"), 1.00);
+        assertEquals(serialized, new ManagerSerializer().serialize(manAfterRead));
+    }
+
 }